@@ -0,0 +1,228 @@
+package prototypev.PermissiveFov.Collision;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+
+/**
+ * Marks which tiles of a level block movement, one bit per tile.
+ * All co-ordinates are in tiles; boxes and rays may start and end part of the way into a tile.
+ * Anything outside of the level is collidable.
+ */
+public class CollisionMap {
+    private final TileBitSet collidableTiles;
+
+    /**
+     * Creates a new CollisionMap, where walls and undefined tiles are collidable.
+     *
+     * @param level The level.
+     */
+    public CollisionMap(Level level) {
+        collidableTiles = new TileBitSet(level.width, level.height);
+        update(level, 0, 0, level.width, level.height);
+    }
+
+    /**
+     * Casts a ray, visiting the tiles it passes through in order until it enters a collidable one.
+     *
+     * @param startX The horizontal component of the start of the ray.
+     * @param startY The vertical component of the start of the ray.
+     * @param endX   The horizontal component of the end of the ray.
+     * @param endY   The vertical component of the end of the ray.
+     * @return The fraction of the ray travelled before it enters a collidable tile, or 1 if it enters none.
+     */
+    public float castRay(float startX, float startY, float endX, float endY) {
+        int tileX = (int) Math.floor(startX);
+        int tileY = (int) Math.floor(startY);
+
+        if (isCollidable(tileX, tileY)) {
+            return 0;
+        }
+
+        float deltaX = endX - startX;
+        float deltaY = endY - startY;
+
+        int stepX = deltaX > 0 ? 1 : -1;
+        int stepY = deltaY > 0 ? 1 : -1;
+
+        // The fraction of the ray needed to cross a whole tile along each axis
+        float tDeltaX = deltaX != 0 ? Math.abs(1 / deltaX) : Float.POSITIVE_INFINITY;
+        float tDeltaY = deltaY != 0 ? Math.abs(1 / deltaY) : Float.POSITIVE_INFINITY;
+
+        // The fraction of the ray at which it crosses the next tile boundary along each axis
+        float tMaxX = deltaX > 0 ? (tileX + 1 - startX) * tDeltaX : deltaX < 0 ? (startX - tileX) * tDeltaX : Float.POSITIVE_INFINITY;
+        float tMaxY = deltaY > 0 ? (tileY + 1 - startY) * tDeltaY : deltaY < 0 ? (startY - tileY) * tDeltaY : Float.POSITIVE_INFINITY;
+
+        while (true) {
+            float t;
+            if (tMaxX < tMaxY) {
+                t = tMaxX;
+                tileX += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                t = tMaxY;
+                tileY += stepY;
+                tMaxY += tDeltaY;
+            }
+
+            if (t > 1) {
+                return 1;
+            }
+
+            if (isCollidable(tileX, tileY)) {
+                return t;
+            }
+        }
+    }
+
+    /**
+     * @param left   The left bound of the box.
+     * @param top    The top bound of the box.
+     * @param width  The width of the box.
+     * @param height The height of the box.
+     * @return true if the box overlaps any collidable tile; otherwise false.
+     */
+    public boolean isAreaCollidable(float left, float top, float width, float height) {
+        int firstColumn = (int) Math.floor(left);
+        int lastColumn = (int) Math.ceil(left + width) - 1;
+
+        for (int x = firstColumn; x <= lastColumn; x++) {
+            if (isColumnCollidable(x, top, height)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return true if the tile at the specified co-ordinates blocks movement; otherwise false.
+     */
+    public boolean isCollidable(int x, int y) {
+        return collidableTiles.isOutOfBounds(x, y) || collidableTiles.get(x, y);
+    }
+
+    /**
+     * Sweeps a box horizontally until it touches a collidable tile.
+     * The box is expected to start clear of collidable tiles.
+     *
+     * @param left   The left bound of the box.
+     * @param top    The top bound of the box.
+     * @param width  The width of the box.
+     * @param height The height of the box.
+     * @param deltaX The horizontal distance to move.
+     * @return The horizontal distance the box can move, which is no further than requested.
+     */
+    public float sweepX(float left, float top, float width, float height, float deltaX) {
+        if (deltaX > 0) {
+            float right = left + width;
+            int lastColumn = (int) Math.ceil(right + deltaX) - 1;
+
+            for (int x = (int) Math.ceil(right); x <= lastColumn; x++) {
+                if (isColumnCollidable(x, top, height)) {
+                    return x - right;
+                }
+            }
+        } else if (deltaX < 0) {
+            int lastColumn = (int) Math.floor(left + deltaX);
+
+            for (int x = (int) Math.floor(left) - 1; x >= lastColumn; x--) {
+                if (isColumnCollidable(x, top, height)) {
+                    return x + 1 - left;
+                }
+            }
+        }
+
+        return deltaX;
+    }
+
+    /**
+     * Sweeps a box vertically until it touches a collidable tile.
+     * The box is expected to start clear of collidable tiles.
+     *
+     * @param left   The left bound of the box.
+     * @param top    The top bound of the box.
+     * @param width  The width of the box.
+     * @param height The height of the box.
+     * @param deltaY The vertical distance to move.
+     * @return The vertical distance the box can move, which is no further than requested.
+     */
+    public float sweepY(float left, float top, float width, float height, float deltaY) {
+        if (deltaY > 0) {
+            float bottom = top + height;
+            int lastRow = (int) Math.ceil(bottom + deltaY) - 1;
+
+            for (int y = (int) Math.ceil(bottom); y <= lastRow; y++) {
+                if (isRowCollidable(y, left, width)) {
+                    return y - bottom;
+                }
+            }
+        } else if (deltaY < 0) {
+            int lastRow = (int) Math.floor(top + deltaY);
+
+            for (int y = (int) Math.floor(top) - 1; y >= lastRow; y--) {
+                if (isRowCollidable(y, left, width)) {
+                    return y + 1 - top;
+                }
+            }
+        }
+
+        return deltaY;
+    }
+
+    /**
+     * Marks the tiles in a rectangle of the level as collidable or not again, after they have changed.
+     *
+     * @param level  The level.
+     * @param left   The left bound of the rectangle.
+     * @param top    The top bound of the rectangle.
+     * @param width  The number of tiles spanning the rectangle horizontally.
+     * @param height The number of tiles spanning the rectangle vertically.
+     */
+    public void update(Level level, int left, int top, int width, int height) {
+        for (int y = top; y < top + height; y++) {
+            for (int x = left; x < left + width; x++) {
+                TileType tileType = level.getTileTypeAt(x, y);
+                collidableTiles.set(x, y, tileType == TileType.WALL || tileType == TileType.UNDEFINED);
+            }
+        }
+    }
+
+    /**
+     * @param x      The column.
+     * @param top    The top bound of the box.
+     * @param height The height of the box.
+     * @return true if any tile of the column spanned by the box is collidable; otherwise false.
+     */
+    private boolean isColumnCollidable(int x, float top, float height) {
+        int lastRow = (int) Math.ceil(top + height) - 1;
+
+        for (int y = (int) Math.floor(top); y <= lastRow; y++) {
+            if (isCollidable(x, y)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param y     The row.
+     * @param left  The left bound of the box.
+     * @param width The width of the box.
+     * @return true if any tile of the row spanned by the box is collidable; otherwise false.
+     */
+    private boolean isRowCollidable(int y, float left, float width) {
+        int lastColumn = (int) Math.ceil(left + width) - 1;
+
+        for (int x = (int) Math.floor(left); x <= lastColumn; x++) {
+            if (isCollidable(x, y)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -161,6 +161,17 @@ public class Cell {
         this.isVisited = isVisited;
     }
 
+    /**
+     * Sets every side at once.
+     *
+     * @param packedSides The sides, packed as in a {@link Prefab}.
+     */
+    void setPackedSides(int packedSides) {
+        for (DirectionType direction : DirectionType.values()) {
+            sides.put(direction, Prefab.toSideType(packedSides, direction));
+        }
+    }
+
     /**
      * Sets the side type in the specified direction.
      *
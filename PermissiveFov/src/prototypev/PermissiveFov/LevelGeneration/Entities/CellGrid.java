@@ -0,0 +1,111 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+
+/**
+ * Helpers for working on the cells of a map by index, row by row, where the cell at (x, y) has index
+ * {@code y * width + x}, relative to the map.
+ * <p/>
+ * Walls are encoded as ints, the index of the cell to their north or west shifted left once,
+ * with the low bit set for a south wall and clear for an east wall.
+ * <p/>
+ * Sets of cells are tracked in a union-find over their indices, an array holding the parent of each cell,
+ * where the root of each set is its own parent.
+ */
+public class CellGrid {
+    private CellGrid() {
+    }
+
+    /**
+     * @param parents The union-find parent of each cell.
+     * @param index   The index of the cell.
+     * @return The index of the root of the cell's set.
+     */
+    public static int find(int[] parents, int index) {
+        while (parents[index] != index) {
+            // Path halving: point every other cell on the way at its grandparent
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+
+        return index;
+    }
+
+    /**
+     * @param index     The index of the cell.
+     * @param direction The direction.
+     * @param width     The number of cells spanning the map horizontally.
+     * @return The index of the adjacent cell, which is assumed to be in the map.
+     */
+    public static int getAdjacentIndex(int index, DirectionType direction, int width) {
+        switch (direction) {
+            case NORTH:
+                return index - width;
+
+            case WEST:
+                return index - 1;
+
+            case SOUTH:
+                return index + width;
+
+            case EAST:
+                return index + 1;
+
+            default:
+                // This should not happen
+                throw new IllegalStateException(String.format("Direction %s is invalid.", direction.getName()));
+        }
+    }
+
+    /**
+     * @param from  The index of a cell.
+     * @param to    The index of an adjacent cell.
+     * @param width The number of cells spanning the map horizontally.
+     * @return The direction from the first cell to the second.
+     */
+    public static DirectionType getDirection(int from, int to, int width) {
+        int delta = to - from;
+
+        if (delta == -width) {
+            return DirectionType.NORTH;
+        } else if (delta == width) {
+            return DirectionType.SOUTH;
+        } else if (delta == -1) {
+            return DirectionType.WEST;
+        } else {
+            return DirectionType.EAST;
+        }
+    }
+
+    /**
+     * @param index The index of the cell.
+     * @return The wall to the east of the cell.
+     */
+    public static int getEastWall(int index) {
+        return index << 1;
+    }
+
+    /**
+     * @param index The index of the cell.
+     * @return The wall to the south of the cell.
+     */
+    public static int getSouthWall(int index) {
+        return (index << 1) | 1;
+    }
+
+    /**
+     * @param wall The wall.
+     * @return The direction of the wall from the cell to its north or west, either south or east.
+     */
+    public static DirectionType getWallDirection(int wall) {
+        return (wall & 1) != 0 ? DirectionType.SOUTH : DirectionType.EAST;
+    }
+
+    /**
+     * @param wall The wall.
+     * @return The index of the cell to the north or west of the wall.
+     */
+    public static int getWallIndex(int wall) {
+        return wall >>> 1;
+    }
+}
@@ -0,0 +1,76 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The floors of a dungeon, each kept in the binary level format, and the stairs between them.
+ * <p/>
+ * The stairs down from a floor are on the same tile as the stairs up from the floor below,
+ * so there is one stair position for each pair of neighbouring floors.
+ */
+public class Dungeon {
+    private final byte[][] floors;
+    private final int[] stairPositions;
+
+    /**
+     * Creates a new Dungeon.
+     *
+     * @param floors         Each floor in the binary level format, from the top down.
+     * @param stairPositions The tile co-ordinates of the stairs below each floor but the last, as consecutive x and y pairs.
+     */
+    public Dungeon(byte[][] floors, int[] stairPositions) {
+        if (floors.length < 1) {
+            throw new IllegalArgumentException("A dungeon must have at least 1 floor!");
+        }
+
+        if (stairPositions.length != (floors.length - 1) * 2) {
+            throw new IllegalArgumentException("There must be exactly 1 stair position between each pair of floors!");
+        }
+
+        this.floors = floors;
+        this.stairPositions = stairPositions;
+    }
+
+    /**
+     * @param floor The index of the floor, from the top down.
+     * @return A read-only view of the floor in the binary level format.
+     */
+    public ByteBuffer getFloorData(int floor) {
+        return ByteBuffer.wrap(floors[floor]).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return The number of floors.
+     */
+    public int getFloorCount() {
+        return floors.length;
+    }
+
+    /**
+     * @return The number of bytes taken by every floor together.
+     */
+    public int getSize() {
+        int size = 0;
+        for (byte[] floor : floors) {
+            size += floor.length;
+        }
+
+        return size;
+    }
+
+    /**
+     * @param floor The index of the floor, which must not be the last.
+     * @return The horizontal component of the stairs down from the floor.
+     */
+    public int getStairsX(int floor) {
+        return stairPositions[floor * 2];
+    }
+
+    /**
+     * @param floor The index of the floor, which must not be the last.
+     * @return The vertical component of the stairs down from the floor.
+     */
+    public int getStairsY(int floor) {
+        return stairPositions[floor * 2 + 1];
+    }
+}
@@ -5,14 +5,23 @@ import prototypev.PermissiveFov.LevelGeneration.TileType;
 import java.util.Arrays;
 
 public class Level {
+    private static final int DIRTY_REGION_SIZE = 4;
+    private static final int ROOM_BOUNDS_SIZE = 4;
     public final int height;
     public final int width;
+    private final TileBitSet exploredTiles;
     private final TileType[][] tileTypes;
+    private int dirtyRegionCount;
+    private int[] dirtyRegions = new int[0];
+    private int roomCount;
+    private int[] roomBounds = new int[0];
+    private int[] roomIndices;
 
     public Level(int width, int height) {
         this.width = width;
         this.height = height;
 
+        exploredTiles = new TileBitSet(width, height);
         tileTypes = new TileType[height][width];
 
         // Initialize all cells to WALL
@@ -21,6 +30,169 @@ public class Level {
         }
     }
 
+    /**
+     * Adds the bounds of a room, in tile co-ordinates.
+     *
+     * @param left   The left bound.
+     * @param top    The top bound.
+     * @param width  The number of tiles spanning the room horizontally.
+     * @param height The number of tiles spanning the room vertically.
+     */
+    public void addRoom(int left, int top, int width, int height) {
+        if (isOutOfBounds(left, top) || isOutOfBounds(left + width - 1, top + height - 1)) {
+            throw new IllegalArgumentException(String.format("Room at (%d, %d) will not fit!", left, top));
+        }
+
+        if (roomBounds.length < (roomCount + 1) * ROOM_BOUNDS_SIZE) {
+            roomBounds = Arrays.copyOf(roomBounds, Math.max(ROOM_BOUNDS_SIZE, roomBounds.length * 2));
+        }
+
+        int offset = roomCount * ROOM_BOUNDS_SIZE;
+        roomBounds[offset] = left;
+        roomBounds[offset + 1] = top;
+        roomBounds[offset + 2] = width;
+        roomBounds[offset + 3] = height;
+
+        if (roomIndices == null) {
+            roomIndices = new int[this.width * this.height];
+            Arrays.fill(roomIndices, -1);
+        }
+
+        // The most recently added room owns any tiles it overlaps
+        for (int y = top; y < top + height; y++) {
+            Arrays.fill(roomIndices, y * this.width + left, y * this.width + left + width, roomCount);
+        }
+
+        roomCount++;
+    }
+
+    /**
+     * Changes the type of a tile after the level has been generated, marking it dirty if it actually changed.
+     *
+     * @param x        The horizontal component.
+     * @param y        The vertical component.
+     * @param tileType The new tile type.
+     */
+    public void changeTileTypeAt(int x, int y, TileType tileType) {
+        if (tileTypes[y][x] != tileType) {
+            tileTypes[y][x] = tileType;
+            markDirty(x, y, 1, 1);
+        }
+    }
+
+    /**
+     * Forgets all dirty regions, once whatever depends on the changed tiles has been updated.
+     */
+    public void clearDirtyRegions() {
+        dirtyRegionCount = 0;
+    }
+
+    /**
+     * Remembers the tiles seen this turn as explored.
+     *
+     * @param visibleTiles The tiles that are visible, such as the result of a field of view calculation.
+     * @param top          The first row holding visible tiles.
+     * @param height       The number of rows holding visible tiles.
+     * @return true if any tile was explored for the first time; otherwise false.
+     */
+    public boolean explore(TileBitSet visibleTiles, int top, int height) {
+        return exploredTiles.or(visibleTiles, top, height);
+    }
+
+    /**
+     * @return The number of dirty regions.
+     */
+    public int getDirtyRegionCount() {
+        return dirtyRegionCount;
+    }
+
+    /**
+     * @param index The index of the dirty region.
+     * @return The number of tiles spanning the dirty region vertically.
+     */
+    public int getDirtyRegionHeight(int index) {
+        return dirtyRegions[getDirtyRegionOffset(index) + 3];
+    }
+
+    /**
+     * @param index The index of the dirty region.
+     * @return The left bound of the dirty region.
+     */
+    public int getDirtyRegionLeft(int index) {
+        return dirtyRegions[getDirtyRegionOffset(index)];
+    }
+
+    /**
+     * @param index The index of the dirty region.
+     * @return The top bound of the dirty region.
+     */
+    public int getDirtyRegionTop(int index) {
+        return dirtyRegions[getDirtyRegionOffset(index) + 1];
+    }
+
+    /**
+     * @param index The index of the dirty region.
+     * @return The number of tiles spanning the dirty region horizontally.
+     */
+    public int getDirtyRegionWidth(int index) {
+        return dirtyRegions[getDirtyRegionOffset(index) + 2];
+    }
+
+    /**
+     * @return The tiles that have ever been seen.
+     */
+    public TileBitSet getExploredTiles() {
+        return exploredTiles;
+    }
+
+    /**
+     * @return The number of rooms in this level.
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The number of tiles spanning the room vertically.
+     */
+    public int getRoomHeight(int index) {
+        return roomBounds[getRoomOffset(index) + 3];
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return The index of the room covering the tile at the specified co-ordinates, or -1 if there is none.
+     */
+    public int getRoomIndexAt(int x, int y) {
+        return roomIndices != null ? roomIndices[y * width + x] : -1;
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The left bound of the room, in tile co-ordinates.
+     */
+    public int getRoomLeft(int index) {
+        return roomBounds[getRoomOffset(index)];
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The top bound of the room, in tile co-ordinates.
+     */
+    public int getRoomTop(int index) {
+        return roomBounds[getRoomOffset(index) + 1];
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The number of tiles spanning the room horizontally.
+     */
+    public int getRoomWidth(int index) {
+        return roomBounds[getRoomOffset(index) + 2];
+    }
+
     public TileType getTileTypeAt(int x, int y) {
         return tileTypes[y][x];
     }
@@ -34,10 +206,90 @@ public class Level {
         return x < 0 || y < 0 || y >= height || x >= width;
     }
 
+    /**
+     * Marks a rectangle of tiles as changed.
+     * A region that overlaps or touches an existing dirty region is merged into it, so edits to neighbouring tiles
+     * are updated together.
+     *
+     * @param left   The left bound.
+     * @param top    The top bound.
+     * @param width  The number of tiles spanning the region horizontally.
+     * @param height The number of tiles spanning the region vertically.
+     */
+    public void markDirty(int left, int top, int width, int height) {
+        if (isOutOfBounds(left, top) || isOutOfBounds(left + width - 1, top + height - 1)) {
+            throw new IllegalArgumentException(String.format("Dirty region at (%d, %d) is out of bounds!", left, top));
+        }
+
+        int right = left + width;
+        int bottom = top + height;
+
+        for (int offset = 0; offset < dirtyRegionCount * DIRTY_REGION_SIZE; offset += DIRTY_REGION_SIZE) {
+            int dirtyLeft = dirtyRegions[offset];
+            int dirtyTop = dirtyRegions[offset + 1];
+            int dirtyRight = dirtyLeft + dirtyRegions[offset + 2];
+            int dirtyBottom = dirtyTop + dirtyRegions[offset + 3];
+
+            if (left <= dirtyRight && right >= dirtyLeft && top <= dirtyBottom && bottom >= dirtyTop) {
+                int mergedLeft = Math.min(left, dirtyLeft);
+                int mergedTop = Math.min(top, dirtyTop);
+
+                dirtyRegions[offset] = mergedLeft;
+                dirtyRegions[offset + 1] = mergedTop;
+                dirtyRegions[offset + 2] = Math.max(right, dirtyRight) - mergedLeft;
+                dirtyRegions[offset + 3] = Math.max(bottom, dirtyBottom) - mergedTop;
+                return;
+            }
+        }
+
+        if (dirtyRegions.length < (dirtyRegionCount + 1) * DIRTY_REGION_SIZE) {
+            dirtyRegions = Arrays.copyOf(dirtyRegions, Math.max(DIRTY_REGION_SIZE, dirtyRegions.length * 2));
+        }
+
+        int offset = dirtyRegionCount * DIRTY_REGION_SIZE;
+        dirtyRegions[offset] = left;
+        dirtyRegions[offset + 1] = top;
+        dirtyRegions[offset + 2] = width;
+        dirtyRegions[offset + 3] = height;
+
+        dirtyRegionCount++;
+    }
+
+    /**
+     * Sets the type of a tile while the level is being built. Use {@link #changeTileTypeAt} to also mark it dirty.
+     *
+     * @param x        The horizontal component.
+     * @param y        The vertical component.
+     * @param tileType The tile type.
+     */
     public void setTileTypeAt(int x, int y, TileType tileType) {
         tileTypes[y][x] = tileType;
     }
 
+    /**
+     * @param index The index of the dirty region.
+     * @return The offset of the dirty region's bounds in the dirty region table.
+     */
+    private int getDirtyRegionOffset(int index) {
+        if (index < 0 || index >= dirtyRegionCount) {
+            throw new IllegalArgumentException(String.format("Dirty region index %d is out of range!", index));
+        }
+
+        return index * DIRTY_REGION_SIZE;
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The offset of the room's bounds in the room bounds table.
+     */
+    private int getRoomOffset(int index) {
+        if (index < 0 || index >= roomCount) {
+            throw new IllegalArgumentException(String.format("Room index %d is out of range!", index));
+        }
+
+        return index * ROOM_BOUNDS_SIZE;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
@@ -0,0 +1,76 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+/**
+ * A snapshot of the quality of a map, taken from the counters a {@link Room} keeps once its metrics are enabled.
+ * <p/>
+ * Corridors are only counted outside inner rooms. A corridor runs between junctions, dead ends and cells beside
+ * doors; the cells in between, with exactly 2 empty sides and no door, are its passage cells.
+ */
+public class LevelMetrics {
+    public final int cellCount;
+    public final int corridorCellCount;
+    public final int deadEndCount;
+    public final int doorCount;
+    public final int roomCellCount;
+    private final int corridorEndCount;
+    private final int passageCellCount;
+
+    /**
+     * Creates a new LevelMetrics.
+     *
+     * @param cellCount         The number of cells in the map.
+     * @param roomCellCount     The number of cells covered by inner rooms.
+     * @param corridorCellCount The number of corridor cells outside inner rooms.
+     * @param deadEndCount      The number of dead-end corridor cells outside inner rooms.
+     * @param doorCount         The number of doors.
+     * @param passageCellCount  The number of passage cells.
+     * @param corridorEndCount  The number of empty sides leading out of corridor cells that are not passage cells.
+     */
+    public LevelMetrics(
+            int cellCount,
+            int roomCellCount,
+            int corridorCellCount,
+            int deadEndCount,
+            int doorCount,
+            int passageCellCount,
+            int corridorEndCount) {
+
+        this.cellCount = cellCount;
+        this.roomCellCount = roomCellCount;
+        this.corridorCellCount = corridorCellCount;
+        this.deadEndCount = deadEndCount;
+        this.doorCount = doorCount;
+        this.passageCellCount = passageCellCount;
+        this.corridorEndCount = corridorEndCount;
+    }
+
+    /**
+     * @return The average number of passage cells in each corridor. Corridors that only loop back on themselves,
+     * without a junction, dead end or door anywhere along them, count as a single corridor.
+     */
+    public float getAverageCorridorLength() {
+        // Each corridor has 2 ends
+        int corridorCount = corridorEndCount / 2;
+
+        if (corridorCount == 0) {
+            return passageCellCount;
+        }
+
+        return (float) passageCellCount / corridorCount;
+    }
+
+    /**
+     * @return A value between 0 - 1, the fraction of cells outside inner rooms that are corridors.
+     */
+    public float getCorridorRatio() {
+        int openCellCount = cellCount - roomCellCount;
+        return openCellCount > 0 ? (float) corridorCellCount / openCellCount : 0;
+    }
+
+    /**
+     * @return A value between 0 - 1, the fraction of cells covered by inner rooms.
+     */
+    public float getRoomCoverage() {
+        return (float) roomCellCount / cellCount;
+    }
+}
@@ -0,0 +1,53 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+/**
+ * Which doors of a level are locked, and where the key to each lock is, over the nodes and edges of a {@link RoomGraph}.
+ * <p/>
+ * Locks are kept apart from the sides of the cells, which stay {@link prototypev.PermissiveFov.LevelGeneration.SideType#DOOR}:
+ * a locked edge locks every door between its two nodes. There is one key for each type of lock.
+ */
+public class LockLayout {
+    public static final int NO_LOCK = -1;
+    private final int[] edgeLocks;
+    private final int[] keyNodes;
+
+    /**
+     * Creates a new LockLayout.
+     *
+     * @param edgeLocks The key type that opens each edge of the graph, or {@link #NO_LOCK} if it is not locked.
+     * @param keyNodes  The node each key type is found in.
+     */
+    public LockLayout(int[] edgeLocks, int[] keyNodes) {
+        for (int lock : edgeLocks) {
+            if (lock != NO_LOCK && (lock < 0 || lock >= keyNodes.length)) {
+                throw new IllegalArgumentException(String.format("Lock %d has no key!", lock));
+            }
+        }
+
+        this.edgeLocks = edgeLocks;
+        this.keyNodes = keyNodes;
+    }
+
+    /**
+     * @return The number of key types.
+     */
+    public int getKeyCount() {
+        return keyNodes.length;
+    }
+
+    /**
+     * @param key The key type.
+     * @return The node the key is found in.
+     */
+    public int getKeyNode(int key) {
+        return keyNodes[key];
+    }
+
+    /**
+     * @param edge The edge of the graph.
+     * @return The key type that opens the edge, or {@link #NO_LOCK} if it is not locked.
+     */
+    public int getLock(int edge) {
+        return edgeLocks[edge];
+    }
+}
@@ -0,0 +1,68 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+/**
+ * Where the player spawns, where the exit is and where the items are in a level, in tile co-ordinates.
+ */
+public class Placement {
+    public final int exitX;
+    public final int exitY;
+    public final int spawnX;
+    public final int spawnY;
+    private final int[] itemPositions;
+
+    /**
+     * Creates a new Placement.
+     *
+     * @param spawnX        The horizontal component of the spawn point.
+     * @param spawnY        The vertical component of the spawn point.
+     * @param exitX         The horizontal component of the exit.
+     * @param exitY         The vertical component of the exit.
+     * @param itemPositions The co-ordinates of each item, as consecutive x and y pairs.
+     */
+    public Placement(int spawnX, int spawnY, int exitX, int exitY, int[] itemPositions) {
+        if (itemPositions.length % 2 != 0) {
+            throw new IllegalArgumentException("Item positions must be pairs of co-ordinates!");
+        }
+
+        this.spawnX = spawnX;
+        this.spawnY = spawnY;
+        this.exitX = exitX;
+        this.exitY = exitY;
+        this.itemPositions = itemPositions;
+    }
+
+    /**
+     * @return The number of items placed.
+     */
+    public int getItemCount() {
+        return itemPositions.length / 2;
+    }
+
+    /**
+     * @param index The index of the item.
+     * @return The horizontal component of the item's location.
+     */
+    public int getItemX(int index) {
+        return itemPositions[getItemOffset(index)];
+    }
+
+    /**
+     * @param index The index of the item.
+     * @return The vertical component of the item's location.
+     */
+    public int getItemY(int index) {
+        return itemPositions[getItemOffset(index) + 1];
+    }
+
+    /**
+     * @param index The index of the item.
+     * @return The offset of the item's co-ordinates in the item positions.
+     */
+    private int getItemOffset(int index) {
+        if (index < 0 || index >= getItemCount()) {
+            throw new IllegalArgumentException(String.format("Item index %d is out of range!", index));
+        }
+
+        return index * 2;
+    }
+}
@@ -0,0 +1,237 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+
+import java.util.Arrays;
+
+/**
+ * A hand-authored room, such as a vault, stamped into a map as a whole.
+ * <p/>
+ * The sides of each cell are packed into a byte, 2 bits for each direction holding the value of its {@link SideType}.
+ * A door on the boundary of the prefab is a door slot: it is walled when the prefab is stamped, and only becomes a door
+ * if it faces a corridor once the map is complete. Doors inside the prefab are always doors.
+ * <p/>
+ * A prefab can also override the tiles it expands to, one byte for each tile holding the value of a {@link TileType},
+ * with {@link TileType#UNDEFINED} leaving the tile as it would be.
+ */
+public class Prefab {
+    private static final int SIDE_BITS = 2;
+    private static final int SIDE_MASK = 0x3;
+    private static final SideType[] SIDE_TYPES = new SideType[]{SideType.WALL, SideType.EMPTY, SideType.DOOR};
+    public final int height;
+    public final int width;
+    private final byte[] sides;
+    private final byte[] tileOverrides;
+
+    /**
+     * Creates a new Prefab.
+     *
+     * @param width         The number of cells spanning the prefab horizontally.
+     * @param height        The number of cells spanning the prefab vertically.
+     * @param sides         The packed sides of each cell, in row-major order.
+     * @param tileOverrides The tile type value of each tile it expands to, in row-major order, or null for none.
+     */
+    public Prefab(int width, int height, byte[] sides, byte[] tileOverrides) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Width and height must be positive!");
+        }
+
+        if (sides.length != width * height) {
+            throw new IllegalArgumentException("There must be exactly 1 side mask for each cell in the prefab!");
+        }
+
+        if (tileOverrides != null && tileOverrides.length != getTileWidth(width) * getTileHeight(height)) {
+            throw new IllegalArgumentException("There must be exactly 1 tile override for each tile in the prefab!");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.sides = sides;
+        this.tileOverrides = tileOverrides;
+    }
+
+    /**
+     * Creates a prefab from the cells of a room that is not part of a map.
+     *
+     * @param room          The room.
+     * @param tileOverrides The tile type of each tile it expands to, in row-major order, or null for none.
+     * @return The prefab.
+     */
+    public static Prefab fromRoom(Room room, TileType[] tileOverrides) {
+        byte[] sides = new byte[room.width * room.height];
+
+        int i = 0;
+        for (Cell cell : room.getCells()) {
+            int packedSides = 0;
+
+            for (DirectionType direction : DirectionType.values()) {
+                packedSides |= cell.getSide(direction).getValue() << (direction.getValue() * SIDE_BITS);
+            }
+
+            sides[i++] = (byte) packedSides;
+        }
+
+        byte[] tileOverrideValues = null;
+        if (tileOverrides != null) {
+            tileOverrideValues = new byte[tileOverrides.length];
+
+            for (int j = 0; j < tileOverrides.length; j++) {
+                tileOverrideValues[j] = (byte) tileOverrides[j].getValue();
+            }
+        }
+
+        return new Prefab(room.width, room.height, sides, tileOverrideValues);
+    }
+
+    /**
+     * Copies the packed sides and tile overrides, for writing.
+     *
+     * @param sides         Receives the packed sides of each cell.
+     * @param tileOverrides Receives the tile overrides, if there are any.
+     */
+    public void copyTo(byte[] sides, byte[] tileOverrides) {
+        System.arraycopy(this.sides, 0, sides, 0, this.sides.length);
+
+        if (this.tileOverrides != null) {
+            System.arraycopy(this.tileOverrides, 0, tileOverrides, 0, this.tileOverrides.length);
+        }
+    }
+
+    /**
+     * @param x The horizontal component, relative to the prefab.
+     * @param y The vertical component, relative to the prefab.
+     * @return The packed sides of the cell.
+     */
+    public int getPackedSides(int x, int y) {
+        return sides[y * width + x] & 0xFF;
+    }
+
+    /**
+     * @param x         The horizontal component, relative to the prefab.
+     * @param y         The vertical component, relative to the prefab.
+     * @param direction The direction of the side.
+     * @return The side of the cell, as authored.
+     */
+    public SideType getSide(int x, int y, DirectionType direction) {
+        return toSideType(getPackedSides(x, y), direction);
+    }
+
+    /**
+     * @return The number of tiles spanning the prefab vertically once expanded.
+     */
+    public int getTileHeight() {
+        return getTileHeight(height);
+    }
+
+    /**
+     * @param x The horizontal component, relative to the tiles of the prefab.
+     * @param y The vertical component, relative to the tiles of the prefab.
+     * @return The tile type the tile is overridden with, or {@link TileType#UNDEFINED} if it is not overridden.
+     */
+    public TileType getTileOverride(int x, int y) {
+        if (tileOverrides == null) {
+            return TileType.UNDEFINED;
+        }
+
+        int value = tileOverrides[y * getTileWidth() + x];
+        for (TileType tileType : TileType.values()) {
+            if (tileType.getValue() == value) {
+                return tileType;
+            }
+        }
+
+        throw new IllegalStateException(String.format("Tile override %d is invalid!", value));
+    }
+
+    /**
+     * @return The number of tiles spanning the prefab horizontally once expanded.
+     */
+    public int getTileWidth() {
+        return getTileWidth(width);
+    }
+
+    /**
+     * @return true if the prefab overrides any of its tiles; otherwise false.
+     */
+    public boolean hasTileOverrides() {
+        return tileOverrides != null;
+    }
+
+    /**
+     * @param x         The horizontal component, relative to the prefab.
+     * @param y         The vertical component, relative to the prefab.
+     * @param direction The direction of the side.
+     * @return true if the side is on the boundary of the prefab and may become a door; otherwise false.
+     */
+    public boolean isDoorSlot(int x, int y, DirectionType direction) {
+        boolean isBoundary;
+
+        switch (direction) {
+            case NORTH:
+                isBoundary = y == 0;
+                break;
+
+            case WEST:
+                isBoundary = x == 0;
+                break;
+
+            case SOUTH:
+                isBoundary = y == height - 1;
+                break;
+
+            default:
+                isBoundary = x == width - 1;
+                break;
+        }
+
+        return isBoundary && getSide(x, y, direction) == SideType.DOOR;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof Prefab) {
+            Prefab prefab = (Prefab) o;
+            return prefab.width == width && prefab.height == height &&
+                    Arrays.equals(prefab.sides, sides) && Arrays.equals(prefab.tileOverrides, tileOverrides);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(sides) * 31 + width;
+    }
+
+    /**
+     * @param height The number of cells spanning a prefab vertically.
+     * @return The number of tiles spanning it vertically once expanded.
+     */
+    private static int getTileHeight(int height) {
+        return height * 2 + 1;
+    }
+
+    /**
+     * @param width The number of cells spanning a prefab horizontally.
+     * @return The number of tiles spanning it horizontally once expanded.
+     */
+    private static int getTileWidth(int width) {
+        return width * 2 + 1;
+    }
+
+    /**
+     * @param packedSides The packed sides of a cell.
+     * @param direction   The direction of the side.
+     * @return The side.
+     */
+    static SideType toSideType(int packedSides, DirectionType direction) {
+        int value = (packedSides >> (direction.getValue() * SIDE_BITS)) & SIDE_MASK;
+        if (value >= SIDE_TYPES.length) {
+            throw new IllegalStateException(String.format("Side value %d is invalid!", value));
+        }
+
+        return SIDE_TYPES[value];
+    }
+}
@@ -0,0 +1,72 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of prefabs, indexed by size so that the prefabs of a given size are found in constant time.
+ */
+public class PrefabLibrary {
+    public final int maxHeight;
+    public final int maxWidth;
+    private final List<Prefab> prefabs;
+    private final List<List<Prefab>> prefabsBySize;
+
+    /**
+     * Creates a new PrefabLibrary.
+     *
+     * @param prefabs The prefabs.
+     */
+    public PrefabLibrary(List<Prefab> prefabs) {
+        this.prefabs = Collections.unmodifiableList(new ArrayList<Prefab>(prefabs));
+
+        int width = 0;
+        int height = 0;
+        for (Prefab prefab : prefabs) {
+            width = Math.max(width, prefab.width);
+            height = Math.max(height, prefab.height);
+        }
+
+        maxWidth = width;
+        maxHeight = height;
+
+        prefabsBySize = new ArrayList<List<Prefab>>(maxWidth * maxHeight);
+        for (int i = 0; i < maxWidth * maxHeight; i++) {
+            prefabsBySize.add(new ArrayList<Prefab>());
+        }
+
+        for (Prefab prefab : prefabs) {
+            prefabsBySize.get(getSizeIndex(prefab.width, prefab.height)).add(prefab);
+        }
+    }
+
+    /**
+     * @return Every prefab in the library.
+     */
+    public List<Prefab> getPrefabs() {
+        return prefabs;
+    }
+
+    /**
+     * @param width  The number of cells spanning the prefabs horizontally.
+     * @param height The number of cells spanning the prefabs vertically.
+     * @return The prefabs of exactly the specified size, which may be none.
+     */
+    public List<Prefab> getPrefabs(int width, int height) {
+        if (width < 1 || height < 1 || width > maxWidth || height > maxHeight) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(prefabsBySize.get(getSizeIndex(width, height)));
+    }
+
+    /**
+     * @param width  The number of cells spanning a prefab horizontally.
+     * @param height The number of cells spanning a prefab vertically.
+     * @return The index of the prefabs of the size.
+     */
+    private int getSizeIndex(int width, int height) {
+        return (height - 1) * maxWidth + width - 1;
+    }
+}
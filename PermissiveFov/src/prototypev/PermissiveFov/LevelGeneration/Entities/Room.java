@@ -4,14 +4,17 @@ import prototypev.PermissiveFov.LevelGeneration.DirectionType;
 import prototypev.PermissiveFov.LevelGeneration.SideType;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Room {
     public final int height;
     public final int width;
     private final List<Cell> cells;
-    private final List<Room> rooms = new LinkedList<Room>();
+    private final List<Room> rooms = new ArrayList<Room>();
+    private MetricsCounters metrics;
+    private Prefab prefab;
+    private int[] roomIndices;
 
     /**
      * Creates a new Room with the specified bounds.
@@ -71,6 +74,39 @@ public class Room {
         return new Room(top, left, width, height);
     }
 
+    /**
+     * Creates a room from a prefab, walled in on its boundaries. The sides of each cell are copied straight from the
+     * prefab, which already agree between neighbouring cells, so no neighbours are looked up.
+     *
+     * @param top    The top bound.
+     * @param left   The left bound.
+     * @param prefab The prefab.
+     * @return The room.
+     */
+    public static Room createFromPrefab(int top, int left, Prefab prefab) {
+        Room room = new Room(top, left, prefab.width, prefab.height);
+        room.prefab = prefab;
+
+        int i = 0;
+        for (Cell cell : room.cells) {
+            cell.setPackedSides(prefab.getPackedSides(i % prefab.width, i / prefab.width));
+            i++;
+        }
+
+        // Door slots stay walled until there is a corridor for them to open onto
+        for (int x = 0; x < prefab.width; x++) {
+            room.cells.get(x).setSide(DirectionType.NORTH, SideType.WALL);
+            room.cells.get((prefab.height - 1) * prefab.width + x).setSide(DirectionType.SOUTH, SideType.WALL);
+        }
+
+        for (int y = 0; y < prefab.height; y++) {
+            room.cells.get(y * prefab.width).setSide(DirectionType.WEST, SideType.WALL);
+            room.cells.get(y * prefab.width + prefab.width - 1).setSide(DirectionType.EAST, SideType.WALL);
+        }
+
+        return room;
+    }
+
     /**
      * Creates an empty room with walls only on the boundaries.
      *
@@ -119,6 +155,29 @@ public class Room {
         // Offset the room origin to the new location
         room.moveTo(x, y);
 
+        // The most recently added room owns any cells it overlaps, the same as the cells themselves.
+        // Cells are claimed before their walls are set, so that the metrics stop counting them as corridors.
+        if (roomIndices == null) {
+            roomIndices = new int[width * height];
+            Arrays.fill(roomIndices, -1);
+        }
+
+        int roomIndex = rooms.size();
+        for (int cellY = y; cellY < y + room.height; cellY++) {
+            int offset = (cellY - getTop()) * width + x - getLeft();
+
+            if (metrics != null) {
+                for (int i = offset; i < offset + room.width; i++) {
+                    if (roomIndices[i] < 0) {
+                        metrics.count(cells.get(i), -1);
+                        metrics.roomCellCount++;
+                    }
+                }
+            }
+
+            Arrays.fill(roomIndices, offset, offset + room.width, roomIndex);
+        }
+
         for (Cell cell : room.cells) {
             int cellX = cell.getX();
             int cellY = cell.getY();
@@ -147,6 +206,31 @@ public class Room {
         rooms.add(room);
     }
 
+    /**
+     * Starts counting the quality metrics of this room, counting every cell once. From then on the counters are kept
+     * up to date by {@link #setCellSide} and {@link #addRoom}, so sides must no longer be set on the cells directly.
+     * Enabling the metrics on a room that has only just been created is cheapest, since every cell is still a wall.
+     */
+    public void enableMetrics() {
+        if (metrics != null) {
+            return;
+        }
+
+        metrics = new MetricsCounters();
+
+        for (int i = 0; i < cells.size(); i++) {
+            Cell cell = cells.get(i);
+
+            if (roomIndices != null && roomIndices[i] >= 0) {
+                metrics.roomCellCount++;
+            } else {
+                metrics.count(cell, 1);
+            }
+
+            countDoors(cell, 1);
+        }
+    }
+
     /**
      * @param x         The horizontal component.
      * @param y         The vertical component.
@@ -249,6 +333,59 @@ public class Room {
         return cells.get(0).getX();
     }
 
+    /**
+     * @return A snapshot of the quality metrics of this room.
+     */
+    public LevelMetrics getMetrics() {
+        if (metrics == null) {
+            throw new IllegalStateException("Metrics are not enabled!");
+        }
+
+        return new LevelMetrics(
+                cells.size(),
+                metrics.roomCellCount,
+                metrics.corridorCellCount,
+                metrics.deadEndCount,
+                metrics.doorCount,
+                metrics.passageCellCount,
+                metrics.corridorEndCount);
+    }
+
+    /**
+     * @return The prefab the room was created from, or null if it was not created from one.
+     */
+    public Prefab getPrefab() {
+        return prefab;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return The inner room covering the cell at the specified co-ordinates, or null if there is none.
+     */
+    public Room getRoomAt(int x, int y) {
+        int roomIndex = getRoomIndexAt(x, y);
+        return roomIndex >= 0 ? rooms.get(roomIndex) : null;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return The index in {@link #getRooms()} of the inner room covering the cell at the specified co-ordinates,
+     * or -1 if there is none.
+     */
+    public int getRoomIndexAt(int x, int y) {
+        if (isOutOfBounds(x, y)) {
+            throw new IllegalStateException(String.format("(%d, %d) is out of bounds!", x, y));
+        }
+
+        if (roomIndices == null) {
+            return -1;
+        }
+
+        return roomIndices[(y - getTop()) * width + x - getLeft()];
+    }
+
     /**
      * @return The inner rooms that are contained within this room.
      */
@@ -360,6 +497,13 @@ public class Room {
         return true;
     }
 
+    /**
+     * @return true if the quality metrics of this room are being counted; otherwise false.
+     */
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
     /**
      * @param x The horizontal component.
      * @param y The vertical component.
@@ -403,12 +547,28 @@ public class Room {
      */
     public void setCellSide(int x, int y, DirectionType direction, SideType sideType) {
         Cell cell = getCellAt(x, y);
+        Cell adjacentCell = getAdjacentCell(cell, direction);
+
+        // Take both cells out of the counters before the side changes, and put them back after
+        if (metrics != null) {
+            countCorridorCell(cell, -1);
+            countCorridorCell(adjacentCell, -1);
+            countDoors(cell, -1);
+            countDoors(adjacentCell, -1);
+        }
+
         cell.setSide(direction, sideType);
 
-        if (hasAdjacentCell(cell, direction)) {
-            Cell adjacentCell = getAdjacentCell(cell, direction);
+        if (adjacentCell != null) {
             adjacentCell.setSide(direction.getOpposite(), sideType);
         }
+
+        if (metrics != null) {
+            countCorridorCell(cell, 1);
+            countCorridorCell(adjacentCell, 1);
+            countDoors(cell, 1);
+            countDoors(adjacentCell, 1);
+        }
     }
 
     /**
@@ -470,6 +630,38 @@ public class Room {
         return stringBuilder.toString();
     }
 
+    /**
+     * Adds a cell to, or removes it from, the corridor counters if it is outside every inner room.
+     *
+     * @param cell The cell, or null for none.
+     * @param sign 1 to add the cell; -1 to remove it.
+     */
+    private void countCorridorCell(Cell cell, int sign) {
+        if (cell != null && getRoomIndexAt(cell.getX(), cell.getY()) < 0) {
+            metrics.count(cell, sign);
+        }
+    }
+
+    /**
+     * Adds the doors of a cell to, or removes them from, the door counter.
+     * Doors between 2 cells are counted from the cell to the north or west of them.
+     *
+     * @param cell The cell, or null for none.
+     * @param sign 1 to add the doors; -1 to remove them.
+     */
+    private void countDoors(Cell cell, int sign) {
+        if (cell == null) {
+            return;
+        }
+
+        for (DirectionType direction : DirectionType.values()) {
+            if (cell.getSide(direction) == SideType.DOOR &&
+                    (direction == DirectionType.SOUTH || direction == DirectionType.EAST || !hasAdjacentCell(cell, direction))) {
+                metrics.doorCount += sign;
+            }
+        }
+    }
+
     /**
      * @param cell The new cell replacing the old cell.
      * @param x    The horizontal component.
@@ -484,6 +676,62 @@ public class Room {
         int top = getTop();
         int index = (y - top) * width + x - left;
 
+        // The doors of the old cell go with it
+        if (metrics != null) {
+            countDoors(cells.get(index), -1);
+            countDoors(cell, 1);
+        }
+
         cells.set(index, cell);
     }
+
+    /**
+     * The running counts behind {@link LevelMetrics}.
+     */
+    private static class MetricsCounters {
+        public int corridorCellCount;
+        public int corridorEndCount;
+        public int deadEndCount;
+        public int doorCount;
+        public int passageCellCount;
+        public int roomCellCount;
+
+        /**
+         * Adds a cell outside every inner room to the counts, or removes it.
+         *
+         * @param cell The cell.
+         * @param sign 1 to add the cell; -1 to remove it.
+         */
+        public void count(Cell cell, int sign) {
+            int emptyCount = 0;
+            int wallCount = 0;
+
+            for (DirectionType direction : DirectionType.values()) {
+                SideType side = cell.getSide(direction);
+
+                if (side == SideType.EMPTY) {
+                    emptyCount++;
+                } else if (side == SideType.WALL) {
+                    wallCount++;
+                }
+            }
+
+            if (emptyCount == 0) {
+                return;
+            }
+
+            corridorCellCount += sign;
+
+            if (wallCount == 3) {
+                deadEndCount += sign;
+            }
+
+            // A cell beside a door ends its corridors, even with only 2 empty sides
+            if (emptyCount == 2 && wallCount == 2) {
+                passageCellCount += sign;
+            } else {
+                corridorEndCount += emptyCount * sign;
+            }
+        }
+    }
 }
@@ -0,0 +1,389 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+
+import java.util.Arrays;
+
+/**
+ * How the rooms of a map connect to each other, through their doors and the corridors between them.
+ * <p/>
+ * The nodes are the inner rooms of the map, numbered as in {@link Room#getRooms()}, followed by each connected region
+ * of corridors. Two nodes are joined by an edge if a door, or an open side, leads from one to the other, however
+ * many doors there are. A step along an edge is a step through a door, so distances count doors rather than cells.
+ * <p/>
+ * The edges of each node are stored in compressed sparse row form: the edges of node n are at indices
+ * offsets[n] to offsets[n + 1] - 1 of the adjacent node and edge arrays.
+ */
+public class RoomGraph {
+    public static final int UNREACHABLE = -1;
+    public final int roomCount;
+    private final int[] adjacentEdges;
+    private final int[] adjacentNodes;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final int left;
+    private final int nodeCount;
+    private final int[] nodeIndices;
+    private final int[] offsets;
+    private final int top;
+    private final int width;
+
+    /**
+     * Creates the graph of the rooms in the specified map, once its doors have been created.
+     *
+     * @param map The map.
+     */
+    public RoomGraph(Room map) {
+        width = map.width;
+        left = map.getLeft();
+        top = map.getTop();
+        roomCount = map.getRooms().size();
+
+        int cellCount = map.width * map.height;
+
+        // Join up the corridor cells into regions, and gather the sides that lead from one node to another
+        int[] parents = new int[cellCount];
+        boolean[] isCorridor = new boolean[cellCount];
+        int[] roomIndices = new int[cellCount];
+        int[] sidePairs = new int[cellCount * 4];
+        int sidePairCount = 0;
+
+        for (int i = 0; i < cellCount; i++) {
+            parents[i] = i;
+            roomIndices[i] = map.getRoomIndexAt(left + i % width, top + i / width);
+            isCorridor[i] = roomIndices[i] < 0 && map.getCellAt(left + i % width, top + i / width).isCorridor();
+        }
+
+        for (int i = 0; i < cellCount; i++) {
+            int x = i % width;
+            Cell cell = map.getCellAt(left + x, top + i / width);
+
+            for (int direction = 0; direction < 2; direction++) {
+                boolean isEast = direction == 0;
+                DirectionType directionType = isEast ? DirectionType.EAST : DirectionType.SOUTH;
+                SideType side = cell.getSide(directionType);
+
+                if (side == SideType.WALL || (isEast ? x == width - 1 : i + width >= cellCount)) {
+                    continue;
+                }
+
+                int adjacentIndex = isEast ? i + 1 : i + width;
+                if (side == SideType.EMPTY && isCorridor[i] && isCorridor[adjacentIndex]) {
+                    union(parents, i, adjacentIndex);
+                } else if (roomIndices[i] != roomIndices[adjacentIndex] || roomIndices[i] < 0) {
+                    sidePairs[sidePairCount++] = i;
+                    sidePairs[sidePairCount++] = adjacentIndex;
+                }
+            }
+        }
+
+        // Number the nodes: rooms first, then each corridor region in the order it is first found
+        nodeIndices = new int[cellCount];
+        int regionCount = 0;
+
+        for (int i = 0; i < cellCount; i++) {
+            if (roomIndices[i] >= 0) {
+                nodeIndices[i] = roomIndices[i];
+            } else if (!isCorridor[i]) {
+                nodeIndices[i] = -1;
+            } else {
+                int root = CellGrid.find(parents, i);
+                if (root == i) {
+                    nodeIndices[i] = roomCount + regionCount++;
+                } else {
+                    nodeIndices[i] = nodeIndices[root];
+                }
+            }
+        }
+
+        nodeCount = roomCount + regionCount;
+
+        // Pack each edge into a long, the lower node in the high half, so sorting them drops the duplicates
+        long[] packedEdges = new long[sidePairCount / 2];
+        int packedEdgeCount = 0;
+
+        for (int i = 0; i < sidePairCount; i += 2) {
+            int first = nodeIndices[sidePairs[i]];
+            int second = nodeIndices[sidePairs[i + 1]];
+
+            if (first >= 0 && second >= 0 && first != second) {
+                packedEdges[packedEdgeCount++] = ((long) Math.min(first, second) << 32) | Math.max(first, second);
+            }
+        }
+
+        Arrays.sort(packedEdges, 0, packedEdgeCount);
+
+        int edgeCount = 0;
+        for (int i = 0; i < packedEdgeCount; i++) {
+            if (i == 0 || packedEdges[i] != packedEdges[i - 1]) {
+                packedEdges[edgeCount++] = packedEdges[i];
+            }
+        }
+
+        edgeSources = new int[edgeCount];
+        edgeTargets = new int[edgeCount];
+        offsets = new int[nodeCount + 1];
+
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeSources[edge] = (int) (packedEdges[edge] >>> 32);
+            edgeTargets[edge] = (int) packedEdges[edge];
+            offsets[edgeSources[edge] + 1]++;
+            offsets[edgeTargets[edge] + 1]++;
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        adjacentNodes = new int[edgeCount * 2];
+        adjacentEdges = new int[edgeCount * 2];
+        int[] positions = Arrays.copyOf(offsets, nodeCount);
+
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int source = edgeSources[edge];
+            int target = edgeTargets[edge];
+
+            adjacentNodes[positions[source]] = target;
+            adjacentEdges[positions[source]++] = edge;
+            adjacentNodes[positions[target]] = source;
+            adjacentEdges[positions[target]++] = edge;
+        }
+    }
+
+    /**
+     * Computes the number of doors between each node and the specified node, by a breadth-first search.
+     *
+     * @param node The node to measure from.
+     * @return The distance of each node, or {@link #UNREACHABLE} if there is no path.
+     */
+    public int[] computeDistances(int node) {
+        int[] distances = new int[nodeCount];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int[] queue = new int[nodeCount];
+        walkBreadthFirst(node, distances, null, queue);
+
+        return distances;
+    }
+
+    /**
+     * Computes the number of doors between every pair of rooms, by a breadth-first search from each room.
+     *
+     * @return The distances in row-major order, so the distance from room a to room b is at a * roomCount + b,
+     * or {@link #UNREACHABLE} if there is no path.
+     */
+    public int[] computeRoomDistances() {
+        int[] roomDistances = new int[roomCount * roomCount];
+        int[] distances = new int[nodeCount];
+        int[] queue = new int[nodeCount];
+
+        for (int room = 0; room < roomCount; room++) {
+            Arrays.fill(distances, UNREACHABLE);
+            walkBreadthFirst(room, distances, null, queue);
+            System.arraycopy(distances, 0, roomDistances, room * roomCount, roomCount);
+        }
+
+        return roomDistances;
+    }
+
+    /**
+     * Finds the critical path between two nodes, the fewest doors that have to be passed through to get from one to
+     * the other.
+     *
+     * @param spawnNode The node the path starts from.
+     * @param exitNode  The node the path ends at.
+     * @return The nodes along the path, including both ends, or an empty array if there is no path.
+     */
+    public int[] findCriticalPath(int spawnNode, int exitNode) {
+        int[] distances = new int[nodeCount];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int[] parentEdges = new int[nodeCount];
+        walkBreadthFirst(spawnNode, distances, parentEdges, new int[nodeCount]);
+
+        if (distances[exitNode] == UNREACHABLE) {
+            return new int[0];
+        }
+
+        int[] path = new int[distances[exitNode] + 1];
+        int node = exitNode;
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = node;
+
+            if (i > 0) {
+                node = getOtherNode(parentEdges[node], node);
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * @param first  The node at one end of the edge.
+     * @param second The node at the other end of the edge.
+     * @return The edge between the nodes, or -1 if they are not adjacent.
+     */
+    public int findEdge(int first, int second) {
+        for (int i = offsets[first]; i < offsets[first + 1]; i++) {
+            if (adjacentNodes[i] == second) {
+                return adjacentEdges[i];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds a spanning tree of the nodes reachable from the specified node.
+     * Every edge is a single door, so every spanning tree is a minimum one. The tree is found breadth first,
+     * which keeps the depth of each node in it the same as its distance from the root.
+     *
+     * @param root The root of the tree.
+     * @return The edge from each node to its parent in the tree, or -1 for the root and any unreachable node.
+     */
+    public int[] findSpanningTree(int root) {
+        int[] distances = new int[nodeCount];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int[] parentEdges = new int[nodeCount];
+        Arrays.fill(parentEdges, -1);
+        walkBreadthFirst(root, distances, parentEdges, new int[nodeCount]);
+
+        return parentEdges;
+    }
+
+    /**
+     * @param node  The node.
+     * @param index The index of the edge among the edges of the node.
+     * @return The edge.
+     */
+    public int getAdjacentEdge(int node, int index) {
+        return adjacentEdges[offsets[node] + index];
+    }
+
+    /**
+     * @param node  The node.
+     * @param index The index of the edge among the edges of the node.
+     * @return The node at the other end of the edge.
+     */
+    public int getAdjacentNode(int node, int index) {
+        return adjacentNodes[offsets[node] + index];
+    }
+
+    /**
+     * @param node The node.
+     * @return The number of edges of the node.
+     */
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @return The number of edges.
+     */
+    public int getEdgeCount() {
+        return edgeSources.length;
+    }
+
+    /**
+     * @param edge The edge.
+     * @return The lower of the nodes at either end of the edge.
+     */
+    public int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    /**
+     * @param edge The edge.
+     * @return The higher of the nodes at either end of the edge.
+     */
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * @param x The horizontal component, in cells.
+     * @param y The vertical component, in cells.
+     * @return The node covering the cell, or -1 if the cell is solid rock.
+     */
+    public int getNodeAt(int x, int y) {
+        return nodeIndices[(y - top) * width + x - left];
+    }
+
+    /**
+     * @return The number of nodes, rooms and corridor regions together.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param edge The edge.
+     * @param node The node at one end of the edge.
+     * @return The node at the other end of the edge.
+     */
+    public int getOtherNode(int edge, int node) {
+        return edgeSources[edge] == node ? edgeTargets[edge] : edgeSources[edge];
+    }
+
+    /**
+     * @param node The node.
+     * @return true if the node is a room; otherwise false, if it is a corridor region.
+     */
+    public boolean isRoom(int node) {
+        return node < roomCount;
+    }
+
+    /**
+     * Joins the sets containing two cells, keeping the lower root so that each region is numbered by its first cell.
+     *
+     * @param parents The parent of each cell in the union-find.
+     * @param first   The index of the first cell.
+     * @param second  The index of the second cell.
+     */
+    private static void union(int[] parents, int first, int second) {
+        int firstRoot = CellGrid.find(parents, first);
+        int secondRoot = CellGrid.find(parents, second);
+
+        if (firstRoot < secondRoot) {
+            parents[secondRoot] = firstRoot;
+        } else if (secondRoot < firstRoot) {
+            parents[firstRoot] = secondRoot;
+        }
+    }
+
+    /**
+     * Walks the graph breadth first from the specified node.
+     *
+     * @param start       The node to start from.
+     * @param distances   Receives the distance of each node reached; must be filled with {@link #UNREACHABLE}.
+     * @param parentEdges Receives the edge each node was reached by, or null if it is not needed.
+     * @param queue       The queue to use, with room for every node.
+     */
+    private void walkBreadthFirst(int start, int[] distances, int[] parentEdges, int[] queue) {
+        int head = 0;
+        int tail = 0;
+
+        distances[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int node = queue[head++];
+
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                int adjacentNode = adjacentNodes[i];
+
+                if (distances[adjacentNode] == UNREACHABLE) {
+                    distances[adjacentNode] = distances[node] + 1;
+                    if (parentEdges != null) {
+                        parentEdges[adjacentNode] = adjacentEdges[i];
+                    }
+
+                    queue[tail++] = adjacentNode;
+                }
+            }
+        }
+    }
+}
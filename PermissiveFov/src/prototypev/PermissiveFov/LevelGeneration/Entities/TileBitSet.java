@@ -0,0 +1,160 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size grid of bits, one for each tile, packed 64 to a word in row-major order.
+ */
+public class TileBitSet {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    public final int height;
+    public final int width;
+    private final long[] words;
+
+    public TileBitSet(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height must not be negative!");
+        }
+
+        this.width = width;
+        this.height = height;
+
+        words = new long[(width * height + 63) >> ADDRESS_BITS_PER_WORD];
+    }
+
+    /**
+     * Clears all bits.
+     */
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    /**
+     * Copies the bits of another bitset of the same size.
+     *
+     * @param other The bitset to copy.
+     */
+    public void copyFrom(TileBitSet other) {
+        checkSameSize(other);
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * @return The number of bits that are set.
+     */
+    public int getCardinality() {
+        int cardinality = 0;
+
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+
+        return cardinality;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return true if the bit for the tile at the specified co-ordinates is set; otherwise false.
+     */
+    public boolean get(int x, int y) {
+        int index = y * width + x;
+        return (words[index >> ADDRESS_BITS_PER_WORD] & (1L << index)) != 0;
+    }
+
+    /**
+     * @param index The index of the word.
+     * @return The word, holding the bits of 64 consecutive tiles in row-major order.
+     */
+    public long getWord(int index) {
+        return words[index];
+    }
+
+    /**
+     * @return The number of words.
+     */
+    public int getWordCount() {
+        return words.length;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return The index of the word holding the bit for the tile at the specified co-ordinates.
+     */
+    public int getWordIndex(int x, int y) {
+        return (y * width + x) >> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return true if the co-ordinates are outside of the grid; otherwise false.
+     */
+    public boolean isOutOfBounds(int x, int y) {
+        return x < 0 || x >= width || y < 0 || y >= height;
+    }
+
+    /**
+     * Sets the bits of the rows that are set in another bitset of the same size, a word at a time.
+     * Whole words are merged, so bits of the rows either side of the range that share a word may be merged too.
+     *
+     * @param other  The bitset to merge.
+     * @param top    The first row to merge.
+     * @param height The number of rows to merge.
+     * @return true if any bit was newly set; otherwise false.
+     */
+    public boolean or(TileBitSet other, int top, int height) {
+        checkSameSize(other);
+
+        if (height <= 0 || width == 0) {
+            return false;
+        }
+
+        long changed = 0;
+
+        int lastWordIndex = getWordIndex(width - 1, top + height - 1);
+        for (int i = getWordIndex(0, top); i <= lastWordIndex; i++) {
+            changed |= other.words[i] & ~words[i];
+            words[i] |= other.words[i];
+        }
+
+        return changed != 0;
+    }
+
+    /**
+     * Sets or clears the bit for the tile at the specified co-ordinates.
+     *
+     * @param x     The horizontal component.
+     * @param y     The vertical component.
+     * @param value true to set the bit; false to clear it.
+     */
+    public void set(int x, int y, boolean value) {
+        int index = y * width + x;
+
+        if (value) {
+            words[index >> ADDRESS_BITS_PER_WORD] |= 1L << index;
+        } else {
+            words[index >> ADDRESS_BITS_PER_WORD] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Replaces a word of bits.
+     *
+     * @param index The index of the word.
+     * @param word  The word, holding the bits of 64 consecutive tiles in row-major order.
+     */
+    public void setWord(int index, long word) {
+        words[index] = word;
+    }
+
+    /**
+     * @param other The other bitset.
+     */
+    private void checkSameSize(TileBitSet other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("Bitsets must be the same size!");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package prototypev.PermissiveFov.LevelGeneration.Entities;
+
+/**
+ * A level paired with the tile ID chosen for each of its tiles.
+ */
+public class TiledLevel {
+    public final Level level;
+    private final int[] tileIDs;
+
+    /**
+     * Creates a new TiledLevel with all tile IDs unset.
+     *
+     * @param level The level.
+     */
+    public TiledLevel(Level level) {
+        this(level, new int[level.width * level.height]);
+    }
+
+    /**
+     * Creates a new TiledLevel.
+     *
+     * @param level   The level.
+     * @param tileIDs The tile IDs, in row-major order.
+     */
+    public TiledLevel(Level level, int[] tileIDs) {
+        if (tileIDs.length != level.width * level.height) {
+            throw new IllegalArgumentException("There must be exactly 1 tile ID for each tile in the level!");
+        }
+
+        this.level = level;
+        this.tileIDs = tileIDs;
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return The tile ID at the specified co-ordinates.
+     */
+    public int getTileIDAt(int x, int y) {
+        return tileIDs[y * level.width + x];
+    }
+
+    /**
+     * Sets the tile ID at the specified co-ordinates.
+     *
+     * @param x      The horizontal component.
+     * @param y      The vertical component.
+     * @param tileID The tile ID.
+     */
+    public void setTileIDAt(int x, int y, int tileID) {
+        tileIDs[y * level.width + x] = tileID;
+    }
+}
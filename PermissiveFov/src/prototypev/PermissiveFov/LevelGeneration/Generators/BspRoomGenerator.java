@@ -0,0 +1,377 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Lays out rooms by binary space partitioning, without needing a maze to place them in.
+ * The container is split recursively until each partition can only hold one room, a room is placed in each leaf,
+ * and the two halves of every split are joined by a corridor.
+ * <p/>
+ * Generation happens in two phases. The layout phase builds the partition tree as plain data, and subtrees can be
+ * laid out in parallel since each partition draws from its own random number generator, seeded by its parent.
+ * The apply phase then adds the rooms and carves the corridors into the container serially.
+ */
+public class BspRoomGenerator {
+    /**
+     * Each room keeps at least this many cells of rock between it and the bounds of its partition,
+     * so corridors always have somewhere to run between rooms.
+     */
+    private static final int MARGIN = 1;
+    private final ExecutorService executor;
+    private final int maxHeight;
+    private final int maxWidth;
+    private final int minHeight;
+    private final int minWidth;
+    private final int partitionCount;
+
+    /**
+     * Creates a new BspRoomGenerator with the specified constraints.
+     *
+     * @param minWidth  The minimum width of each room to create.
+     * @param maxWidth  The maximum width of each room to create.
+     * @param minHeight The minimum height of each room to create.
+     * @param maxHeight The maximum height of each room to create.
+     */
+    public BspRoomGenerator(int minWidth, int maxWidth, int minHeight, int maxHeight) {
+        this(minWidth, maxWidth, minHeight, maxHeight, null, 1);
+    }
+
+    /**
+     * Creates a new BspRoomGenerator with the specified constraints, which lays out subtrees in parallel.
+     * The layout is exactly the same as when it is laid out serially.
+     *
+     * @param minWidth       The minimum width of each room to create.
+     * @param maxWidth       The maximum width of each room to create.
+     * @param minHeight      The minimum height of each room to create.
+     * @param maxHeight      The maximum height of each room to create.
+     * @param executor       The executor to lay out subtrees on, or null to lay them out serially.
+     * @param partitionCount The number of subtrees to split the layout into.
+     */
+    public BspRoomGenerator(int minWidth, int maxWidth, int minHeight, int maxHeight, ExecutorService executor, int partitionCount) {
+        if (minWidth < 1 || minHeight < 1 || maxWidth < minWidth || maxHeight < minHeight) {
+            throw new IllegalArgumentException("Room sizes must be positive, and the maximums must not be less than the minimums!");
+        }
+
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive!");
+        }
+
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.executor = executor;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Creates rooms in the specified containing room, which is expected to be filled with rock.
+     * Every room is reachable from every other room.
+     *
+     * @param container The containing room.
+     */
+    public void createRooms(Room container) {
+        if (container.width < minWidth + 2 * MARGIN || container.height < minHeight + 2 * MARGIN) {
+            throw new IllegalArgumentException("Container is too small for a room!");
+        }
+
+        Partition root = new Partition(container.getLeft(), container.getTop(), container.width, container.height,
+                Randomizer.getInstance().nextLong());
+
+        if (executor != null && partitionCount > 1) {
+            layOutInParallel(root);
+        } else {
+            layOut(root);
+        }
+
+        addRooms(container, root);
+        carveCorridors(container, root);
+    }
+
+    /**
+     * @param top    The top bounds of the room.
+     * @param left   The left bounds of the room.
+     * @param width  The width of the room.
+     * @param height The height of the room,
+     * @return The generated room.
+     */
+    public Room generate(int top, int left, int width, int height) {
+        Room room = Room.createFilledRoom(top, left, width, height);
+        createRooms(room);
+
+        return room;
+    }
+
+    /**
+     * Adds the room of every leaf of a subtree to the container, in pre-order.
+     *
+     * @param container The containing room.
+     * @param partition The root of the subtree.
+     */
+    private static void addRooms(Room container, Partition partition) {
+        if (partition.isLeaf()) {
+            container.addRoom(Room.createWalledInRoom(0, 0, partition.roomWidth, partition.roomHeight), partition.roomX, partition.roomY);
+        } else {
+            addRooms(container, partition.first);
+            addRooms(container, partition.second);
+        }
+    }
+
+    /**
+     * Carves the corridor joining the halves of every split of a subtree.
+     *
+     * @param container The containing room, with the rooms already added.
+     * @param partition The root of the subtree.
+     */
+    private static void carveCorridors(Room container, Partition partition) {
+        if (partition.isLeaf()) {
+            return;
+        }
+
+        carveCorridors(container, partition.first);
+        carveCorridors(container, partition.second);
+
+        int startX = partition.first.connectionX;
+        int startY = partition.first.connectionY;
+        int endX = partition.second.connectionX;
+        int endY = partition.second.connectionY;
+
+        if (partition.isHorizontalFirst) {
+            carveCorridor(container, startX, startY, endX, startY);
+            carveCorridor(container, endX, startY, endX, endY);
+        } else {
+            carveCorridor(container, startX, startY, startX, endY);
+            carveCorridor(container, startX, endY, endX, endY);
+        }
+    }
+
+    /**
+     * Carves a straight corridor between two cells.
+     * Where the corridor crosses the wall of a room, a door is made instead.
+     * Rooms never touch, so there is always rock between the doors of two different rooms.
+     *
+     * @param container The containing room.
+     * @param startX    The horizontal component of the start of the corridor.
+     * @param startY    The vertical component of the start of the corridor.
+     * @param endX      The horizontal component of the end of the corridor.
+     * @param endY      The vertical component of the end of the corridor.
+     */
+    private static void carveCorridor(Room container, int startX, int startY, int endX, int endY) {
+        DirectionType direction;
+        if (endX > startX) {
+            direction = DirectionType.EAST;
+        } else if (endX < startX) {
+            direction = DirectionType.WEST;
+        } else if (endY > startY) {
+            direction = DirectionType.SOUTH;
+        } else {
+            direction = DirectionType.NORTH;
+        }
+
+        int stepX = Integer.signum(endX - startX);
+        int stepY = Integer.signum(endY - startY);
+        int length = Math.abs(endX - startX) + Math.abs(endY - startY);
+
+        int x = startX;
+        int y = startY;
+        boolean isInRoom = container.getRoomIndexAt(x, y) >= 0;
+
+        for (int i = 0; i < length; i++) {
+            boolean isNextInRoom = container.getRoomIndexAt(x + stepX, y + stepY) >= 0;
+
+            if (!isInRoom && !isNextInRoom) {
+                container.setCellSide(x, y, direction, SideType.EMPTY);
+            } else if (isInRoom != isNextInRoom) {
+                container.setCellSide(x, y, direction, SideType.DOOR);
+            }
+
+            x += stepX;
+            y += stepY;
+            isInRoom = isNextInRoom;
+        }
+    }
+
+    /**
+     * Lays out a whole subtree.
+     *
+     * @param partition The root of the subtree.
+     */
+    private void layOut(Partition partition) {
+        split(partition);
+
+        if (!partition.isLeaf()) {
+            layOut(partition.first);
+            layOut(partition.second);
+        }
+
+        partition.connect();
+    }
+
+    /**
+     * Splits the top of the tree serially until there are enough subtrees to go round,
+     * then lays out those subtrees in parallel and connects the top of the tree once they are done.
+     *
+     * @param root The root of the tree.
+     */
+    private void layOutInParallel(Partition root) {
+        List<Partition> topPartitions = new ArrayList<Partition>();
+        Queue<Partition> subtrees = new LinkedList<Partition>();
+        subtrees.add(root);
+
+        // Split breadth first, so the subtrees are roughly the same size
+        while (!subtrees.isEmpty() && subtrees.size() < partitionCount) {
+            Partition partition = subtrees.remove();
+            split(partition);
+            topPartitions.add(partition);
+
+            if (!partition.isLeaf()) {
+                subtrees.add(partition.first);
+                subtrees.add(partition.second);
+            }
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(subtrees.size());
+
+        // Each subtree only touches its own partitions, so they can be laid out at the same time
+        for (final Partition subtree : subtrees) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    layOut(subtree);
+                    return null;
+                }
+            });
+        }
+
+        ParallelRunner.invokeAll(executor, tasks, "Room layout");
+
+        // Children always come after their parents, so connect them from the bottom up
+        for (int i = topPartitions.size() - 1; i >= 0; i--) {
+            topPartitions.get(i).connect();
+        }
+    }
+
+    /**
+     * Splits a partition in two if it is too big to hold just one room, otherwise places its room.
+     *
+     * @param partition The partition.
+     */
+    private void split(Partition partition) {
+        Random random = partition.random;
+
+        int minPartitionWidth = minWidth + 2 * MARGIN;
+        int minPartitionHeight = minHeight + 2 * MARGIN;
+
+        boolean canSplitVertically = partition.width > maxWidth + 2 * MARGIN && partition.width >= 2 * minPartitionWidth;
+        boolean canSplitHorizontally = partition.height > maxHeight + 2 * MARGIN && partition.height >= 2 * minPartitionHeight;
+
+        if (canSplitVertically && canSplitHorizontally) {
+            // Split across the longer side, to keep the partitions from getting too thin
+            if (partition.width != partition.height) {
+                canSplitHorizontally = partition.height > partition.width;
+            } else {
+                canSplitHorizontally = random.nextBoolean();
+            }
+
+            canSplitVertically = !canSplitHorizontally;
+        }
+
+        if (canSplitVertically) {
+            int firstWidth = nextInt(random, minPartitionWidth, partition.width - minPartitionWidth);
+
+            partition.first = new Partition(partition.left, partition.top, firstWidth, partition.height, random.nextLong());
+            partition.second = new Partition(partition.left + firstWidth, partition.top, partition.width - firstWidth, partition.height, random.nextLong());
+        } else if (canSplitHorizontally) {
+            int firstHeight = nextInt(random, minPartitionHeight, partition.height - minPartitionHeight);
+
+            partition.first = new Partition(partition.left, partition.top, partition.width, firstHeight, random.nextLong());
+            partition.second = new Partition(partition.left, partition.top + firstHeight, partition.width, partition.height - firstHeight, random.nextLong());
+        } else {
+            partition.roomWidth = nextInt(random, minWidth, Math.min(maxWidth, partition.width - 2 * MARGIN));
+            partition.roomHeight = nextInt(random, minHeight, Math.min(maxHeight, partition.height - 2 * MARGIN));
+            partition.roomX = nextInt(random, partition.left + MARGIN, partition.left + partition.width - MARGIN - partition.roomWidth);
+            partition.roomY = nextInt(random, partition.top + MARGIN, partition.top + partition.height - MARGIN - partition.roomHeight);
+        }
+    }
+
+    /**
+     * @param random  The random number generator.
+     * @param minimum The lower bounds of the range.
+     * @param maximum The upper bounds of the range.
+     * @return A pseudo-random uniformly distributed {@code int} in the closed range [minimum, maximum].
+     */
+    private static int nextInt(Random random, int minimum, int maximum) {
+        return random.nextInt(maximum - minimum + 1) + minimum;
+    }
+
+    /**
+     * A node of the partition tree.
+     */
+    private static final class Partition {
+        public final int height;
+        public final int left;
+        public final Random random;
+        public final int top;
+        public final int width;
+        public int connectionX;
+        public int connectionY;
+        public Partition first;
+        public boolean isHorizontalFirst;
+        public int roomHeight;
+        public int roomWidth;
+        public int roomX;
+        public int roomY;
+        public Partition second;
+
+        /**
+         * @param left   The left bound.
+         * @param top    The top bound.
+         * @param width  The number of cells spanning the partition horizontally.
+         * @param height The number of cells spanning the partition vertically.
+         * @param seed   The seed of the partition's own random number generator.
+         */
+        public Partition(int left, int top, int width, int height, long seed) {
+            this.left = left;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+
+            random = new Random(seed);
+        }
+
+        /**
+         * Picks the cell the rest of the tree connects to this partition through,
+         * and the shape of the corridor joining its halves. Its halves must already be connected.
+         */
+        public void connect() {
+            if (isLeaf()) {
+                connectionX = roomX + roomWidth / 2;
+                connectionY = roomY + roomHeight / 2;
+            } else {
+                Partition connected = random.nextBoolean() ? first : second;
+                connectionX = connected.connectionX;
+                connectionY = connected.connectionY;
+
+                isHorizontalFirst = random.nextBoolean();
+            }
+        }
+
+        /**
+         * @return true if the partition holds a room rather than being split; otherwise false.
+         */
+        public boolean isLeaf() {
+            return first == null;
+        }
+    }
+}
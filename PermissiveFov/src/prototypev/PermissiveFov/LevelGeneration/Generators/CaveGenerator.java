@@ -0,0 +1,462 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Generates caves by cellular automaton: the tiles start as random noise, then are smoothed by the 4-5 rule,
+ * where a tile becomes a wall if at least 5 of its 8 neighbours are walls, or if it is a wall and at least 4 are.
+ * Tiles outside the level count as walls.
+ * <p/>
+ * The tiles are packed 64 to a word, with every row starting on a new word and at least one bit past the end of each
+ * row, always set as a wall. The neighbour counts of 64 tiles are summed at once by a tree of word-wide adders, one word per bit of the
+ * count, so a smoothing pass costs a handful of operations per word. For large caves, the rows can be split into
+ * bands that are smoothed in parallel.
+ * <p/>
+ * Smoothing leaves pockets that are cut off from each other, so only the largest region of empty tiles is kept.
+ */
+public class CaveGenerator {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private final ExecutorService executor;
+    private final int fillPercent;
+    private final int iterations;
+    private final int partitionCount;
+
+    /**
+     * Creates a new CaveGenerator.
+     *
+     * @param fillPercent A value between 0 - 100 indicating how many tiles start as walls.
+     * @param iterations  The number of smoothing passes.
+     */
+    public CaveGenerator(int fillPercent, int iterations) {
+        this(fillPercent, iterations, null, 1);
+    }
+
+    /**
+     * Creates a new CaveGenerator, which smooths bands of rows in parallel.
+     *
+     * @param fillPercent    A value between 0 - 100 indicating how many tiles start as walls.
+     * @param iterations     The number of smoothing passes.
+     * @param executor       The executor to smooth bands on, or null to smooth the whole cave serially.
+     * @param partitionCount The number of bands of rows to split the cave into.
+     */
+    public CaveGenerator(int fillPercent, int iterations, ExecutorService executor, int partitionCount) {
+        if (fillPercent < 0 || fillPercent > 100) {
+            throw new IllegalArgumentException("fillPercent must be between 0 and 100!");
+        }
+
+        if (iterations < 0) {
+            throw new IllegalArgumentException("iterations must not be negative!");
+        }
+
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive!");
+        }
+
+        this.fillPercent = fillPercent;
+        this.iterations = iterations;
+        this.executor = executor;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Fills every empty tile that is not part of the largest region of empty tiles, connected horizontally or
+     * vertically, with a wall. Ties go to the region found first in row-major order.
+     * Every tile that is not empty counts as a wall.
+     *
+     * @param level The level.
+     * @return The number of tiles in the largest region.
+     */
+    public static int keepLargestRegion(Level level) {
+        final int wordsPerRow = getWordsPerRow(level.width);
+
+        long[] cells = pack(level);
+        int largestSize = keepLargestRegion(cells, level.width, level.height);
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                boolean isWall = (cells[y * wordsPerRow + (x >>> ADDRESS_BITS_PER_WORD)] & (1L << x)) != 0;
+
+                if (isWall && level.getTileTypeAt(x, y) == TileType.EMPTY) {
+                    level.setTileTypeAt(x, y, TileType.WALL);
+                }
+            }
+        }
+
+        return largestSize;
+    }
+
+    /**
+     * Generates a cave, with a ring of wall around it.
+     *
+     * @param width  The number of tiles spanning the cave horizontally.
+     * @param height The number of tiles spanning the cave vertically.
+     * @return The cave.
+     */
+    public Level generate(int width, int height) {
+        if (width < 3 || height < 3) {
+            throw new IllegalArgumentException("Width and height must be at least 3!");
+        }
+
+        final int wordsPerRow = getWordsPerRow(width);
+        final long paddingMask = getPaddingMask(width);
+
+        long[] cells = new long[wordsPerRow * height];
+        Random random = new Random(Randomizer.getInstance().nextLong());
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextInt(100) < fillPercent) {
+                    cells[y * wordsPerRow + (x >>> ADDRESS_BITS_PER_WORD)] |= 1L << x;
+                }
+            }
+
+            cells[(y + 1) * wordsPerRow - 1] |= paddingMask;
+        }
+
+        cells = smooth(cells, width, height);
+
+        // Every level has a ring of wall around it
+        for (int y = 0; y < height; y++) {
+            cells[y * wordsPerRow] |= 1L;
+            cells[y * wordsPerRow + ((width - 1) >>> ADDRESS_BITS_PER_WORD)] |= 1L << (width - 1);
+        }
+
+        Arrays.fill(cells, 0, wordsPerRow, -1L);
+        Arrays.fill(cells, (height - 1) * wordsPerRow, height * wordsPerRow, -1L);
+
+        keepLargestRegion(cells, width, height);
+
+        Level level = new Level(width, height);
+        unpack(cells, level);
+
+        return level;
+    }
+
+    /**
+     * Smooths the walls of a level in place. Every tile that is not empty counts as a wall,
+     * and becomes either a wall or empty.
+     *
+     * @param level The level.
+     */
+    public void smooth(Level level) {
+        unpack(smooth(pack(level), level.width, level.height), level);
+    }
+
+    /**
+     * @param height    The number of rows.
+     * @param bandCount The number of bands.
+     * @param band      The index of the band.
+     * @return The first row of the band.
+     */
+    private static int getFirstRow(int height, int bandCount, int band) {
+        return height * band / bandCount;
+    }
+
+    /**
+     * @param width The number of tiles in a row.
+     * @return The bits of the last word of a row that lie past the end of the row.
+     */
+    private static long getPaddingMask(int width) {
+        // Shifts only use the low six bits of the distance, so this sets every bit from width % 64 up
+        return -1L << width;
+    }
+
+    /**
+     * @param cells       The packed walls.
+     * @param wordsPerRow The number of words in a row.
+     * @param height      The number of rows.
+     * @param y           The row.
+     * @param i           The index of the word in the row.
+     * @return The word, or all walls if it lies outside the level.
+     */
+    private static long getWord(long[] cells, int wordsPerRow, int height, int y, int i) {
+        if (y < 0 || y >= height || i < 0 || i >= wordsPerRow) {
+            return -1L;
+        }
+
+        return cells[y * wordsPerRow + i];
+    }
+
+    /**
+     * @param width The number of tiles in a row.
+     * @return The number of words in a row, leaving at least one bit of padding.
+     */
+    private static int getWordsPerRow(int width) {
+        return (width + 64) >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * Fills every empty tile that is not part of the largest region with a wall.
+     *
+     * @param cells  The packed walls.
+     * @param width  The number of tiles in a row.
+     * @param height The number of rows.
+     * @return The number of tiles in the largest region.
+     */
+    private static int keepLargestRegion(long[] cells, int width, int height) {
+        final int rowBits = getWordsPerRow(width) << ADDRESS_BITS_PER_WORD;
+
+        long[] visited = new long[cells.length];
+        int[] queue = new int[width * height];
+
+        int largestStart = -1;
+        int largestSize = 0;
+
+        for (int i = 0; i < cells.length; i++) {
+            long unvisited;
+
+            // Skip over a word of walls and visited tiles at a time
+            while ((unvisited = ~cells[i] & ~visited[i]) != 0) {
+                int start = (i << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(unvisited);
+                int size = visitRegion(cells, visited, rowBits, start, queue);
+
+                if (size > largestSize) {
+                    largestStart = start;
+                    largestSize = size;
+                }
+            }
+        }
+
+        if (largestStart < 0) {
+            return 0;
+        }
+
+        // Visit the largest region again, so that it is the only one left unvisited
+        visitRegion(cells, visited, rowBits, largestStart, queue);
+
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] |= visited[i];
+        }
+
+        return largestSize;
+    }
+
+    /**
+     * @param level The level.
+     * @return The packed walls of the level.
+     */
+    private static long[] pack(Level level) {
+        final int width = level.width;
+        final int wordsPerRow = getWordsPerRow(width);
+        final long paddingMask = getPaddingMask(width);
+
+        long[] cells = new long[wordsPerRow * level.height];
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (level.getTileTypeAt(x, y) != TileType.EMPTY) {
+                    cells[y * wordsPerRow + (x >>> ADDRESS_BITS_PER_WORD)] |= 1L << x;
+                }
+            }
+
+            cells[(y + 1) * wordsPerRow - 1] |= paddingMask;
+        }
+
+        return cells;
+    }
+
+    /**
+     * Runs every smoothing pass.
+     *
+     * @param cells  The packed walls.
+     * @param width  The number of tiles in a row.
+     * @param height The number of rows.
+     * @return The smoothed walls, which may be the same array.
+     */
+    private long[] smooth(long[] cells, int width, int height) {
+        long[] buffer = new long[cells.length];
+        int bandCount = executor != null ? Math.min(partitionCount, height) : 1;
+
+        for (int i = 0; i < iterations; i++) {
+            if (bandCount > 1) {
+                smoothBandsInParallel(cells, buffer, width, height, bandCount);
+            } else {
+                smoothBand(cells, buffer, width, height, 0, height);
+            }
+
+            long[] swap = cells;
+            cells = buffer;
+            buffer = swap;
+        }
+
+        return cells;
+    }
+
+    /**
+     * Runs a smoothing pass over a band of rows.
+     *
+     * @param source   The packed walls before the pass.
+     * @param target   Receives the packed walls of the band after the pass.
+     * @param width    The number of tiles in a row.
+     * @param height   The number of rows.
+     * @param firstRow The first row of the band.
+     * @param rowCount The number of rows in the band.
+     */
+    private static void smoothBand(long[] source, long[] target, int width, int height, int firstRow, int rowCount) {
+        final int wordsPerRow = getWordsPerRow(width);
+        final long paddingMask = getPaddingMask(width);
+
+        for (int y = firstRow; y < firstRow + rowCount; y++) {
+            for (int i = 0; i < wordsPerRow; i++) {
+                long north = getWord(source, wordsPerRow, height, y - 1, i);
+                long centre = getWord(source, wordsPerRow, height, y, i);
+                long south = getWord(source, wordsPerRow, height, y + 1, i);
+
+                // Bit x of the west word is the tile at x - 1, carried over from the word before;
+                // bit x of the east word is the tile at x + 1, carried over from the word after
+                long northWest = (north << 1) | (getWord(source, wordsPerRow, height, y - 1, i - 1) >>> 63);
+                long northEast = (north >>> 1) | (getWord(source, wordsPerRow, height, y - 1, i + 1) << 63);
+                long west = (centre << 1) | (getWord(source, wordsPerRow, height, y, i - 1) >>> 63);
+                long east = (centre >>> 1) | (getWord(source, wordsPerRow, height, y, i + 1) << 63);
+                long southWest = (south << 1) | (getWord(source, wordsPerRow, height, y + 1, i - 1) >>> 63);
+                long southEast = (south >>> 1) | (getWord(source, wordsPerRow, height, y + 1, i + 1) << 63);
+
+                // Full adders over three inputs each, and a half adder over the last two
+                long firstOnes = northWest ^ north ^ northEast;
+                long firstTwos = (northWest & north) | (northEast & (northWest ^ north));
+                long secondOnes = west ^ east ^ southWest;
+                long secondTwos = (west & east) | (southWest & (west ^ east));
+                long thirdOnes = south ^ southEast;
+                long thirdTwos = south & southEast;
+
+                // Sum the ones, carrying into the twos
+                long ones = firstOnes ^ secondOnes ^ thirdOnes;
+                long carryTwos = (firstOnes & secondOnes) | (thirdOnes & (firstOnes ^ secondOnes));
+
+                // Sum the four twos, carrying into the fours
+                long partialTwos = firstTwos ^ secondTwos ^ thirdTwos;
+                long firstFours = (firstTwos & secondTwos) | (thirdTwos & (firstTwos ^ secondTwos));
+                long twos = partialTwos ^ carryTwos;
+                long secondFours = partialTwos & carryTwos;
+
+                // At most eight neighbours, so the fours carry into the eights at most once
+                long fours = firstFours ^ secondFours;
+                long eights = firstFours & secondFours;
+
+                long atLeastFour = fours | eights;
+                long atLeastFive = eights | (fours & (twos | ones));
+
+                long word = atLeastFive | (centre & atLeastFour);
+                if (i == wordsPerRow - 1) {
+                    word |= paddingMask;
+                }
+
+                target[y * wordsPerRow + i] = word;
+            }
+        }
+    }
+
+    /**
+     * Runs a smoothing pass over the bands of rows in parallel.
+     *
+     * @param source    The packed walls before the pass.
+     * @param target    Receives the packed walls after the pass.
+     * @param width     The number of tiles in a row.
+     * @param height    The number of rows.
+     * @param bandCount The number of bands.
+     */
+    private void smoothBandsInParallel(final long[] source, final long[] target, final int width, final int height, int bandCount) {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(bandCount);
+
+        for (int i = 0; i < bandCount; i++) {
+            final int firstRow = getFirstRow(height, bandCount, i);
+            final int rowCount = getFirstRow(height, bandCount, i + 1) - firstRow;
+
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    smoothBand(source, target, width, height, firstRow, rowCount);
+                    return null;
+                }
+            });
+        }
+
+        ParallelRunner.invokeAll(executor, tasks, "Cave generation");
+    }
+
+    /**
+     * Writes packed walls into a level.
+     *
+     * @param cells The packed walls.
+     * @param level The level.
+     */
+    private static void unpack(long[] cells, Level level) {
+        final int wordsPerRow = getWordsPerRow(level.width);
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                boolean isWall = (cells[y * wordsPerRow + (x >>> ADDRESS_BITS_PER_WORD)] & (1L << x)) != 0;
+                level.setTileTypeAt(x, y, isWall ? TileType.WALL : TileType.EMPTY);
+            }
+        }
+    }
+
+    /**
+     * Visits a region of empty tiles, connected horizontally or vertically.
+     *
+     * @param cells   The packed walls.
+     * @param visited The packed visited flags, flipped for every tile in the region.
+     * @param rowBits The number of bits in a row, including the padding.
+     * @param start   The index of the bit of a tile in the region.
+     * @param queue   The queue to visit the tiles with, holding at least one entry for each tile.
+     * @return The number of tiles in the region.
+     */
+    private static int visitRegion(long[] cells, long[] visited, int rowBits, int start, int[] queue) {
+        int head = 0;
+        int tail = 0;
+
+        // Flip the visited flag rather than set it, so that visiting a region a second time clears it again
+        boolean flag = (visited[start >>> ADDRESS_BITS_PER_WORD] & (1L << start)) == 0;
+
+        visited[start >>> ADDRESS_BITS_PER_WORD] ^= 1L << start;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int bit = queue[head++];
+
+            // The padding past the end of every row is walls, so walks never wrap around from one row to the next
+            tail = visitTile(cells, visited, bit - 1, flag, queue, tail);
+            tail = visitTile(cells, visited, bit + 1, flag, queue, tail);
+            tail = visitTile(cells, visited, bit - rowBits, flag, queue, tail);
+            tail = visitTile(cells, visited, bit + rowBits, flag, queue, tail);
+        }
+
+        return tail;
+    }
+
+    /**
+     * Queues a tile of the region, if it is empty and has not been visited on this walk yet.
+     *
+     * @param cells   The packed walls.
+     * @param visited The packed visited flags.
+     * @param bit     The index of the bit of the tile, which may lie outside the level.
+     * @param flag    The visited flag of this walk.
+     * @param queue   The queue.
+     * @param tail    The end of the queue.
+     * @return The new end of the queue.
+     */
+    private static int visitTile(long[] cells, long[] visited, int bit, boolean flag, int[] queue, int tail) {
+        if (bit < 0 || bit >= cells.length << ADDRESS_BITS_PER_WORD) {
+            return tail;
+        }
+
+        int index = bit >>> ADDRESS_BITS_PER_WORD;
+        long mask = 1L << bit;
+
+        if ((cells[index] & mask) == 0 && ((visited[index] & mask) != 0) != flag) {
+            visited[index] ^= mask;
+            queue[tail++] = bit;
+        }
+
+        return tail;
+    }
+}
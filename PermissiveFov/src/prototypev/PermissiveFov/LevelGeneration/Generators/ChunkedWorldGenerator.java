@@ -0,0 +1,285 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Generates an unbounded world as a grid of chunks, each an ordinary maze with rooms, streamed in around the player.
+ * <p/>
+ * Every chunk is a pure function of the world seed and its co-ordinates, so a chunk that is evicted and generated
+ * again comes back exactly the same. Each border between two chunks has one opening, at a position hashed from the
+ * border itself, so both chunks agree on it without either having to exist first. The opening is carved inwards to the
+ * nearest corridor, so it always leads somewhere.
+ * <p/>
+ * In tiles, neighbouring chunks overlap by their shared border, so a chunk is {@code 2 * chunkWidth + 1} tiles wide
+ * but only {@code 2 * chunkWidth} tiles apart from the next. Chunks are generated on a background executor and only
+ * the chunks near the player are kept, so memory stays flat however far the player goes.
+ * This class is not thread-safe; call it from the update thread.
+ */
+public class ChunkedWorldGenerator {
+    private static final long EAST_BORDER_SALT = 0x3c6ef372fe94f82bL;
+    private static final long SOUTH_BORDER_SALT = 0xa54ff53a5f1d36f1L;
+    public final int chunkHeight;
+    public final int chunkWidth;
+    private final Map<Long, Future<Level>> chunks = new HashMap<Long, Future<Level>>();
+    private final ExecutorService executor;
+    private final int loadRadius;
+    private final MazeGenerator mazeGenerator;
+    private final int numRooms;
+    private final RoomGenerator roomGenerator;
+    private final long worldSeed;
+
+    /**
+     * Creates a new ChunkedWorldGenerator.
+     *
+     * @param worldSeed     The seed of the world.
+     * @param chunkWidth    The number of cells spanning each chunk horizontally.
+     * @param chunkHeight   The number of cells spanning each chunk vertically.
+     * @param mazeGenerator The maze generator for each chunk.
+     * @param roomGenerator The room generator for each chunk.
+     * @param numRooms      The number of rooms in each chunk.
+     * @param executor      The executor to generate chunks on.
+     * @param loadRadius    The number of chunks to load in each direction around the player.
+     */
+    public ChunkedWorldGenerator(
+            long worldSeed,
+            int chunkWidth,
+            int chunkHeight,
+            MazeGenerator mazeGenerator,
+            RoomGenerator roomGenerator,
+            int numRooms,
+            ExecutorService executor,
+            int loadRadius) {
+
+        if (chunkWidth < 1 || chunkHeight < 1) {
+            throw new IllegalArgumentException("Chunk width and height must be positive!");
+        }
+
+        if (loadRadius < 0) {
+            throw new IllegalArgumentException("Load radius must not be negative!");
+        }
+
+        this.worldSeed = worldSeed;
+        this.chunkWidth = chunkWidth;
+        this.chunkHeight = chunkHeight;
+        this.mazeGenerator = mazeGenerator;
+        this.roomGenerator = roomGenerator;
+        this.numRooms = numRooms;
+        this.executor = executor;
+        this.loadRadius = loadRadius;
+    }
+
+    /**
+     * Generates a chunk on the current thread. The result only depends on the world seed and the co-ordinates.
+     *
+     * @param chunkX The horizontal component of the chunk.
+     * @param chunkY The vertical component of the chunk.
+     * @return The chunk, {@code 2 * chunkWidth + 1} by {@code 2 * chunkHeight + 1} tiles.
+     */
+    public Level generateChunk(final int chunkX, final int chunkY) {
+        long chunkSeed = GeneratorHelper.mix(worldSeed ^ GeneratorHelper.mix(pack(chunkX, chunkY)));
+
+        return Randomizer.runSeeded(chunkSeed, new Randomizer.ISeededTask<Level>() {
+            @Override
+            public Level run() {
+                Room map = mazeGenerator.generate(0, 0, chunkWidth, chunkHeight);
+                roomGenerator.createRooms(map, numRooms);
+
+                openBorder(map, 0, getOpening(EAST_BORDER_SALT, chunkX - 1, chunkY, chunkHeight), DirectionType.WEST);
+                openBorder(map, chunkWidth - 1, getOpening(EAST_BORDER_SALT, chunkX, chunkY, chunkHeight), DirectionType.EAST);
+                openBorder(map, getOpening(SOUTH_BORDER_SALT, chunkX, chunkY - 1, chunkWidth), 0, DirectionType.NORTH);
+                openBorder(map, getOpening(SOUTH_BORDER_SALT, chunkX, chunkY, chunkWidth), chunkHeight - 1, DirectionType.SOUTH);
+
+                RoomGenerator.createDoors(map);
+
+                return LevelGenerator.expandToTiles(map);
+            }
+        });
+    }
+
+    /**
+     * @param chunkX The horizontal component of the chunk.
+     * @param chunkY The vertical component of the chunk.
+     * @return The chunk, or null if it has not been generated yet. Never waits for it.
+     */
+    public Level getChunk(int chunkX, int chunkY) {
+        Future<Level> future = chunks.get(pack(chunkX, chunkY));
+        if (future == null || !future.isDone()) {
+            return null;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(String.format("Chunk (%d, %d) could not be generated!", chunkX, chunkY), e.getCause());
+        }
+    }
+
+    /**
+     * @return The number of chunks that are kept, whether or not they have been generated yet.
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @param x The horizontal component, in world tiles.
+     * @return The horizontal component of the chunk holding the tile.
+     */
+    public int getChunkX(int x) {
+        return floorDiv(x, chunkWidth * 2);
+    }
+
+    /**
+     * @param y The vertical component, in world tiles.
+     * @return The vertical component of the chunk holding the tile.
+     */
+    public int getChunkY(int y) {
+        return floorDiv(y, chunkHeight * 2);
+    }
+
+    /**
+     * @param x The horizontal component, in world tiles.
+     * @param y The vertical component, in world tiles.
+     * @return The tile type, or {@link TileType#UNDEFINED} if its chunk has not been generated yet.
+     */
+    public TileType getTileTypeAt(int x, int y) {
+        int chunkX = getChunkX(x);
+        int chunkY = getChunkY(y);
+
+        Level chunk = getChunk(chunkX, chunkY);
+        if (chunk == null) {
+            return TileType.UNDEFINED;
+        }
+
+        return chunk.getTileTypeAt(x - chunkX * chunkWidth * 2, y - chunkY * chunkHeight * 2);
+    }
+
+    /**
+     * Evicts the chunks that have moved out of range of the player, and starts generating the chunks that have moved
+     * into range, nearest first.
+     *
+     * @param chunkX The horizontal component of the chunk the player is in.
+     * @param chunkY The vertical component of the chunk the player is in.
+     */
+    public void update(int chunkX, int chunkY) {
+        // Chunks just outside the load radius are kept, so walking back and forth over a border does not regenerate them
+        int evictRadius = loadRadius + 1;
+
+        Iterator<Map.Entry<Long, Future<Level>>> iterator = chunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Future<Level>> entry = iterator.next();
+            long key = entry.getKey();
+
+            if (Math.abs(unpackX(key) - chunkX) > evictRadius || Math.abs(unpackY(key) - chunkY) > evictRadius) {
+                entry.getValue().cancel(true);
+                iterator.remove();
+            }
+        }
+
+        for (int ring = 0; ring <= loadRadius; ring++) {
+            for (int y = chunkY - ring; y <= chunkY + ring; y++) {
+                // Only the edges of the ring, the inside has been requested already
+                int step = y == chunkY - ring || y == chunkY + ring ? 1 : Math.max(1, ring * 2);
+
+                for (int x = chunkX - ring; x <= chunkX + ring; x += step) {
+                    requestChunk(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param a The dividend.
+     * @param b The divisor, which must be positive.
+     * @return The quotient, rounded towards negative infinity.
+     */
+    private static int floorDiv(int a, int b) {
+        return a >= 0 ? a / b : -((-a + b - 1) / b);
+    }
+
+    /**
+     * @param salt   Tells apart the east and south borders of the same chunk.
+     * @param chunkX The horizontal component of the chunk to the west of or above the border.
+     * @param chunkY The vertical component of the chunk to the west of or above the border.
+     * @param length The number of cells along the border.
+     * @return The position of the opening along the border.
+     */
+    private int getOpening(long salt, int chunkX, int chunkY, int length) {
+        return (int) ((GeneratorHelper.mix(worldSeed ^ salt ^ GeneratorHelper.mix(pack(chunkX, chunkY))) >>> 1) % length);
+    }
+
+    /**
+     * Opens a border cell to the outside of the map, and connects it to the rest of the map.
+     *
+     * @param map       The map.
+     * @param x         The horizontal component of the cell.
+     * @param y         The vertical component of the cell.
+     * @param direction The direction of the border.
+     */
+    private static void openBorder(Room map, int x, int y, DirectionType direction) {
+        GeneratorHelper.connectToCorridor(map, x, y);
+
+        // There is no cell on the other side, so only this cell's side is opened
+        map.setCellSide(x, y, direction, SideType.EMPTY);
+    }
+
+    /**
+     * @param chunkX The horizontal component of the chunk.
+     * @param chunkY The vertical component of the chunk.
+     * @return The key of the chunk.
+     */
+    private static long pack(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+    }
+
+    /**
+     * Starts generating a chunk in the background, unless it is already kept.
+     *
+     * @param chunkX The horizontal component of the chunk.
+     * @param chunkY The vertical component of the chunk.
+     */
+    private void requestChunk(final int chunkX, final int chunkY) {
+        long key = pack(chunkX, chunkY);
+
+        if (!chunks.containsKey(key)) {
+            chunks.put(key, executor.submit(new Callable<Level>() {
+                @Override
+                public Level call() {
+                    return generateChunk(chunkX, chunkY);
+                }
+            }));
+        }
+    }
+
+    /**
+     * @param key The key of a chunk.
+     * @return The horizontal component of the chunk.
+     */
+    private static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * @param key The key of a chunk.
+     * @return The vertical component of the chunk.
+     */
+    private static int unpackY(long key) {
+        return (int) key;
+    }
+}
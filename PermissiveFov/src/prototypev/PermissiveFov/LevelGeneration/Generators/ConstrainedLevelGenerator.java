@@ -0,0 +1,274 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.LevelMetrics;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Entities.RoomGraph;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates levels until one meets a set of constraints, trying several seeds at once.
+ * <p/>
+ * Each attempt draws from its own randomizer, seeded by the seed of the search and the index of the attempt.
+ * Attempts run in rounds, one attempt for each seed in the round, and the first attempt to meet the constraints wins.
+ * The others notice between phases of generation that a level was found, and give up without finishing.
+ * <p/>
+ * Run serially, the attempts are made in order, so the level only depends on the seed. Run in parallel, whichever
+ * passing attempt finishes first wins, so the same seed can give different levels.
+ * <p/>
+ * The executor must not be shared with the maze or room generator. Each attempt blocks a thread of the executor
+ * while it runs, so a generator waiting on tasks queued behind the attempts would never see them run. The attempts
+ * already keep the threads busy, so the generators are best left serial.
+ */
+public class ConstrainedLevelGenerator {
+    private final int attemptCount;
+    private final LevelConstraints constraints;
+    private final ExecutorService executor;
+    private final int height;
+    private final MazeGenerator mazeGenerator;
+    private final int numRooms;
+    private final RoomGenerator roomGenerator;
+    private final int width;
+
+    /**
+     * Creates a new ConstrainedLevelGenerator.
+     *
+     * @param width         The number of cells spanning each level horizontally.
+     * @param height        The number of cells spanning each level vertically.
+     * @param mazeGenerator The maze generator.
+     * @param roomGenerator The room generator.
+     * @param numRooms      The number of rooms in each level.
+     * @param constraints   The constraints each level has to meet.
+     * @param executor      The executor to make attempts on, or null to make them one after another. It must not be
+     *                      the executor of the maze or room generator.
+     * @param attemptCount  The number of attempts in each round, usually the number of threads of the executor.
+     */
+    public ConstrainedLevelGenerator(
+            int width,
+            int height,
+            MazeGenerator mazeGenerator,
+            RoomGenerator roomGenerator,
+            int numRooms,
+            LevelConstraints constraints,
+            ExecutorService executor,
+            int attemptCount) {
+
+        if (attemptCount < 1) {
+            throw new IllegalArgumentException("Number of attempts must be positive!");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.mazeGenerator = mazeGenerator;
+        this.roomGenerator = roomGenerator;
+        this.numRooms = numRooms;
+        this.constraints = constraints;
+        this.executor = executor;
+        this.attemptCount = attemptCount;
+    }
+
+    /**
+     * @param map         The map, once its doors have been created.
+     * @param constraints The constraints.
+     * @return true if the map meets the constraints; otherwise false.
+     * The counts are read from the metrics of the map if they are enabled; otherwise they are counted from its cells.
+     */
+    public static boolean meetsConstraints(Room map, LevelConstraints constraints) {
+        int openCellCount = 0;
+        int corridorCount = 0;
+        int deadEndCount = 0;
+
+        if (map.isMetricsEnabled()) {
+            LevelMetrics metrics = map.getMetrics();
+
+            if (metrics.deadEndCount > constraints.maxDeadEnds) {
+                return false;
+            }
+
+            openCellCount = metrics.cellCount - metrics.roomCellCount;
+            corridorCount = metrics.corridorCellCount;
+        } else {
+            // Count in a single pass over the cells, stopping as soon as there are too many dead ends
+            for (int y = map.getTop(); y < map.getTop() + map.height; y++) {
+                for (int x = map.getLeft(); x < map.getLeft() + map.width; x++) {
+                    if (map.getRoomIndexAt(x, y) >= 0) {
+                        continue;
+                    }
+
+                    openCellCount++;
+                    Cell cell = map.getCellAt(x, y);
+
+                    if (cell.isCorridor()) {
+                        corridorCount++;
+
+                        if (cell.isDeadEnd() && ++deadEndCount > constraints.maxDeadEnds) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+
+        int corridorPercent = openCellCount > 0 ? corridorCount * 100 / openCellCount : 0;
+        if (corridorPercent < constraints.minCorridorPercent || corridorPercent > constraints.maxCorridorPercent) {
+            return false;
+        }
+
+        return constraints.minReachableRooms == 0 || getMaxReachableRooms(new RoomGraph(map)) >= constraints.minReachableRooms;
+    }
+
+    /**
+     * Generates a level that meets the constraints.
+     *
+     * @param seed        The seed of the search.
+     * @param maxAttempts The most attempts to make before giving up, rounded up to a whole number of rounds.
+     * @return The level.
+     */
+    public Level generate(long seed, int maxAttempts) {
+        for (int firstAttempt = 0; firstAttempt < maxAttempts; firstAttempt += attemptCount) {
+            // Each round gets its own flag, since a round only ends without a winner once all its attempts are done
+            AtomicBoolean isFound = new AtomicBoolean();
+
+            Level level = executor != null
+                    ? attemptInParallel(seed, firstAttempt, isFound)
+                    : attemptSerially(seed, firstAttempt, isFound);
+
+            if (level != null) {
+                return level;
+            }
+        }
+
+        throw new IllegalStateException(String.format("No level met the constraints in %d attempts!", maxAttempts));
+    }
+
+    /**
+     * Makes a single attempt on the current thread, giving up between phases if another attempt has won.
+     *
+     * @param seed    The seed of the search.
+     * @param attempt The index of the attempt.
+     * @param isFound Whether any attempt has won yet.
+     * @return The level, or null if the attempt did not meet the constraints or another attempt won first.
+     */
+    private Level attempt(long seed, int attempt, final AtomicBoolean isFound) {
+        long attemptSeed = GeneratorHelper.mix(seed ^ GeneratorHelper.mix(attempt));
+
+        return Randomizer.runSeeded(attemptSeed, new Randomizer.ISeededTask<Level>() {
+            @Override
+            public Level run() {
+                if (isFound.get()) {
+                    return null;
+                }
+
+                // Enable the metrics while every cell is still rock, so the maze, rooms and doors keep them up to date
+                // and the constraints are checked without another pass over the map
+                Room map = Room.createFilledRoom(0, 0, width, height);
+                map.enableMetrics();
+
+                mazeGenerator.generate(map);
+                if (isFound.get()) {
+                    return null;
+                }
+
+                roomGenerator.createRooms(map, numRooms);
+                if (isFound.get()) {
+                    return null;
+                }
+
+                RoomGenerator.createDoors(map);
+
+                // Claim the win before expanding to tiles, so the other attempts stop as soon as possible
+                if (!meetsConstraints(map, constraints) || !isFound.compareAndSet(false, true)) {
+                    return null;
+                }
+
+                return LevelGenerator.expandToTiles(map);
+            }
+        });
+    }
+
+    /**
+     * Makes a round of attempts on the executor, returning as soon as one of them wins.
+     *
+     * @param seed         The seed of the search.
+     * @param firstAttempt The index of the first attempt in the round.
+     * @param isFound      Whether any attempt has won yet.
+     * @return The level, or null if no attempt in the round met the constraints.
+     */
+    private Level attemptInParallel(final long seed, int firstAttempt, final AtomicBoolean isFound) {
+        List<Callable<Level>> tasks = new ArrayList<Callable<Level>>(attemptCount);
+
+        for (int i = 0; i < attemptCount; i++) {
+            final int attempt = firstAttempt + i;
+
+            tasks.add(new Callable<Level>() {
+                @Override
+                public Level call() {
+                    return attempt(seed, attempt, isFound);
+                }
+            });
+        }
+
+        try {
+            return ParallelRunner.invokeFirst(executor, tasks, "Constrained generation");
+        } finally {
+            // Attempts that have not started yet never will, and the rest give up at their next phase
+            isFound.set(true);
+        }
+    }
+
+    /**
+     * Makes a round of attempts on the current thread, in order.
+     *
+     * @param seed         The seed of the search.
+     * @param firstAttempt The index of the first attempt in the round.
+     * @param isFound      Whether any attempt has won yet.
+     * @return The level, or null if no attempt in the round met the constraints.
+     */
+    private Level attemptSerially(long seed, int firstAttempt, AtomicBoolean isFound) {
+        for (int i = 0; i < attemptCount; i++) {
+            Level level = attempt(seed, firstAttempt + i, isFound);
+
+            if (level != null) {
+                return level;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param graph The room graph.
+     * @return The most rooms that are reachable from each other.
+     */
+    private static int getMaxReachableRooms(RoomGraph graph) {
+        boolean[] isCounted = new boolean[graph.roomCount];
+        int maxReachableRooms = 0;
+
+        for (int room = 0; room < graph.roomCount; room++) {
+            if (isCounted[room]) {
+                continue;
+            }
+
+            int[] distances = graph.computeDistances(room);
+            int reachableRooms = 0;
+
+            for (int otherRoom = room; otherRoom < graph.roomCount; otherRoom++) {
+                if (distances[otherRoom] != RoomGraph.UNREACHABLE) {
+                    isCounted[otherRoom] = true;
+                    reachableRooms++;
+                }
+            }
+
+            maxReachableRooms = Math.max(maxReachableRooms, reachableRooms);
+        }
+
+        return maxReachableRooms;
+    }
+}
@@ -0,0 +1,182 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Dungeon;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.LevelHeader;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.LevelWriter;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Generates a dungeon of several floors, each an ordinary maze with rooms.
+ * <p/>
+ * The stairs between floors are hashed from the dungeon seed before any floor is generated, so every floor knows where
+ * its stairs are without waiting for the others. Each floor then draws from its own randomizer, seeded by the dungeon
+ * seed and its index, and carves a path from each of its stairs to the nearest corridor. The floors are independent
+ * of each other, so they can be generated in parallel, and the dungeon is the same whichever order they finish in.
+ * <p/>
+ * Floors are kept run-length encoded in the binary level format, which is a small fraction of a {@link Level}.
+ */
+public class DungeonGenerator {
+    private static final long FLOOR_SALT = 0x510e527fade682d1L;
+    private static final long STAIRS_SALT = 0x9b05688c2b3e6c1fL;
+    private final ExecutorService executor;
+    private final int floorHeight;
+    private final int floorWidth;
+    private final MazeGenerator mazeGenerator;
+    private final LevelHeader parameters;
+    private final RoomGenerator roomGenerator;
+
+    /**
+     * Creates a new DungeonGenerator.
+     *
+     * @param floorWidth  The number of cells spanning each floor horizontally.
+     * @param floorHeight The number of cells spanning each floor vertically.
+     * @param parameters  The generation parameters of each floor, whose seed is the seed of the dungeon.
+     * @param executor    The executor to generate floors on, or null to generate them one after another.
+     */
+    public DungeonGenerator(int floorWidth, int floorHeight, LevelHeader parameters, ExecutorService executor) {
+        if (floorWidth < 1 || floorHeight < 1 || floorWidth * floorHeight < 2) {
+            throw new IllegalArgumentException("Floors must have at least 2 cells!");
+        }
+
+        this.floorWidth = floorWidth;
+        this.floorHeight = floorHeight;
+        this.parameters = parameters;
+        this.executor = executor;
+
+        mazeGenerator = new MazeGenerator(parameters.randomness, parameters.sparseness);
+        roomGenerator = new RoomGenerator(parameters.minRoomWidth, parameters.maxRoomWidth, parameters.minRoomHeight, parameters.maxRoomHeight);
+    }
+
+    /**
+     * Generates a dungeon.
+     *
+     * @param floorCount The number of floors.
+     * @return The dungeon.
+     */
+    public Dungeon generate(int floorCount) {
+        if (floorCount < 1) {
+            throw new IllegalArgumentException("Number of floors must be positive!");
+        }
+
+        final int[] stairCells = createStairs(floorCount);
+        byte[][] floors = new byte[floorCount][];
+
+        if (executor == null) {
+            for (int floor = 0; floor < floorCount; floor++) {
+                floors[floor] = generateFloor(floor, stairCells);
+            }
+        } else {
+            List<Callable<byte[]>> tasks = new ArrayList<Callable<byte[]>>(floorCount);
+
+            for (int floor = 0; floor < floorCount; floor++) {
+                final int floorIndex = floor;
+
+                tasks.add(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() {
+                        return generateFloor(floorIndex, stairCells);
+                    }
+                });
+            }
+
+            ParallelRunner.invokeAll(executor, tasks, "Dungeon generation").toArray(floors);
+        }
+
+        // The centre tile of each stair cell
+        int[] stairPositions = new int[stairCells.length];
+        for (int i = 0; i < stairCells.length; i++) {
+            stairPositions[i] = stairCells[i] * 2 + 1;
+        }
+
+        return new Dungeon(floors, stairPositions);
+    }
+
+    /**
+     * Hashes the cell of the stairs below each floor but the last. The stairs up and down from any floor are never
+     * in the same cell.
+     *
+     * @param floorCount The number of floors.
+     * @return The cell co-ordinates of each stairs, as consecutive x and y pairs.
+     */
+    private int[] createStairs(int floorCount) {
+        int[] stairCells = new int[(floorCount - 1) * 2];
+
+        for (int floor = 0; floor < floorCount - 1; floor++) {
+            long hash = GeneratorHelper.mix(parameters.seed ^ STAIRS_SALT ^ GeneratorHelper.mix(floor));
+            int x;
+            int y;
+
+            do {
+                x = (int) ((hash & 0x7fffffffL) % floorWidth);
+                y = (int) (((hash >>> 32) & 0x7fffffffL) % floorHeight);
+                hash = GeneratorHelper.mix(hash);
+            } while (floor > 0 && x == stairCells[floor * 2 - 2] && y == stairCells[floor * 2 - 1]);
+
+            stairCells[floor * 2] = x;
+            stairCells[floor * 2 + 1] = y;
+        }
+
+        return stairCells;
+    }
+
+    /**
+     * Generates a floor on the current thread. The result only depends on the dungeon seed, the floor and its stairs.
+     *
+     * @param floor      The index of the floor.
+     * @param stairCells The cell co-ordinates of each stairs, as consecutive x and y pairs.
+     * @return The floor in the binary level format.
+     */
+    private byte[] generateFloor(final int floor, final int[] stairCells) {
+        final long floorSeed = GeneratorHelper.mix(parameters.seed ^ FLOOR_SALT ^ GeneratorHelper.mix(floor));
+
+        return Randomizer.runSeeded(floorSeed, new Randomizer.ISeededTask<byte[]>() {
+            @Override
+            public byte[] run() {
+                Room map = mazeGenerator.generate(0, 0, floorWidth, floorHeight);
+                roomGenerator.createRooms(map, parameters.numRooms);
+
+                // Stairs up, then stairs down
+                if (floor > 0) {
+                    GeneratorHelper.connectToCorridor(map, stairCells[floor * 2 - 2], stairCells[floor * 2 - 1]);
+                }
+
+                if (floor < stairCells.length / 2) {
+                    GeneratorHelper.connectToCorridor(map, stairCells[floor * 2], stairCells[floor * 2 + 1]);
+                }
+
+                RoomGenerator.createDoors(map);
+                Level level = LevelGenerator.expandToTiles(map);
+
+                LevelHeader header = new LevelHeader(
+                        floorSeed,
+                        parameters.randomness,
+                        parameters.sparseness,
+                        parameters.minRoomWidth,
+                        parameters.maxRoomWidth,
+                        parameters.minRoomHeight,
+                        parameters.maxRoomHeight,
+                        parameters.numRooms);
+
+                ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+                try {
+                    LevelWriter.write(level, header, true, stream);
+                } catch (IOException e) {
+                    // Nothing is written anywhere but memory
+                    throw new IllegalStateException(String.format("Floor %d could not be written!", floor), e);
+                }
+
+                return stream.toByteArray();
+            }
+        });
+    }
+}
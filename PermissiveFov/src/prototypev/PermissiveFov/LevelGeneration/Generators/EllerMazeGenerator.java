@@ -0,0 +1,188 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.CellGrid;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates a maze of unbounded height one row at a time, by Eller's algorithm.
+ * Only the set each cell of the current row belongs to is remembered, so memory depends only on the width.
+ * <p/>
+ * Each row is emitted as one int per cell, with bit {@code 1 << direction.getValue()} set for each open side.
+ * Every prefix of rows, closed by {@link #lastRow(int[])}, is a perfect maze.
+ */
+public class EllerMazeGenerator {
+    private static final int SOUTH_CHANCE = 50;
+    public final int width;
+    private final boolean[] hasOpenedSouth;
+    private final int horizontalBias;
+    private final int[] labels;
+    private final int[] parents;
+    private final Random random;
+    private final int[] remainingCounts;
+    private boolean isClosed;
+    private long rowCount;
+
+    /**
+     * Creates a new EllerMazeGenerator, seeded from the {@link Randomizer}.
+     *
+     * @param width          The number of cells spanning the maze horizontally.
+     * @param horizontalBias A value between 0 - 100 indicating how often neighbouring cells in a row are joined.
+     */
+    public EllerMazeGenerator(int width, int horizontalBias) {
+        this(width, horizontalBias, Randomizer.getInstance().nextLong());
+    }
+
+    /**
+     * Creates a new EllerMazeGenerator.
+     *
+     * @param width          The number of cells spanning the maze horizontally.
+     * @param horizontalBias A value between 0 - 100 indicating how often neighbouring cells in a row are joined.
+     * @param seed           The seed of the maze.
+     */
+    public EllerMazeGenerator(int width, int horizontalBias, long seed) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width must be positive!");
+        }
+
+        if (horizontalBias < 0 || horizontalBias > 100) {
+            throw new IllegalArgumentException("horizontalBias must be between 0 and 100!");
+        }
+
+        this.width = width;
+        this.horizontalBias = horizontalBias;
+
+        hasOpenedSouth = new boolean[width];
+        labels = new int[width];
+        parents = new int[width];
+        remainingCounts = new int[width];
+        random = new Random(seed);
+
+        // No cell of the first row is connected from above
+        Arrays.fill(labels, -1);
+    }
+
+    /**
+     * @param sides     The sides of a cell.
+     * @param direction The direction to check.
+     * @return true if the side in the specified direction is open; otherwise false.
+     */
+    public static boolean isOpen(int sides, DirectionType direction) {
+        return (sides & (1 << direction.getValue())) != 0;
+    }
+
+    /**
+     * @return The number of rows generated so far.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Generates the last row, joining every set that is still apart, so the maze has no open sides to the south.
+     * No more rows can be generated afterwards.
+     *
+     * @param sides Receives the sides of each cell in the row.
+     */
+    public void lastRow(int[] sides) {
+        generateRow(sides, true);
+        isClosed = true;
+    }
+
+    /**
+     * Generates the next row.
+     *
+     * @param sides Receives the sides of each cell in the row.
+     */
+    public void nextRow(int[] sides) {
+        generateRow(sides, false);
+    }
+
+    /**
+     * @param sides     Receives the sides of each cell in the row.
+     * @param isLastRow true to join every set and open nothing to the south; otherwise false.
+     */
+    private void generateRow(int[] sides, boolean isLastRow) {
+        if (isClosed) {
+            throw new IllegalStateException("The maze has already been closed!");
+        }
+
+        if (sides.length != width) {
+            throw new IllegalArgumentException(String.format("sides has %d cells but the maze is %d cells wide!", sides.length, width));
+        }
+
+        final int northSide = 1 << DirectionType.NORTH.getValue();
+        final int westSide = 1 << DirectionType.WEST.getValue();
+        final int southSide = 1 << DirectionType.SOUTH.getValue();
+        final int eastSide = 1 << DirectionType.EAST.getValue();
+
+        // Each cell connected from above carries down its set, labelled by the first cell of the set that was
+        for (int x = 0; x < width; x++) {
+            int label = labels[x];
+
+            if (label < 0) {
+                sides[x] = 0;
+                parents[x] = x;
+            } else {
+                sides[x] = northSide;
+                parents[x] = label;
+            }
+        }
+
+        // Join neighbouring cells of different sets at random
+        for (int x = 0; x < width - 1; x++) {
+            int root = CellGrid.find(parents, x);
+            int adjacentRoot = CellGrid.find(parents, x + 1);
+
+            if (root != adjacentRoot && (isLastRow || random.nextInt(100) < horizontalBias)) {
+                parents[Math.max(root, adjacentRoot)] = Math.min(root, adjacentRoot);
+                sides[x] |= eastSide;
+                sides[x + 1] |= westSide;
+            }
+        }
+
+        rowCount++;
+
+        if (isLastRow) {
+            return;
+        }
+
+        // Open each set to the south at random, but at least once so that it stays connected to the rest of the maze
+        Arrays.fill(remainingCounts, 0);
+        Arrays.fill(hasOpenedSouth, false);
+        for (int x = 0; x < width; x++) {
+            remainingCounts[CellGrid.find(parents, x)]++;
+        }
+
+        for (int x = 0; x < width; x++) {
+            int root = CellGrid.find(parents, x);
+            remainingCounts[root]--;
+
+            if (random.nextInt(100) < SOUTH_CHANCE || (remainingCounts[root] == 0 && !hasOpenedSouth[root])) {
+                sides[x] |= southSide;
+                hasOpenedSouth[root] = true;
+                labels[x] = root;
+            } else {
+                labels[x] = -1;
+            }
+        }
+
+        // Roots are always the first cell of their set, which may not have been opened to the south,
+        // so relabel each set by the first of its cells that was
+        Arrays.fill(remainingCounts, -1);
+        for (int x = 0; x < width; x++) {
+            int label = labels[x];
+
+            if (label >= 0) {
+                if (remainingCounts[label] < 0) {
+                    remainingCounts[label] = x;
+                }
+
+                labels[x] = remainingCounts[label];
+            }
+        }
+    }
+}
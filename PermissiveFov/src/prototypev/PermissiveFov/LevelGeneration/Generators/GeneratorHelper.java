@@ -0,0 +1,86 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.CellGrid;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+
+import java.util.Arrays;
+
+/**
+ * Helpers shared by the generators that build levels out of several independently seeded maps,
+ * such as the chunks of a world or the floors of a dungeon.
+ */
+public class GeneratorHelper {
+    private GeneratorHelper() {
+    }
+
+    /**
+     * Carves a path from a cell to the nearest corridor, going through rock if it has to.
+     * If there are no corridors at all, the path goes to the middle of the map instead,
+     * so that every cell connected this way is still connected to every other.
+     *
+     * @param map The map.
+     * @param x   The horizontal component of the cell.
+     * @param y   The vertical component of the cell.
+     */
+    public static void connectToCorridor(Room map, int x, int y) {
+        final int width = map.width;
+        final int cellCount = width * map.height;
+
+        int start = y * width + x;
+        int centre = map.height / 2 * width + width / 2;
+
+        int[] previous = new int[cellCount];
+        Arrays.fill(previous, -1);
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+
+        previous[start] = start;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int index = queue[head++];
+
+            if (index == centre || map.getCellAt(index % width, index / width).isCorridor()) {
+                // Carve back to the start
+                for (int i = index; i != start; i = previous[i]) {
+                    int previousIndex = previous[i];
+                    map.setCellSide(previousIndex % width, previousIndex / width, CellGrid.getDirection(previousIndex, i, width), SideType.EMPTY);
+                }
+
+                return;
+            }
+
+            int cellX = index % width;
+            int cellY = index / width;
+
+            for (DirectionType direction : DirectionType.values()) {
+                if (!map.hasAdjacentCell(cellX, cellY, direction)) {
+                    continue;
+                }
+
+                int adjacentIndex = CellGrid.getAdjacentIndex(index, direction, width);
+                if (previous[adjacentIndex] < 0) {
+                    previous[adjacentIndex] = index;
+                    queue[tail++] = adjacentIndex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scrambles the bits of a value, so that nearby inputs give unrelated outputs.
+     * Seeds derived this way, e.g. {@code mix(seed ^ mix(index))}, are independent of each other.
+     *
+     * @param value The value.
+     * @return The scrambled value.
+     */
+    public static long mix(long value) {
+        // The SplitMix64 finalizer
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
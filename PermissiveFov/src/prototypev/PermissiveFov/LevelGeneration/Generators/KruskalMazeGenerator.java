@@ -0,0 +1,260 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.CellGrid;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Generates mazes by randomized Kruskal's algorithm: every wall between two cells is visited in random order,
+ * and removed if the cells on either side are not yet connected.
+ * <p/>
+ * Walls are encoded as in {@link CellGrid}, and the cells are tracked in a union-find over their indices,
+ * with path halving and union by size.
+ * <p/>
+ * For very large mazes, the rows can be split into bands that are carved in parallel.
+ * Each band only ever touches its own cells, so the bands share the union-find without locking,
+ * and a final serial pass over the walls between bands stitches them into a single maze.
+ */
+public class KruskalMazeGenerator extends MazeGenerator {
+    private final ExecutorService executor;
+    private final int partitionCount;
+
+    /**
+     * Creates a new KruskalMazeGenerator.
+     *
+     * @param sparseness A value between 0 - 100 indicating the degree of sparseness.
+     */
+    public KruskalMazeGenerator(int sparseness) {
+        this(sparseness, null, 1);
+    }
+
+    /**
+     * Creates a new KruskalMazeGenerator, which carves bands of rows in parallel.
+     *
+     * @param sparseness     A value between 0 - 100 indicating the degree of sparseness.
+     * @param executor       The executor to carve bands on, or null to carve the whole maze serially.
+     * @param partitionCount The number of bands of rows to split the maze into.
+     */
+    public KruskalMazeGenerator(int sparseness, ExecutorService executor, int partitionCount) {
+        // Kruskal's algorithm never walks in a direction, so there is nothing for randomness to bias
+        super(0, sparseness);
+
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive!");
+        }
+
+        this.executor = executor;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Creates a dense maze in the specified room.
+     *
+     * @param room The containing room.
+     */
+    @Override
+    protected void createDenseMaze(Room room) {
+        int cellCount = room.width * room.height;
+
+        int[] parents = new int[cellCount];
+        int[] sizes = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+
+        int bandCount = executor != null ? Math.min(partitionCount, room.height) : 1;
+
+        // Every band gets its own random number generator, so the maze does not depend on the order they run in
+        long[] seeds = new long[bandCount + 1];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = Randomizer.getInstance().nextLong();
+        }
+
+        // The metrics counters are not thread-safe, so a room that counts them has its bands carved one after another,
+        // which still gives the same maze
+        if (bandCount > 1 && !room.isMetricsEnabled()) {
+            carveBandsInParallel(room, bandCount, parents, sizes, seeds);
+        } else {
+            for (int i = 0; i < bandCount; i++) {
+                int firstRow = getFirstRow(room, bandCount, i);
+                int rowCount = getFirstRow(room, bandCount, i + 1) - firstRow;
+
+                carveBand(room, firstRow, rowCount, parents, sizes, new Random(seeds[i]));
+            }
+        }
+
+        stitchBands(room, bandCount, parents, sizes, new Random(seeds[bandCount]));
+
+        for (Cell cell : room.getCells()) {
+            cell.setVisited(true);
+        }
+    }
+
+    /**
+     * Carves a maze through a band of rows.
+     *
+     * @param room     The containing room.
+     * @param firstRow The first row of the band, relative to the room.
+     * @param rowCount The number of rows in the band.
+     * @param parents  The union-find parent of each cell.
+     * @param sizes    The union-find size of each cell's set, valid for roots only.
+     * @param random   The random number generator.
+     */
+    private static void carveBand(Room room, int firstRow, int rowCount, int[] parents, int[] sizes, Random random) {
+        final int width = room.width;
+
+        int[] walls = new int[(width - 1) * rowCount + width * (rowCount - 1)];
+        int wallCount = 0;
+
+        for (int y = firstRow; y < firstRow + rowCount; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+
+                if (x < width - 1) {
+                    walls[wallCount++] = CellGrid.getEastWall(index);
+                }
+
+                if (y < firstRow + rowCount - 1) {
+                    walls[wallCount++] = CellGrid.getSouthWall(index);
+                }
+            }
+        }
+
+        carveWalls(room, walls, parents, sizes, random);
+    }
+
+    /**
+     * Carves the bands of rows in parallel.
+     *
+     * @param room      The containing room.
+     * @param bandCount The number of bands.
+     * @param parents   The union-find parent of each cell.
+     * @param sizes     The union-find size of each cell's set, valid for roots only.
+     * @param seeds     The seed of each band's random number generator.
+     */
+    private void carveBandsInParallel(final Room room, int bandCount, final int[] parents, final int[] sizes, long[] seeds) {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(bandCount);
+
+        for (int i = 0; i < bandCount; i++) {
+            final int firstRow = getFirstRow(room, bandCount, i);
+            final int rowCount = getFirstRow(room, bandCount, i + 1) - firstRow;
+            final Random random = new Random(seeds[i]);
+
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    carveBand(room, firstRow, rowCount, parents, sizes, random);
+                    return null;
+                }
+            });
+        }
+
+        ParallelRunner.invokeAll(executor, tasks, "Maze generation");
+    }
+
+    /**
+     * Shuffles the walls, then removes each one whose cells are not connected yet.
+     *
+     * @param room    The containing room.
+     * @param walls   The walls to visit.
+     * @param parents The union-find parent of each cell.
+     * @param sizes   The union-find size of each cell's set, valid for roots only.
+     * @param random  The random number generator.
+     */
+    private static void carveWalls(Room room, int[] walls, int[] parents, int[] sizes, Random random) {
+        final int width = room.width;
+
+        // Fisher-Yates shuffle
+        for (int i = walls.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int wall = walls[i];
+            walls[i] = walls[j];
+            walls[j] = wall;
+        }
+
+        for (int wall : walls) {
+            int index = CellGrid.getWallIndex(wall);
+            DirectionType direction = CellGrid.getWallDirection(wall);
+
+            if (union(parents, sizes, index, CellGrid.getAdjacentIndex(index, direction, width))) {
+                room.setCellSide(room.getLeft() + index % width, room.getTop() + index / width, direction, SideType.EMPTY);
+            }
+        }
+    }
+
+    /**
+     * @param room      The containing room.
+     * @param bandCount The number of bands.
+     * @param band      The index of the band.
+     * @return The first row of the band, relative to the room.
+     */
+    private static int getFirstRow(Room room, int bandCount, int band) {
+        return room.height * band / bandCount;
+    }
+
+    /**
+     * Connects the bands through the walls between them, visited in random order.
+     *
+     * @param room      The containing room.
+     * @param bandCount The number of bands.
+     * @param parents   The union-find parent of each cell.
+     * @param sizes     The union-find size of each cell's set, valid for roots only.
+     * @param random    The random number generator.
+     */
+    private static void stitchBands(Room room, int bandCount, int[] parents, int[] sizes, Random random) {
+        final int width = room.width;
+
+        int[] walls = new int[width * (bandCount - 1)];
+        int wallCount = 0;
+
+        for (int i = 1; i < bandCount; i++) {
+            // The south walls of the last row of the band above
+            int y = getFirstRow(room, bandCount, i) - 1;
+
+            for (int x = 0; x < width; x++) {
+                walls[wallCount++] = CellGrid.getSouthWall(y * width + x);
+            }
+        }
+
+        carveWalls(room, walls, parents, sizes, random);
+    }
+
+    /**
+     * Joins the sets of two cells, the smaller under the larger.
+     *
+     * @param parents The union-find parent of each cell.
+     * @param sizes   The union-find size of each cell's set, valid for roots only.
+     * @param first   The index of the first cell.
+     * @param second  The index of the second cell.
+     * @return true if the cells were in different sets; otherwise false.
+     */
+    private static boolean union(int[] parents, int[] sizes, int first, int second) {
+        int firstRoot = CellGrid.find(parents, first);
+        int secondRoot = CellGrid.find(parents, second);
+
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+
+        if (sizes[firstRoot] < sizes[secondRoot]) {
+            int root = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = root;
+        }
+
+        parents[secondRoot] = firstRoot;
+        sizes[firstRoot] += sizes[secondRoot];
+
+        return true;
+    }
+}
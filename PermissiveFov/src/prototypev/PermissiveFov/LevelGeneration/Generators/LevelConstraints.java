@@ -0,0 +1,34 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+/**
+ * The qualities a level has to have for {@link ConstrainedLevelGenerator} to accept it.
+ */
+public class LevelConstraints {
+    public final int maxCorridorPercent;
+    public final int maxDeadEnds;
+    public final int minCorridorPercent;
+    public final int minReachableRooms;
+
+    /**
+     * Creates a new LevelConstraints.
+     *
+     * @param minReachableRooms  The fewest rooms that have to be reachable from each other.
+     * @param minCorridorPercent A value between 0 - 100, the lowest percentage of cells outside rooms that are corridors.
+     * @param maxCorridorPercent A value between 0 - 100, the highest percentage of cells outside rooms that are corridors.
+     * @param maxDeadEnds        The most dead-end corridor cells allowed.
+     */
+    public LevelConstraints(int minReachableRooms, int minCorridorPercent, int maxCorridorPercent, int maxDeadEnds) {
+        if (minReachableRooms < 0 || maxDeadEnds < 0) {
+            throw new IllegalArgumentException("Number of rooms and dead ends must not be negative!");
+        }
+
+        if (minCorridorPercent < 0 || maxCorridorPercent > 100 || minCorridorPercent > maxCorridorPercent) {
+            throw new IllegalArgumentException("Corridor percentages must be an ascending range between 0 and 100!");
+        }
+
+        this.minReachableRooms = minReachableRooms;
+        this.minCorridorPercent = minCorridorPercent;
+        this.maxCorridorPercent = maxCorridorPercent;
+        this.maxDeadEnds = maxDeadEnds;
+    }
+}
@@ -3,6 +3,8 @@ package prototypev.PermissiveFov.LevelGeneration.Generators;
 import prototypev.PermissiveFov.LevelGeneration.DirectionType;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
 import prototypev.PermissiveFov.LevelGeneration.SideType;
 import prototypev.PermissiveFov.LevelGeneration.TileType;
@@ -17,26 +19,57 @@ public class LevelGenerator {
             RoomGenerator roomGenerator,
             int numRooms) {
 
-        Room map = mazeGenerator.generate(0, 0, width, height);
-        System.out.println("Generated maze:");
-        System.out.println(map);
+        return generate(width, height, mazeGenerator, roomGenerator, numRooms, null, 0);
+    }
 
-        roomGenerator.createRooms(map, numRooms);
-        System.out.println("After rooms are placed:");
-        System.out.println(map);
+    /**
+     * Generates a level whose rooms are sometimes stamped from prefabs.
+     *
+     * @param width         The number of cells spanning the level horizontally.
+     * @param height        The number of cells spanning the level vertically.
+     * @param mazeGenerator The maze generator.
+     * @param roomGenerator The room generator.
+     * @param numRooms      The number of rooms.
+     * @param prefabs       The prefabs to choose from, or null to only create empty rooms.
+     * @param prefabPercent A value between 0 - 100 indicating how often a prefab is used, when there is one of the chosen dimensions.
+     * @return The generated level.
+     */
+    public static Level generate(
+            int width,
+            int height,
+            MazeGenerator mazeGenerator,
+            RoomGenerator roomGenerator,
+            int numRooms,
+            PrefabLibrary prefabs,
+            int prefabPercent) {
 
+        Room map = mazeGenerator.generate(0, 0, width, height);
+        roomGenerator.createRooms(map, numRooms, prefabs, prefabPercent);
         RoomGenerator.createDoors(map);
-        System.out.println("After doors after placed:");
-        System.out.println(map);
 
-        Level level = expandToTiles(map);
-        System.out.println("After expanding to tiles:");
-        System.out.println(level);
+        return expandToTiles(map);
+    }
 
-        return level;
+    /**
+     * Generates a level whose rooms are laid out by binary space partitioning, instead of being placed in a maze.
+     * The generator makes its own doors where its corridors reach the rooms, so no more are added.
+     *
+     * @param width            The number of cells spanning the level horizontally.
+     * @param height           The number of cells spanning the level vertically.
+     * @param bspRoomGenerator The room generator.
+     * @return The generated level.
+     */
+    public static Level generate(int width, int height, BspRoomGenerator bspRoomGenerator) {
+        Room map = bspRoomGenerator.generate(0, 0, width, height);
+
+        return expandToTiles(map);
     }
 
-    private static Level expandToTiles(Room room) {
+    /**
+     * @param room The map.
+     * @return The map expanded to tiles.
+     */
+    static Level expandToTiles(Room room) {
         // The size of the expanded room is 1+ twice the original size.
         // The reason for this is that there will always be a ring of rock around the
         // map, and a tile for each of the sides are shared between the map cells.
@@ -58,12 +91,18 @@ public class LevelGenerator {
             int maxX = (roomX + innerRoom.width) * 2;
             int maxY = (roomY + innerRoom.height) * 2;
 
-            // Fill the room in tile space with an empty value
-            for (int y = minY; y < maxY; y++) {
-                for (int x = minX; x < maxX; x++) {
-                    level.setTileTypeAt(x, y, TileType.EMPTY);
+            if (innerRoom.getPrefab() != null) {
+                expandPrefab(level, innerRoom);
+            } else {
+                // Fill the room in tile space with an empty value
+                for (int y = minY; y < maxY; y++) {
+                    for (int x = minX; x < maxX; x++) {
+                        level.setTileTypeAt(x, y, TileType.EMPTY);
+                    }
                 }
             }
+
+            level.addRoom(minX, minY, maxX - minX, maxY - minY);
         }
 
         // Loop for each corridor cell and expand it
@@ -97,6 +136,65 @@ public class LevelGenerator {
             }
         }
 
+        // Prefabs have the last word on their tiles, including the walls around them
+        for (Room innerRoom : rooms) {
+            Prefab prefab = innerRoom.getPrefab();
+
+            if (prefab != null && prefab.hasTileOverrides()) {
+                int left = innerRoom.getLeft() * 2;
+                int top = innerRoom.getTop() * 2;
+
+                for (int y = 0; y < prefab.getTileHeight(); y++) {
+                    for (int x = 0; x < prefab.getTileWidth(); x++) {
+                        TileType tileType = prefab.getTileOverride(x, y);
+
+                        if (tileType != TileType.UNDEFINED) {
+                            level.setTileTypeAt(left + x, top + y, tileType);
+                        }
+                    }
+                }
+            }
+        }
+
         return level;
     }
+
+    /**
+     * Expands the inside of a prefab room to tiles, keeping the walls between its cells.
+     * A corner between four cells is only empty if all four sides meeting there are.
+     *
+     * @param level The level.
+     * @param room  The prefab room.
+     */
+    private static void expandPrefab(Level level, Room room) {
+        int left = room.getLeft();
+        int top = room.getTop();
+
+        for (int y = top; y < top + room.height; y++) {
+            for (int x = left; x < left + room.width; x++) {
+                Cell cell = room.getCellAt(x, y);
+                int tileX = x * 2 + 1;
+                int tileY = y * 2 + 1;
+
+                level.setTileTypeAt(tileX, tileY, cell.getWallCount() < DirectionType.size ? TileType.EMPTY : TileType.WALL);
+
+                if (x < left + room.width - 1) {
+                    level.setTileTypeAt(tileX + 1, tileY, cell.getSide(DirectionType.EAST).toTileType());
+                }
+
+                if (y < top + room.height - 1) {
+                    level.setTileTypeAt(tileX, tileY + 1, cell.getSide(DirectionType.SOUTH).toTileType());
+                }
+
+                if (x < left + room.width - 1 && y < top + room.height - 1) {
+                    boolean isOpen = cell.getSide(DirectionType.EAST) == SideType.EMPTY &&
+                            cell.getSide(DirectionType.SOUTH) == SideType.EMPTY &&
+                            room.getCellAt(x + 1, y + 1).getSide(DirectionType.WEST) == SideType.EMPTY &&
+                            room.getCellAt(x + 1, y + 1).getSide(DirectionType.NORTH) == SideType.EMPTY;
+
+                    level.setTileTypeAt(tileX + 1, tileY + 1, isOpen ? TileType.EMPTY : TileType.WALL);
+                }
+            }
+        }
+    }
 }
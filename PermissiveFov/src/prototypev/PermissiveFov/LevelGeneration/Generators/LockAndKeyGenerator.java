@@ -0,0 +1,319 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.LockLayout;
+import prototypev.PermissiveFov.LevelGeneration.Entities.RoomGraph;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.Arrays;
+
+/**
+ * Locks doors along the critical path of a level and hides the key to each somewhere in its rooms,
+ * repairing the placement until the exit can always be reached.
+ * <p/>
+ * Solvability is checked by a breadth-first search over states of a node and the set of keys held, packed into an int
+ * as the node shifted left by {@link #MAX_KEY_COUNT} bits with the key set as a bitmask in the low bits.
+ * States already visited are kept in an open-addressed hash set of ints, so the search never boxes a state.
+ */
+public class LockAndKeyGenerator {
+    public static final int MAX_KEY_COUNT = 8;
+    private static final int KEY_MASK = (1 << MAX_KEY_COUNT) - 1;
+    private final int keyCount;
+
+    /**
+     * Creates a new LockAndKeyGenerator.
+     *
+     * @param keyCount The number of key types, at most {@link #MAX_KEY_COUNT}.
+     */
+    public LockAndKeyGenerator(int keyCount) {
+        if (keyCount < 0 || keyCount > MAX_KEY_COUNT) {
+            throw new IllegalArgumentException(String.format("Number of keys must be between 0 and %d!", MAX_KEY_COUNT));
+        }
+
+        this.keyCount = keyCount;
+    }
+
+    /**
+     * @param graph     The room graph.
+     * @param layout    The lock layout.
+     * @param spawnNode The node the player starts in.
+     * @param exitNode  The node of the exit.
+     * @return true if the exit can be reached from the spawn point, picking up keys along the way; otherwise false.
+     */
+    public static boolean isSolvable(RoomGraph graph, LockLayout layout, int spawnNode, int exitNode) {
+        if (layout.getKeyCount() > MAX_KEY_COUNT) {
+            throw new IllegalArgumentException(String.format("There can be at most %d keys!", MAX_KEY_COUNT));
+        }
+
+        boolean[] reachedNodes = new boolean[graph.getNodeCount()];
+        search(graph, getEdgeLocks(graph, layout), getNodeKeys(graph, layout), spawnNode, reachedNodes);
+
+        return reachedNodes[exitNode];
+    }
+
+    /**
+     * Moves keys until the exit can be reached from the spawn point. Each key that cannot be picked up is moved
+     * to a random room that can be reached with the keys that can, so each repair frees at least one more key.
+     *
+     * @param graph     The room graph.
+     * @param layout    The lock layout.
+     * @param spawnNode The node the player starts in.
+     * @param exitNode  The node of the exit, which must be reachable from the spawn point once every door is unlocked.
+     * @return The repaired layout, or the same layout if it is already solvable.
+     */
+    public static LockLayout repair(RoomGraph graph, LockLayout layout, int spawnNode, int exitNode) {
+        if (layout.getKeyCount() > MAX_KEY_COUNT) {
+            throw new IllegalArgumentException(String.format("There can be at most %d keys!", MAX_KEY_COUNT));
+        }
+
+        int[] edgeLocks = getEdgeLocks(graph, layout);
+        int[] keyNodes = new int[layout.getKeyCount()];
+        for (int key = 0; key < keyNodes.length; key++) {
+            keyNodes[key] = layout.getKeyNode(key);
+        }
+
+        boolean[] reachedNodes = new boolean[graph.getNodeCount()];
+        int[] candidates = new int[graph.getNodeCount()];
+        boolean isRepaired = false;
+
+        while (true) {
+            Arrays.fill(reachedNodes, false);
+            int heldKeys = search(graph, edgeLocks, getNodeKeys(graph.getNodeCount(), keyNodes), spawnNode, reachedNodes);
+
+            if (reachedNodes[exitNode]) {
+                return isRepaired ? new LockLayout(edgeLocks, keyNodes) : layout;
+            }
+
+            int missingKey = Integer.numberOfTrailingZeros(~heldKeys);
+            if (missingKey >= keyNodes.length) {
+                throw new IllegalArgumentException("Exit must be reachable from the spawn point!");
+            }
+
+            // Prefer rooms to hide the key in, falling back to corridors if no room can be reached
+            int candidateCount = 0;
+            for (int node = 0; node < graph.roomCount; node++) {
+                if (reachedNodes[node]) {
+                    candidates[candidateCount++] = node;
+                }
+            }
+
+            if (candidateCount == 0) {
+                for (int node = graph.roomCount; node < graph.getNodeCount(); node++) {
+                    if (reachedNodes[node]) {
+                        candidates[candidateCount++] = node;
+                    }
+                }
+            }
+
+            keyNodes[missingKey] = candidates[Randomizer.getInstance().nextInt(candidateCount)];
+            isRepaired = true;
+        }
+    }
+
+    /**
+     * Locks edges at random along the critical path from the spawn point to the exit, in the order of their keys,
+     * and hides each key in a random room before repairing the layout.
+     * If the critical path has fewer edges than there are keys, only as many keys as there are edges are used.
+     *
+     * @param graph     The room graph.
+     * @param spawnNode The node the player starts in.
+     * @param exitNode  The node of the exit.
+     * @return The lock layout, which is always solvable.
+     */
+    public LockLayout generate(RoomGraph graph, int spawnNode, int exitNode) {
+        int[] path = graph.findCriticalPath(spawnNode, exitNode);
+        if (path.length == 0) {
+            throw new IllegalArgumentException("Exit must be reachable from the spawn point!");
+        }
+
+        int lockCount = Math.min(keyCount, path.length - 1);
+
+        // Choose which steps of the path to lock by a partial Fisher-Yates shuffle, then lock them in path order
+        int[] steps = new int[path.length - 1];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = i;
+        }
+
+        for (int i = 0; i < lockCount; i++) {
+            int j = i + Randomizer.getInstance().nextInt(steps.length - i);
+            int step = steps[j];
+            steps[j] = steps[i];
+            steps[i] = step;
+        }
+
+        Arrays.sort(steps, 0, lockCount);
+
+        int[] edgeLocks = new int[graph.getEdgeCount()];
+        Arrays.fill(edgeLocks, LockLayout.NO_LOCK);
+
+        for (int key = 0; key < lockCount; key++) {
+            int step = steps[key];
+            edgeLocks[graph.findEdge(path[step], path[step + 1])] = key;
+        }
+
+        int[] keyNodes = new int[lockCount];
+        int nodeCount = graph.roomCount > 0 ? graph.roomCount : graph.getNodeCount();
+        for (int key = 0; key < lockCount; key++) {
+            keyNodes[key] = Randomizer.getInstance().nextInt(nodeCount);
+        }
+
+        return repair(graph, new LockLayout(edgeLocks, keyNodes), spawnNode, exitNode);
+    }
+
+    /**
+     * @param graph  The room graph.
+     * @param layout The lock layout.
+     * @return The key type that opens each edge, or {@link LockLayout#NO_LOCK}.
+     */
+    private static int[] getEdgeLocks(RoomGraph graph, LockLayout layout) {
+        int[] edgeLocks = new int[graph.getEdgeCount()];
+        for (int edge = 0; edge < edgeLocks.length; edge++) {
+            edgeLocks[edge] = layout.getLock(edge);
+        }
+
+        return edgeLocks;
+    }
+
+    /**
+     * @param graph  The room graph.
+     * @param layout The lock layout.
+     * @return The keys found in each node, as a bitmask.
+     */
+    private static int[] getNodeKeys(RoomGraph graph, LockLayout layout) {
+        int[] keyNodes = new int[layout.getKeyCount()];
+        for (int key = 0; key < keyNodes.length; key++) {
+            keyNodes[key] = layout.getKeyNode(key);
+        }
+
+        return getNodeKeys(graph.getNodeCount(), keyNodes);
+    }
+
+    /**
+     * @param nodeCount The number of nodes.
+     * @param keyNodes  The node each key type is found in.
+     * @return The keys found in each node, as a bitmask.
+     */
+    private static int[] getNodeKeys(int nodeCount, int[] keyNodes) {
+        int[] nodeKeys = new int[nodeCount];
+        for (int key = 0; key < keyNodes.length; key++) {
+            nodeKeys[keyNodes[key]] |= 1 << key;
+        }
+
+        return nodeKeys;
+    }
+
+    /**
+     * Searches every state reachable from the spawn point, picking up each key on entering its node.
+     *
+     * @param graph        The room graph.
+     * @param edgeLocks    The key type that opens each edge, or {@link LockLayout#NO_LOCK}.
+     * @param nodeKeys     The keys found in each node, as a bitmask.
+     * @param spawnNode    The node the player starts in.
+     * @param reachedNodes Receives whether each node can be reached with any set of keys.
+     * @return Every key that can be picked up, as a bitmask.
+     */
+    private static int search(RoomGraph graph, int[] edgeLocks, int[] nodeKeys, int spawnNode, boolean[] reachedNodes) {
+        StateSet visitedStates = new StateSet();
+        int[] queue = new int[16];
+        int head = 0;
+        int tail = 0;
+        int heldKeys = 0;
+
+        int start = (spawnNode << MAX_KEY_COUNT) | nodeKeys[spawnNode];
+        visitedStates.add(start);
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int state = queue[head++];
+            int node = state >>> MAX_KEY_COUNT;
+            int keys = state & KEY_MASK;
+
+            reachedNodes[node] = true;
+            heldKeys |= keys;
+
+            for (int i = 0; i < graph.getDegree(node); i++) {
+                int lock = edgeLocks[graph.getAdjacentEdge(node, i)];
+                if (lock != LockLayout.NO_LOCK && (keys & (1 << lock)) == 0) {
+                    continue;
+                }
+
+                int adjacentNode = graph.getAdjacentNode(node, i);
+                int adjacentState = (adjacentNode << MAX_KEY_COUNT) | keys | nodeKeys[adjacentNode];
+
+                if (visitedStates.add(adjacentState)) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+
+                    queue[tail++] = adjacentState;
+                }
+            }
+        }
+
+        return heldKeys;
+    }
+
+    /**
+     * An open-addressed hash set of non-negative ints, probed linearly.
+     */
+    private static class StateSet {
+        private int size;
+        private int[] slots = new int[64];
+
+        /**
+         * Adds a state to the set.
+         *
+         * @param state The state, which must not be negative.
+         * @return true if the state was not already in the set; otherwise false.
+         */
+        public boolean add(int state) {
+            if ((size + 1) * 2 > slots.length) {
+                resize();
+            }
+
+            // Slots hold the state plus one, so that an empty slot is 0
+            if (insert(slots, state + 1)) {
+                size++;
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * @param slots The slots.
+         * @param value The value to insert.
+         * @return true if the value was inserted; otherwise false, if it was already there.
+         */
+        private static boolean insert(int[] slots, int value) {
+            int mask = slots.length - 1;
+            int hash = value * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+
+            while (slots[slot] != 0) {
+                if (slots[slot] == value) {
+                    return false;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = value;
+            return true;
+        }
+
+        /**
+         * Doubles the number of slots, reinserting every value.
+         */
+        private void resize() {
+            int[] newSlots = new int[slots.length * 2];
+
+            for (int value : slots) {
+                if (value != 0) {
+                    insert(newSlots, value);
+                }
+            }
+
+            slots = newSlots;
+        }
+    }
+}
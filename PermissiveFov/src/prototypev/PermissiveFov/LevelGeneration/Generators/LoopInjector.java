@@ -0,0 +1,242 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.CellGrid;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+
+/**
+ * Adds loops to a maze by opening walls between cells that are far apart along the maze.
+ * <p/>
+ * The corridors of a maze form a tree, so the distance between two cells is their distances to the root, less twice
+ * the distance of their lowest common ancestor. Ancestors are found from an Euler tour of the tree: the lowest common
+ * ancestor of two cells is the shallowest cell visited between their first visits, which a sparse table finds in
+ * constant time. Every wall in the maze is then tested in a single pass, rather than searching from each one.
+ * Walls are encoded as in {@link CellGrid}.
+ */
+public class LoopInjector {
+    private static final DirectionType[] DIRECTIONS = DirectionType.values();
+    private final int loopCount;
+    private final int minDistance;
+
+    /**
+     * Creates a new LoopInjector.
+     *
+     * @param loopCount   The most walls to open.
+     * @param minDistance The shortest route along the maze between the cells on either side of a wall for it to be opened.
+     */
+    public LoopInjector(int loopCount, int minDistance) {
+        if (loopCount < 0) {
+            throw new IllegalArgumentException("Number of loops must not be negative!");
+        }
+
+        if (minDistance < 1) {
+            throw new IllegalArgumentException("Minimum distance must be positive!");
+        }
+
+        this.loopCount = loopCount;
+        this.minDistance = minDistance;
+    }
+
+    /**
+     * Opens walls between corridor cells of the specified room that are at least the minimum distance apart,
+     * chosen at random. Distances are measured along the maze before any wall is opened.
+     * Rock cells are left alone, as are walls between corridors that are not connected at all.
+     *
+     * @param room The room, whose corridors should form a tree.
+     * @return The number of walls opened.
+     */
+    public int injectLoops(Room room) {
+        int width = room.width;
+        int height = room.height;
+        int left = room.getLeft();
+        int top = room.getTop();
+        int cellCount = width * height;
+
+        // Read the open sides of every cell once, rather than looking them up for each walk
+        int[] openSides = new int[cellCount];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Cell cell = room.getCellAt(left + x, top + y);
+                int sides = 0;
+
+                for (DirectionType direction : DirectionType.values()) {
+                    if (cell.getSide(direction) == SideType.EMPTY &&
+                            room.hasAdjacentCell(left + x, top + y, direction)) {
+                        sides |= 1 << direction.getValue();
+                    }
+                }
+
+                openSides[y * width + x] = sides;
+            }
+        }
+
+        int[] components = new int[cellCount];
+        int[] depths = new int[cellCount];
+        int[] firstVisits = new int[cellCount];
+        int[] tour = new int[cellCount * 2];
+        int tourLength = walkTrees(openSides, width, components, depths, firstVisits, tour);
+
+        int[][] sparseTable = createSparseTable(tour, tourLength, depths);
+
+        // Gather every wall between connected cells that are far enough apart
+        int[] walls = new int[cellCount * 2];
+        int wallCount = 0;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+
+                if (x < width - 1 && (openSides[index] & (1 << DirectionType.EAST.getValue())) == 0 &&
+                        isFarEnough(index, index + 1, components, depths, firstVisits, sparseTable)) {
+                    walls[wallCount++] = CellGrid.getEastWall(index);
+                }
+
+                if (y < height - 1 && (openSides[index] & (1 << DirectionType.SOUTH.getValue())) == 0 &&
+                        isFarEnough(index, index + width, components, depths, firstVisits, sparseTable)) {
+                    walls[wallCount++] = CellGrid.getSouthWall(index);
+                }
+            }
+        }
+
+        // Choose the walls to open by a partial Fisher-Yates shuffle
+        int openCount = Math.min(loopCount, wallCount);
+        for (int i = 0; i < openCount; i++) {
+            int j = i + Randomizer.getInstance().nextInt(wallCount - i);
+            int wall = walls[j];
+            walls[j] = walls[i];
+
+            int index = CellGrid.getWallIndex(wall);
+            room.setCellSide(left + index % width, top + index / width, CellGrid.getWallDirection(wall), SideType.EMPTY);
+        }
+
+        return openCount;
+    }
+
+    /**
+     * Creates a sparse table over an Euler tour, whose level k holds the shallowest cell in each run of 2^k visits.
+     *
+     * @param tour       The cells in the order they are visited.
+     * @param tourLength The number of visits.
+     * @param depths     The depth of each cell.
+     * @return The sparse table.
+     */
+    private static int[][] createSparseTable(int[] tour, int tourLength, int[] depths) {
+        int levelCount = tourLength > 0 ? 32 - Integer.numberOfLeadingZeros(tourLength) : 1;
+        int[][] sparseTable = new int[levelCount][];
+
+        sparseTable[0] = new int[tourLength];
+        System.arraycopy(tour, 0, sparseTable[0], 0, tourLength);
+
+        for (int level = 1; level < levelCount; level++) {
+            int[] previous = sparseTable[level - 1];
+            int half = 1 << (level - 1);
+            int[] current = new int[tourLength - (1 << level) + 1];
+
+            for (int i = 0; i < current.length; i++) {
+                int first = previous[i];
+                int second = previous[i + half];
+                current[i] = depths[first] <= depths[second] ? first : second;
+            }
+
+            sparseTable[level] = current;
+        }
+
+        return sparseTable;
+    }
+
+    /**
+     * @param first       The index of the first cell.
+     * @param second      The index of the second cell.
+     * @param components  The tree each cell belongs to, or 0 for rock.
+     * @param depths      The depth of each cell.
+     * @param firstVisits The index in the Euler tour of the first visit to each cell.
+     * @param sparseTable The sparse table over the Euler tour.
+     * @return true if both cells are in the same tree and at least the minimum distance apart along it; otherwise false.
+     */
+    private boolean isFarEnough(int first, int second, int[] components, int[] depths, int[] firstVisits, int[][] sparseTable) {
+        if (components[first] == 0 || components[first] != components[second]) {
+            return false;
+        }
+
+        int start = Math.min(firstVisits[first], firstVisits[second]);
+        int end = Math.max(firstVisits[first], firstVisits[second]);
+
+        // Two overlapping runs of 2^level visits cover the whole range
+        int level = 31 - Integer.numberOfLeadingZeros(end - start + 1);
+        int[] shallowest = sparseTable[level];
+        int candidate1 = shallowest[start];
+        int candidate2 = shallowest[end - (1 << level) + 1];
+        int ancestorDepth = Math.min(depths[candidate1], depths[candidate2]);
+
+        return depths[first] + depths[second] - ancestorDepth * 2 >= minDistance;
+    }
+
+    /**
+     * Walks each tree of corridors depth first, recording an Euler tour of them all.
+     * Open sides leading back to a cell already visited are not followed, so a maze that already has loops
+     * is measured along the spanning tree of the walk.
+     *
+     * @param openSides   The open sides of each cell, one bit for each direction.
+     * @param width       The number of cells spanning the room horizontally.
+     * @param components  Receives the tree each cell belongs to, numbered from 1, or 0 for rock.
+     * @param depths      Receives the depth of each cell.
+     * @param firstVisits Receives the index in the Euler tour of the first visit to each cell.
+     * @param tour        Receives the cells in the order they are visited.
+     * @return The number of visits.
+     */
+    private static int walkTrees(int[] openSides, int width, int[] components, int[] depths, int[] firstVisits, int[] tour) {
+        int cellCount = openSides.length;
+        int[] stack = new int[cellCount];
+        int[] nextDirections = new int[cellCount];
+        int tourLength = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < cellCount; root++) {
+            if (openSides[root] == 0 || components[root] != 0) {
+                continue;
+            }
+
+            componentCount++;
+            components[root] = componentCount;
+            firstVisits[root] = tourLength;
+            tour[tourLength++] = root;
+
+            int stackSize = 0;
+            stack[stackSize++] = root;
+
+            while (stackSize > 0) {
+                int index = stack[stackSize - 1];
+
+                if (nextDirections[index] < DirectionType.size) {
+                    DirectionType direction = DIRECTIONS[nextDirections[index]++];
+                    if ((openSides[index] & (1 << direction.getValue())) == 0) {
+                        continue;
+                    }
+
+                    int adjacentIndex = CellGrid.getAdjacentIndex(index, direction, width);
+                    if (components[adjacentIndex] != 0) {
+                        continue;
+                    }
+
+                    components[adjacentIndex] = componentCount;
+                    depths[adjacentIndex] = depths[index] + 1;
+                    firstVisits[adjacentIndex] = tourLength;
+                    tour[tourLength++] = adjacentIndex;
+                    stack[stackSize++] = adjacentIndex;
+                } else {
+                    stackSize--;
+
+                    // Returning to the parent visits it again
+                    if (stackSize > 0) {
+                        tour[tourLength++] = stack[stackSize - 1];
+                    }
+                }
+            }
+        }
+
+        return tourLength;
+    }
+}
@@ -6,10 +6,12 @@ import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
 import prototypev.PermissiveFov.LevelGeneration.SideType;
 import prototypev.PermissiveFov.Randomizer;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 public class MazeGenerator {
+    private final LoopInjector loopInjector;
     private final int randomness;
     private final int sparseness;
 
@@ -20,6 +22,17 @@ public class MazeGenerator {
      * @param sparseness A value between 0 - 100 indicating the degree of sparseness.
      */
     public MazeGenerator(int randomness, int sparseness) {
+        this(randomness, sparseness, null);
+    }
+
+    /**
+     * Creates a new MazeGenerator, which adds loops to each maze once it is made sparse.
+     *
+     * @param randomness   A value between 0 - 100 indicating the degree of randomness.
+     * @param sparseness   A value between 0 - 100 indicating the degree of sparseness.
+     * @param loopInjector The loop injector, or null to leave each maze a tree.
+     */
+    public MazeGenerator(int randomness, int sparseness, LoopInjector loopInjector) {
         if (randomness < 0 || randomness > 100) {
             throw new IllegalArgumentException("randomness must be between 0 and 100!");
         }
@@ -28,6 +41,7 @@ public class MazeGenerator {
             throw new IllegalArgumentException("sparseness must be between 0 and 100!");
         }
 
+        this.loopInjector = loopInjector;
         this.randomness = randomness;
         this.sparseness = sparseness;
     }
@@ -41,10 +55,24 @@ public class MazeGenerator {
      */
     public Room generate(int top, int left, int width, int height) {
         Room room = Room.createFilledRoom(top, left, width, height);
+        generate(room);
+
+        return room;
+    }
+
+    /**
+     * Generates a maze in a room the caller has created, e.g. to enable its metrics while every cell is still rock,
+     * so that they are kept up to date from the start instead of counted over the finished maze.
+     *
+     * @param room The room, created by {@link Room#createFilledRoom(int, int, int, int)} and not yet carved.
+     */
+    public void generate(Room room) {
         createDenseMaze(room);
         makeSparse(room);
 
-        return room;
+        if (loopInjector != null) {
+            loopInjector.injectLoops(room);
+        }
     }
 
     /**
@@ -91,16 +119,21 @@ public class MazeGenerator {
      *
      * @param room The containing room.
      */
-    private void createDenseMaze(Room room) {
+    protected void createDenseMaze(Room room) {
+        // Keep track of the visited cells as we go, rather than rescanning the room for them
+        int cellCount = room.width * room.height;
+        List<Cell> visitedCells = new ArrayList<Cell>(cellCount);
+
         // Pick a random cell in the grid and mark it visited.
         Cell currentCell = getRandomCell(room);
         currentCell.setVisited(true);
+        visitedCells.add(currentCell);
 
         DirectionType previousDirection = DirectionType.NORTH;
         DirectionPicker directionPicker = new DirectionPicker(previousDirection, randomness);
 
         // Repeat until all cells have been visited
-        while (!room.isAllCellsVisited()) {
+        while (visitedCells.size() < cellCount) {
             // From the current cell, pick a random direction
             DirectionType direction = directionPicker.getNextDirection();
 
@@ -113,7 +146,7 @@ public class MazeGenerator {
                     direction = directionPicker.getNextDirection();
                 } else {
                     // If all directions are invalid, pick a different random previously visited cell
-                    currentCell = getRandomVisitedCellExcluding(room, currentCell.getX(), currentCell.getY());
+                    currentCell = getRandomVisitedCellExcluding(visitedCells, currentCell);
 
                     directionPicker.reset(previousDirection);
                     direction = directionPicker.getNextDirection();
@@ -128,6 +161,7 @@ public class MazeGenerator {
 
             // Mark the adjacent cell as visited
             currentCell.setVisited(true);
+            visitedCells.add(currentCell);
 
             previousDirection = direction;
             directionPicker.reset(previousDirection);
@@ -146,33 +180,21 @@ public class MazeGenerator {
     }
 
     /**
-     * @param room The containing room.
-     * @param x    The horizontal component of the cell to exclude.
-     * @param y    The vertical component of the cell to exclude.
+     * @param visitedCells The cells visited so far.
+     * @param excludedCell The cell to exclude.
      * @return A random visited cell.
      */
-    private Cell getRandomVisitedCellExcluding(Room room, int x, int y) {
-        if (room.isOutOfBounds(x, y)) {
-            throw new IllegalStateException(String.format("(%d, %d) is out of bounds!", x, y));
-        }
-
-        List<Cell> visitedCells = room.getVisitedCells();
-        if (visitedCells.isEmpty()) {
+    private Cell getRandomVisitedCellExcluding(List<Cell> visitedCells, Cell excludedCell) {
+        if (visitedCells.size() < 2) {
             throw new IllegalStateException("There are no visited cells to return.");
         }
 
         // Do not include starting point
-        Iterator<Cell> iterator = visitedCells.iterator();
-        while (iterator.hasNext()) {
-            Cell cell = iterator.next();
-            if (cell.getX() == x && cell.getY() == y) {
-                iterator.remove();
-                break;
-            }
-        }
-
-        int index = Randomizer.getInstance().nextInt(visitedCells.size());
-        Cell pickedCell = visitedCells.get(index);
+        Cell pickedCell;
+        do {
+            int index = Randomizer.getInstance().nextInt(visitedCells.size());
+            pickedCell = visitedCells.get(index);
+        } while (pickedCell == excludedCell);
 
         return pickedCell;
     }
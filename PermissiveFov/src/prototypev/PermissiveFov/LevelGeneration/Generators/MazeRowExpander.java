@@ -0,0 +1,87 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+
+/**
+ * Expands the rows of an {@link EllerMazeGenerator} into a level one at a time, using the level as a ring buffer
+ * of tile rows. Each cell row takes two tile rows, the sides to the north of its cells and the cells themselves,
+ * so a level that is {@code 2 * n} tiles high always holds the last {@code n} cell rows, and the first row brings
+ * the wall along the top of the maze with it.
+ * Expanding a row costs time proportional to the width and allocates nothing, so rows can be expanded every frame
+ * just ahead of the player.
+ * <p/>
+ * Every expanded row is marked dirty so the views of the level update. The dirty regions are left for whoever
+ * updates the views to clear with {@link Level#clearDirtyRegions()}, the same as for any other change to the level.
+ * Each row touches the one before it, so until then they merge into a single region instead of piling up.
+ */
+public class MazeRowExpander {
+    private final EllerMazeGenerator generator;
+    private final Level level;
+    private final int[] sides;
+
+    /**
+     * Creates a new MazeRowExpander.
+     *
+     * @param generator The generator of the rows.
+     * @param level     The level to expand the rows into, {@code 2 * width + 1} tiles wide and an even number of tiles high.
+     */
+    public MazeRowExpander(EllerMazeGenerator generator, Level level) {
+        if (level.width != generator.width * 2 + 1) {
+            throw new IllegalArgumentException(String.format("Level must be %d tiles wide!", generator.width * 2 + 1));
+        }
+
+        if (level.height < 2 || level.height % 2 != 0) {
+            throw new IllegalArgumentException("Level height must be a positive even number!");
+        }
+
+        this.generator = generator;
+        this.level = level;
+
+        sides = new int[generator.width];
+    }
+
+    /**
+     * Generates the next row and expands it into the level, replacing the oldest row in it.
+     */
+    public void expandRow() {
+        int tileRow = getTileRow(generator.getRowCount());
+        int northTileRow = tileRow - 1;
+        generator.nextRow(sides);
+
+        // The west edge and the corners between cells are always walls
+        level.setTileTypeAt(0, northTileRow, TileType.WALL);
+        level.setTileTypeAt(0, tileRow, TileType.WALL);
+
+        for (int x = 0; x < sides.length; x++) {
+            int tileX = x * 2 + 1;
+
+            // The first row is closed to the north, which makes the top border
+            level.setTileTypeAt(tileX, northTileRow, getSideTileType(sides[x], DirectionType.NORTH));
+            level.setTileTypeAt(tileX + 1, northTileRow, TileType.WALL);
+            level.setTileTypeAt(tileX, tileRow, TileType.EMPTY);
+            level.setTileTypeAt(tileX + 1, tileRow, getSideTileType(sides[x], DirectionType.EAST));
+        }
+
+        level.markDirty(0, northTileRow, level.width, 2);
+    }
+
+    /**
+     * @param row The index of a cell row, counting from the first row ever generated.
+     * @return The tile row holding the cells of the row, while it is still held in the level.
+     * The sides to the north of the cells are in the tile row above it.
+     */
+    public int getTileRow(long row) {
+        return (int) ((row * 2 + 1) % level.height);
+    }
+
+    /**
+     * @param sides     The sides of a cell.
+     * @param direction The direction of the side.
+     * @return The tile type of the side.
+     */
+    private static TileType getSideTileType(int sides, DirectionType direction) {
+        return EllerMazeGenerator.isOpen(sides, direction) ? TileType.EMPTY : TileType.WALL;
+    }
+}
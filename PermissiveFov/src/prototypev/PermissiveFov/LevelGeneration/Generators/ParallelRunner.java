@@ -0,0 +1,99 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the tasks of a generator on an executor and waits for them.
+ * <p/>
+ * If waiting is interrupted, the interrupt is restored and an {@link IllegalStateException} is thrown.
+ * If a task fails, its cause is rethrown wrapped in an {@link IllegalStateException}.
+ * Either way, and once the result is known, every task that is still running or waiting to run is cancelled.
+ */
+public class ParallelRunner {
+    private ParallelRunner() {
+    }
+
+    /**
+     * Runs every task and waits for all of them.
+     *
+     * @param executor The executor to run the tasks on.
+     * @param tasks    The tasks.
+     * @param taskName The name of what the tasks do together, for error messages, e.g. "Room placement".
+     * @return The result of each task, in the order the tasks were given.
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, List<? extends Callable<T>> tasks, String taskName) {
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            List<T> results = new ArrayList<T>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("%s was interrupted!", taskName), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(String.format("%s failed!", taskName), e.getCause());
+        } finally {
+            cancel(futures);
+        }
+    }
+
+    /**
+     * Runs every task until one of them has a result, in whatever order they finish.
+     *
+     * @param executor The executor to run the tasks on.
+     * @param tasks    The tasks, each of which returns null if it has no result.
+     * @param taskName The name of what the tasks do together, for error messages, e.g. "Room placement".
+     * @return The result of the first task to finish with one, or null if none of them has a result.
+     */
+    public static <T> T invokeFirst(ExecutorService executor, List<? extends Callable<T>> tasks, String taskName) {
+        CompletionService<T> completionService = new ExecutorCompletionService<T>(executor);
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(completionService.submit(task));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                T result = completionService.take().get();
+
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("%s was interrupted!", taskName), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(String.format("%s failed!", taskName), e.getCause());
+        } finally {
+            cancel(futures);
+        }
+    }
+
+    /**
+     * @param futures The futures to cancel, interrupting any that are running.
+     */
+    private static <T> void cancel(List<Future<T>> futures) {
+        for (Future<T> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
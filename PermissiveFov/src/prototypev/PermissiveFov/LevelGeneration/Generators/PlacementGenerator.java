@@ -0,0 +1,312 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Placement;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.Arrays;
+
+/**
+ * Places the spawn point, the exit and the items of a level.
+ * Every step is a fixed number of passes over the tiles, so placement never samples and retries.
+ */
+public class PlacementGenerator {
+    public static final int UNREACHABLE = -1;
+    private static final int[][] adjacentTileDeltas = new int[][]{{0, -1}, {-1, 0}, {1, 0}, {0, 1}};
+    private final int itemCount;
+
+    /**
+     * Creates a new PlacementGenerator.
+     *
+     * @param itemCount The number of items to place.
+     */
+    public PlacementGenerator(int itemCount) {
+        if (itemCount < 0) {
+            throw new IllegalArgumentException("Number of items must not be negative!");
+        }
+
+        this.itemCount = itemCount;
+    }
+
+    /**
+     * Computes the number of steps from each walkable tile to the specified tile, by a breadth-first search.
+     *
+     * @param level The level.
+     * @param x     The horizontal component of the tile to measure from.
+     * @param y     The vertical component of the tile to measure from.
+     * @return The path distance of each tile in row-major order, or {@link #UNREACHABLE} if there is no path.
+     */
+    public static int[] computePathDistances(Level level, int x, int y) {
+        int[] distances = new int[level.width * level.height];
+        Arrays.fill(distances, UNREACHABLE);
+
+        if (level.isOutOfBounds(x, y) || !isWalkable(level.getTileTypeAt(x, y))) {
+            return distances;
+        }
+
+        // Each tile is queued at most once, so the queue never needs to wrap
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+
+        int start = y * level.width + x;
+        distances[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int index = queue[head++];
+            int tileX = index % level.width;
+            int tileY = index / level.width;
+
+            for (int[] delta : adjacentTileDeltas) {
+                int adjacentX = tileX + delta[0];
+                int adjacentY = tileY + delta[1];
+
+                if (level.isOutOfBounds(adjacentX, adjacentY)) {
+                    continue;
+                }
+
+                int adjacentIndex = adjacentY * level.width + adjacentX;
+                if (distances[adjacentIndex] == UNREACHABLE && isWalkable(level.getTileTypeAt(adjacentX, adjacentY))) {
+                    distances[adjacentIndex] = distances[index] + 1;
+                    queue[tail++] = adjacentIndex;
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * Computes the city block distance from each tile to the nearest wall in two passes over the level.
+     * Anything outside of the level counts as a wall.
+     *
+     * @param level The level.
+     * @return The wall distance of each tile in row-major order, 0 for walls.
+     */
+    public static int[] computeWallDistances(Level level) {
+        final int width = level.width;
+        final int height = level.height;
+        int[] distances = new int[width * height];
+
+        // Forward pass: nearest wall above or to the left
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+
+                if (!isWalkable(level.getTileTypeAt(x, y))) {
+                    distances[index] = 0;
+                } else {
+                    int above = y > 0 ? distances[index - width] : 0;
+                    int left = x > 0 ? distances[index - 1] : 0;
+                    distances[index] = Math.min(above, left) + 1;
+                }
+            }
+        }
+
+        // Backward pass: nearest wall below or to the right
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = width - 1; x >= 0; x--) {
+                int index = y * width + x;
+
+                int below = y < height - 1 ? distances[index + width] : 0;
+                int right = x < width - 1 ? distances[index + 1] : 0;
+                distances[index] = Math.min(distances[index], Math.min(below, right) + 1);
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * Places the spawn point in the middle of a random room, the exit in the room furthest away from it by path,
+     * and the items at random among the remaining room tiles. Nothing is placed on doors or in dead ends,
+     * and everything is reachable from the spawn point.
+     * Levels without rooms fall back to corridor tiles.
+     *
+     * @param level The level.
+     * @return The placement.
+     */
+    public Placement generate(Level level) {
+        final int width = level.width;
+        int tileCount = width * level.height;
+
+        boolean[] candidates = new boolean[tileCount];
+        boolean hasRoomCandidates = false;
+        for (int i = 0; i < tileCount; i++) {
+            candidates[i] = isCandidate(level, i % width, i / width);
+            hasRoomCandidates |= candidates[i] && level.getRoomIndexAt(i % width, i / width) >= 0;
+        }
+
+        // Only keep room tiles, if there are any to keep
+        if (hasRoomCandidates) {
+            for (int i = 0; i < tileCount; i++) {
+                candidates[i] &= level.getRoomIndexAt(i % width, i / width) >= 0;
+            }
+        }
+
+        Randomizer randomizer = Randomizer.getInstance();
+
+        int spawn = hasRoomCandidates
+                ? findRoomCentre(level, candidates, randomizer)
+                : pickRandom(candidates, randomizer);
+
+        if (spawn < 0) {
+            throw new IllegalStateException("Level has nowhere to spawn!");
+        }
+
+        int[] pathDistances = computePathDistances(level, spawn % width, spawn / width);
+        int spawnRoomIndex = level.getRoomIndexAt(spawn % width, spawn / width);
+
+        // The exit goes on the tile furthest from the spawn point, preferably in another room
+        int exit = -1;
+        boolean isExitInOtherRoom = false;
+        for (int i = 0; i < tileCount; i++) {
+            if (!candidates[i] || pathDistances[i] <= 0) {
+                continue;
+            }
+
+            boolean isInOtherRoom = level.getRoomIndexAt(i % width, i / width) != spawnRoomIndex;
+            if (exit < 0 ||
+                    (isInOtherRoom && !isExitInOtherRoom) ||
+                    (isInOtherRoom == isExitInOtherRoom && pathDistances[i] > pathDistances[exit])) {
+                exit = i;
+                isExitInOtherRoom = isInOtherRoom;
+            }
+        }
+
+        if (exit < 0) {
+            throw new IllegalStateException("Level has nowhere to put the exit!");
+        }
+
+        // Items go on any other reachable candidate
+        candidates[spawn] = false;
+        candidates[exit] = false;
+        for (int i = 0; i < tileCount; i++) {
+            candidates[i] &= pathDistances[i] > 0;
+        }
+
+        int[] items = pickRandom(candidates, itemCount, randomizer);
+
+        int[] itemPositions = new int[items.length * 2];
+        for (int i = 0; i < items.length; i++) {
+            itemPositions[i * 2] = items[i] % width;
+            itemPositions[i * 2 + 1] = items[i] / width;
+        }
+
+        return new Placement(spawn % width, spawn / width, exit % width, exit / width, itemPositions);
+    }
+
+    /**
+     * Finds the candidate tile furthest from the walls of a random room that has any candidates.
+     *
+     * @param level      The level.
+     * @param candidates Whether each tile is a candidate.
+     * @param randomizer The randomizer.
+     * @return The index of the tile.
+     */
+    private static int findRoomCentre(Level level, boolean[] candidates, Randomizer randomizer) {
+        boolean[] roomHasCandidates = new boolean[level.getRoomCount()];
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i]) {
+                roomHasCandidates[level.getRoomIndexAt(i % level.width, i / level.width)] = true;
+            }
+        }
+
+        int roomIndex = pickRandom(roomHasCandidates, randomizer);
+
+        int[] wallDistances = computeWallDistances(level);
+
+        int left = level.getRoomLeft(roomIndex);
+        int top = level.getRoomTop(roomIndex);
+
+        int centre = -1;
+        for (int y = top; y < top + level.getRoomHeight(roomIndex); y++) {
+            for (int x = left; x < left + level.getRoomWidth(roomIndex); x++) {
+                int index = y * level.width + x;
+
+                if (candidates[index] && (centre < 0 || wallDistances[index] > wallDistances[centre])) {
+                    centre = index;
+                }
+            }
+        }
+
+        return centre;
+    }
+
+    /**
+     * @param level The level.
+     * @param x     The horizontal component.
+     * @param y     The vertical component.
+     * @return true if something can be placed on the tile; otherwise false.
+     */
+    private static boolean isCandidate(Level level, int x, int y) {
+        if (level.getTileTypeAt(x, y) != TileType.EMPTY) {
+            return false;
+        }
+
+        // Don't place anything in a dead end
+        int walkableCount = 0;
+        for (int[] delta : adjacentTileDeltas) {
+            int adjacentX = x + delta[0];
+            int adjacentY = y + delta[1];
+
+            if (!level.isOutOfBounds(adjacentX, adjacentY) && isWalkable(level.getTileTypeAt(adjacentX, adjacentY))) {
+                walkableCount++;
+            }
+        }
+
+        return walkableCount > 1;
+    }
+
+    /**
+     * @param tileType The tile type.
+     * @return true if the tile can be walked on; otherwise false.
+     */
+    private static boolean isWalkable(TileType tileType) {
+        return tileType == TileType.EMPTY || tileType == TileType.DOOR;
+    }
+
+    /**
+     * @param candidates Whether each index is a candidate.
+     * @param randomizer The randomizer.
+     * @return A uniformly random candidate index, or -1 if there are no candidates.
+     */
+    private static int pickRandom(boolean[] candidates, Randomizer randomizer) {
+        int[] picked = pickRandom(candidates, 1, randomizer);
+        return picked.length > 0 ? picked[0] : -1;
+    }
+
+    /**
+     * Picks distinct candidates uniformly at random in a single pass, by reservoir sampling.
+     *
+     * @param candidates Whether each index is a candidate.
+     * @param count      The number of candidates to pick.
+     * @param randomizer The randomizer.
+     * @return The picked indices. Fewer than requested if there are not enough candidates.
+     */
+    private static int[] pickRandom(boolean[] candidates, int count, Randomizer randomizer) {
+        int[] reservoir = new int[count];
+        int seen = 0;
+
+        for (int i = 0; i < candidates.length; i++) {
+            if (!candidates[i]) {
+                continue;
+            }
+
+            if (seen < count) {
+                reservoir[seen] = i;
+            } else {
+                int j = randomizer.nextInt(seen + 1);
+                if (j < count) {
+                    reservoir[j] = i;
+                }
+            }
+
+            seen++;
+        }
+
+        return seen < count ? Arrays.copyOf(reservoir, seen) : reservoir;
+    }
+}
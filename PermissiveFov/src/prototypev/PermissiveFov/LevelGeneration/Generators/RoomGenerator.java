@@ -2,17 +2,25 @@ package prototypev.PermissiveFov.LevelGeneration.Generators;
 
 import prototypev.PermissiveFov.LevelGeneration.DirectionType;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
 import prototypev.PermissiveFov.LevelGeneration.SideType;
 import prototypev.PermissiveFov.Randomizer;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 public class RoomGenerator {
+    private final ExecutorService executor;
     private final int maxHeight;
     private final int maxWidth;
     private final int minHeight;
     private final int minWidth;
+    private final int partitionCount;
 
     /**
      * Creates a new RoomGenerator with the specified constraints.
@@ -23,10 +31,31 @@ public class RoomGenerator {
      * @param maxHeight The maximum height of each room to create.
      */
     public RoomGenerator(int minWidth, int maxWidth, int minHeight, int maxHeight) {
+        this(minWidth, maxWidth, minHeight, maxHeight, null, 1);
+    }
+
+    /**
+     * Creates a new RoomGenerator with the specified constraints, which evaluates room placements in parallel.
+     * The rooms are placed exactly where they would be placed serially.
+     *
+     * @param minWidth       The minimum width of each room to create.
+     * @param maxWidth       The maximum width of each room to create.
+     * @param minHeight      The minimum height of each room to create.
+     * @param maxHeight      The maximum height of each room to create.
+     * @param executor       The executor to evaluate placements on, or null to evaluate them serially.
+     * @param partitionCount The number of bands of rows to split the candidate placements into.
+     */
+    public RoomGenerator(int minWidth, int maxWidth, int minHeight, int maxHeight, ExecutorService executor, int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive!");
+        }
+
         this.minWidth = minWidth;
         this.maxWidth = maxWidth;
         this.minHeight = minHeight;
         this.maxHeight = maxHeight;
+        this.executor = executor;
+        this.partitionCount = partitionCount;
     }
 
     /**
@@ -68,12 +97,9 @@ public class RoomGenerator {
                     roomPlacementScore += 3;
                 }
 
-                // Add 100 points if the cell overlaps any existing room cells
-                List<Room> existingRooms = container.getRooms();
-                for (Room existingRoom : existingRooms) {
-                    if (!existingRoom.isOutOfBounds(translatedX, translatedY)) {
-                        roomPlacementScore += 100;
-                    }
+                // Add 100 points if the cell overlaps an existing room
+                if (container.getRoomIndexAt(translatedX, translatedY) >= 0) {
+                    roomPlacementScore += 100;
                 }
 
             }
@@ -89,196 +115,224 @@ public class RoomGenerator {
      * @param numRooms  The number of rooms to create.
      */
     public void createRooms(Room container, int numRooms) {
+        createRooms(container, numRooms, null, 0);
+    }
+
+    /**
+     * Creates rooms of random dimensions bounded by the input parameters in the specified containing room,
+     * stamping a prefab of the chosen dimensions instead of an empty room some of the time.
+     * Prefabs are placed by the same scoring as any other room.
+     *
+     * @param container     The containing room.
+     * @param numRooms      The number of rooms to create.
+     * @param prefabs       The prefabs to choose from, or null to only create empty rooms.
+     * @param prefabPercent A value between 0 - 100 indicating how often a prefab is used, when there is one of the chosen dimensions.
+     */
+    public void createRooms(Room container, int numRooms, PrefabLibrary prefabs, int prefabPercent) {
+        RoomPlacementScorer scorer = new RoomPlacementScorer(container);
+
         for (int roomCounter = 0; roomCounter < numRooms; roomCounter++) {
             int width = Randomizer.getInstance().nextInt(minWidth, maxWidth);
             int height = Randomizer.getInstance().nextInt(minHeight, maxHeight);
-            Room room = Room.createWalledInRoom(0, 0, width, height);
+            Room room = createRoom(width, height, prefabs, prefabPercent);
 
-            int bestScore = Integer.MAX_VALUE;
-            int bestX = -1;
-            int bestY = -1;
+            int[] placement = executor != null && partitionCount > 1
+                    ? findBestPlacementInParallel(scorer, container, width, height)
+                    : findBestPlacement(scorer, container, container.getTop(), container.height, width, height);
 
-            // Ensure that rooms are always created adjacent to a corridor
-            List<Cell> corridorCells = container.getCorridorCells();
-            if (corridorCells.isEmpty()) {
+            if (placement == null) {
                 throw new IllegalStateException("Cannot place rooms if map has no corridors!");
             }
 
-            for (Cell cell : corridorCells) {
-                int currentRoomPlacementScore = getRoomPlacementScore(container, room, cell.getX(), cell.getY());
-                if (currentRoomPlacementScore < bestScore) {
-                    bestScore = currentRoomPlacementScore;
-                    bestX = cell.getX();
-                    bestY = cell.getY();
-                }
-            }
-
-            if (bestX < 0 || bestY < 0) {
+            if (placement[1] < 0 || placement[2] < 0) {
                 throw new IllegalStateException("Room placement point should have been initialized!");
             }
 
             // Create room at best room placement cell
-            container.addRoom(room, bestX, bestY);
+            scorer.addRoom(room, placement[1], placement[2]);
         }
     }
 
     /**
      * Creates doors in the specified room.
+     * Only the cells on the boundaries of each inner room are visited, walking each side once.
+     * Rooms created from prefabs instead get a door at each of their door slots that faces a corridor.
      *
      * @param room The room.
      */
-    static void createDoors(Room room) {
+    public static void createDoors(Room room) {
         List<Room> rooms = room.getRooms();
         for (Room innerRoom : rooms) {
+            // Prefabs only have doors where they were authored
+            if (innerRoom.getPrefab() != null) {
+                createPrefabDoors(room, innerRoom);
+                continue;
+            }
+
             int left = innerRoom.getLeft();
             int top = innerRoom.getTop();
+            int right = left + innerRoom.width - 1;
+            int bottom = top + innerRoom.height - 1;
 
-            Iterable<Cell> cells = innerRoom.getCells();
-            for (Cell cell : cells) {
-                int x = cell.getX();
-                int y = cell.getY();
-
-                // Check if we are on the boundaries of our room and if there is a corridor in that direction
-                if (y == top && room.isAdjacentCellCorridor(cell, DirectionType.NORTH)) {
-                    room.setCellSide(cell, DirectionType.NORTH, SideType.DOOR);
-                }
+            createSideDoors(room, left, top, 1, 0, innerRoom.width, DirectionType.NORTH);
+            createSideDoors(room, left, top, 0, 1, innerRoom.height, DirectionType.WEST);
+            createSideDoors(room, left, bottom, 1, 0, innerRoom.width, DirectionType.SOUTH);
+            createSideDoors(room, right, top, 0, 1, innerRoom.height, DirectionType.EAST);
+        }
+    }
 
-                if (x == left && room.isAdjacentCellCorridor(cell, DirectionType.WEST)) {
-                    room.setCellSide(cell, DirectionType.WEST, SideType.DOOR);
-                }
+    /**
+     * Opens each door slot of a prefab room that faces a corridor.
+     *
+     * @param room      The room containing the prefab room.
+     * @param innerRoom The prefab room.
+     */
+    private static void createPrefabDoors(Room room, Room innerRoom) {
+        Prefab prefab = innerRoom.getPrefab();
+        int left = innerRoom.getLeft();
+        int top = innerRoom.getTop();
 
-                if (y == top + innerRoom.height - 1 && room.isAdjacentCellCorridor(cell, DirectionType.SOUTH)) {
-                    room.setCellSide(cell, DirectionType.SOUTH, SideType.DOOR);
+        for (int y = 0; y < prefab.height; y++) {
+            for (int x = 0; x < prefab.width; x++) {
+                for (DirectionType direction : DirectionType.values()) {
+                    if (prefab.isDoorSlot(x, y, direction) && room.isAdjacentCellCorridor(left + x, top + y, direction)) {
+                        room.setCellSide(left + x, top + y, direction, SideType.DOOR);
+                    }
                 }
+            }
+        }
+    }
 
-                if (x == left + innerRoom.width - 1 && room.isAdjacentCellCorridor(cell, DirectionType.EAST)) {
-                    room.setCellSide(cell, DirectionType.EAST, SideType.DOOR);
-                }
+    /**
+     * @param width         The number of cells spanning the room horizontally.
+     * @param height        The number of cells spanning the room vertically.
+     * @param prefabs       The prefabs to choose from, or null for none.
+     * @param prefabPercent A value between 0 - 100 indicating how often a prefab is used.
+     * @return A room created from a prefab of the dimensions, or an empty room.
+     */
+    private static Room createRoom(int width, int height, PrefabLibrary prefabs, int prefabPercent) {
+        List<Prefab> candidates = prefabs != null ? prefabs.getPrefabs(width, height) : Collections.<Prefab>emptyList();
 
-                // Discard any redundant doors that surround this cell's location
-                removeRedundantDoors(room, cell);
-            }
+        // Nothing is drawn when there is no prefab to choose, so levels without prefabs come out as they always have
+        if (!candidates.isEmpty() && Randomizer.getInstance().nextInt(100) < prefabPercent) {
+            Prefab prefab = candidates.get(Randomizer.getInstance().nextInt(candidates.size()));
+            return Room.createFromPrefab(0, 0, prefab);
         }
+
+        return Room.createWalledInRoom(0, 0, width, height);
     }
 
     /**
-     * Removes redundant doors around the specified cell.
+     * Walks one side of a room in order, creating a door wherever a corridor runs alongside it.
+     * A straight run of corridor cells alongside the side is redundant after its first door,
+     * so only the last door of each run is kept, and the walk only has to remember the previous cell.
      *
-     * @param room The room containing the cell.
-     * @param cell The cell.
+     * @param room      The room containing the side.
+     * @param x         The horizontal component of the first cell of the side.
+     * @param y         The vertical component of the first cell of the side.
+     * @param stepX     The horizontal step between cells of the side.
+     * @param stepY     The vertical step between cells of the side.
+     * @param length    The number of cells along the side.
+     * @param direction The direction the side faces.
      */
-    private static void removeRedundantDoors(Room room, Cell cell) {
-        Cell cellNorth = room.getAdjacentCell(cell, DirectionType.NORTH);
-        Cell cellWest = room.getAdjacentCell(cell, DirectionType.WEST);
-        Cell cellSouth = room.getAdjacentCell(cell, DirectionType.SOUTH);
-        Cell cellEast = room.getAdjacentCell(cell, DirectionType.EAST);
-
-        // Remove redundant north side doors
-        if (cell.getSide(DirectionType.NORTH) == SideType.DOOR) {
-            if (cellNorth == null) {
-                throw new IllegalStateException("The cell to the north cannot possibly be null if the north side of the current cell is a door!");
-            }
+    private static void createSideDoors(Room room, int x, int y, int stepX, int stepY, int length, DirectionType direction) {
+        boolean isPreviousCorridor = false;
 
-            // If there is a cell to the west of the reference cell,
-            // check if that cell has a door to the north
-            if (cellWest != null && cellWest.getSide(DirectionType.NORTH) == SideType.DOOR) {
-                // Check if cell to the north of the current cell is a corridor to the west
-                if (room.isAdjacentCellCorridor(cellNorth, DirectionType.WEST)) {
-                    // Remove redundant door in west cell
-                    room.setCellSide(cellWest, DirectionType.NORTH, SideType.WALL);
-                }
-            }
+        for (int i = 0; i < length; i++) {
+            boolean isCorridor = room.isAdjacentCellCorridor(x, y, direction);
 
-            // If there is a cell to the east of the reference cell,
-            // check if that cell has a door to the north
-            if (cellEast != null && cellEast.getSide(DirectionType.NORTH) == SideType.DOOR) {
-                // Check if cell to the north of the current cell is a corridor to the east
-                if (room.isAdjacentCellCorridor(cellNorth, DirectionType.EAST)) {
-                    // Remove redundant door in east cell
-                    room.setCellSide(cellEast, DirectionType.NORTH, SideType.WALL);
-                }
+            // The previous cell ends a run of corridor cells
+            if (isPreviousCorridor && !isCorridor) {
+                room.setCellSide(x - stepX, y - stepY, direction, SideType.DOOR);
             }
+
+            isPreviousCorridor = isCorridor;
+            x += stepX;
+            y += stepY;
         }
 
-        // Remove redundant south side doors
-        if (cell.getSide(DirectionType.SOUTH) == SideType.DOOR) {
-            if (cellSouth == null) {
-                throw new IllegalStateException("The cell to the south cannot possibly be null if the south side of the current cell is a door!");
-            }
+        if (isPreviousCorridor) {
+            room.setCellSide(x - stepX, y - stepY, direction, SideType.DOOR);
+        }
+    }
 
-            // If there is a cell to the west of the reference cell,
-            // check if that cell has a door to the south
-            if (cellWest != null && cellWest.getSide(DirectionType.SOUTH) == SideType.DOOR) {
-                // Check if cell to the south of the current cell is a corridor to the west
-                if (room.isAdjacentCellCorridor(cellSouth, DirectionType.WEST)) {
-                    // Remove redundant door in west cell
-                    room.setCellSide(cellWest, DirectionType.SOUTH, SideType.WALL);
+    /**
+     * Finds the best placement of a room in a band of rows, scanning in row-major order.
+     * Ties go to the first placement scanned, which is the one with the smallest (y, x).
+     *
+     * @param scorer     The scorer of the containing room.
+     * @param container  The containing room.
+     * @param firstRow   The first row of the band.
+     * @param rowCount   The number of rows in the band.
+     * @param roomWidth  The number of cells spanning the room horizontally.
+     * @param roomHeight The number of cells spanning the room vertically.
+     * @return The best {score, x, y}, or null if the band has no corridors.
+     */
+    private static int[] findBestPlacement(RoomPlacementScorer scorer, Room container, int firstRow, int rowCount, int roomWidth, int roomHeight) {
+        int left = container.getLeft();
+
+        int bestScore = Integer.MAX_VALUE;
+        int bestX = -1;
+        int bestY = -1;
+        boolean hasCorridors = false;
+
+        // Ensure that rooms are always created adjacent to a corridor
+        for (int y = firstRow; y < firstRow + rowCount; y++) {
+            for (int x = left; x < left + container.width; x++) {
+                if (!scorer.isCorridor(x, y)) {
+                    continue;
                 }
-            }
 
-            // If there is a cell to the east of the reference cell, check if that
-            // cell has a door to the south
-            if (cellEast != null && cellEast.getSide(DirectionType.SOUTH) == SideType.DOOR) {
-                // Check if cell to the south of the current cell is a corridor to the east
-                if (room.isAdjacentCellCorridor(cellSouth, DirectionType.EAST)) {
-                    // Remove redundant door in east cell
-                    room.setCellSide(cellEast, DirectionType.SOUTH, SideType.WALL);
+                hasCorridors = true;
+
+                int currentRoomPlacementScore = scorer.getScore(x, y, roomWidth, roomHeight);
+                if (currentRoomPlacementScore < bestScore) {
+                    bestScore = currentRoomPlacementScore;
+                    bestX = x;
+                    bestY = y;
                 }
             }
         }
 
-        // Remove redundant west side doors
-        if (cell.getSide(DirectionType.WEST) == SideType.DOOR) {
-            if (cellWest == null) {
-                throw new IllegalStateException("The cell to the west cannot possibly be null if the west side of the current cell is a door!");
-            }
-
-            // If there is a cell to the north of the reference cell,
-            // check if that cell has a door to the west
-            if (cellNorth != null && cellNorth.getSide(DirectionType.WEST) == SideType.DOOR) {
-                // Check if cell to the west of the current cell is a corridor to the north
-                if (room.isAdjacentCellCorridor(cellWest, DirectionType.NORTH)) {
-                    // Remove redundant door in north cell
-                    room.setCellSide(cellNorth, DirectionType.WEST, SideType.WALL);
-                }
-            }
+        return hasCorridors ? new int[]{bestScore, bestX, bestY} : null;
+    }
 
-            // If there is a cell to the south of the reference cell,
-            // check if that cell has a door to the west
-            if (cellSouth != null && cellSouth.getSide(DirectionType.WEST) == SideType.DOOR) {
-                // Check if cell to the west of the current cell is a corridor to the south
-                if (room.isAdjacentCellCorridor(cellWest, DirectionType.SOUTH)) {
-                    // Remove redundant door in south cell
-                    room.setCellSide(cellSouth, DirectionType.WEST, SideType.WALL);
+    /**
+     * Finds the best placement of a room by splitting the rows of the container into bands and searching them in parallel.
+     * The bands are reduced in order and only a strictly lower score replaces the best so far,
+     * so ties are broken by the smallest (y, x) exactly as in a serial search.
+     *
+     * @param scorer     The scorer of the containing room.
+     * @param container  The containing room.
+     * @param roomWidth  The number of cells spanning the room horizontally.
+     * @param roomHeight The number of cells spanning the room vertically.
+     * @return The best {score, x, y}, or null if the container has no corridors.
+     */
+    private int[] findBestPlacementInParallel(final RoomPlacementScorer scorer, final Room container, final int roomWidth, final int roomHeight) {
+        int bandCount = Math.min(partitionCount, container.height);
+        List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>(bandCount);
+
+        // The scorer is only read while the bands are searched, so it can be shared between them
+        for (int i = 0; i < bandCount; i++) {
+            final int firstRow = container.getTop() + container.height * i / bandCount;
+            final int rowCount = container.getTop() + container.height * (i + 1) / bandCount - firstRow;
+
+            tasks.add(new Callable<int[]>() {
+                @Override
+                public int[] call() {
+                    return findBestPlacement(scorer, container, firstRow, rowCount, roomWidth, roomHeight);
                 }
-            }
+            });
         }
 
-        // Remove redundant east side doors
-        if (cell.getSide(DirectionType.EAST) == SideType.DOOR) {
-            if (cellEast == null) {
-                throw new IllegalStateException("The cell to the east cannot possibly be null if the east side of the current cell is a door!");
-            }
-
-            // If there is a cell to the north of the reference cell,
-            // check if that cell has a door to the east
-            if (cellNorth != null && cellNorth.getSide(DirectionType.EAST) == SideType.DOOR) {
-                // Check if cell to the east of the current cell is a corridor to the north
-                if (room.isAdjacentCellCorridor(cellEast, DirectionType.NORTH)) {
-                    // Remove redundant door in north cell
-                    room.setCellSide(cellNorth, DirectionType.EAST, SideType.WALL);
-                }
-            }
+        int[] best = null;
 
-            // If there is a cell to the south of the reference cell, check if that
-            // cell has a door to the east
-            if (cellSouth != null && cellSouth.getSide(DirectionType.EAST) == SideType.DOOR) {
-                // Check if cell to the east of the current cell is a corridor to the south
-                if (room.isAdjacentCellCorridor(cellEast, DirectionType.SOUTH)) {
-                    // Remove redundant door in south cell
-                    room.setCellSide(cellSouth, DirectionType.EAST, SideType.WALL);
-                }
+        for (int[] placement : ParallelRunner.invokeAll(executor, tasks, "Room placement")) {
+            if (placement != null && (best == null || placement[0] < best[0])) {
+                best = placement;
             }
         }
+
+        return best;
     }
 }
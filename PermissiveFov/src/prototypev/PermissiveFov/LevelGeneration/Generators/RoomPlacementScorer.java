@@ -0,0 +1,231 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+
+/**
+ * Scores room placements in a container in constant time, using summed-area tables of the three things
+ * {@link RoomGenerator#getRoomPlacementScore} counts for each cell: adjacent corridors, corridors and cells occupied by rooms.
+ * When a room is added, the per-cell counts are only updated in and around it, but every sum depends on the rows
+ * above it, so the tables are summed again from just above the room to the bottom of the container.
+ * A room near the top therefore costs as much as summing the whole container again.
+ */
+public class RoomPlacementScorer {
+    private static final int ADJACENT_CORRIDOR_SCORE = 1;
+    private static final int CORRIDOR_SCORE = 3;
+    private static final int OCCUPIED_SCORE = 100;
+    private final int[] adjacentCorridorCounts;
+    private final int[] adjacentCorridorSums;
+    private final Room container;
+    private final int[] corridorSums;
+    private final boolean[] corridors;
+    private final int height;
+    private final int left;
+    private final boolean[] occupied;
+    private final int[] occupiedSums;
+    private final int top;
+    private final int width;
+
+    /**
+     * Creates a new RoomPlacementScorer.
+     *
+     * @param container The containing room.
+     */
+    public RoomPlacementScorer(Room container) {
+        this.container = container;
+
+        left = container.getLeft();
+        top = container.getTop();
+        width = container.width;
+        height = container.height;
+
+        corridors = new boolean[width * height];
+        adjacentCorridorCounts = new int[width * height];
+        occupied = new boolean[width * height];
+
+        adjacentCorridorSums = new int[(width + 1) * (height + 1)];
+        corridorSums = new int[(width + 1) * (height + 1)];
+        occupiedSums = new int[(width + 1) * (height + 1)];
+
+        updateCorridors(0, 0, width, height);
+        updateAdjacentCorridorCounts(0, 0, width, height);
+        updateOccupied(0, 0, width, height);
+
+        accumulate(0);
+    }
+
+    /**
+     * Adds a room to the container and updates the tables around it.
+     *
+     * @param room The room to add.
+     * @param x    The horizontal component.
+     * @param y    The vertical component.
+     */
+    public void addRoom(Room room, int x, int y) {
+        container.addRoom(room, x, y);
+
+        int roomX = x - left;
+        int roomY = y - top;
+
+        // Adding the room walls it in, which can change whether the cells just outside of it are corridors,
+        // and in turn the adjacent corridor counts of the cells next to those.
+        updateCorridors(roomX - 1, roomY - 1, room.width + 2, room.height + 2);
+        updateAdjacentCorridorCounts(roomX - 2, roomY - 2, room.width + 4, room.height + 4);
+        updateOccupied(roomX, roomY, room.width, room.height);
+
+        // Every sum below the first changed row depends on it
+        accumulate(Math.max(0, roomY - 2));
+    }
+
+    /**
+     * @param x          The horizontal component of the location to place the room.
+     * @param y          The vertical component of the location to place the room.
+     * @param roomWidth  The number of cells spanning the room horizontally.
+     * @param roomHeight The number of cells spanning the room vertically.
+     * @return The placement score, the same as {@link RoomGenerator#getRoomPlacementScore}.
+     */
+    public int getScore(int x, int y, int roomWidth, int roomHeight) {
+        int roomX = x - left;
+        int roomY = y - top;
+
+        if (roomX < 0 || roomY < 0 || roomX + roomWidth > width || roomY + roomHeight > height) {
+            // Room does not fit inside container
+            return Integer.MAX_VALUE;
+        }
+
+        return ADJACENT_CORRIDOR_SCORE * getSum(adjacentCorridorSums, roomX, roomY, roomWidth, roomHeight) +
+                CORRIDOR_SCORE * getSum(corridorSums, roomX, roomY, roomWidth, roomHeight) +
+                OCCUPIED_SCORE * getSum(occupiedSums, roomX, roomY, roomWidth, roomHeight);
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return true if the cell at the specified co-ordinates is a corridor; otherwise false.
+     */
+    public boolean isCorridor(int x, int y) {
+        return corridors[(y - top) * width + x - left];
+    }
+
+    /**
+     * Recomputes the summed-area tables from the specified row downwards.
+     *
+     * @param firstRow The first row to recompute.
+     */
+    private void accumulate(int firstRow) {
+        final int stride = width + 1;
+
+        for (int y = firstRow; y < height; y++) {
+            // Running sums of the current row
+            int adjacentCorridorSum = 0;
+            int corridorSum = 0;
+            int occupiedSum = 0;
+
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+
+                adjacentCorridorSum += adjacentCorridorCounts[index];
+                corridorSum += corridors[index] ? 1 : 0;
+                occupiedSum += occupied[index] ? 1 : 0;
+
+                int sumIndex = (y + 1) * stride + x + 1;
+                adjacentCorridorSums[sumIndex] = adjacentCorridorSums[sumIndex - stride] + adjacentCorridorSum;
+                corridorSums[sumIndex] = corridorSums[sumIndex - stride] + corridorSum;
+                occupiedSums[sumIndex] = occupiedSums[sumIndex - stride] + occupiedSum;
+            }
+        }
+    }
+
+    /**
+     * @param sums       The summed-area table.
+     * @param x          The left bound of the rectangle, relative to the container.
+     * @param y          The top bound of the rectangle, relative to the container.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     * @return The sum of the values in the rectangle.
+     */
+    private int getSum(int[] sums, int x, int y, int rectWidth, int rectHeight) {
+        final int stride = width + 1;
+
+        int right = x + rectWidth;
+        int bottom = y + rectHeight;
+
+        return sums[bottom * stride + right] - sums[y * stride + right] - sums[bottom * stride + x] + sums[y * stride + x];
+    }
+
+    /**
+     * Recounts the adjacent corridors of the cells in a rectangle, clipped to the container.
+     * The corridors must already be up to date.
+     *
+     * @param rectX      The left bound of the rectangle, relative to the container.
+     * @param rectY      The top bound of the rectangle, relative to the container.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     */
+    private void updateAdjacentCorridorCounts(int rectX, int rectY, int rectWidth, int rectHeight) {
+        int right = Math.min(width, rectX + rectWidth);
+        int bottom = Math.min(height, rectY + rectHeight);
+
+        for (int y = Math.max(0, rectY); y < bottom; y++) {
+            for (int x = Math.max(0, rectX); x < right; x++) {
+                int index = y * width + x;
+                int count = 0;
+
+                if (y > 0 && corridors[index - width]) {
+                    count++;
+                }
+
+                if (x > 0 && corridors[index - 1]) {
+                    count++;
+                }
+
+                if (y < height - 1 && corridors[index + width]) {
+                    count++;
+                }
+
+                if (x < width - 1 && corridors[index + 1]) {
+                    count++;
+                }
+
+                adjacentCorridorCounts[index] = count;
+            }
+        }
+    }
+
+    /**
+     * Checks again whether the cells in a rectangle, clipped to the container, are corridors.
+     *
+     * @param rectX      The left bound of the rectangle, relative to the container.
+     * @param rectY      The top bound of the rectangle, relative to the container.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     */
+    private void updateCorridors(int rectX, int rectY, int rectWidth, int rectHeight) {
+        int right = Math.min(width, rectX + rectWidth);
+        int bottom = Math.min(height, rectY + rectHeight);
+
+        for (int y = Math.max(0, rectY); y < bottom; y++) {
+            for (int x = Math.max(0, rectX); x < right; x++) {
+                corridors[y * width + x] = container.getCellAt(left + x, top + y).isCorridor();
+            }
+        }
+    }
+
+    /**
+     * Checks again whether the cells in a rectangle, clipped to the container, are occupied by rooms.
+     *
+     * @param rectX      The left bound of the rectangle, relative to the container.
+     * @param rectY      The top bound of the rectangle, relative to the container.
+     * @param rectWidth  The width of the rectangle.
+     * @param rectHeight The height of the rectangle.
+     */
+    private void updateOccupied(int rectX, int rectY, int rectWidth, int rectHeight) {
+        int right = Math.min(width, rectX + rectWidth);
+        int bottom = Math.min(height, rectY + rectHeight);
+
+        for (int y = Math.max(0, rectY); y < bottom; y++) {
+            for (int x = Math.max(0, rectX); x < right; x++) {
+                occupied[y * width + x] = container.getRoomIndexAt(left + x, top + y) >= 0;
+            }
+        }
+    }
+}
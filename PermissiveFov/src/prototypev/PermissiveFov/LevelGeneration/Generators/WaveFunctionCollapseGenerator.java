@@ -0,0 +1,550 @@
+package prototypev.PermissiveFov.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.TMXLevelReader;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates levels tile by tile with wave function collapse, using the wall tiles of a tileset as the rules.
+ * <p/>
+ * Each wall tile of the tileset is tagged with the walls around it, such as {@code TILE_WALL_0*0*1011}, one character
+ * for each neighbour in the order NW, N, NE, W, E, SW, S, SE: 1 for a wall, 0 for no wall and * for either. Two tiles
+ * can be neighbours if each of them accepts the other, so a generated level only has walls that the tileset has a
+ * tile for, and the chosen tile IDs can be drawn as they are without autotiling. The plain {@code TILE_WALL} fallback
+ * and any other tiles are left out. Tiles outside the level count as walls, and the ring of tiles around the level is
+ * always walls.
+ * <p/>
+ * The domain of each tile is a bitset of the tiles it may still become, so there can be at most 64 tiles. The tile with
+ * the lowest entropy is collapsed next, found through a min-heap with lazy deletion, and the change is propagated to
+ * its neighbours with a stack. Every change to a domain is recorded on a trail, so that a contradiction can be undone
+ * back to the last choice, which is then ruled out.
+ * <p/>
+ * Nothing ensures that every empty tile can be reached from every other.
+ */
+public class WaveFunctionCollapseGenerator implements TMXLevelReader.ITilePropertyListener {
+    private static final int DIRECTION_COUNT = 8;
+    private static final int[] DIRECTION_DELTA_X = new int[]{-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int[] DIRECTION_DELTA_Y = new int[]{-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int MAX_BACKTRACKS = 10000;
+    private static final int MAX_TILE_COUNT = Long.SIZE;
+    private static final String TILE_TYPE_PROPERTY_NAME = "TileType";
+    private static final String WALL_PREFIX = TileType.WALL.getName() + "_";
+    private final int emptyWeight;
+    private final int[] emptyMasks = new int[MAX_TILE_COUNT];
+    private final boolean[] isWall = new boolean[MAX_TILE_COUNT];
+    private final int[] tileIDs = new int[MAX_TILE_COUNT];
+    private final int[] wallMasks = new int[MAX_TILE_COUNT];
+    private int tileCount;
+
+    /**
+     * Creates a new WaveFunctionCollapseGenerator with no tiles.
+     *
+     * @param emptyWeight How much more likely an empty tile is to be chosen than each wall tile.
+     */
+    public WaveFunctionCollapseGenerator(int emptyWeight) {
+        if (emptyWeight < 1) {
+            throw new IllegalArgumentException("emptyWeight must be positive!");
+        }
+
+        this.emptyWeight = emptyWeight;
+    }
+
+    /**
+     * Adds a tile, unless it is not an empty tile or a wall tile with a pattern.
+     *
+     * @param tileID   The global ID of the tile.
+     * @param tileType The value of the tile's TileType property, e.g. TILE_WALL_11111111.
+     */
+    public void addTile(int tileID, String tileType) {
+        int wallMask = 0;
+        int emptyMask = 0;
+        boolean isWallTile = tileType.startsWith(WALL_PREFIX);
+
+        if (isWallTile) {
+            String pattern = tileType.substring(WALL_PREFIX.length());
+            if (pattern.length() != DIRECTION_COUNT) {
+                throw new IllegalArgumentException(String.format("Wall pattern '%s' is invalid!", pattern));
+            }
+
+            for (int direction = 0; direction < DIRECTION_COUNT; direction++) {
+                char c = pattern.charAt(direction);
+
+                if (c == '1') {
+                    wallMask |= 1 << direction;
+                } else if (c == '0') {
+                    emptyMask |= 1 << direction;
+                } else if (c != '*') {
+                    throw new IllegalArgumentException(String.format("Wall pattern '%s' is invalid!", pattern));
+                }
+            }
+        } else if (!tileType.equals(TileType.EMPTY.getName())) {
+            return;
+        }
+
+        if (tileCount == MAX_TILE_COUNT) {
+            throw new IllegalStateException(String.format("There can be at most %d tiles!", MAX_TILE_COUNT));
+        }
+
+        tileIDs[tileCount] = tileID;
+        isWall[tileCount] = isWallTile;
+        wallMasks[tileCount] = wallMask;
+        emptyMasks[tileCount] = emptyMask;
+        tileCount++;
+    }
+
+    /**
+     * Generates a level.
+     *
+     * @param width  The number of tiles spanning the level horizontally.
+     * @param height The number of tiles spanning the level vertically.
+     * @return The level, with the tile ID chosen for each tile.
+     */
+    public TiledLevel generate(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Width and height must be positive!");
+        }
+
+        Solver solver = new Solver(width, height, new Random(Randomizer.getInstance().nextLong()));
+        long[] domains = solver.solve();
+
+        Level level = new Level(width, height);
+        int[] chosenTileIDs = new int[width * height];
+
+        for (int i = 0; i < domains.length; i++) {
+            int tile = Long.numberOfTrailingZeros(domains[i]);
+
+            level.setTileTypeAt(i % width, i / width, isWall[tile] ? TileType.WALL : TileType.EMPTY);
+            chosenTileIDs[i] = tileIDs[tile];
+        }
+
+        return new TiledLevel(level, chosenTileIDs);
+    }
+
+    @Override
+    public void onTileProperty(int globalTileID, String name, String value) {
+        if (name.equals(TILE_TYPE_PROPERTY_NAME)) {
+            addTile(globalTileID, value);
+        }
+    }
+
+    /**
+     * @param tile      The tile.
+     * @param direction The direction of the neighbour.
+     * @param isWall    Whether the neighbour is a wall.
+     * @return true if the tile accepts the neighbour; otherwise false.
+     */
+    private boolean accepts(int tile, int direction, boolean isWall) {
+        return ((isWall ? emptyMasks[tile] : wallMasks[tile]) & (1 << direction)) == 0;
+    }
+
+    /**
+     * Solves one level. Holds the state of the search, so the generator can be used again.
+     */
+    private final class Solver {
+        private final long[] compatibleTiles;
+        private final long[] domains;
+        private final int height;
+        private final boolean[] isStacked;
+        private final Random random;
+        private final int[] stack;
+        private final int[] versions;
+        private final double[] weightLogWeights;
+        private final double[] weights;
+        private final int width;
+        private int backtrackCount;
+        private int[] decisionCells = new int[16];
+        private int decisionCount;
+        private long[] decisionTiles = new long[16];
+        private int[] decisionTrailSizes = new int[16];
+        private int[] heapCells = new int[16];
+        private double[] heapEntropies = new double[16];
+        private int heapSize;
+        private int[] heapVersions = new int[16];
+        private int stackSize;
+        private int[] trailCells = new int[16];
+        private long[] trailDomains = new long[16];
+        private int trailSize;
+
+        public Solver(int width, int height, Random random) {
+            if (tileCount == 0) {
+                throw new IllegalStateException("There are no tiles to generate a level with!");
+            }
+
+            this.width = width;
+            this.height = height;
+            this.random = random;
+
+            int cellCount = width * height;
+            domains = new long[cellCount];
+            versions = new int[cellCount];
+            stack = new int[cellCount];
+            isStacked = new boolean[cellCount];
+
+            weights = new double[tileCount];
+            weightLogWeights = new double[tileCount];
+            for (int tile = 0; tile < tileCount; tile++) {
+                weights[tile] = isWall[tile] ? 1 : emptyWeight;
+                weightLogWeights[tile] = weights[tile] * Math.log(weights[tile]);
+            }
+
+            // The tiles each tile accepts in each direction, and that accept it back
+            compatibleTiles = new long[DIRECTION_COUNT * tileCount];
+            for (int direction = 0; direction < DIRECTION_COUNT; direction++) {
+                // The directions are ordered so that the opposite of each is at the mirrored position
+                int opposite = DIRECTION_COUNT - 1 - direction;
+
+                for (int tile = 0; tile < tileCount; tile++) {
+                    long compatible = 0;
+
+                    for (int other = 0; other < tileCount; other++) {
+                        if (accepts(tile, direction, isWall[other]) && accepts(other, opposite, isWall[tile])) {
+                            compatible |= 1L << other;
+                        }
+                    }
+
+                    compatibleTiles[direction * tileCount + tile] = compatible;
+                }
+            }
+        }
+
+        /**
+         * @return The domain of each tile, with exactly one tile left in each.
+         */
+        public long[] solve() {
+            long allTiles = tileCount == MAX_TILE_COUNT ? -1L : (1L << tileCount) - 1;
+            long wallTiles = 0;
+            for (int tile = 0; tile < tileCount; tile++) {
+                if (isWall[tile]) {
+                    wallTiles |= 1L << tile;
+                }
+            }
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    boolean isBorder = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+                    long domain = isBorder ? wallTiles : allTiles;
+
+                    // Outside the level counts as walls
+                    for (int direction = 0; direction < DIRECTION_COUNT; direction++) {
+                        int adjacentX = x + DIRECTION_DELTA_X[direction];
+                        int adjacentY = y + DIRECTION_DELTA_Y[direction];
+
+                        if (adjacentX < 0 || adjacentY < 0 || adjacentX >= width || adjacentY >= height) {
+                            for (int tile = 0; tile < tileCount; tile++) {
+                                if (!accepts(tile, direction, true)) {
+                                    domain &= ~(1L << tile);
+                                }
+                            }
+                        }
+                    }
+
+                    if (domain == 0) {
+                        throw new IllegalStateException("The tiles cannot fill the edges of the level!");
+                    }
+
+                    int cell = y * width + x;
+                    domains[cell] = domain;
+                    pushStack(cell);
+                    pushHeap(cell);
+                }
+            }
+
+            if (!propagate()) {
+                throw new IllegalStateException("The tiles cannot fill the level!");
+            }
+
+            int cell;
+            while ((cell = popHeap()) >= 0) {
+                if (!collapse(cell)) {
+                    backtrack();
+                }
+            }
+
+            return domains;
+        }
+
+        /**
+         * Undoes choices until the last one can be ruled out without a contradiction.
+         */
+        private void backtrack() {
+            while (true) {
+                if (decisionCount == 0) {
+                    throw new IllegalStateException("The tiles cannot fill the level!");
+                }
+
+                if (++backtrackCount > MAX_BACKTRACKS) {
+                    throw new IllegalStateException("Wave function collapse gave up after too many contradictions!");
+                }
+
+                decisionCount--;
+                int cell = decisionCells[decisionCount];
+                long tile = decisionTiles[decisionCount];
+
+                undoTrail(decisionTrailSizes[decisionCount]);
+
+                // Rule out the choice as part of the choice before it, so that undoing that one restores it
+                if (setDomain(cell, domains[cell] & ~tile) && propagate()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Collapses a tile to one of its remaining tiles, chosen by weight.
+         *
+         * @param cell The index of the tile.
+         * @return false if there was a contradiction; otherwise true.
+         */
+        private boolean collapse(int cell) {
+            long domain = domains[cell];
+
+            double total = 0;
+            for (long remaining = domain; remaining != 0; remaining &= remaining - 1) {
+                total += weights[Long.numberOfTrailingZeros(remaining)];
+            }
+
+            double target = random.nextDouble() * total;
+            long chosen = Long.lowestOneBit(domain);
+            for (long remaining = domain; remaining != 0; remaining &= remaining - 1) {
+                int tile = Long.numberOfTrailingZeros(remaining);
+                target -= weights[tile];
+
+                if (target < 0) {
+                    chosen = 1L << tile;
+                    break;
+                }
+            }
+
+            if (decisionCount == decisionCells.length) {
+                decisionCells = Arrays.copyOf(decisionCells, decisionCount * 2);
+                decisionTiles = Arrays.copyOf(decisionTiles, decisionCount * 2);
+                decisionTrailSizes = Arrays.copyOf(decisionTrailSizes, decisionCount * 2);
+            }
+
+            decisionCells[decisionCount] = cell;
+            decisionTiles[decisionCount] = chosen;
+            decisionTrailSizes[decisionCount] = trailSize;
+            decisionCount++;
+
+            return setDomain(cell, chosen) && propagate();
+        }
+
+        /**
+         * @param domain The domain of a tile.
+         * @return The Shannon entropy of the domain, weighted by the tiles.
+         */
+        private double getEntropy(long domain) {
+            double total = 0;
+            double totalWeightLogWeight = 0;
+
+            for (long remaining = domain; remaining != 0; remaining &= remaining - 1) {
+                int tile = Long.numberOfTrailingZeros(remaining);
+                total += weights[tile];
+                totalWeightLogWeight += weightLogWeights[tile];
+            }
+
+            return Math.log(total) - totalWeightLogWeight / total;
+        }
+
+        /**
+         * @return The index of the uncollapsed tile with the lowest entropy, or -1 if every tile has collapsed.
+         */
+        private int popHeap() {
+            while (heapSize > 0) {
+                int cell = heapCells[0];
+                int version = heapVersions[0];
+
+                heapSize--;
+                if (heapSize > 0) {
+                    siftDown(heapEntropies[heapSize], heapCells[heapSize], heapVersions[heapSize]);
+                }
+
+                // Entries are not removed when their domain changes, a newer entry is pushed instead
+                if (version == versions[cell] && Long.bitCount(domains[cell]) > 1) {
+                    return cell;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Narrows the domains around each changed tile, until nothing changes.
+         *
+         * @return false if there was a contradiction; otherwise true.
+         */
+        private boolean propagate() {
+            while (stackSize > 0) {
+                int cell = stack[--stackSize];
+                isStacked[cell] = false;
+
+                int x = cell % width;
+                int y = cell / width;
+                long domain = domains[cell];
+
+                for (int direction = 0; direction < DIRECTION_COUNT; direction++) {
+                    int adjacentX = x + DIRECTION_DELTA_X[direction];
+                    int adjacentY = y + DIRECTION_DELTA_Y[direction];
+
+                    if (adjacentX < 0 || adjacentY < 0 || adjacentX >= width || adjacentY >= height) {
+                        continue;
+                    }
+
+                    long allowed = 0;
+                    for (long remaining = domain; remaining != 0; remaining &= remaining - 1) {
+                        allowed |= compatibleTiles[direction * tileCount + Long.numberOfTrailingZeros(remaining)];
+                    }
+
+                    int adjacentCell = adjacentY * width + adjacentX;
+                    long adjacentDomain = domains[adjacentCell];
+
+                    if ((adjacentDomain & allowed) != adjacentDomain && !setDomain(adjacentCell, adjacentDomain & allowed)) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Pushes an entry for a tile onto the heap, keyed by its current entropy.
+         *
+         * @param cell The index of the tile.
+         */
+        private void pushHeap(int cell) {
+            if (Long.bitCount(domains[cell]) < 2) {
+                return;
+            }
+
+            if (heapSize == heapCells.length) {
+                heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+                heapEntropies = Arrays.copyOf(heapEntropies, heapSize * 2);
+                heapVersions = Arrays.copyOf(heapVersions, heapSize * 2);
+            }
+
+            // A little noise breaks ties at random, rather than always collapsing from the top left
+            double entropy = getEntropy(domains[cell]) + random.nextDouble() * 1e-6;
+
+            int index = heapSize++;
+            while (index > 0) {
+                int parent = (index - 1) >> 1;
+                if (heapEntropies[parent] <= entropy) {
+                    break;
+                }
+
+                heapEntropies[index] = heapEntropies[parent];
+                heapCells[index] = heapCells[parent];
+                heapVersions[index] = heapVersions[parent];
+                index = parent;
+            }
+
+            heapEntropies[index] = entropy;
+            heapCells[index] = cell;
+            heapVersions[index] = versions[cell];
+        }
+
+        /**
+         * Queues a changed tile to propagate from, unless it is queued already.
+         *
+         * @param cell The index of the tile.
+         */
+        private void pushStack(int cell) {
+            if (!isStacked[cell]) {
+                isStacked[cell] = true;
+                stack[stackSize++] = cell;
+            }
+        }
+
+        /**
+         * Narrows the domain of a tile, recording the old domain on the trail.
+         *
+         * @param cell   The index of the tile.
+         * @param domain The new domain.
+         * @return false if the domain is empty; otherwise true.
+         */
+        private boolean setDomain(int cell, long domain) {
+            if (domain == 0) {
+                return false;
+            }
+
+            if (trailSize == trailCells.length) {
+                trailCells = Arrays.copyOf(trailCells, trailSize * 2);
+                trailDomains = Arrays.copyOf(trailDomains, trailSize * 2);
+            }
+
+            trailCells[trailSize] = cell;
+            trailDomains[trailSize] = domains[cell];
+            trailSize++;
+
+            domains[cell] = domain;
+            versions[cell]++;
+            pushStack(cell);
+            pushHeap(cell);
+
+            return true;
+        }
+
+        /**
+         * Moves an entry down from the root of the heap to where it belongs.
+         *
+         * @param entropy The entropy of the entry.
+         * @param cell    The index of the tile of the entry.
+         * @param version The version of the tile's domain when the entry was pushed.
+         */
+        private void siftDown(double entropy, int cell, int version) {
+            int index = 0;
+
+            while (true) {
+                int child = index * 2 + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+
+                if (child + 1 < heapSize && heapEntropies[child + 1] < heapEntropies[child]) {
+                    child++;
+                }
+
+                if (heapEntropies[child] >= entropy) {
+                    break;
+                }
+
+                heapEntropies[index] = heapEntropies[child];
+                heapCells[index] = heapCells[child];
+                heapVersions[index] = heapVersions[child];
+                index = child;
+            }
+
+            heapEntropies[index] = entropy;
+            heapCells[index] = cell;
+            heapVersions[index] = version;
+        }
+
+        /**
+         * Restores the domains changed since a point on the trail, and drops any pending propagation.
+         *
+         * @param size The size of the trail to go back to.
+         */
+        private void undoTrail(int size) {
+            while (stackSize > 0) {
+                isStacked[stack[--stackSize]] = false;
+            }
+
+            while (trailSize > size) {
+                trailSize--;
+                int cell = trailCells[trailSize];
+
+                domains[cell] = trailDomains[trailSize];
+                versions[cell]++;
+
+                // The old heap entries of the tile are out of date now
+                pushHeap(cell);
+            }
+        }
+    }
+}
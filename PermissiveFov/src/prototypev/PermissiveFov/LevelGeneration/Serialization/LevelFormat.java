@@ -0,0 +1,93 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+
+/**
+ * Constants and helpers describing the binary level format.
+ * <p/>
+ * All values are big-endian. A file is laid out as follows:
+ * <pre>
+ * int   magic
+ * short version
+ * short flags
+ * int   width, height               (in tiles)
+ * long  seed
+ * int   randomness, sparseness
+ * int   minRoomWidth, maxRoomWidth, minRoomHeight, maxRoomHeight, numRooms
+ * int   roomCount
+ * int   left, top, width, height    (for each room, in tiles)
+ * int   rowOffsets[height + 1]      (relative to the start of the tile data, high bit set for RLE rows)
+ * byte  tileData[]
+ * long  exploredTiles[]             (version 2 and up, only with FLAG_EXPLORED; 1 bit per tile in row-major order)
+ * </pre>
+ * A raw row packs 4 tiles per byte, 2 bits per tile, with the left-most tile in the least significant bits.
+ * An RLE row is a sequence of runs, 1 byte per run, holding the tile in the 2 most significant bits and
+ * the run length minus 1 in the remaining 6 bits.
+ */
+public final class LevelFormat {
+    public static final int FLAG_EXPLORED = 2;
+    public static final int FLAG_RLE = 1;
+    public static final int MAGIC = 0x50464C56; // "PFLV"
+    public static final int MIN_VERSION = 1;
+    public static final int VERSION = 2;
+    static final int HEADER_SIZE = 56;
+    static final int MAX_RUN_LENGTH = 64;
+    static final int ROOM_SIZE = 16;
+    static final int ROW_RLE_MASK = 0x80000000;
+    static final int TILES_PER_BYTE = 4;
+    static final int TILE_BITS = 2;
+    static final int TILE_MASK = 0x3;
+    private static final TileType[] TILE_TYPES = new TileType[]{TileType.WALL, TileType.EMPTY, TileType.DOOR, TileType.UNDEFINED};
+
+    private LevelFormat() {
+    }
+
+    /**
+     * @param width  The number of tiles spanning the level horizontally.
+     * @param height The number of tiles spanning the level vertically.
+     * @return The number of bytes taken by the explored tiles bitset.
+     */
+    static int getExploredTilesSize(int width, int height) {
+        return (width * height + 63) / 64 * 8;
+    }
+
+    /**
+     * @param width The number of tiles in the row.
+     * @return The number of bytes taken by a raw row.
+     */
+    static int getRawRowSize(int width) {
+        return (width + TILES_PER_BYTE - 1) / TILES_PER_BYTE;
+    }
+
+    /**
+     * @param tileType The tile type.
+     * @return The 2-bit code of the tile type.
+     */
+    static int toCode(TileType tileType) {
+        switch (tileType) {
+            case WALL:
+                return 0;
+
+            case EMPTY:
+                return 1;
+
+            case DOOR:
+                return 2;
+
+            case UNDEFINED:
+                return 3;
+
+            default:
+                // Should never happen
+                throw new IllegalStateException(String.format("TileType %s cannot be encoded.", tileType.getName()));
+        }
+    }
+
+    /**
+     * @param code The 2-bit code of the tile type.
+     * @return The tile type.
+     */
+    static TileType toTileType(int code) {
+        return TILE_TYPES[code & TILE_MASK];
+    }
+}
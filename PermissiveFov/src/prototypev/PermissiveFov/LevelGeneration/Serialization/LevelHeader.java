@@ -0,0 +1,38 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+/**
+ * The generation parameters stored alongside a serialized level.
+ */
+public class LevelHeader {
+    public final int maxRoomHeight;
+    public final int maxRoomWidth;
+    public final int minRoomHeight;
+    public final int minRoomWidth;
+    public final int numRooms;
+    public final int randomness;
+    public final long seed;
+    public final int sparseness;
+
+    /**
+     * Creates a new LevelHeader.
+     *
+     * @param seed          The seed the level was generated from.
+     * @param randomness    The degree of randomness of the maze.
+     * @param sparseness    The degree of sparseness of the maze.
+     * @param minRoomWidth  The minimum width of each room.
+     * @param maxRoomWidth  The maximum width of each room.
+     * @param minRoomHeight The minimum height of each room.
+     * @param maxRoomHeight The maximum height of each room.
+     * @param numRooms      The number of rooms requested.
+     */
+    public LevelHeader(long seed, int randomness, int sparseness, int minRoomWidth, int maxRoomWidth, int minRoomHeight, int maxRoomHeight, int numRooms) {
+        this.seed = seed;
+        this.randomness = randomness;
+        this.sparseness = sparseness;
+        this.minRoomWidth = minRoomWidth;
+        this.maxRoomWidth = maxRoomWidth;
+        this.minRoomHeight = minRoomHeight;
+        this.maxRoomHeight = maxRoomHeight;
+        this.numRooms = numRooms;
+    }
+}
@@ -0,0 +1,169 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+
+import java.io.*;
+
+/**
+ * Writes levels in the binary level format described by {@link LevelFormat}.
+ */
+public class LevelWriter {
+    private LevelWriter() {
+    }
+
+    /**
+     * Writes the level to the specified stream.
+     *
+     * @param level    The level to write.
+     * @param header   The generation parameters of the level.
+     * @param compress true to run-length encode rows where it is smaller than packing them; otherwise false.
+     * @param stream   The stream to write to.
+     * @throws IOException If the stream cannot be written to.
+     */
+    public static void write(Level level, LevelHeader header, boolean compress, OutputStream stream) throws IOException {
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(stream));
+
+        // Levels that were never explored need not carry an empty bitset
+        TileBitSet exploredTiles = level.getExploredTiles();
+        boolean hasExploredTiles = exploredTiles.getCardinality() > 0;
+
+        int flags = 0;
+        if (compress) {
+            flags |= LevelFormat.FLAG_RLE;
+        }
+        if (hasExploredTiles) {
+            flags |= LevelFormat.FLAG_EXPLORED;
+        }
+
+        outputStream.writeInt(LevelFormat.MAGIC);
+        outputStream.writeShort(LevelFormat.VERSION);
+        outputStream.writeShort(flags);
+        outputStream.writeInt(level.width);
+        outputStream.writeInt(level.height);
+        outputStream.writeLong(header.seed);
+        outputStream.writeInt(header.randomness);
+        outputStream.writeInt(header.sparseness);
+        outputStream.writeInt(header.minRoomWidth);
+        outputStream.writeInt(header.maxRoomWidth);
+        outputStream.writeInt(header.minRoomHeight);
+        outputStream.writeInt(header.maxRoomHeight);
+        outputStream.writeInt(header.numRooms);
+
+        int roomCount = level.getRoomCount();
+        outputStream.writeInt(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            outputStream.writeInt(level.getRoomLeft(i));
+            outputStream.writeInt(level.getRoomTop(i));
+            outputStream.writeInt(level.getRoomWidth(i));
+            outputStream.writeInt(level.getRoomHeight(i));
+        }
+
+        // Encode the rows up front, since the row offsets precede the tile data
+        ByteArrayOutputStream tileData = new ByteArrayOutputStream(level.height * LevelFormat.getRawRowSize(level.width));
+        int[] rowOffsets = new int[level.height + 1];
+
+        byte[] rawRow = new byte[LevelFormat.getRawRowSize(level.width)];
+        byte[] rleRow = new byte[level.width];
+
+        for (int y = 0; y < level.height; y++) {
+            rowOffsets[y] = tileData.size();
+
+            packRow(level, y, rawRow);
+
+            int rleRowSize = compress ? encodeRow(level, y, rleRow) : Integer.MAX_VALUE;
+            if (rleRowSize < rawRow.length) {
+                rowOffsets[y] |= LevelFormat.ROW_RLE_MASK;
+                tileData.write(rleRow, 0, rleRowSize);
+            } else {
+                tileData.write(rawRow, 0, rawRow.length);
+            }
+        }
+
+        rowOffsets[level.height] = tileData.size();
+
+        for (int rowOffset : rowOffsets) {
+            outputStream.writeInt(rowOffset);
+        }
+
+        tileData.writeTo(outputStream);
+
+        if (hasExploredTiles) {
+            for (int i = 0; i < exploredTiles.getWordCount(); i++) {
+                outputStream.writeLong(exploredTiles.getWord(i));
+            }
+        }
+
+        outputStream.flush();
+    }
+
+    /**
+     * Writes the level to the specified file.
+     *
+     * @param level    The level to write.
+     * @param header   The generation parameters of the level.
+     * @param compress true to run-length encode rows where it is smaller than packing them; otherwise false.
+     * @param file     The file to write to.
+     * @throws IOException If the file cannot be written to.
+     */
+    public static void write(Level level, LevelHeader header, boolean compress, File file) throws IOException {
+        OutputStream stream = new FileOutputStream(file);
+
+        try {
+            write(level, header, compress, stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Run-length encodes a row of the level.
+     *
+     * @param level  The level.
+     * @param y      The row to encode.
+     * @param buffer The buffer to encode into. Must be able to hold 1 byte per tile.
+     * @return The number of bytes written to the buffer.
+     */
+    private static int encodeRow(Level level, int y, byte[] buffer) {
+        int size = 0;
+
+        int x = 0;
+        while (x < level.width) {
+            int code = LevelFormat.toCode(level.getTileTypeAt(x, y));
+
+            int runLength = 1;
+            while (x + runLength < level.width &&
+                    runLength < LevelFormat.MAX_RUN_LENGTH &&
+                    LevelFormat.toCode(level.getTileTypeAt(x + runLength, y)) == code) {
+                runLength++;
+            }
+
+            buffer[size++] = (byte) ((code << 6) | (runLength - 1));
+            x += runLength;
+        }
+
+        return size;
+    }
+
+    /**
+     * Packs a row of the level at 2 bits per tile.
+     *
+     * @param level  The level.
+     * @param y      The row to pack.
+     * @param buffer The buffer to pack into.
+     */
+    private static void packRow(Level level, int y, byte[] buffer) {
+        for (int i = 0; i < buffer.length; i++) {
+            int packed = 0;
+
+            for (int j = 0; j < LevelFormat.TILES_PER_BYTE; j++) {
+                int x = i * LevelFormat.TILES_PER_BYTE + j;
+                if (x < level.width) {
+                    packed |= LevelFormat.toCode(level.getTileTypeAt(x, y)) << (j * LevelFormat.TILE_BITS);
+                }
+            }
+
+            buffer[i] = (byte) packed;
+        }
+    }
+}
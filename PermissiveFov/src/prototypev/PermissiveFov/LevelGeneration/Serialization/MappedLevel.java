@@ -0,0 +1,301 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only view of a level in the binary level format described by {@link LevelFormat}.
+ * Tiles are decoded lazily from the underlying buffer, which is never copied.
+ */
+public class MappedLevel {
+    public final int height;
+    public final int width;
+    private final ByteBuffer buffer;
+    private final int exploredTilesPosition;
+    private final LevelHeader header;
+    private final int roomCount;
+    private final int rowOffsetsPosition;
+    private final int tileDataPosition;
+
+    /**
+     * Creates a new MappedLevel over the specified buffer.
+     *
+     * @param buffer The buffer holding the level.
+     */
+    private MappedLevel(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        if (this.buffer.capacity() < LevelFormat.HEADER_SIZE || this.buffer.getInt(0) != LevelFormat.MAGIC) {
+            throw new IllegalArgumentException("Buffer does not contain a level!");
+        }
+
+        int version = this.buffer.getShort(4);
+        if (version < LevelFormat.MIN_VERSION || version > LevelFormat.VERSION) {
+            throw new IllegalArgumentException(String.format("Unsupported level version: %d", version));
+        }
+
+        int flags = this.buffer.getShort(6);
+
+        width = this.buffer.getInt(8);
+        height = this.buffer.getInt(12);
+
+        header = new LevelHeader(
+                this.buffer.getLong(16),
+                this.buffer.getInt(24),
+                this.buffer.getInt(28),
+                this.buffer.getInt(32),
+                this.buffer.getInt(36),
+                this.buffer.getInt(40),
+                this.buffer.getInt(44),
+                this.buffer.getInt(48));
+
+        roomCount = this.buffer.getInt(52);
+        rowOffsetsPosition = LevelFormat.HEADER_SIZE + roomCount * LevelFormat.ROOM_SIZE;
+        tileDataPosition = rowOffsetsPosition + (height + 1) * 4;
+
+        if (width < 1 || height < 1 || roomCount < 0 ||
+                tileDataPosition > this.buffer.capacity() ||
+                tileDataPosition + getRowOffset(height) > this.buffer.capacity()) {
+            throw new IllegalArgumentException("Level data is truncated or corrupt!");
+        }
+
+        // Version 1 levels never have explored tiles
+        if (version >= 2 && (flags & LevelFormat.FLAG_EXPLORED) != 0) {
+            exploredTilesPosition = tileDataPosition + getRowOffset(height);
+
+            if (exploredTilesPosition + LevelFormat.getExploredTilesSize(width, height) > this.buffer.capacity()) {
+                throw new IllegalArgumentException("Level data is truncated or corrupt!");
+            }
+        } else {
+            exploredTilesPosition = -1;
+        }
+    }
+
+    /**
+     * Memory-maps the specified level file.
+     *
+     * @param file The level file.
+     * @return The mapped level.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public static MappedLevel open(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+
+            // The mapping stays valid after the channel is closed
+            return new MappedLevel(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Reads a level from a stream that cannot be mapped, such as a compressed asset.
+     *
+     * @param stream The stream to read from.
+     * @return The level.
+     * @throws IOException If the stream cannot be read.
+     */
+    public static MappedLevel read(InputStream stream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        byte[] chunk = new byte[8192];
+        int bytesRead;
+        while ((bytesRead = stream.read(chunk)) != -1) {
+            outputStream.write(chunk, 0, bytesRead);
+        }
+
+        return wrap(ByteBuffer.wrap(outputStream.toByteArray()));
+    }
+
+    /**
+     * @param buffer The buffer holding the level, starting at position 0.
+     * @return A view of the level in the buffer.
+     */
+    public static MappedLevel wrap(ByteBuffer buffer) {
+        return new MappedLevel(buffer);
+    }
+
+    /**
+     * @return The generation parameters of the level.
+     */
+    public LevelHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * @return true if the level was saved with the tiles that have been explored; otherwise false.
+     */
+    public boolean hasExploredTiles() {
+        return exploredTilesPosition >= 0;
+    }
+
+    /**
+     * @return The number of rooms in this level.
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The number of tiles spanning the room vertically.
+     */
+    public int getRoomHeight(int index) {
+        return buffer.getInt(getRoomPosition(index) + 12);
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The left bound of the room, in tile co-ordinates.
+     */
+    public int getRoomLeft(int index) {
+        return buffer.getInt(getRoomPosition(index));
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The top bound of the room, in tile co-ordinates.
+     */
+    public int getRoomTop(int index) {
+        return buffer.getInt(getRoomPosition(index) + 4);
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The number of tiles spanning the room horizontally.
+     */
+    public int getRoomWidth(int index) {
+        return buffer.getInt(getRoomPosition(index) + 8);
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return The tile type at the specified co-ordinates.
+     */
+    public TileType getTileTypeAt(int x, int y) {
+        if (isOutOfBounds(x, y)) {
+            throw new IllegalStateException(String.format("(%d, %d) is out of bounds!", x, y));
+        }
+
+        int rowOffset = getRowOffset(y);
+        int position = tileDataPosition + (rowOffset & ~LevelFormat.ROW_RLE_MASK);
+
+        if ((rowOffset & LevelFormat.ROW_RLE_MASK) == 0) {
+            int packed = buffer.get(position + x / LevelFormat.TILES_PER_BYTE);
+            return LevelFormat.toTileType(packed >> (x % LevelFormat.TILES_PER_BYTE * LevelFormat.TILE_BITS));
+        }
+
+        // Skip runs until we reach the one covering x
+        int runStart = 0;
+        while (true) {
+            int run = buffer.get(position++) & 0xFF;
+            runStart += (run & (LevelFormat.MAX_RUN_LENGTH - 1)) + 1;
+
+            if (runStart > x) {
+                return LevelFormat.toTileType(run >> 6);
+            }
+        }
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return true if the specified co-ordinates is outside the bounds of this level; otherwise false.
+     */
+    public boolean isOutOfBounds(int x, int y) {
+        return x < 0 || y < 0 || y >= height || x >= width;
+    }
+
+    /**
+     * Decodes a whole row of tiles.
+     *
+     * @param y         The row to decode.
+     * @param tileTypes The array to decode into. Must be able to hold a tile for each column.
+     */
+    public void readRow(int y, TileType[] tileTypes) {
+        if (y < 0 || y >= height) {
+            throw new IllegalStateException(String.format("Row %d is out of bounds!", y));
+        }
+
+        int rowOffset = getRowOffset(y);
+        int position = tileDataPosition + (rowOffset & ~LevelFormat.ROW_RLE_MASK);
+
+        if ((rowOffset & LevelFormat.ROW_RLE_MASK) == 0) {
+            for (int x = 0; x < width; x++) {
+                int packed = buffer.get(position + x / LevelFormat.TILES_PER_BYTE);
+                tileTypes[x] = LevelFormat.toTileType(packed >> (x % LevelFormat.TILES_PER_BYTE * LevelFormat.TILE_BITS));
+            }
+        } else {
+            int x = 0;
+            while (x < width) {
+                int run = buffer.get(position++) & 0xFF;
+                TileType tileType = LevelFormat.toTileType(run >> 6);
+
+                int runEnd = Math.min(width, x + (run & (LevelFormat.MAX_RUN_LENGTH - 1)) + 1);
+                while (x < runEnd) {
+                    tileTypes[x++] = tileType;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A fully decoded copy of the level.
+     */
+    public Level toLevel() {
+        Level level = new Level(width, height);
+
+        TileType[] row = new TileType[width];
+        for (int y = 0; y < height; y++) {
+            readRow(y, row);
+
+            for (int x = 0; x < width; x++) {
+                level.setTileTypeAt(x, y, row[x]);
+            }
+        }
+
+        for (int i = 0; i < roomCount; i++) {
+            level.addRoom(getRoomLeft(i), getRoomTop(i), getRoomWidth(i), getRoomHeight(i));
+        }
+
+        if (hasExploredTiles()) {
+            TileBitSet exploredTiles = level.getExploredTiles();
+
+            for (int i = 0; i < exploredTiles.getWordCount(); i++) {
+                exploredTiles.setWord(i, buffer.getLong(exploredTilesPosition + i * 8));
+            }
+        }
+
+        return level;
+    }
+
+    /**
+     * @param index The index of the room.
+     * @return The position of the room's bounds in the buffer.
+     */
+    private int getRoomPosition(int index) {
+        if (index < 0 || index >= roomCount) {
+            throw new IllegalArgumentException(String.format("Room index %d is out of range!", index));
+        }
+
+        return LevelFormat.HEADER_SIZE + index * LevelFormat.ROOM_SIZE;
+    }
+
+    /**
+     * @param y The row.
+     * @return The offset of the row in the tile data, with the RLE flag in the high bit.
+     */
+    private int getRowOffset(int y) {
+        return buffer.getInt(rowOffsetsPosition + y * 4);
+    }
+}
@@ -0,0 +1,28 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+/**
+ * Constants describing the binary prefab library format.
+ * <p/>
+ * All values are big-endian. A file is laid out as follows:
+ * <pre>
+ * int   magic
+ * short version
+ * short prefabCount
+ * for each prefab:
+ *   byte  width, height             (in cells, 1 - 255)
+ *   byte  flags
+ *   byte  sides[width * height]     (packed as in a Prefab, in row-major order)
+ *   byte  tileOverrides[]           (only with FLAG_TILE_OVERRIDES; one tile type value for each of the
+ *                                    (2 * width + 1) * (2 * height + 1) tiles, -1 for none)
+ * </pre>
+ */
+public final class PrefabFormat {
+    public static final int FLAG_TILE_OVERRIDES = 1;
+    public static final int MAGIC = 0x50465046; // "PFPF"
+    public static final int MAX_PREFAB_COUNT = 0xFFFF;
+    public static final int MAX_SIZE = 0xFF;
+    public static final int VERSION = 1;
+
+    private PrefabFormat() {
+    }
+}
@@ -0,0 +1,62 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads prefab libraries in the binary format described by {@link PrefabFormat}.
+ */
+public class PrefabReader {
+    private PrefabReader() {
+    }
+
+    /**
+     * Reads a prefab library from the specified stream.
+     *
+     * @param stream The stream to read from.
+     * @return The prefab library.
+     * @throws IOException If the stream cannot be read or does not contain a prefab library.
+     */
+    public static PrefabLibrary read(InputStream stream) throws IOException {
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(stream));
+
+        if (inputStream.readInt() != PrefabFormat.MAGIC) {
+            throw new IOException("Stream does not contain a prefab library!");
+        }
+
+        int version = inputStream.readShort();
+        if (version != PrefabFormat.VERSION) {
+            throw new IOException(String.format("Unsupported prefab library version: %d", version));
+        }
+
+        int prefabCount = inputStream.readUnsignedShort();
+        List<Prefab> prefabs = new ArrayList<Prefab>(prefabCount);
+
+        for (int i = 0; i < prefabCount; i++) {
+            int width = inputStream.readUnsignedByte();
+            int height = inputStream.readUnsignedByte();
+            int flags = inputStream.readUnsignedByte();
+
+            if (width < 1 || height < 1) {
+                throw new IOException("Prefab library data is corrupt!");
+            }
+
+            byte[] sides = new byte[width * height];
+            inputStream.readFully(sides);
+
+            byte[] tileOverrides = null;
+            if ((flags & PrefabFormat.FLAG_TILE_OVERRIDES) != 0) {
+                tileOverrides = new byte[(width * 2 + 1) * (height * 2 + 1)];
+                inputStream.readFully(tileOverrides);
+            }
+
+            prefabs.add(new Prefab(width, height, sides, tileOverrides));
+        }
+
+        return new PrefabLibrary(prefabs);
+    }
+}
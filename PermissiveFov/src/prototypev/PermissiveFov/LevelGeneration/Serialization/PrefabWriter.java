@@ -0,0 +1,56 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
+
+import java.io.*;
+import java.util.List;
+
+/**
+ * Writes prefab libraries in the binary format described by {@link PrefabFormat}.
+ */
+public class PrefabWriter {
+    private PrefabWriter() {
+    }
+
+    /**
+     * Writes the prefab library to the specified stream.
+     *
+     * @param library The prefab library to write.
+     * @param stream  The stream to write to.
+     * @throws IOException If the stream cannot be written to.
+     */
+    public static void write(PrefabLibrary library, OutputStream stream) throws IOException {
+        List<Prefab> prefabs = library.getPrefabs();
+        if (prefabs.size() > PrefabFormat.MAX_PREFAB_COUNT) {
+            throw new IllegalArgumentException(String.format("There can be at most %d prefabs!", PrefabFormat.MAX_PREFAB_COUNT));
+        }
+
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(stream));
+
+        outputStream.writeInt(PrefabFormat.MAGIC);
+        outputStream.writeShort(PrefabFormat.VERSION);
+        outputStream.writeShort(prefabs.size());
+
+        for (Prefab prefab : prefabs) {
+            if (prefab.width > PrefabFormat.MAX_SIZE || prefab.height > PrefabFormat.MAX_SIZE) {
+                throw new IllegalArgumentException(String.format("Prefabs can be at most %d cells wide and high!", PrefabFormat.MAX_SIZE));
+            }
+
+            byte[] sides = new byte[prefab.width * prefab.height];
+            byte[] tileOverrides = prefab.hasTileOverrides() ? new byte[prefab.getTileWidth() * prefab.getTileHeight()] : null;
+            prefab.copyTo(sides, tileOverrides);
+
+            outputStream.writeByte(prefab.width);
+            outputStream.writeByte(prefab.height);
+            outputStream.writeByte(tileOverrides != null ? PrefabFormat.FLAG_TILE_OVERRIDES : 0);
+            outputStream.write(sides);
+
+            if (tileOverrides != null) {
+                outputStream.write(tileOverrides);
+            }
+        }
+
+        outputStream.flush();
+    }
+}
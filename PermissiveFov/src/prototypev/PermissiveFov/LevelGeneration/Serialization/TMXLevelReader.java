@@ -0,0 +1,484 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import android.util.Base64;
+import android.util.Base64InputStream;
+import android.util.Xml;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streams a tiled level in from a TMX map, filling the level directly from the background layer.
+ */
+public class TMXLevelReader {
+    private static final int GLOBAL_TILE_ID_MASK = 0x1FFFFFFF; // Strips the flip flags
+
+    private TMXLevelReader() {
+    }
+
+    /**
+     * Reads a tiled level from a TMX map. The tile types are derived from the TileType property of each
+     * tile in the background layer; tiles without one are undefined.
+     *
+     * @param stream The stream to read from.
+     * @return The tiled level.
+     * @throws IOException If the stream cannot be read or does not contain a valid map.
+     */
+    public static TiledLevel read(InputStream stream) throws IOException {
+        try {
+            XmlPullParser parser = Xml.newPullParser();
+            parser.setInput(stream, null);
+
+            final Map<Integer, TileType> tileTypes = new HashMap<Integer, TileType>();
+            TilesetParser tilesetParser = new TilesetParser(null, new ITilePropertyListener() {
+                @Override
+                public void onTileProperty(int globalTileID, String name, String value) {
+                    if (name.equals(TMXLevelWriter.TILE_TYPE_PROPERTY_NAME)) {
+                        tileTypes.put(globalTileID, toTileType(value));
+                    }
+                }
+            });
+
+            int width = 0;
+            int height = 0;
+
+            int eventType = parser.getEventType();
+            while (eventType != XmlPullParser.END_DOCUMENT) {
+                if (eventType == XmlPullParser.START_TAG) {
+                    String name = parser.getName();
+
+                    if (name.equals("map")) {
+                        width = Integer.parseInt(parser.getAttributeValue(null, "width"));
+                        height = Integer.parseInt(parser.getAttributeValue(null, "height"));
+                    } else if (name.equals("layer")) {
+                        if (TMXLevelWriter.BACKGROUND_LAYER_NAME.equals(parser.getAttributeValue(null, "name"))) {
+                            // Tilesets always precede layers, so all tile types are known by now
+                            return readLayer(parser, new Level(width, height), tileTypes);
+                        }
+
+                        TMXLevelWriter.skipElement(parser);
+                    } else {
+                        tilesetParser.onStartTag(parser);
+                    }
+                }
+
+                eventType = parser.next();
+            }
+        } catch (XmlPullParserException e) {
+            throw new IOException("Unable to parse TMX map: " + e.getMessage());
+        }
+
+        throw new IOException(String.format("TMX map has no '%s' layer!", TMXLevelWriter.BACKGROUND_LAYER_NAME));
+    }
+
+    /**
+     * Reads the properties of every tile in the tilesets of a TMX map. Reading stops at the first layer,
+     * so the map data is never parsed.
+     *
+     * @param stream   The stream to read from.
+     * @param listener The listener to notify of each tile property.
+     * @throws IOException If the stream cannot be read or does not contain a valid map.
+     */
+    public static void readTileProperties(InputStream stream, ITilePropertyListener listener) throws IOException {
+        readTileSets(stream, null, listener);
+    }
+
+    /**
+     * Reads the tilesets of a TMX map and the properties of every tile in them, in a single pass.
+     * Reading stops at the first layer, so the map data is never parsed.
+     *
+     * @param stream           The stream to read from.
+     * @param tileSetListener  The listener to notify of each tileset, or null for none.
+     * @param propertyListener The listener to notify of each tile property.
+     * @throws IOException If the stream cannot be read or does not contain a valid map.
+     */
+    public static void readTileSets(InputStream stream, ITileSetListener tileSetListener, ITilePropertyListener propertyListener) throws IOException {
+        try {
+            XmlPullParser parser = Xml.newPullParser();
+            parser.setInput(stream, null);
+
+            TilesetParser tilesetParser = new TilesetParser(tileSetListener, propertyListener);
+
+            int eventType = parser.getEventType();
+            while (eventType != XmlPullParser.END_DOCUMENT) {
+                if (eventType == XmlPullParser.START_TAG) {
+                    if (parser.getName().equals("layer")) {
+                        return;
+                    }
+
+                    tilesetParser.onStartTag(parser);
+                }
+
+                eventType = parser.next();
+            }
+        } catch (XmlPullParserException e) {
+            throw new IOException("Unable to parse TMX map: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the base64 layer data of a tiled level, decoding the text as the parser reports it.
+     *
+     * @param parser      The parser, positioned on the data start tag.
+     * @param compression The compression of the data, or null if it is not compressed.
+     * @param tiledLevel  The tiled level to fill.
+     * @param tileTypes   The tile type of each global tile ID that has one.
+     */
+    private static void readBase64Data(XmlPullParser parser, String compression, TiledLevel tiledLevel, Map<Integer, TileType> tileTypes) throws XmlPullParserException, IOException {
+        InputStream dataStream = new Base64InputStream(new TextEventInputStream(parser), Base64.DEFAULT);
+
+        if ("zlib".equals(compression)) {
+            dataStream = new InflaterInputStream(dataStream);
+        } else if ("gzip".equals(compression)) {
+            dataStream = new GZIPInputStream(dataStream);
+        } else if (compression != null) {
+            throw new IOException(String.format("Unsupported layer compression: %s", compression));
+        }
+
+        Level level = tiledLevel.level;
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(dataStream));
+
+        try {
+            byte[] row = new byte[level.width * 4];
+            for (int y = 0; y < level.height; y++) {
+                inputStream.readFully(row);
+
+                for (int x = 0; x < level.width; x++) {
+                    int offset = x * 4;
+                    int globalTileID = (row[offset] & 0xFF) |
+                            (row[offset + 1] & 0xFF) << 8 |
+                            (row[offset + 2] & 0xFF) << 16 |
+                            (row[offset + 3] & 0xFF) << 24;
+
+                    setTileAt(tiledLevel, x, y, globalTileID, tileTypes);
+                }
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Reads the CSV layer data of a tiled level, parsing the tile IDs straight out of each text event,
+     * so the layer is never held as a single string.
+     *
+     * @param parser     The parser, positioned on the data start tag.
+     * @param tiledLevel The tiled level to fill.
+     * @param tileTypes  The tile type of each global tile ID that has one.
+     */
+    private static void readCsvData(XmlPullParser parser, TiledLevel tiledLevel, Map<Integer, TileType> tileTypes) throws XmlPullParserException, IOException {
+        final int tileCount = tiledLevel.level.width * tiledLevel.level.height;
+
+        int[] startAndLength = new int[2];
+        int index = 0;
+        long value = 0;
+        boolean isInValue = false;
+
+        int eventType = parser.next();
+        while (eventType != XmlPullParser.END_TAG) {
+            if (eventType == XmlPullParser.END_DOCUMENT) {
+                throw new IOException("Layer data is not closed!");
+            }
+
+            if (eventType == XmlPullParser.TEXT) {
+                char[] text = parser.getTextCharacters(startAndLength);
+
+                // The ID is split across text events if a value straddles them, so it is carried over
+                for (int i = startAndLength[0]; i < startAndLength[0] + startAndLength[1]; i++) {
+                    char c = text[i];
+
+                    if (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        isInValue = true;
+                    } else if (c == ',') {
+                        if (!isInValue) {
+                            throw new IOException(String.format("Layer data is missing tile %d!", index));
+                        }
+
+                        index = setNextTile(tiledLevel, index, tileCount, (int) value, tileTypes);
+                        value = 0;
+                        isInValue = false;
+                    } else if (!Character.isWhitespace(c)) {
+                        throw new IOException(String.format("Unexpected character '%c' in layer data!", c));
+                    }
+                }
+            }
+
+            eventType = parser.next();
+        }
+
+        if (isInValue) {
+            index = setNextTile(tiledLevel, index, tileCount, (int) value, tileTypes);
+        }
+
+        if (index != tileCount) {
+            throw new IOException(String.format("Layer data has %d tiles but the layer has %d!", index, tileCount));
+        }
+    }
+
+    /**
+     * Reads a layer into a tiled level.
+     *
+     * @param parser    The parser, positioned on the layer start tag.
+     * @param level     The level to fill.
+     * @param tileTypes The tile type of each global tile ID that has one.
+     * @return The tiled level.
+     */
+    private static TiledLevel readLayer(XmlPullParser parser, Level level, Map<Integer, TileType> tileTypes) throws XmlPullParserException, IOException {
+        int eventType = parser.next();
+        while (eventType != XmlPullParser.START_TAG || !parser.getName().equals("data")) {
+            if (eventType == XmlPullParser.END_DOCUMENT) {
+                throw new IOException("Layer has no data!");
+            }
+
+            eventType = parser.next();
+        }
+
+        String encoding = parser.getAttributeValue(null, "encoding");
+        String compression = parser.getAttributeValue(null, "compression");
+        TiledLevel tiledLevel = new TiledLevel(level);
+
+        if ("base64".equals(encoding)) {
+            readBase64Data(parser, compression, tiledLevel, tileTypes);
+        } else if ("csv".equals(encoding)) {
+            readCsvData(parser, tiledLevel, tileTypes);
+        } else {
+            throw new IOException(String.format("Unsupported layer encoding: %s", encoding));
+        }
+
+        return tiledLevel;
+    }
+
+    /**
+     * Sets the next tile of a tiled level, in row order.
+     *
+     * @param tiledLevel   The tiled level to fill.
+     * @param index        The index of the tile.
+     * @param tileCount    The number of tiles in the level.
+     * @param globalTileID The global ID of the tile, possibly with flip flags.
+     * @param tileTypes    The tile type of each global tile ID that has one.
+     * @return The index of the next tile.
+     */
+    private static int setNextTile(TiledLevel tiledLevel, int index, int tileCount, int globalTileID, Map<Integer, TileType> tileTypes) throws IOException {
+        if (index >= tileCount) {
+            throw new IOException(String.format("Layer data has more than %d tiles!", tileCount));
+        }
+
+        int width = tiledLevel.level.width;
+        setTileAt(tiledLevel, index % width, index / width, globalTileID, tileTypes);
+
+        return index + 1;
+    }
+
+    /**
+     * @param tiledLevel   The tiled level to fill.
+     * @param x            The horizontal component.
+     * @param y            The vertical component.
+     * @param globalTileID The global ID of the tile, possibly with flip flags.
+     * @param tileTypes    The tile type of each global tile ID that has one.
+     */
+    private static void setTileAt(TiledLevel tiledLevel, int x, int y, int globalTileID, Map<Integer, TileType> tileTypes) {
+        globalTileID &= GLOBAL_TILE_ID_MASK;
+        TileType tileType = tileTypes.get(globalTileID);
+
+        tiledLevel.setTileIDAt(x, y, globalTileID);
+        tiledLevel.level.setTileTypeAt(x, y, tileType != null ? tileType : TileType.UNDEFINED);
+    }
+
+    /**
+     * @param value The value of a TileType property, e.g. TILE_WALL_11111111.
+     * @return The matching tile type.
+     */
+    private static TileType toTileType(String value) {
+        for (TileType tileType : TileType.values()) {
+            String name = tileType.getName();
+
+            // Wall variants are suffixed with their wall type
+            if (name.length() > 0 && (value.equals(name) || value.startsWith(name + "_"))) {
+                return tileType;
+            }
+        }
+
+        return TileType.UNDEFINED;
+    }
+
+    /**
+     * Listener for the properties of tiles in a tileset.
+     */
+    public interface ITilePropertyListener {
+        /**
+         * Called for each property of a tile.
+         *
+         * @param globalTileID The global ID of the tile.
+         * @param name         The name of the property.
+         * @param value        The value of the property.
+         */
+        public void onTileProperty(int globalTileID, String name, String value);
+    }
+
+    /**
+     * Listener for the tilesets of a map.
+     */
+    public interface ITileSetListener {
+        /**
+         * Called for each tileset, once its image is known.
+         *
+         * @param firstGlobalTileID The global ID of the first tile in the tileset.
+         * @param tileWidth         The width of each tile, in pixels.
+         * @param tileHeight        The height of each tile, in pixels.
+         * @param spacing           The number of pixels between neighbouring tiles in the image.
+         * @param margin            The number of pixels around the tiles in the image.
+         * @param imageSource       The path of the image, relative to the map.
+         * @param imageWidth        The width of the image, in pixels.
+         * @param imageHeight       The height of the image, in pixels.
+         */
+        public void onTileSet(int firstGlobalTileID, int tileWidth, int tileHeight, int spacing, int margin, String imageSource, int imageWidth, int imageHeight);
+    }
+
+    /**
+     * Reads the ASCII text of an element as bytes, straight out of the parser's buffer one text event at a time,
+     * so the text is never held as a single string. The stream ends at the end tag of the element.
+     */
+    private static class TextEventInputStream extends InputStream {
+        private final XmlPullParser parser;
+        private final int[] startAndLength = new int[2];
+        private boolean isEnded;
+        private int offset;
+        private int remaining;
+        private char[] text;
+
+        /**
+         * @param parser The parser, positioned on the start tag of the element.
+         */
+        public TextEventInputStream(XmlPullParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+
+            remaining--;
+            return text[offset++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int bufferOffset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            if (!fill()) {
+                return -1;
+            }
+
+            int count = Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[bufferOffset + i] = (byte) text[offset + i];
+            }
+
+            offset += count;
+            remaining -= count;
+
+            return count;
+        }
+
+        /**
+         * Moves on to the next text event once the current one has been read.
+         *
+         * @return true if there is text left to read; otherwise false, at the end of the element.
+         */
+        private boolean fill() throws IOException {
+            try {
+                while (remaining == 0 && !isEnded) {
+                    int eventType = parser.next();
+
+                    if (eventType == XmlPullParser.TEXT) {
+                        text = parser.getTextCharacters(startAndLength);
+                        offset = startAndLength[0];
+                        remaining = startAndLength[1];
+                    } else if (eventType == XmlPullParser.END_TAG) {
+                        isEnded = true;
+                    } else if (eventType == XmlPullParser.END_DOCUMENT) {
+                        throw new IOException("Layer data is not closed!");
+                    }
+                }
+            } catch (XmlPullParserException e) {
+                throw new IOException("Unable to parse TMX map: " + e.getMessage());
+            }
+
+            return remaining > 0;
+        }
+    }
+
+    /**
+     * Keeps track of the tileset and tile being parsed, and reports the tileset and the properties of its tiles.
+     */
+    private static class TilesetParser {
+        private final ITilePropertyListener propertyListener;
+        private final ITileSetListener tileSetListener;
+        private int firstGlobalTileID;
+        private int margin;
+        private int spacing;
+        private int tileHeight;
+        private int tileID;
+        private int tileWidth;
+
+        public TilesetParser(ITileSetListener tileSetListener, ITilePropertyListener propertyListener) {
+            this.tileSetListener = tileSetListener;
+            this.propertyListener = propertyListener;
+        }
+
+        /**
+         * @param parser The parser, positioned on a start tag.
+         */
+        public void onStartTag(XmlPullParser parser) {
+            String name = parser.getName();
+
+            if (name.equals("tileset")) {
+                firstGlobalTileID = Integer.parseInt(parser.getAttributeValue(null, "firstgid"));
+                tileWidth = getIntAttribute(parser, "tilewidth");
+                tileHeight = getIntAttribute(parser, "tileheight");
+                spacing = getIntAttribute(parser, "spacing");
+                margin = getIntAttribute(parser, "margin");
+            } else if (name.equals("image")) {
+                // Only the image of the tileset itself, not those of the tiles in an image collection
+                if (tileSetListener != null && parser.getDepth() == 3) {
+                    tileSetListener.onTileSet(
+                            firstGlobalTileID,
+                            tileWidth,
+                            tileHeight,
+                            spacing,
+                            margin,
+                            parser.getAttributeValue(null, "source"),
+                            getIntAttribute(parser, "width"),
+                            getIntAttribute(parser, "height"));
+                }
+            } else if (name.equals("tile")) {
+                tileID = Integer.parseInt(parser.getAttributeValue(null, "id"));
+            } else if (name.equals("property")) {
+                propertyListener.onTileProperty(firstGlobalTileID + tileID, parser.getAttributeValue(null, "name"), parser.getAttributeValue(null, "value"));
+            }
+        }
+
+        /**
+         * @param parser The parser, positioned on a start tag.
+         * @param name   The name of the attribute.
+         * @return The value of the attribute, or 0 if it is missing.
+         */
+        private static int getIntAttribute(XmlPullParser parser, String name) {
+            String value = parser.getAttributeValue(null, name);
+            return value != null ? Integer.parseInt(value) : 0;
+        }
+    }
+}
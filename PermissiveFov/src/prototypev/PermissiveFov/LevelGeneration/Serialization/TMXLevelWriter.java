@@ -0,0 +1,241 @@
+package prototypev.PermissiveFov.LevelGeneration.Serialization;
+
+import android.util.Base64;
+import android.util.Base64OutputStream;
+import android.util.Xml;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlSerializer;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams a tiled level out as a TMX map without building a document in memory.
+ */
+public class TMXLevelWriter {
+    static final String BACKGROUND_LAYER_NAME = "Background";
+    static final String TILE_TYPE_PROPERTY_NAME = "TileType";
+    private static final String ENCODING = "UTF-8";
+
+    private TMXLevelWriter() {
+    }
+
+    /**
+     * Writes the tiled level as a TMX map. The map attributes and tilesets are copied from the template,
+     * and its layers are replaced by a background layer holding the tile IDs of the tiled level.
+     *
+     * @param tiledLevel The tiled level to write.
+     * @param template   The TMX map to copy the tilesets from.
+     * @param stream     The stream to write to.
+     * @throws IOException If the template cannot be read or the stream cannot be written to.
+     */
+    public static void write(TiledLevel tiledLevel, InputStream template, OutputStream stream) throws IOException {
+        Level level = tiledLevel.level;
+
+        XmlSerializer serializer = Xml.newSerializer();
+        serializer.setOutput(stream, ENCODING);
+        serializer.startDocument(ENCODING, null);
+
+        try {
+            XmlPullParser parser = Xml.newPullParser();
+            parser.setInput(template, null);
+
+            int eventType = parser.getEventType();
+            while (eventType != XmlPullParser.END_DOCUMENT) {
+                if (eventType == XmlPullParser.START_TAG) {
+                    String name = parser.getName();
+
+                    if (name.equals("map")) {
+                        serializer.startTag(null, name);
+
+                        for (int i = 0; i < parser.getAttributeCount(); i++) {
+                            String attributeName = parser.getAttributeName(i);
+
+                            if (attributeName.equals("width")) {
+                                serializer.attribute(null, attributeName, String.valueOf(level.width));
+                            } else if (attributeName.equals("height")) {
+                                serializer.attribute(null, attributeName, String.valueOf(level.height));
+                            } else {
+                                serializer.attribute(null, attributeName, parser.getAttributeValue(i));
+                            }
+                        }
+                    } else if (name.equals("layer")) {
+                        // Layers are replaced by the tiled level's
+                        skipElement(parser);
+                    } else {
+                        copyElement(parser, serializer);
+                    }
+                } else if (eventType == XmlPullParser.END_TAG && parser.getName().equals("map")) {
+                    writeBackgroundLayer(serializer, tiledLevel);
+
+                    serializer.endTag(null, "map");
+                }
+
+                eventType = parser.next();
+            }
+        } catch (XmlPullParserException e) {
+            throw new IOException("Unable to parse TMX template: " + e.getMessage());
+        }
+
+        serializer.endDocument();
+        serializer.flush();
+    }
+
+    /**
+     * Copies the element the parser is positioned on, including its children.
+     *
+     * @param parser     The parser, positioned on a start tag.
+     * @param serializer The serializer to copy to.
+     */
+    private static void copyElement(XmlPullParser parser, XmlSerializer serializer) throws XmlPullParserException, IOException {
+        int depth = 0;
+        int eventType = parser.getEventType();
+        do {
+            if (eventType == XmlPullParser.START_TAG) {
+                String name = parser.getName();
+                serializer.startTag(null, name);
+
+                for (int i = 0; i < parser.getAttributeCount(); i++) {
+                    serializer.attribute(null, parser.getAttributeName(i), parser.getAttributeValue(i));
+                }
+
+                depth++;
+            } else if (eventType == XmlPullParser.END_TAG) {
+                serializer.endTag(null, parser.getName());
+                depth--;
+            } else if (eventType == XmlPullParser.TEXT && parser.getText().trim().length() > 0) {
+                serializer.text(parser.getText());
+            }
+
+            if (depth > 0) {
+                eventType = parser.next();
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Skips the element the parser is positioned on, including its children.
+     *
+     * @param parser The parser, positioned on a start tag.
+     */
+    static void skipElement(XmlPullParser parser) throws XmlPullParserException, IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int eventType = parser.next();
+
+            if (eventType == XmlPullParser.START_TAG) {
+                depth++;
+            } else if (eventType == XmlPullParser.END_TAG) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Writes the background layer, holding the tile IDs of the tiled level.
+     *
+     * @param serializer The serializer.
+     * @param tiledLevel The tiled level.
+     */
+    private static void writeBackgroundLayer(XmlSerializer serializer, TiledLevel tiledLevel) throws IOException {
+        Level level = tiledLevel.level;
+        OutputStream stream = startLayer(serializer, BACKGROUND_LAYER_NAME, level.width, level.height);
+
+        byte[] row = new byte[level.width * 4];
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                putTileID(row, x, tiledLevel.getTileIDAt(x, y));
+            }
+
+            stream.write(row);
+        }
+
+        endLayer(serializer, stream);
+    }
+
+    /**
+     * Starts a layer element and returns a stream that encodes the tile IDs written to it.
+     *
+     * @param serializer The serializer.
+     * @param name       The name of the layer.
+     * @param width      The number of tiles spanning the layer horizontally.
+     * @param height     The number of tiles spanning the layer vertically.
+     * @return The stream to write the little-endian tile IDs to.
+     */
+    private static OutputStream startLayer(XmlSerializer serializer, String name, int width, int height) throws IOException {
+        serializer.startTag(null, "layer")
+                .attribute(null, "name", name)
+                .attribute(null, "width", String.valueOf(width))
+                .attribute(null, "height", String.valueOf(height));
+
+        serializer.startTag(null, "data")
+                .attribute(null, "encoding", "base64")
+                .attribute(null, "compression", "zlib");
+
+        return new DeflaterOutputStream(new Base64OutputStream(new SerializerOutputStream(serializer), Base64.NO_WRAP));
+    }
+
+    /**
+     * Flushes the layer data and ends the layer element.
+     *
+     * @param serializer The serializer.
+     * @param stream     The stream returned by {@link #startLayer}.
+     */
+    private static void endLayer(XmlSerializer serializer, OutputStream stream) throws IOException {
+        // Closing the stream writes out the remaining compressed data and base64 padding
+        stream.close();
+
+        serializer.endTag(null, "data");
+        serializer.endTag(null, "layer");
+    }
+
+    /**
+     * Puts a tile ID into a row buffer in little-endian order.
+     *
+     * @param row    The row buffer.
+     * @param x      The column of the tile.
+     * @param tileID The tile ID.
+     */
+    private static void putTileID(byte[] row, int x, int tileID) {
+        int offset = x * 4;
+        row[offset] = (byte) tileID;
+        row[offset + 1] = (byte) (tileID >> 8);
+        row[offset + 2] = (byte) (tileID >> 16);
+        row[offset + 3] = (byte) (tileID >> 24);
+    }
+
+    /**
+     * Forwards ASCII bytes to a serializer as text.
+     */
+    private static class SerializerOutputStream extends OutputStream {
+        private final XmlSerializer serializer;
+        private char[] chars = new char[0];
+
+        public SerializerOutputStream(XmlSerializer serializer) {
+            this.serializer = serializer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int count) throws IOException {
+            if (chars.length < count) {
+                chars = new char[count];
+            }
+
+            for (int i = 0; i < count; i++) {
+                chars[i] = (char) buffer[offset + i];
+            }
+
+            serializer.text(chars, 0, count);
+        }
+    }
+}
@@ -17,6 +17,8 @@ import prototypev.PermissiveFov.Scenes.SplashScene;
 public class MainActivity extends BaseGameActivity {
     private static final int CAMERA_HEIGHT = 480;
     private static final int CAMERA_WIDTH = 800;
+    private static final int MAZE_HEIGHT = 128;
+    private static final int MAZE_WIDTH = 128;
     private GameResourceManager gameResourceManager;
     private SplashResourceManager splashResourceManager;
 
@@ -60,7 +62,7 @@ public class MainActivity extends BaseGameActivity {
                 try {
                     gameResourceManager.load();
 
-                    GameScene gameScene = new GameScene(activity, gameResourceManager);
+                    GameScene gameScene = new GameScene(activity, gameResourceManager, MAZE_WIDTH, MAZE_HEIGHT);
                     mEngine.setScene(gameScene);
 
 
@@ -1,19 +1,71 @@
 package prototypev.PermissiveFov;
 
-import java.security.SecureRandom;
+import java.util.Random;
 
-public class Randomizer extends SecureRandom {
-    private static Randomizer instance;
+/**
+ * The shared source of randomness for level generation.
+ * Seeding it with {@link #setSeed(long)} makes every generator that draws from it reproducible.
+ * <p/>
+ * A thread can be given its own randomizer with {@link #setThreadInstance(Randomizer)}, so that levels generated on
+ * background threads are reproducible too, however the threads are scheduled.
+ * {@link #runSeeded(long, ISeededTask)} does so for the duration of a single task.
+ */
+public class Randomizer extends Random {
+    private static final Randomizer instance = new Randomizer();
+    private static final ThreadLocal<Randomizer> threadInstance = new ThreadLocal<Randomizer>();
 
     private Randomizer() {
     }
 
+    /**
+     * Creates a new Randomizer.
+     *
+     * @param seed The seed.
+     */
+    public Randomizer(long seed) {
+        super(seed);
+    }
+
+    /**
+     * @return The randomizer of the current thread if it has one; otherwise the shared randomizer.
+     */
     public static Randomizer getInstance() {
-        if (instance == null) {
-            instance = new Randomizer();
+        Randomizer randomizer = threadInstance.get();
+        return randomizer != null ? randomizer : instance;
+    }
+
+    /**
+     * Runs a task on the current thread with its own randomizer, so that every generator it calls draws from that
+     * randomizer and the result only depends on the seed. The thread goes back to the randomizer it had before
+     * afterwards, so seeded tasks can be nested.
+     *
+     * @param seed The seed of the randomizer.
+     * @param task The task.
+     * @param <T>  The type of the result.
+     * @return The result of the task.
+     */
+    public static <T> T runSeeded(long seed, ISeededTask<T> task) {
+        Randomizer previous = threadInstance.get();
+        setThreadInstance(new Randomizer(seed));
+
+        try {
+            return task.run();
+        } finally {
+            setThreadInstance(previous);
         }
+    }
 
-        return instance;
+    /**
+     * Makes {@link #getInstance()} return the specified randomizer on the current thread.
+     *
+     * @param randomizer The randomizer, or null to go back to the shared randomizer.
+     */
+    public static void setThreadInstance(Randomizer randomizer) {
+        if (randomizer != null) {
+            threadInstance.set(randomizer);
+        } else {
+            threadInstance.remove();
+        }
     }
 
     /**
@@ -35,4 +87,18 @@ public class Randomizer extends SecureRandom {
         int range = maximum - minimum + 1;
         return nextInt(range) + minimum;
     }
+
+    /**
+     * A task to run with its own randomizer.
+     *
+     * @param <T> The type of the result.
+     */
+    public interface ISeededTask<T> {
+        /**
+         * Called once, on the thread that runs the task.
+         *
+         * @return The result of the task.
+         */
+        public T run();
+    }
 }
@@ -0,0 +1,112 @@
+package prototypev.PermissiveFov.Rendering;
+
+import org.andengine.entity.Entity;
+import org.andengine.opengl.texture.region.ITextureRegion;
+import org.andengine.opengl.vbo.VertexBufferObjectManager;
+import org.andengine.util.color.Color;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+
+/**
+ * Draws a tiled level as a grid of fixed-size chunks, so only the chunks in view cost anything to draw.
+ * Unlike a TMX layer, the draw cost grows with the size of the screen rather than the size of the map.
+ */
+public class ChunkedTileLayer extends Entity {
+    public static final int CHUNK_SIZE = 16;
+    public final int chunkColumns;
+    public final int chunkRows;
+    private final TileChunk[] chunks;
+    private final TiledLevel tiledLevel;
+    private final TileSet tileSet;
+
+    /**
+     * Creates a new ChunkedTileLayer.
+     *
+     * @param tiledLevel The tiled level to draw.
+     * @param tileSet    The tileset holding every tile in the level.
+     * @param vbom       The vertex buffer object manager.
+     */
+    public ChunkedTileLayer(TiledLevel tiledLevel, TileSet tileSet, VertexBufferObjectManager vbom) {
+        this.tiledLevel = tiledLevel;
+        this.tileSet = tileSet;
+
+        final int tileWidth = tileSet.tileWidth;
+        final int tileHeight = tileSet.tileHeight;
+        final int width = tiledLevel.level.width;
+        final int height = tiledLevel.level.height;
+
+        chunkColumns = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunkRows = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new TileChunk[chunkColumns * chunkRows];
+
+        for (int chunkY = 0; chunkY < chunkRows; chunkY++) {
+            for (int chunkX = 0; chunkX < chunkColumns; chunkX++) {
+                int tileColumn = chunkX * CHUNK_SIZE;
+                int tileRow = chunkY * CHUNK_SIZE;
+                int tileColumns = Math.min(CHUNK_SIZE, width - tileColumn);
+                int tileRows = Math.min(CHUNK_SIZE, height - tileRow);
+
+                TileChunk chunk = new TileChunk(tileColumn, tileRow, tileColumns, tileRows, tileWidth, tileHeight, tileSet.getTexture(), vbom);
+                chunks[chunkY * chunkColumns + chunkX] = chunk;
+
+                updateChunk(chunk);
+                attachChild(chunk);
+            }
+        }
+    }
+
+    /**
+     * @param chunkX The horizontal component, in chunks.
+     * @param chunkY The vertical component, in chunks.
+     * @return The chunk at the specified co-ordinates.
+     */
+    public TileChunk getChunkAt(int chunkX, int chunkY) {
+        return chunks[chunkY * chunkColumns + chunkX];
+    }
+
+    /**
+     * Uploads the tiles in a rectangle of the level again. Only the chunks overlapping the rectangle are touched.
+     *
+     * @param left   The left bound of the rectangle.
+     * @param top    The top bound of the rectangle.
+     * @param width  The number of tiles spanning the rectangle horizontally.
+     * @param height The number of tiles spanning the rectangle vertically.
+     */
+    public void updateTiles(int left, int top, int width, int height) {
+        int lastChunkX = (left + width - 1) / CHUNK_SIZE;
+        int lastChunkY = (top + height - 1) / CHUNK_SIZE;
+
+        for (int chunkY = top / CHUNK_SIZE; chunkY <= lastChunkY; chunkY++) {
+            for (int chunkX = left / CHUNK_SIZE; chunkX <= lastChunkX; chunkX++) {
+                updateChunk(getChunkAt(chunkX, chunkY));
+            }
+        }
+    }
+
+    /**
+     * Writes the tiles of the chunk into its vertex buffer and uploads it.
+     *
+     * @param chunk The chunk.
+     */
+    private void updateChunk(TileChunk chunk) {
+        final int tileWidth = tileSet.tileWidth;
+        final int tileHeight = tileSet.tileHeight;
+
+        chunk.setIndex(0);
+
+        for (int y = 0; y < chunk.tileRows; y++) {
+            for (int x = 0; x < chunk.tileColumns; x++) {
+                int tileID = tiledLevel.getTileIDAt(chunk.tileColumn + x, chunk.tileRow + y);
+
+                // Tile ID 0 means there is no tile to draw
+                if (tileID == 0) {
+                    continue;
+                }
+
+                ITextureRegion textureRegion = tileSet.getTextureRegion(tileID);
+                chunk.drawWithoutChecks(textureRegion, x * tileWidth, y * tileHeight, tileWidth, tileHeight, Color.WHITE_ABGR_PACKED_FLOAT);
+            }
+        }
+
+        chunk.submit();
+    }
+}
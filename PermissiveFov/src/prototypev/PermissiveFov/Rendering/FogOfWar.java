@@ -0,0 +1,112 @@
+package prototypev.PermissiveFov.Rendering;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+
+/**
+ * Tracks how dark each tile of a level is drawn: visible tiles are clear, explored tiles are dimmed and unexplored
+ * tiles are hidden. Only the rows visible this turn or the last are looked at, so the cost of an update follows the
+ * field of view, not the map.
+ */
+public class FogOfWar {
+    private static final float EXPLORED_ALPHA = 0.5f;
+    private static final float UNEXPLORED_ALPHA = 1;
+    private static final float VISIBLE_ALPHA = 0;
+    private final Level level;
+    private final TileBitSet shownExploredTiles;
+    private final TileBitSet shownVisibleTiles;
+    private int lastHeight;
+    private int lastTop;
+
+    /**
+     * Creates a new FogOfWar, with no tile visible.
+     *
+     * @param level The level, holding the tiles that have been explored.
+     */
+    public FogOfWar(Level level) {
+        this.level = level;
+
+        shownExploredTiles = new TileBitSet(level.width, level.height);
+        shownExploredTiles.copyFrom(level.getExploredTiles());
+        shownVisibleTiles = new TileBitSet(level.width, level.height);
+    }
+
+    /**
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     * @return A value between 0 - 1, the alpha of the black drawn over the tile.
+     */
+    public float getAlpha(int x, int y) {
+        if (shownVisibleTiles.get(x, y)) {
+            return VISIBLE_ALPHA;
+        } else if (shownExploredTiles.get(x, y)) {
+            return EXPLORED_ALPHA;
+        }
+
+        return UNEXPLORED_ALPHA;
+    }
+
+    /**
+     * Shows the tiles that are visible this turn, after they have been explored in the level.
+     *
+     * @param visibleTiles The tiles that are visible.
+     * @param top          The first row holding visible tiles.
+     * @param height       The number of rows holding visible tiles.
+     * @param listener     The listener to notify of each tile whose alpha changed.
+     */
+    public void update(TileBitSet visibleTiles, int top, int height, ITileListener listener) {
+        // Tiles visible last turn may have been left in the dark since
+        int bandTop = top;
+        int bandBottom = top + height;
+        if (lastHeight > 0) {
+            bandTop = Math.min(bandTop, lastTop);
+            bandBottom = Math.max(bandBottom, lastTop + lastHeight);
+        }
+
+        lastTop = top;
+        lastHeight = height;
+
+        if (bandBottom <= bandTop) {
+            return;
+        }
+
+        TileBitSet exploredTiles = level.getExploredTiles();
+        int tileCount = level.width * level.height;
+
+        int lastWordIndex = visibleTiles.getWordIndex(level.width - 1, bandBottom - 1);
+        for (int i = visibleTiles.getWordIndex(0, bandTop); i <= lastWordIndex; i++) {
+            long visibleWord = visibleTiles.getWord(i);
+            long exploredWord = exploredTiles.getWord(i);
+
+            long changed = (visibleWord ^ shownVisibleTiles.getWord(i)) | (exploredWord ^ shownExploredTiles.getWord(i));
+
+            shownVisibleTiles.setWord(i, visibleWord);
+            shownExploredTiles.setWord(i, exploredWord);
+
+            // Visit each changed bit, lowest first
+            while (changed != 0) {
+                int index = (i << 6) + Long.numberOfTrailingZeros(changed);
+                if (index >= tileCount) {
+                    break;
+                }
+
+                listener.onTileChanged(index % level.width, index / level.width);
+
+                changed &= changed - 1;
+            }
+        }
+    }
+
+    /**
+     * Listener for the tiles whose alpha changed.
+     */
+    public interface ITileListener {
+        /**
+         * Called for each tile whose alpha changed.
+         *
+         * @param x The horizontal component.
+         * @param y The vertical component.
+         */
+        public void onTileChanged(int x, int y);
+    }
+}
@@ -0,0 +1,145 @@
+package prototypev.PermissiveFov.Rendering;
+
+import org.andengine.entity.Entity;
+import org.andengine.opengl.texture.ITexture;
+import org.andengine.opengl.texture.region.ITextureRegion;
+import org.andengine.opengl.vbo.DrawType;
+import org.andengine.opengl.vbo.VertexBufferObjectManager;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+
+/**
+ * Draws the {@link FogOfWar} of a level over its tiles.
+ * Each tile has a fixed slot in its chunk's vertex buffer, so a tile is only rewritten when its visible or explored
+ * state changes, and only the chunks holding such tiles are uploaded again.
+ */
+public class FogOfWarOverlay extends Entity {
+    private final int chunkColumns;
+    private final TileChunk[] chunks;
+    private final int[] dirtyChunkIndices;
+    private final boolean[] dirtyChunks;
+    private final FogOfWar fogOfWar;
+    private final ITextureRegion textureRegion;
+    private final int tileHeight;
+    private final FogOfWar.ITileListener tileListener = new FogOfWar.ITileListener() {
+        @Override
+        public void onTileChanged(int x, int y) {
+            updateTile(x, y);
+        }
+    };
+    private final int tileWidth;
+    private int dirtyChunkCount;
+
+    /**
+     * Creates a new FogOfWarOverlay, with no tile visible.
+     *
+     * @param level         The level, holding the tiles that have been explored.
+     * @param tileWidth     The width of each tile, in pixels.
+     * @param tileHeight    The height of each tile, in pixels.
+     * @param texture       The texture holding the texture region.
+     * @param textureRegion An opaque texture region, drawn in black to darken a tile.
+     * @param vbom          The vertex buffer object manager.
+     */
+    public FogOfWarOverlay(Level level, int tileWidth, int tileHeight, ITexture texture, ITextureRegion textureRegion, VertexBufferObjectManager vbom) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.textureRegion = textureRegion;
+
+        fogOfWar = new FogOfWar(level);
+
+        final int chunkSize = ChunkedTileLayer.CHUNK_SIZE;
+        chunkColumns = (level.width + chunkSize - 1) / chunkSize;
+        int chunkRows = (level.height + chunkSize - 1) / chunkSize;
+
+        chunks = new TileChunk[chunkColumns * chunkRows];
+        dirtyChunkIndices = new int[chunks.length];
+        dirtyChunks = new boolean[chunks.length];
+
+        for (int chunkY = 0; chunkY < chunkRows; chunkY++) {
+            for (int chunkX = 0; chunkX < chunkColumns; chunkX++) {
+                int tileColumn = chunkX * chunkSize;
+                int tileRow = chunkY * chunkSize;
+                int tileColumns = Math.min(chunkSize, level.width - tileColumn);
+                int tileRows = Math.min(chunkSize, level.height - tileRow);
+
+                // Visibility changes every turn
+                TileChunk chunk = new TileChunk(tileColumn, tileRow, tileColumns, tileRows, tileWidth, tileHeight, texture, vbom, DrawType.DYNAMIC);
+                chunks[chunkY * chunkColumns + chunkX] = chunk;
+
+                for (int y = tileRow; y < tileRow + tileRows; y++) {
+                    for (int x = tileColumn; x < tileColumn + tileColumns; x++) {
+                        updateTile(x, y);
+                    }
+                }
+
+                attachChild(chunk);
+            }
+        }
+
+        submitDirtyChunks();
+    }
+
+    /**
+     * Shows the tiles that are visible this turn, after they have been explored in the level.
+     *
+     * @param visibleTiles The tiles that are visible.
+     * @param top          The first row holding visible tiles.
+     * @param height       The number of rows holding visible tiles.
+     */
+    public void update(TileBitSet visibleTiles, int top, int height) {
+        fogOfWar.update(visibleTiles, top, height, tileListener);
+        submitDirtyChunks();
+    }
+
+    /**
+     * Uploads every chunk holding a rewritten tile.
+     */
+    private void submitDirtyChunks() {
+        for (int i = 0; i < dirtyChunkCount; i++) {
+            int chunkIndex = dirtyChunkIndices[i];
+            TileChunk chunk = chunks[chunkIndex];
+
+            // Submitting draws as many tiles as the current index, and the index can only be set to an existing slot,
+            // so rewrite the last slot to leave the index just past it
+            writeTile(chunk, chunk.tileColumns - 1, chunk.tileRows - 1);
+            chunk.submit();
+
+            dirtyChunks[chunkIndex] = false;
+        }
+
+        dirtyChunkCount = 0;
+    }
+
+    /**
+     * Rewrites the tile's slot in its chunk to match its alpha, and marks the chunk dirty.
+     *
+     * @param x The horizontal component.
+     * @param y The vertical component.
+     */
+    private void updateTile(int x, int y) {
+        final int chunkSize = ChunkedTileLayer.CHUNK_SIZE;
+        int chunkIndex = (y / chunkSize) * chunkColumns + x / chunkSize;
+        TileChunk chunk = chunks[chunkIndex];
+
+        writeTile(chunk, x - chunk.tileColumn, y - chunk.tileRow);
+
+        if (!dirtyChunks[chunkIndex]) {
+            dirtyChunks[chunkIndex] = true;
+            dirtyChunkIndices[dirtyChunkCount++] = chunkIndex;
+        }
+    }
+
+    /**
+     * Rewrites a tile's slot in a chunk to match its alpha, leaving the chunk's index just past the slot.
+     *
+     * @param chunk  The chunk.
+     * @param localX The horizontal component, relative to the chunk.
+     * @param localY The vertical component, relative to the chunk.
+     */
+    private void writeTile(TileChunk chunk, int localX, int localY) {
+        float alpha = fogOfWar.getAlpha(chunk.tileColumn + localX, chunk.tileRow + localY);
+
+        chunk.setIndex(localY * chunk.tileColumns + localX);
+        chunk.drawWithoutChecks(textureRegion, localX * tileWidth, localY * tileHeight, tileWidth, tileHeight, 0, 0, 0, alpha);
+    }
+}
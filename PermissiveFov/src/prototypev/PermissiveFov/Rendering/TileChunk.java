@@ -0,0 +1,74 @@
+package prototypev.PermissiveFov.Rendering;
+
+import org.andengine.engine.camera.Camera;
+import org.andengine.entity.sprite.batch.SpriteBatch;
+import org.andengine.opengl.texture.ITexture;
+import org.andengine.opengl.vbo.DrawType;
+import org.andengine.opengl.vbo.VertexBufferObjectManager;
+
+/**
+ * A rectangular block of tiles drawn from its own vertex buffer.
+ * The chunk is culled whenever it lies entirely outside the camera.
+ */
+public class TileChunk extends SpriteBatch {
+    public final int tileColumn;
+    public final int tileRow;
+    public final int tileColumns;
+    public final int tileRows;
+    private final float height;
+    private final float width;
+
+    /**
+     * Creates a new TileChunk.
+     *
+     * @param tileColumn  The column of the chunk's top-left tile.
+     * @param tileRow     The row of the chunk's top-left tile.
+     * @param tileColumns The number of columns of tiles in the chunk.
+     * @param tileRows    The number of rows of tiles in the chunk.
+     * @param tileWidth   The width of each tile, in pixels.
+     * @param tileHeight  The height of each tile, in pixels.
+     * @param texture     The tileset texture.
+     * @param vbom        The vertex buffer object manager.
+     */
+    public TileChunk(int tileColumn, int tileRow, int tileColumns, int tileRows, int tileWidth, int tileHeight, ITexture texture, VertexBufferObjectManager vbom) {
+        // The tiles rarely change, so the buffer is uploaded once and then only drawn
+        this(tileColumn, tileRow, tileColumns, tileRows, tileWidth, tileHeight, texture, vbom, DrawType.STATIC);
+    }
+
+    /**
+     * Creates a new TileChunk.
+     *
+     * @param tileColumn  The column of the chunk's top-left tile.
+     * @param tileRow     The row of the chunk's top-left tile.
+     * @param tileColumns The number of columns of tiles in the chunk.
+     * @param tileRows    The number of rows of tiles in the chunk.
+     * @param tileWidth   The width of each tile, in pixels.
+     * @param tileHeight  The height of each tile, in pixels.
+     * @param texture     The tileset texture.
+     * @param vbom        The vertex buffer object manager.
+     * @param drawType    How often the tiles are expected to change.
+     */
+    public TileChunk(int tileColumn, int tileRow, int tileColumns, int tileRows, int tileWidth, int tileHeight, ITexture texture, VertexBufferObjectManager vbom, DrawType drawType) {
+        super(tileColumn * tileWidth, tileRow * tileHeight, texture, tileColumns * tileRows, vbom, drawType);
+
+        this.tileColumn = tileColumn;
+        this.tileRow = tileRow;
+        this.tileColumns = tileColumns;
+        this.tileRows = tileRows;
+        this.width = tileColumns * tileWidth;
+        this.height = tileRows * tileHeight;
+
+        setCullingEnabled(true);
+    }
+
+    @Override
+    public boolean isCulled(Camera camera) {
+        float left = getX();
+        float top = getY();
+
+        return left + width < camera.getXMin()
+                || left > camera.getXMax()
+                || top + height < camera.getYMin()
+                || top > camera.getYMax();
+    }
+}
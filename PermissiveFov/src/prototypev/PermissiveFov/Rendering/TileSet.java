@@ -0,0 +1,73 @@
+package prototypev.PermissiveFov.Rendering;
+
+import org.andengine.opengl.texture.ITexture;
+import org.andengine.opengl.texture.region.ITextureRegion;
+import org.andengine.opengl.texture.region.TextureRegionFactory;
+
+/**
+ * The tiles of a tileset image, looked up by global tile ID.
+ * Tiles are laid out in rows from the top-left of the image, the same as in a TMX tileset.
+ */
+public class TileSet {
+    public final int firstGlobalTileID;
+    public final int tileHeight;
+    public final int tileWidth;
+    private final ITexture texture;
+    private final ITextureRegion[] textureRegions;
+
+    /**
+     * Creates a new TileSet.
+     *
+     * @param firstGlobalTileID The global ID of the first tile in the tileset.
+     * @param tileWidth         The width of each tile, in pixels.
+     * @param tileHeight        The height of each tile, in pixels.
+     * @param spacing           The number of pixels between neighbouring tiles in the image.
+     * @param margin            The number of pixels between the tiles and each edge of the image.
+     * @param texture           The texture holding the image.
+     * @param imageWidth        The width of the image, in pixels.
+     * @param imageHeight       The height of the image, in pixels.
+     */
+    public TileSet(int firstGlobalTileID, int tileWidth, int tileHeight, int spacing, int margin, ITexture texture, int imageWidth, int imageHeight) {
+        if (tileWidth < 1 || tileHeight < 1) {
+            throw new IllegalArgumentException("Tiles must be at least 1 pixel wide and high!");
+        }
+
+        this.firstGlobalTileID = firstGlobalTileID;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.texture = texture;
+
+        // The margin is on every side of the image, and there is one less spacing than there are tiles
+        int tileColumns = (imageWidth - 2 * margin + spacing) / (tileWidth + spacing);
+        int tileRows = (imageHeight - 2 * margin + spacing) / (tileHeight + spacing);
+
+        textureRegions = new ITextureRegion[tileColumns * tileRows];
+        for (int i = 0; i < textureRegions.length; i++) {
+            int x = margin + (i % tileColumns) * (tileWidth + spacing);
+            int y = margin + (i / tileColumns) * (tileHeight + spacing);
+
+            textureRegions[i] = TextureRegionFactory.extractFromTexture(texture, x, y, tileWidth, tileHeight);
+        }
+    }
+
+    /**
+     * @return The texture holding the image.
+     */
+    public ITexture getTexture() {
+        return texture;
+    }
+
+    /**
+     * @param globalTileID The global ID of a tile in the tileset.
+     * @return The region of the texture holding the tile.
+     */
+    public ITextureRegion getTextureRegion(int globalTileID) {
+        int tileID = globalTileID - firstGlobalTileID;
+
+        if (tileID < 0 || tileID >= textureRegions.length) {
+            throw new IllegalArgumentException(String.format("Tile %d is not in the tileset!", globalTileID));
+        }
+
+        return textureRegions[tileID];
+    }
+}
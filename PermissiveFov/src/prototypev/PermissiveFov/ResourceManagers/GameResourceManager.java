@@ -1,25 +1,112 @@
 package prototypev.PermissiveFov.ResourceManagers;
 
-import org.andengine.extension.tmx.TMXLayer;
-import org.andengine.extension.tmx.TMXLoader;
-import org.andengine.extension.tmx.TMXTiledMap;
+import org.andengine.opengl.texture.TextureOptions;
+import org.andengine.opengl.texture.atlas.bitmap.BitmapTextureAtlas;
+import org.andengine.opengl.texture.atlas.bitmap.BitmapTextureAtlasTextureRegionFactory;
+import org.andengine.opengl.texture.region.ITextureRegion;
 import org.andengine.ui.activity.BaseGameActivity;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
-
-import java.util.ArrayList;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+import prototypev.PermissiveFov.LevelGeneration.Generators.WaveFunctionCollapseGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.PrefabReader;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.PrefabWriter;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.TMXLevelReader;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.TMXLevelWriter;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Rendering.ChunkedTileLayer;
+import prototypev.PermissiveFov.Rendering.FogOfWarOverlay;
+import prototypev.PermissiveFov.Rendering.TileSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public class GameResourceManager implements IResourceManager {
-    public static final String BACKGROUND_LAYER_NAME = "Background";
-    public static final String META_LAYER_NAME = "Meta";
     private static final String MAP_FILE = "map.tmx";
     private final BaseGameActivity activity;
     private TMXTilePropertiesListener tilePropertiesListener;
-    private TMXTiledMap tiledMap;
+    private TileSet tileSet;
+    private BitmapTextureAtlas tileSetTextureAtlas;
 
     public GameResourceManager(BaseGameActivity activity) {
         this.activity = activity;
     }
 
+    /**
+     * Writes the tiled level as a TMX map, using the tilesets of the default map.
+     *
+     * @param tiledLevel The tiled level.
+     * @param stream     The stream to write to.
+     * @throws IOException If the map cannot be written.
+     */
+    public void bakeLevel(TiledLevel tiledLevel, OutputStream stream) throws IOException {
+        InputStream template = activity.getAssets().open(MAP_FILE);
+
+        try {
+            TMXLevelWriter.write(tiledLevel, template, stream);
+        } finally {
+            template.close();
+        }
+    }
+
+    /**
+     * Creates an overlay that darkens the tiles of the level that are not visible.
+     *
+     * @param level The level.
+     * @return The overlay.
+     */
+    public FogOfWarOverlay createFogOfWarOverlay(Level level) {
+        // Floor tiles are opaque, so drawn in black they cover whatever is under them
+        ITextureRegion textureRegion = tileSet.getTextureRegion(getBackgroundTileID(TileType.EMPTY.getName()));
+
+        return new FogOfWarOverlay(level, tileSet.tileWidth, tileSet.tileHeight, tileSet.getTexture(), textureRegion, activity.getVertexBufferObjectManager());
+    }
+
+    /**
+     * Creates a layer that draws the background tiles of the tiled level, a chunk at a time.
+     *
+     * @param tiledLevel The tiled level.
+     * @return The layer.
+     */
+    public ChunkedTileLayer createTileLayer(TiledLevel tiledLevel) {
+        return new ChunkedTileLayer(tiledLevel, tileSet, activity.getVertexBufferObjectManager());
+    }
+
+    /**
+     * Picks the background tile for each tile in the level.
+     *
+     * @param level The generated level.
+     * @return The tiled level.
+     */
+    public TiledLevel createTiledLevel(Level level) {
+        TiledLevel tiledLevel = new TiledLevel(level);
+        updateTiledLevel(tiledLevel, 0, 0, level.width, level.height);
+
+        return tiledLevel;
+    }
+
+    /**
+     * Creates a wave function collapse generator from the wall tiles of the default map.
+     * The levels it generates come with their tile IDs, so they need no autotiling.
+     *
+     * @param emptyWeight How much more likely an empty tile is to be chosen than each wall tile.
+     * @return The generator.
+     * @throws IOException If the map cannot be read.
+     */
+    public WaveFunctionCollapseGenerator createWaveFunctionCollapseGenerator(int emptyWeight) throws IOException {
+        WaveFunctionCollapseGenerator generator = new WaveFunctionCollapseGenerator(emptyWeight);
+        InputStream stream = activity.getAssets().open(MAP_FILE);
+
+        try {
+            TMXLevelReader.readTileProperties(stream, generator);
+        } finally {
+            stream.close();
+        }
+
+        return generator;
+    }
+
     public int getBackgroundTileID(String key) {
         return tilePropertiesListener.getBackgroundTileID(key);
     }
@@ -34,50 +121,128 @@ public class GameResourceManager implements IResourceManager {
         return tilePropertiesListener.getBackgroundTileIDForWall(level, x, y);
     }
 
-    public int getCollidableTileID() {
-        return tilePropertiesListener.getCollidableTileID();
-    }
-
     /**
-     * @param layerName The layer name.
-     * @return The layer, if found.
+     * Reads the tilesets of the default map and their tile properties in a single pass, stopping before its layers.
+     * Levels are drawn by a chunked layer of whatever size they need, so the map's own layers are never read.
      */
-    public TMXLayer getLayer(String layerName) {
-        ArrayList<TMXLayer> layers = tiledMap.getTMXLayers();
+    @Override
+    public void load() throws Exception {
+        tilePropertiesListener = new TMXTilePropertiesListener();
 
-        for (TMXLayer layer : layers) {
-            if (layer.getName().equals(layerName)) {
-                return layer;
-            }
+        InputStream stream = activity.getAssets().open(MAP_FILE);
+
+        try {
+            TMXLevelReader.readTileSets(stream, new TMXLevelReader.ITileSetListener() {
+                @Override
+                public void onTileSet(int firstGlobalTileID, int tileWidth, int tileHeight, int spacing, int margin, String imageSource, int imageWidth, int imageHeight) {
+                    // The background tiles all come from the first tileset
+                    if (tileSet == null) {
+                        loadTileSet(firstGlobalTileID, tileWidth, tileHeight, spacing, margin, imageSource, imageWidth, imageHeight);
+                    }
+                }
+            }, tilePropertiesListener);
+        } finally {
+            stream.close();
         }
 
-        throw new IllegalArgumentException(String.format("Layer: '%s' not found!", layerName));
+        if (tileSet == null) {
+            throw new IllegalStateException(String.format("%s has no tileset!", MAP_FILE));
+        }
     }
 
-    public TMXTiledMap getTiledMap() {
-        return tiledMap;
-    }
+    /**
+     * Loads a level that was baked into a TMX map.
+     * Baked maps are written with the tilesets of the default map, so their tile IDs can be drawn as they are.
+     *
+     * @param mapFile The asset path of the baked map.
+     * @return The baked level.
+     * @throws Exception If the map cannot be loaded.
+     */
+    public TiledLevel loadBakedLevel(String mapFile) throws Exception {
+        InputStream stream = activity.getAssets().open(mapFile);
 
-    public int getWalkableTileID() {
-        return tilePropertiesListener.getWalkableTileID();
+        try {
+            return TMXLevelReader.read(stream);
+        } finally {
+            stream.close();
+        }
     }
 
-    @Override
-    public void load() throws Exception {
-        tilePropertiesListener = new TMXTilePropertiesListener();
-        TMXLoader tmxLoader = new TMXLoader(activity.getAssets(), activity.getTextureManager(), activity.getVertexBufferObjectManager(), tilePropertiesListener);
-
-        tiledMap = tmxLoader.loadFromAsset(MAP_FILE);
+    /**
+     * Loads a prefab library, written by {@link PrefabWriter}.
+     * Libraries are meant to be loaded once and shared by every level generated from them.
+     *
+     * @param file The asset path of the prefab library.
+     * @return The prefab library.
+     * @throws IOException If the library cannot be read.
+     */
+    public PrefabLibrary loadPrefabLibrary(String file) throws IOException {
+        InputStream stream = activity.getAssets().open(file);
 
-        TMXLayer metaLayer = getLayer(META_LAYER_NAME);
-        metaLayer.setVisible(false);
+        try {
+            return PrefabReader.read(stream);
+        } finally {
+            stream.close();
+        }
     }
 
     @Override
     public void unload() {
+        tileSetTextureAtlas.unload();
+        tileSetTextureAtlas = null;
+
         tilePropertiesListener = null;
-        tiledMap = null;
+        tileSet = null;
     }
 
+    /**
+     * Picks the background tile again for each tile in a rectangle of the level.
+     * Wall tiles depend on their neighbours, so the caller should include the tiles around the ones that changed.
+     *
+     * @param tiledLevel The tiled level.
+     * @param left       The left bound of the rectangle.
+     * @param top        The top bound of the rectangle.
+     * @param width      The number of tiles spanning the rectangle horizontally.
+     * @param height     The number of tiles spanning the rectangle vertically.
+     */
+    public void updateTiledLevel(TiledLevel tiledLevel, int left, int top, int width, int height) {
+        Level level = tiledLevel.level;
+
+        for (int y = top; y < top + height; y++) {
+            for (int x = left; x < left + width; x++) {
+                TileType tileType = level.getTileTypeAt(x, y);
+
+                int backgroundTileID;
+                if (tileType == TileType.WALL) {
+                    backgroundTileID = getBackgroundTileIDForWall(level, x, y);
+                } else {
+                    backgroundTileID = getBackgroundTileID(tileType.getName());
+                }
+
+                tiledLevel.setTileIDAt(x, y, backgroundTileID);
+            }
+        }
+    }
+
+    /**
+     * Loads the image of a tileset into its own texture.
+     * The map is at the root of the assets, so the path of the image relative to it is also its asset path.
+     *
+     * @param firstGlobalTileID The global ID of the first tile in the tileset.
+     * @param tileWidth         The width of each tile, in pixels.
+     * @param tileHeight        The height of each tile, in pixels.
+     * @param spacing           The number of pixels between neighbouring tiles in the image.
+     * @param margin            The number of pixels around the tiles in the image.
+     * @param imageSource       The path of the image.
+     * @param imageWidth        The width of the image, in pixels.
+     * @param imageHeight       The height of the image, in pixels.
+     */
+    private void loadTileSet(int firstGlobalTileID, int tileWidth, int tileHeight, int spacing, int margin, String imageSource, int imageWidth, int imageHeight) {
+        tileSetTextureAtlas = new BitmapTextureAtlas(activity.getTextureManager(), imageWidth, imageHeight, TextureOptions.DEFAULT);
+        BitmapTextureAtlasTextureRegionFactory.createFromAsset(tileSetTextureAtlas, activity, imageSource, 0, 0);
+        tileSetTextureAtlas.load();
+
+        tileSet = new TileSet(firstGlobalTileID, tileWidth, tileHeight, spacing, margin, tileSetTextureAtlas, imageWidth, imageHeight);
+    }
 
 }
@@ -1,9 +1,10 @@
 package prototypev.PermissiveFov.ResourceManagers;
 
-import org.andengine.extension.tmx.*;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.TMXLevelReader;
 import prototypev.PermissiveFov.LevelGeneration.TileType;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -11,10 +12,9 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Event listener for TMX loader.
+ * Event listener for the tile properties of a TMX tileset.
  */
-public class TMXTilePropertiesListener implements TMXLoader.ITMXTilePropertiesListener {
-    private static final String COLLIDABLE_PROPERTY_NAME = "Collidable";
+public class TMXTilePropertiesListener implements TMXLevelReader.ITilePropertyListener {
     private static final String TILE_TYPE_PROPERTY_NAME = "TileType";
     private static final String WILDCARD_STRING = "*";
     private static final int[][] adjacentTileDeltasIncludeDiagonals = new int[][]
@@ -30,7 +30,7 @@ public class TMXTilePropertiesListener implements TMXLoader.ITMXTilePropertiesLi
                     {0, 1}
             };
     private final Map<String, Integer> backgroundTiles = new HashMap<String, Integer>();
-    private int collidableTileID;
+    private final int[] wallTileIDs = new int[1 << adjacentTileDeltasIncludeDiagonals.length]; // Cached by wall type
 
     public Integer getBackgroundTileID(String key) {
         return backgroundTiles.get(key);
@@ -43,7 +43,34 @@ public class TMXTilePropertiesListener implements TMXLoader.ITMXTilePropertiesLi
      * @return The background tile ID.
      */
     public int getBackgroundTileIDForWall(Level level, int x, int y) {
-        String wallKey = getWallKey(level, x, y);
+        int wallType = getWallType(level, x, y);
+
+        // Matching the wall key is expensive, so only do it once for each wall type
+        int tileID = wallTileIDs[wallType];
+        if (tileID == 0) {
+            tileID = findBackgroundTileIDForWall(wallType);
+            wallTileIDs[wallType] = tileID;
+        }
+
+        return tileID;
+    }
+
+    @Override
+    public void onTileProperty(int globalTileID, String name, String value) {
+        if (name.equals(TILE_TYPE_PROPERTY_NAME)) {
+            backgroundTiles.put(value, globalTileID);
+
+            // Wall tiles may now match differently
+            Arrays.fill(wallTileIDs, 0);
+        }
+    }
+
+    /**
+     * @param wallType The wall type.
+     * @return The background tile ID.
+     */
+    private int findBackgroundTileIDForWall(int wallType) {
+        String wallKey = getWallKey(wallType);
 
         if (backgroundTiles.containsKey(wallKey)) {
             return backgroundTiles.get(wallKey);
@@ -69,40 +96,13 @@ public class TMXTilePropertiesListener implements TMXLoader.ITMXTilePropertiesLi
         return backgroundTiles.get(TileType.WALL.getName());
     }
 
-    public int getCollidableTileID() {
-        return collidableTileID;
-    }
-
-    public int getWalkableTileID() {
-        return collidableTileID + 1;
-    }
-
-    @Override
-    public void onTMXTileWithPropertiesCreated(TMXTiledMap tiledMap, TMXLayer layer, TMXTile tile, TMXProperties<TMXTileProperty> properties) {
-        String layerName = layer.getName();
-
-        int tileID = tile.getGlobalTileID();
-        if (layerName.equals(GameResourceManager.BACKGROUND_LAYER_NAME)) {
-            if (hasTilePropertyValue(properties, TILE_TYPE_PROPERTY_NAME)) {
-                String tileType = getTilePropertyValue(properties, TILE_TYPE_PROPERTY_NAME);
-                backgroundTiles.put(tileType, tileID);
-            }
-        } else if (layerName.equals(GameResourceManager.META_LAYER_NAME)) {
-            if (hasTilePropertyValue(properties, COLLIDABLE_PROPERTY_NAME)) {
-                collidableTileID = tileID;
-            }
-        }
-    }
-
     /**
-     * @param level The generated level.
-     * @param x     The horizontal component of the co-ordinate.
-     * @param y     The vertical component of the co-ordinate.
-     * @return The key representing the wall type at the specified co-ordinates.
+     * @param wallType The wall type.
+     * @return The key representing the wall type.
      */
-    private static String getWallKey(Level level, int x, int y) {
-        // Get the wall type
-        String binaryString = getWallType(level, x, y);
+    private static String getWallKey(int wallType) {
+        // Get the binary string representation of the wall type
+        String binaryString = String.format("%8s", Integer.toBinaryString(wallType)).replace(' ', '0');
 
         return String.format("%s_%s", TileType.WALL.getName(), binaryString);
     }
@@ -111,9 +111,9 @@ public class TMXTilePropertiesListener implements TMXLoader.ITMXTilePropertiesLi
      * @param level The generated level.
      * @param x     The horizontal component of the co-ordinate.
      * @param y     The vertical component of the co-ordinate.
-     * @return The binary string representation of the wall type at the specified co-ordinates.
+     * @return The wall type at the specified co-ordinates, with a bit set for each adjacent wall.
      */
-    private static String getWallType(Level level, int x, int y) {
+    private static int getWallType(Level level, int x, int y) {
         int wallType = 0xFF; // Initialize to 11111111
         for (int i = 0; i < adjacentTileDeltasIncludeDiagonals.length; i++) {
             int adjX = x + adjacentTileDeltasIncludeDiagonals[i][0];
@@ -129,40 +129,6 @@ public class TMXTilePropertiesListener implements TMXLoader.ITMXTilePropertiesLi
             }
         }
 
-        return String.format("%8s", Integer.toBinaryString(wallType)).replace(' ', '0');
-    }
-
-    /**
-     * @param properties   The properties.
-     * @param propertyName The name of the property to get.
-     * @return The value of the property.
-     */
-    private String getTilePropertyValue(TMXProperties<TMXTileProperty> properties, String propertyName) {
-        if (properties != null) {
-            for (TMXTileProperty property : properties) {
-                if (property.getName().equals(propertyName)) {
-                    return property.getValue();
-                }
-            }
-        }
-
-        throw new IllegalArgumentException(String.format("No property with name: %s found!", propertyName));
-    }
-
-    /**
-     * @param properties   The properties.
-     * @param propertyName The name of the property to check.
-     * @return true if the property exists; otherwise false.
-     */
-    private boolean hasTilePropertyValue(TMXProperties<TMXTileProperty> properties, String propertyName) {
-        if (properties != null) {
-            for (TMXTileProperty property : properties) {
-                if (property.getName().equals(propertyName)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return wallType;
     }
 }
@@ -1,117 +1,142 @@
 package prototypev.PermissiveFov.Scenes;
 
-import org.andengine.extension.tmx.TMXLayer;
-import org.andengine.extension.tmx.TMXTile;
-import org.andengine.extension.tmx.TMXTiledMap;
 import org.andengine.ui.activity.BaseGameActivity;
-import org.andengine.util.color.Color;
+import prototypev.PermissiveFov.Collision.CollisionMap;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Placement;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
 import prototypev.PermissiveFov.LevelGeneration.Generators.LevelGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LoopInjector;
 import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.PlacementGenerator;
 import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
-import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Rendering.ChunkedTileLayer;
+import prototypev.PermissiveFov.Rendering.FogOfWarOverlay;
 import prototypev.PermissiveFov.ResourceManagers.GameResourceManager;
 
 public class GameScene extends SceneBase {
-    private int spawnX;
-    private int spawnY;
+    private static final int ITEM_COUNT = 5;
+    private final ChunkedTileLayer backgroundLayer;
+    private final CollisionMap collisionMap;
+    private final GameResourceManager gameResourceManager;
+    private final Placement placement;
+    private final TiledLevel tiledLevel;
+    private FogOfWarOverlay fogOfWarOverlay;
 
-    public GameScene(BaseGameActivity activity, GameResourceManager resourceManager) {
+    /**
+     * Creates a new GameScene with a random level of the specified size.
+     *
+     * @param activity        The activity.
+     * @param resourceManager The resource manager.
+     * @param mazeWidth       The number of cells spanning the maze horizontally. The level is twice as wide, in tiles.
+     * @param mazeHeight      The number of cells spanning the maze vertically. The level is twice as high, in tiles.
+     */
+    public GameScene(BaseGameActivity activity, GameResourceManager resourceManager, int mazeWidth, int mazeHeight) {
+        this(activity, resourceManager, resourceManager.createTiledLevel(generateLevel(mazeWidth, mazeHeight)));
+    }
+
+    /**
+     * Creates a new GameScene.
+     *
+     * @param activity        The activity.
+     * @param resourceManager The resource manager.
+     * @param tiledLevel      The level, such as a baked level.
+     */
+    public GameScene(BaseGameActivity activity, GameResourceManager resourceManager, TiledLevel tiledLevel) {
         super(activity, resourceManager);
 
-        TMXTiledMap tiledMap = resourceManager.getTiledMap();
-        Level level = generateLevel(tiledMap);
+        gameResourceManager = resourceManager;
+        this.tiledLevel = tiledLevel;
 
-        updateTiledMap(tiledMap, level, resourceManager);
+        placement = new PlacementGenerator(ITEM_COUNT).generate(tiledLevel.level);
 
-        generateSpawnPoint(level);
+        collisionMap = new CollisionMap(tiledLevel.level);
 
-        TMXLayer backgroundLayer = resourceManager.getLayer("Background");
+        backgroundLayer = resourceManager.createTileLayer(tiledLevel);
         attachChild(backgroundLayer);
     }
 
     /**
-     * Generates a random level and tile it.
-     *
-     * @param tiledMap The tiled map.
+     * @return The collision map of the level.
      */
-    private static Level generateLevel(TMXTiledMap tiledMap) {
-        // Generate the random level
-        MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
-        RoomGenerator roomGenerator = new RoomGenerator(2, 3, 2, 3);
-        return LevelGenerator.generate(tiledMap.getTileColumns() / 2, tiledMap.getTileRows() / 2, mazeGenerator, roomGenerator, 5);
+    public CollisionMap getCollisionMap() {
+        return collisionMap;
     }
 
     /**
-     * Sets the appropriate tiles in the tiled map based on what was generated.
-     *
-     * @param tiledMap        The tiled map.
-     * @param level           The generated level.
-     * @param resourceManager The resource manager.
+     * @return Where the player spawns, where the exit is and where the items are.
      */
-    private static void updateTiledMap(TMXTiledMap tiledMap, Level level, GameResourceManager resourceManager) {
-        final int tileHeight = tiledMap.getTileHeight();
-        final int tileWidth = tiledMap.getTileWidth();
+    public Placement getPlacement() {
+        return placement;
+    }
 
-        TMXLayer backgroundLayer = resourceManager.getLayer(GameResourceManager.BACKGROUND_LAYER_NAME);
-        TMXLayer metaLayer = resourceManager.getLayer(GameResourceManager.META_LAYER_NAME);
+    /**
+     * Explores the tiles that are visible this turn and lifts the fog of war from them.
+     * The fog of war only covers the level from the first call on, so the level is drawn in full until there is a
+     * field of view to update it.
+     *
+     * @param visibleTiles The tiles that are visible, such as the result of a field of view calculation.
+     * @param top          The first row holding visible tiles.
+     * @param height       The number of rows holding visible tiles.
+     */
+    public void updateVisibleTiles(TileBitSet visibleTiles, int top, int height) {
+        tiledLevel.level.explore(visibleTiles, top, height);
 
-        int collidableTileID = resourceManager.getCollidableTileID();
-        int walkableTileID = resourceManager.getWalkableTileID();
+        if (fogOfWarOverlay == null) {
+            fogOfWarOverlay = gameResourceManager.createFogOfWarOverlay(tiledLevel.level);
+            attachChild(fogOfWarOverlay);
+        }
 
-        for (int y = 0; y < level.height; y++) {
-            for (int x = 0; x < level.width; x++) {
-                TMXTile backgroundTile = backgroundLayer.getTMXTile(x, y);
-                TMXTile metaTile = metaLayer.getTMXTile(x, y);
+        fogOfWarOverlay.update(visibleTiles, top, height);
+    }
 
-                TileType tileType = level.getTileTypeAt(x, y);
+    @Override
+    protected void onManagedUpdate(float secondsElapsed) {
+        updateDirtyRegions();
 
-                int metaTileID;
-                int backgroundTileID;
+        super.onManagedUpdate(secondsElapsed);
+    }
 
-                if (tileType == TileType.WALL) {
-                    // Mark meta layer tile as collidable if it's a wall
-                    metaTileID = collidableTileID;
+    /**
+     * Generates a random level.
+     *
+     * @param mazeWidth  The number of cells spanning the maze horizontally.
+     * @param mazeHeight The number of cells spanning the maze vertically.
+     * @return The generated level.
+     */
+    private static Level generateLevel(int mazeWidth, int mazeHeight) {
+        // Generate the random level
+        MazeGenerator mazeGenerator = new MazeGenerator(30, 70, new LoopInjector(5, 12));
+        RoomGenerator roomGenerator = new RoomGenerator(2, 3, 2, 3);
+        return LevelGenerator.generate(mazeWidth, mazeHeight, mazeGenerator, roomGenerator, 5);
+    }
 
-                    // Set the tile in the background layer accordingly
-                    backgroundTileID = resourceManager.getBackgroundTileIDForWall(level, x, y);
-                } else {
-                    // Non-wall, mark meta tile as walkable
-                    metaTileID = walkableTileID;
+    /**
+     * Brings everything derived from the level's tiles up to date with the tiles changed since the last update.
+     * Only the changed tiles and their neighbours, whose wall tiles depend on them, are updated.
+     */
+    private void updateDirtyRegions() {
+        Level level = tiledLevel.level;
 
-                    // Set the tile in the background layer accordingly
-                    backgroundTileID = resourceManager.getBackgroundTileID(tileType.getName());
-                }
+        for (int i = 0; i < level.getDirtyRegionCount(); i++) {
+            int left = level.getDirtyRegionLeft(i);
+            int top = level.getDirtyRegionTop(i);
+            int right = left + level.getDirtyRegionWidth(i);
+            int bottom = top + level.getDirtyRegionHeight(i);
 
-                int index = y * level.width + x;
+            collisionMap.update(level, left, top, right - left, bottom - top);
 
-                metaTile.setGlobalTileID(tiledMap, metaTileID);
-                metaLayer.setIndex(index);
-                metaLayer.drawWithoutChecks(metaTile.getTextureRegion(), metaTile.getTileX(), metaTile.getTileY(), tileWidth, tileHeight, Color.WHITE_ABGR_PACKED_FLOAT);
+            // Grow the region by a tile on each side, without going outside of the level
+            left = Math.max(0, left - 1);
+            top = Math.max(0, top - 1);
+            right = Math.min(level.width, right + 1);
+            bottom = Math.min(level.height, bottom + 1);
 
-                backgroundTile.setGlobalTileID(tiledMap, backgroundTileID);
-                backgroundLayer.setIndex(index);
-                backgroundLayer.drawWithoutChecks(backgroundTile.getTextureRegion(), backgroundTile.getTileX(), backgroundTile.getTileY(), tileWidth, tileHeight, Color.WHITE_ABGR_PACKED_FLOAT);
-            }
+            gameResourceManager.updateTiledLevel(tiledLevel, left, top, right - left, bottom - top);
+            backgroundLayer.updateTiles(left, top, right - left, bottom - top);
         }
 
-        metaLayer.submit();
-        backgroundLayer.submit();
-    }
-
-    /**
-     * Generates the player's spawn point.
-     *
-     * @param level The generated level.
-     */
-    private void generateSpawnPoint(Level level) {
-        // TODO: For now, just place the player on the first empty tile.
-        for (spawnY = 0; spawnY < level.height; spawnY++) {
-            for (spawnX = 0; spawnX < level.width; spawnX++) {
-                if (level.getTileTypeAt(spawnX, spawnY) == TileType.EMPTY) {
-                    break;
-                }
-            }
-        }
+        level.clearDirtyRegions();
     }
 }
@@ -0,0 +1,102 @@
+package prototypev.PermissiveFov.Tests.Collision;
+
+import org.junit.Before;
+import org.junit.Test;
+import prototypev.PermissiveFov.Collision.CollisionMap;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class CollisionMapTests extends TestBase {
+    private static final float DELTA = 0.0001f;
+    private CollisionMap collisionMap;
+    private Level level;
+
+    @Test
+    public void castRay_Blocked_ExpectsFractionToWall() {
+        float t = collisionMap.castRay(1.5f, 2.5f, 4.5f, 2.5f);
+        assertEquals("Ray should stop where it enters the wall!", 0.5f, t, DELTA);
+    }
+
+    @Test
+    public void castRay_Clear_ExpectsWholeRay() {
+        float t = collisionMap.castRay(1.5f, 1.5f, 2.5f, 3.5f);
+        assertEquals("Ray should not be blocked!", 1, t, DELTA);
+    }
+
+    @Test
+    public void castRay_StartsInWall_ExpectsNoDistance() {
+        float t = collisionMap.castRay(0.5f, 0.5f, 2.5f, 1.5f);
+        assertEquals("Ray starting in a wall should be blocked immediately!", 0, t, DELTA);
+    }
+
+    @Test
+    public void isAreaCollidable_NormalCase_ExpectsOverlapDetected() {
+        assertFalse("Box inside the empty tiles is incorrect!", collisionMap.isAreaCollidable(1, 1, 2, 1));
+        assertTrue("Box overlapping the wall is incorrect!", collisionMap.isAreaCollidable(2.5f, 1.5f, 1, 1));
+    }
+
+    @Test
+    public void isCollidable_NormalCase_ExpectsWallsCollidable() {
+        assertTrue("Collidability of wall is incorrect!", collisionMap.isCollidable(3, 2));
+        assertFalse("Collidability of empty tile is incorrect!", collisionMap.isCollidable(1, 1));
+        assertFalse("Collidability of door is incorrect!", collisionMap.isCollidable(4, 3));
+        assertTrue("Collidability outside of the level is incorrect!", collisionMap.isCollidable(-1, 2));
+        assertTrue("Collidability outside of the level is incorrect!", collisionMap.isCollidable(6, 2));
+    }
+
+    @Before
+    public void setUp() {
+        // ######
+        // #....#
+        // #..#.#
+        // #...+#
+        // ######
+        level = new Level(6, 5);
+
+        for (int y = 1; y <= 3; y++) {
+            for (int x = 1; x <= 4; x++) {
+                level.setTileTypeAt(x, y, TileType.EMPTY);
+            }
+        }
+
+        level.setTileTypeAt(3, 2, TileType.WALL);
+        level.setTileTypeAt(4, 3, TileType.DOOR);
+
+        collisionMap = new CollisionMap(level);
+    }
+
+    @Test
+    public void sweepX_Blocked_ExpectsStopAtWall() {
+        assertEquals("Distance moved right is incorrect!", 1, collisionMap.sweepX(1, 2, 1, 1, 3), DELTA);
+        assertEquals("Distance moved left is incorrect!", -0.5f, collisionMap.sweepX(1.5f, 1, 0.5f, 0.5f, -2), DELTA);
+    }
+
+    @Test
+    public void sweepX_Clear_ExpectsFullDistance() {
+        assertEquals("Distance moved right is incorrect!", 1, collisionMap.sweepX(1.5f, 1, 0.5f, 0.5f, 1), DELTA);
+    }
+
+    @Test
+    public void sweepY_Blocked_ExpectsStopAtWall() {
+        assertEquals("Distance moved down is incorrect!", 0, collisionMap.sweepY(3, 1, 1, 1, 2), DELTA);
+        assertEquals("Distance moved up is incorrect!", -0.25f, collisionMap.sweepY(1.5f, 1.25f, 0.5f, 0.5f, -1), DELTA);
+    }
+
+    @Test
+    public void sweepY_Clear_ExpectsFullDistance() {
+        assertEquals("Distance moved down is incorrect!", 1.5f, collisionMap.sweepY(1, 1, 1, 0.5f, 1.5f), DELTA);
+    }
+
+    @Test
+    public void update_ChangedTile_ExpectsCollidabilityUpdated() {
+        level.changeTileTypeAt(3, 2, TileType.EMPTY);
+        level.changeTileTypeAt(1, 1, TileType.WALL);
+        collisionMap.update(level, 1, 1, 3, 2);
+
+        assertFalse("Collidability of dug out wall is incorrect!", collisionMap.isCollidable(3, 2));
+        assertTrue("Collidability of new wall is incorrect!", collisionMap.isCollidable(1, 1));
+    }
+}
@@ -0,0 +1,41 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Entities;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.CellGrid;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class CellGridTests extends TestBase {
+    @Test
+    public void find_NormalCase_ExpectsRootAndHalvedPath() {
+        int[] parents = {0, 0, 1, 2};
+
+        assertEquals("Root is incorrect!", 0, CellGrid.find(parents, 3));
+        assertEquals("Parent is incorrect!", 1, parents[3]);
+    }
+
+    @Test
+    public void getAdjacentIndex_NormalCase_ExpectsDirectionRoundTrip() {
+        final int width = 5;
+        final int index = 12;
+
+        for (DirectionType direction : DirectionType.values()) {
+            int adjacentIndex = CellGrid.getAdjacentIndex(index, direction, width);
+            assertEquals("Direction is incorrect!", direction, CellGrid.getDirection(index, adjacentIndex, width));
+        }
+    }
+
+    @Test
+    public void getWallDirection_NormalCase_ExpectsEncodedDirection() {
+        assertEquals("Direction is incorrect!", DirectionType.EAST, CellGrid.getWallDirection(CellGrid.getEastWall(7)));
+        assertEquals("Direction is incorrect!", DirectionType.SOUTH, CellGrid.getWallDirection(CellGrid.getSouthWall(7)));
+    }
+
+    @Test
+    public void getWallIndex_NormalCase_ExpectsEncodedIndex() {
+        assertEquals("Index is incorrect!", 7, CellGrid.getWallIndex(CellGrid.getEastWall(7)));
+        assertEquals("Index is incorrect!", 7, CellGrid.getWallIndex(CellGrid.getSouthWall(7)));
+    }
+}
@@ -0,0 +1,74 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Entities;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class LevelTests extends TestBase {
+    @Test
+    public void changeTileTypeAt_Neighbours_ExpectsMergedRegion() {
+        Level level = new Level(10, 10);
+
+        level.changeTileTypeAt(2, 3, TileType.EMPTY);
+        level.changeTileTypeAt(3, 3, TileType.EMPTY);
+        level.changeTileTypeAt(3, 4, TileType.EMPTY);
+
+        assertEquals("Number of dirty regions is incorrect!", 1, level.getDirtyRegionCount());
+        assertEquals("Left bound of dirty region is incorrect!", 2, level.getDirtyRegionLeft(0));
+        assertEquals("Top bound of dirty region is incorrect!", 3, level.getDirtyRegionTop(0));
+        assertEquals("Width of dirty region is incorrect!", 2, level.getDirtyRegionWidth(0));
+        assertEquals("Height of dirty region is incorrect!", 2, level.getDirtyRegionHeight(0));
+    }
+
+    @Test
+    public void changeTileTypeAt_SameTileType_ExpectsNotDirty() {
+        Level level = new Level(10, 10);
+        level.changeTileTypeAt(2, 3, TileType.WALL);
+
+        assertEquals("Number of dirty regions is incorrect!", 0, level.getDirtyRegionCount());
+    }
+
+    @Test
+    public void changeTileTypeAt_Separate_ExpectsSeparateRegions() {
+        Level level = new Level(10, 10);
+
+        level.changeTileTypeAt(1, 1, TileType.EMPTY);
+        level.changeTileTypeAt(8, 8, TileType.DOOR);
+
+        assertEquals("Number of dirty regions is incorrect!", 2, level.getDirtyRegionCount());
+        assertEquals("Tile type is incorrect!", TileType.DOOR, level.getTileTypeAt(8, 8));
+
+        level.clearDirtyRegions();
+        assertEquals("Number of dirty regions is incorrect!", 0, level.getDirtyRegionCount());
+    }
+
+    @Test
+    public void getRoomIndexAt_NoRooms_ExpectsNoRoom() {
+        Level level = new Level(8, 8);
+
+        assertEquals("Room index is incorrect!", -1, level.getRoomIndexAt(3, 3));
+    }
+
+    @Test
+    public void getRoomIndexAt_NormalCase_ExpectsCoveringRoom() {
+        Level level = new Level(8, 8);
+        level.addRoom(1, 1, 3, 3);
+        level.addRoom(5, 2, 2, 4);
+
+        assertEquals("Room index is incorrect!", 0, level.getRoomIndexAt(3, 3));
+        assertEquals("Room index is incorrect!", 1, level.getRoomIndexAt(5, 5));
+        assertEquals("Room index is incorrect!", -1, level.getRoomIndexAt(4, 1));
+        assertEquals("Room index is incorrect!", -1, level.getRoomIndexAt(5, 6));
+    }
+
+    @Test
+    public void markDirty_OutOfBounds_ExpectsException() {
+        Level level = new Level(10, 10);
+
+        exception.expect(IllegalArgumentException.class);
+        level.markDirty(8, 8, 3, 1);
+    }
+}
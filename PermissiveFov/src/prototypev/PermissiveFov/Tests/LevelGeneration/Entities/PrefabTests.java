@@ -0,0 +1,69 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Entities;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static prototypev.PermissiveFov.Tests.TestHelper.createPrefab;
+
+public class PrefabTests extends TestBase {
+    @Test
+    public void constructor_WrongSideCount_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new Prefab(3, 2, new byte[5], null);
+    }
+
+    @Test
+    public void createFromPrefab_NormalCase_ExpectsDoorSlotsWalled() {
+        Prefab prefab = createPrefab();
+        Room room = Room.createFromPrefab(4, 5, prefab);
+
+        assertSame("Prefab is incorrect!", prefab, room.getPrefab());
+        assertEquals("North side of (6, 4) is incorrect!", SideType.WALL, room.getCellAt(6, 4).getSide(DirectionType.NORTH));
+        assertEquals("South side of (7, 5) is incorrect!", SideType.WALL, room.getCellAt(7, 5).getSide(DirectionType.SOUTH));
+        assertEquals("South side of (6, 4) is incorrect!", SideType.WALL, room.getCellAt(6, 4).getSide(DirectionType.SOUTH));
+        assertEquals("North side of (6, 5) is incorrect!", SideType.WALL, room.getCellAt(6, 5).getSide(DirectionType.NORTH));
+        assertEquals("East side of (5, 4) is incorrect!", SideType.EMPTY, room.getCellAt(5, 4).getSide(DirectionType.EAST));
+        assertEquals("West side of (6, 4) is incorrect!", SideType.EMPTY, room.getCellAt(6, 4).getSide(DirectionType.WEST));
+    }
+
+    @Test
+    public void getPrefabs_MissingSize_ExpectsEmptyList() {
+        PrefabLibrary library = new PrefabLibrary(Arrays.asList(createPrefab()));
+
+        assertTrue("Prefabs should be empty!", library.getPrefabs(2, 2).isEmpty());
+        assertTrue("Prefabs should be empty!", library.getPrefabs(4, 2).isEmpty());
+    }
+
+    @Test
+    public void getPrefabs_NormalCase_ExpectsPrefabsOfSize() {
+        Prefab first = createPrefab();
+        Prefab second = Prefab.fromRoom(Room.createWalledInRoom(0, 0, 2, 2), null);
+        Prefab third = Prefab.fromRoom(Room.createWalledInRoom(0, 0, 3, 2), null);
+        PrefabLibrary library = new PrefabLibrary(Arrays.asList(first, second, third));
+
+        List<Prefab> prefabs = library.getPrefabs(3, 2);
+        assertEquals("Number of prefabs is incorrect!", 2, prefabs.size());
+        assertSame("First prefab is incorrect!", first, prefabs.get(0));
+        assertSame("Second prefab is incorrect!", third, prefabs.get(1));
+        assertEquals("Number of all prefabs is incorrect!", 3, library.getPrefabs().size());
+    }
+
+    @Test
+    public void isDoorSlot_NormalCase_ExpectsOnlyBoundaryDoors() {
+        Prefab prefab = createPrefab();
+
+        assertTrue("North side of (1, 0) should be a door slot!", prefab.isDoorSlot(1, 0, DirectionType.NORTH));
+        assertTrue("South side of (2, 1) should be a door slot!", prefab.isDoorSlot(2, 1, DirectionType.SOUTH));
+        assertFalse("North side of (0, 0) should not be a door slot!", prefab.isDoorSlot(0, 0, DirectionType.NORTH));
+        assertFalse("South side of (1, 0) should not be a door slot!", prefab.isDoorSlot(1, 0, DirectionType.SOUTH));
+    }
+}
@@ -0,0 +1,121 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Entities;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Entities.RoomGraph;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class RoomGraphTests extends TestBase {
+    @Test
+    public void computeDistances_SeparateCorridor_ExpectsUnreachable() {
+        int[] distances = new RoomGraph(createMap()).computeDistances(0);
+
+        assertEquals("Distance to corridor 3 is incorrect!", 1, distances[3]);
+        assertEquals("Distance to corridor 4 is incorrect!", RoomGraph.UNREACHABLE, distances[4]);
+    }
+
+    @Test
+    public void computeRoomDistances_NormalCase_ExpectsDoorsBetweenRooms() {
+        RoomGraph graph = new RoomGraph(createMap());
+        int[] distances = graph.computeRoomDistances();
+
+        assertEquals("Distance from room 0 to room 0 is incorrect!", 0, distances[0]);
+        assertEquals("Distance from room 0 to room 1 is incorrect!", 2, distances[1]);
+        assertEquals("Distance from room 0 to room 2 is incorrect!", 3, distances[2]);
+        assertEquals("Distance from room 1 to room 2 is incorrect!", 1, distances[3 + 2]);
+        assertEquals("Distance from room 2 to room 0 is incorrect!", 3, distances[2 * 3]);
+    }
+
+    @Test
+    public void constructor_NormalCase_ExpectsRoomsThenCorridorRegions() {
+        RoomGraph graph = new RoomGraph(createMap());
+
+        assertEquals("Number of rooms is incorrect!", 3, graph.roomCount);
+        assertEquals("Number of nodes is incorrect!", 5, graph.getNodeCount());
+        assertEquals("Number of edges is incorrect!", 3, graph.getEdgeCount());
+
+        assertEquals("Node at (1, 2) is incorrect!", 0, graph.getNodeAt(1, 2));
+        assertEquals("Node at (1, 1) is incorrect!", 3, graph.getNodeAt(1, 1));
+        assertEquals("Node at (7, 4) is incorrect!", 4, graph.getNodeAt(7, 4));
+        assertEquals("Node at (4, 4) is incorrect!", -1, graph.getNodeAt(4, 4));
+        assertTrue("Node 2 should be a room!", graph.isRoom(2));
+        assertFalse("Node 3 should not be a room!", graph.isRoom(3));
+        assertEquals("Degree of node 3 is incorrect!", 2, graph.getDegree(3));
+    }
+
+    @Test
+    public void findCriticalPath_NoPath_ExpectsEmptyPath() {
+        assertEquals("Path length is incorrect!", 0, new RoomGraph(createMap()).findCriticalPath(0, 4).length);
+    }
+
+    @Test
+    public void findCriticalPath_NormalCase_ExpectsFewestDoors() {
+        int[] path = new RoomGraph(createMap()).findCriticalPath(0, 2);
+
+        assertArrayEquals("Path is incorrect!", new int[]{0, 3, 1, 2}, path);
+    }
+
+    @Test
+    public void findSpanningTree_GeneratedMap_ExpectsParentsOneDoorCloser() {
+        Randomizer.getInstance().setSeed(23);
+        Room map = new MazeGenerator(30, 50).generate(0, 0, 30, 25);
+        new RoomGenerator(2, 5, 2, 5).createRooms(map, 8);
+        RoomGenerator.createDoors(map);
+
+        RoomGraph graph = new RoomGraph(map);
+        int[] distances = graph.computeDistances(0);
+        int[] parentEdges = graph.findSpanningTree(0);
+
+        int treeEdgeCount = 0;
+        int reachableCount = 0;
+
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (distances[node] > 0) {
+                int parent = graph.getOtherNode(parentEdges[node], node);
+                assertEquals(String.format("Distance of parent of node %d is incorrect!", node), distances[node] - 1, distances[parent]);
+                treeEdgeCount++;
+            } else {
+                assertEquals(String.format("Parent edge of node %d is incorrect!", node), -1, parentEdges[node]);
+            }
+
+            if (distances[node] != RoomGraph.UNREACHABLE) {
+                reachableCount++;
+            }
+        }
+
+        assertEquals("Number of tree edges is incorrect!", reachableCount - 1, treeEdgeCount);
+        assertTrue("Rooms should be connected!", reachableCount > 1);
+    }
+
+    /**
+     * Creates a map of 8 x 5 cells at (1, 1), with a corridor along the top row and another at the bottom right,
+     * room 0 and room 1 opening onto the top corridor, and room 2 only opening into room 1.
+     */
+    private static Room createMap() {
+        Room map = Room.createFilledRoom(1, 1, 8, 5);
+
+        for (int x = 1; x < 8; x++) {
+            map.setCellSide(x, 1, DirectionType.EAST, SideType.EMPTY);
+        }
+
+        map.setCellSide(7, 4, DirectionType.EAST, SideType.EMPTY);
+
+        map.addRoom(Room.createWalledInRoom(0, 0, 2, 2), 1, 2);
+        map.addRoom(Room.createWalledInRoom(0, 0, 2, 2), 4, 2);
+        map.addRoom(Room.createWalledInRoom(0, 0, 1, 1), 6, 3);
+
+        map.setCellSide(1, 2, DirectionType.NORTH, SideType.DOOR);
+        map.setCellSide(2, 2, DirectionType.NORTH, SideType.DOOR);
+        map.setCellSide(5, 2, DirectionType.NORTH, SideType.DOOR);
+        map.setCellSide(5, 3, DirectionType.EAST, SideType.DOOR);
+
+        return map;
+    }
+}
@@ -4,7 +4,10 @@ import org.junit.Before;
 import org.junit.Test;
 import prototypev.PermissiveFov.LevelGeneration.DirectionType;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.LevelMetrics;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
 import prototypev.PermissiveFov.LevelGeneration.SideType;
 import prototypev.PermissiveFov.Randomizer;
 import prototypev.PermissiveFov.Tests.TestBase;
@@ -58,6 +61,17 @@ public class RoomTests extends TestBase {
         }
     }
 
+    @Test
+    public void addRoom_OverDoor_ExpectsDoorNoLongerCounted() {
+        Room container = Room.createFilledRoom(top, left, 3, 1);
+        container.enableMetrics();
+        container.setCellSide(left, top, DirectionType.EAST, SideType.DOOR);
+        container.setCellSide(left + 1, top, DirectionType.EAST, SideType.DOOR);
+        container.addRoom(Room.createWalledInRoom(0, 0, 1, 1), left + 1, top);
+
+        assertEquals("Door count is incorrect!", 0, container.getMetrics().doorCount);
+    }
+
     @Test
     public void createFilledRoom_ExpectsAllCellsNotVisited() {
         Room room = Room.createFilledRoom(top, left, 3, 3);
@@ -70,6 +84,118 @@ public class RoomTests extends TestBase {
         Room.createFilledRoom(-1, -1, 0, 0);
     }
 
+    @Test
+    public void enableMetrics_AfterGeneration_ExpectsCountsOfCells() {
+        Room map = new MazeGenerator(30, 50).generate(0, 0, 20, 15);
+        map.enableMetrics();
+        new RoomGenerator(2, 4, 2, 4).createRooms(map, 6);
+        RoomGenerator.createDoors(map);
+
+        int roomCellCount = 0;
+        int corridorCellCount = 0;
+        int deadEndCount = 0;
+        int doorCount = 0;
+
+        for (Cell cell : map.getCells()) {
+            if (map.getRoomIndexAt(cell.getX(), cell.getY()) >= 0) {
+                roomCellCount++;
+            } else if (cell.isCorridor()) {
+                corridorCellCount++;
+
+                if (cell.isDeadEnd()) {
+                    deadEndCount++;
+                }
+            }
+
+            if (cell.getSide(DirectionType.SOUTH) == SideType.DOOR) doorCount++;
+            if (cell.getSide(DirectionType.EAST) == SideType.DOOR) doorCount++;
+        }
+
+        LevelMetrics metrics = map.getMetrics();
+        assertEquals("Cell count is incorrect!", 300, metrics.cellCount);
+        assertEquals("Room cell count is incorrect!", roomCellCount, metrics.roomCellCount);
+        assertEquals("Corridor cell count is incorrect!", corridorCellCount, metrics.corridorCellCount);
+        assertEquals("Dead end count is incorrect!", deadEndCount, metrics.deadEndCount);
+        assertEquals("Door count is incorrect!", doorCount, metrics.doorCount);
+    }
+
+    @Test
+    public void getMetrics_CorridorIntoRoom_ExpectsCorrectMetrics() {
+        Room container = Room.createFilledRoom(top, left, 3, 1);
+        container.enableMetrics();
+        container.setCellSide(left, top, DirectionType.EAST, SideType.EMPTY);
+        container.addRoom(Room.createWalledInRoom(0, 0, 1, 1), left + 2, top);
+        container.setCellSide(left + 1, top, DirectionType.EAST, SideType.DOOR);
+
+        LevelMetrics metrics = container.getMetrics();
+        assertEquals("Room cell count is incorrect!", 1, metrics.roomCellCount);
+        assertEquals("Corridor cell count is incorrect!", 2, metrics.corridorCellCount);
+        assertEquals("Dead end count is incorrect!", 1, metrics.deadEndCount);
+        assertEquals("Door count is incorrect!", 1, metrics.doorCount);
+        assertEquals("Average corridor length is incorrect!", 0, metrics.getAverageCorridorLength(), 0);
+        assertEquals("Corridor ratio is incorrect!", 1, metrics.getCorridorRatio(), 0);
+        assertEquals("Room coverage is incorrect!", 1 / 3f, metrics.getRoomCoverage(), 0.0001f);
+    }
+
+    @Test
+    public void getMetrics_NotEnabled_ExpectsIllegalStateException() {
+        Room room = Room.createFilledRoom(top, left, 3, 3);
+
+        assertFalse("Metrics should not be enabled!", room.isMetricsEnabled());
+        exception.expect(IllegalStateException.class);
+        room.getMetrics();
+    }
+
+    @Test
+    public void getMetrics_StraightCorridor_ExpectsCorrectMetrics() {
+        Room container = Room.createFilledRoom(top, left, 5, 1);
+        container.enableMetrics();
+
+        for (int x = left; x < left + 3; x++) {
+            container.setCellSide(x, top, DirectionType.EAST, SideType.EMPTY);
+        }
+
+        LevelMetrics metrics = container.getMetrics();
+        assertEquals("Corridor cell count is incorrect!", 4, metrics.corridorCellCount);
+        assertEquals("Dead end count is incorrect!", 2, metrics.deadEndCount);
+        assertEquals("Door count is incorrect!", 0, metrics.doorCount);
+        assertEquals("Average corridor length is incorrect!", 2, metrics.getAverageCorridorLength(), 0);
+        assertEquals("Corridor ratio is incorrect!", 0.8f, metrics.getCorridorRatio(), 0.0001f);
+        assertEquals("Room coverage is incorrect!", 0, metrics.getRoomCoverage(), 0);
+    }
+
+    @Test
+    public void getRoomAt_NoRoom_ExpectsNull() {
+        Room container = Room.createFilledRoom(top, left, 3, 3);
+        container.addRoom(Room.createWalledInRoom(0, 0, 2, 2), left + 1, top + 1);
+
+        assertNull("There should be no room at the container's origin!", container.getRoomAt(left, top));
+        assertEquals("Room index is incorrect!", -1, container.getRoomIndexAt(left + 2, top));
+    }
+
+    @Test
+    public void getRoomAt_OverlappingRooms_ExpectsLastAddedRoom() {
+        Room container = Room.createFilledRoom(top, left, 4, 4);
+        Room firstRoom = Room.createWalledInRoom(0, 0, 2, 2);
+        Room secondRoom = Room.createWalledInRoom(0, 0, 2, 2);
+
+        container.addRoom(firstRoom, left, top);
+        container.addRoom(secondRoom, left + 1, top + 1);
+
+        assertSame("Room is incorrect!", firstRoom, container.getRoomAt(left, top));
+        assertSame("Room is incorrect!", secondRoom, container.getRoomAt(left + 1, top + 1));
+        assertSame("Room is incorrect!", secondRoom, container.getRoomAt(left + 2, top + 2));
+        assertEquals("Room index is incorrect!", 1, container.getRoomIndexAt(left + 1, top + 1));
+    }
+
+    @Test
+    public void getRoomIndexAt_OutOfBounds_ExpectsException() {
+        Room container = Room.createFilledRoom(top, left, 3, 3);
+
+        exception.expect(IllegalStateException.class);
+        container.getRoomIndexAt(left + 3, top);
+    }
+
     @Test
     public void hasAdjacentCell_CellBesideBoundary_ExpectTrue() {
         Room room = Room.createFilledRoom(top, left, 3, 3);
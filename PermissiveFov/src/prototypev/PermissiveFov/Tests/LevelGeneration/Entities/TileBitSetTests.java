@@ -0,0 +1,65 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Entities;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class TileBitSetTests extends TestBase {
+    @Test
+    public void constructor_InvalidArguments_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new TileBitSet(-1, 4);
+    }
+
+    @Test
+    public void or_DifferentSize_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new TileBitSet(4, 4).or(new TileBitSet(4, 5), 0, 4);
+    }
+
+    @Test
+    public void or_RowRange_ExpectsOnlyWordsCoveringRowsMerged() {
+        TileBitSet bitSet = new TileBitSet(64, 4);
+        TileBitSet other = new TileBitSet(64, 4);
+
+        other.set(5, 0, true);
+        other.set(6, 1, true);
+        other.set(7, 2, true);
+
+        assertTrue("Merge should report newly set bits!", bitSet.or(other, 1, 2));
+        assertFalse("Bit outside of the rows should not be merged!", bitSet.get(5, 0));
+        assertTrue("Bit inside of the rows should be merged!", bitSet.get(6, 1));
+        assertTrue("Bit inside of the rows should be merged!", bitSet.get(7, 2));
+
+        assertFalse("Merging again should not report newly set bits!", bitSet.or(other, 1, 2));
+    }
+
+    @Test
+    public void set_AcrossWords_ExpectsOnlyThoseBitsSet() {
+        // 13 x 11 tiles spans several words, with rows straddling word boundaries
+        TileBitSet bitSet = new TileBitSet(13, 11);
+
+        bitSet.set(0, 0, true);
+        bitSet.set(12, 4, true);
+        bitSet.set(0, 5, true);
+        bitSet.set(12, 10, true);
+
+        for (int y = 0; y < bitSet.height; y++) {
+            for (int x = 0; x < bitSet.width; x++) {
+                boolean expected = (x == 0 && (y == 0 || y == 5)) || (x == 12 && (y == 4 || y == 10));
+                assertEquals(String.format("Bit at (%d, %d) is incorrect!", x, y), expected, bitSet.get(x, y));
+            }
+        }
+
+        assertEquals("Cardinality is incorrect!", 4, bitSet.getCardinality());
+
+        bitSet.set(12, 4, false);
+        assertFalse("Cleared bit is incorrect!", bitSet.get(12, 4));
+        assertEquals("Cardinality is incorrect!", 3, bitSet.getCardinality());
+
+        bitSet.clear();
+        assertEquals("Cardinality is incorrect!", 0, bitSet.getCardinality());
+    }
+}
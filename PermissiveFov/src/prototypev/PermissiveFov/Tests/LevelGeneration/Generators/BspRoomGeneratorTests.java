@@ -0,0 +1,93 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.BspRoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LevelGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.PlacementGenerator;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class BspRoomGeneratorTests extends TestBase {
+    @Test
+    public void constructor_InvalidArguments_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new BspRoomGenerator(4, 3, 2, 5);
+    }
+
+    @Test
+    public void generate_ContainerTooSmall_ExpectsException() {
+        BspRoomGenerator generator = new BspRoomGenerator(3, 5, 3, 5);
+
+        exception.expect(IllegalArgumentException.class);
+        generator.generate(0, 0, 4, 10);
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsAllRoomsConnected() {
+        Level level = LevelGenerator.generate(40, 30, new BspRoomGenerator(2, 5, 2, 5));
+
+        assertThat("There should be more than one room!", level.getRoomCount(), Matchers.greaterThan(1));
+
+        int[] distances = PlacementGenerator.computePathDistances(level, level.getRoomLeft(0), level.getRoomTop(0));
+        for (int i = 1; i < level.getRoomCount(); i++) {
+            int index = level.getRoomTop(i) * level.width + level.getRoomLeft(i);
+            assertTrue(String.format("Room %d should be reachable!", i), distances[index] != PlacementGenerator.UNREACHABLE);
+        }
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsValidRooms() {
+        int minWidth = 2;
+        int maxWidth = 5;
+        int minHeight = 3;
+        int maxHeight = 6;
+
+        Room container = new BspRoomGenerator(minWidth, maxWidth, minHeight, maxHeight).generate(0, 0, 40, 30);
+
+        List<Room> rooms = container.getRooms();
+        assertThat("There should be more than one room!", rooms.size(), Matchers.greaterThan(1));
+
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+
+            assertThat("Invalid room width generated!", room.width, Matchers.greaterThanOrEqualTo(minWidth));
+            assertThat("Invalid room width generated!", room.width, Matchers.lessThanOrEqualTo(maxWidth));
+            assertThat("Invalid room height generated!", room.height, Matchers.greaterThanOrEqualTo(minHeight));
+            assertThat("Invalid room height generated!", room.height, Matchers.lessThanOrEqualTo(maxHeight));
+
+            // Rooms never overlap, so every cell of a room belongs to it alone
+            for (int y = room.getTop(); y < room.getTop() + room.height; y++) {
+                for (int x = room.getLeft(); x < room.getLeft() + room.width; x++) {
+                    assertEquals(String.format("Room index at (%d, %d) is incorrect!", x, y), i, container.getRoomIndexAt(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void generate_Parallel_ExpectsSameLayoutAsSerial() {
+        final long seed = 7;
+
+        Randomizer.getInstance().setSeed(seed);
+        Room serialContainer = new BspRoomGenerator(2, 5, 2, 5).generate(0, 0, 60, 50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Randomizer.getInstance().setSeed(seed);
+            Room parallelContainer = new BspRoomGenerator(2, 5, 2, 5, executor, 8).generate(0, 0, 60, 50);
+
+            assertEquals("Layout is incorrect!", serialContainer.toString(), parallelContainer.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Generators.CaveGenerator;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class CaveGeneratorTests extends TestBase {
+    @Test
+    public void constructor_InvalidFillPercent_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new CaveGenerator(101, 5);
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsSingleWalledInRegion() {
+        Level level = new CaveGenerator(45, 5).generate(150, 70);
+
+        int emptyCount = 0;
+        int startX = -1;
+        int startY = -1;
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                boolean isBorder = x == 0 || y == 0 || x == level.width - 1 || y == level.height - 1;
+
+                if (isBorder) {
+                    assertEquals(String.format("Tile type at (%d, %d) is incorrect!", x, y), TileType.WALL, level.getTileTypeAt(x, y));
+                } else if (level.getTileTypeAt(x, y) == TileType.EMPTY) {
+                    emptyCount++;
+                    startX = x;
+                    startY = y;
+                }
+            }
+        }
+
+        assertTrue("There should be empty tiles!", emptyCount > 0);
+
+        // Keeping the largest region again keeps every empty tile, since there is only one region
+        assertEquals("Region size is incorrect!", emptyCount, CaveGenerator.keepLargestRegion(level));
+        assertEquals("Tile type is incorrect!", TileType.EMPTY, level.getTileTypeAt(startX, startY));
+    }
+
+    @Test
+    public void generate_Parallel_ExpectsSameCaveAsSerial() {
+        final long seed = 11;
+
+        Randomizer.getInstance().setSeed(seed);
+        Level serialLevel = new CaveGenerator(45, 5).generate(200, 90);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Randomizer.getInstance().setSeed(seed);
+            Level parallelLevel = new CaveGenerator(45, 5, executor, 7).generate(200, 90);
+
+            assertEquals("Cave is incorrect!", serialLevel.toString(), parallelLevel.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void keepLargestRegion_TwoRegions_ExpectsSmallerRegionFilled() {
+        Level level = new Level(8, 3);
+        level.setTileTypeAt(1, 1, TileType.EMPTY);
+        level.setTileTypeAt(3, 1, TileType.EMPTY);
+        level.setTileTypeAt(4, 1, TileType.EMPTY);
+        level.setTileTypeAt(5, 1, TileType.EMPTY);
+
+        assertEquals("Region size is incorrect!", 3, CaveGenerator.keepLargestRegion(level));
+        assertEquals("Tile type is incorrect!", TileType.WALL, level.getTileTypeAt(1, 1));
+        assertEquals("Tile type is incorrect!", TileType.EMPTY, level.getTileTypeAt(4, 1));
+    }
+
+    @Test
+    public void smooth_NormalCase_ExpectsSameAsNaiveRule() {
+        // Wide enough that rows span three words, the last one partly
+        Level level = new Level(150, 40);
+        Random random = new Random(3);
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                level.setTileTypeAt(x, y, random.nextInt(100) < 45 ? TileType.WALL : TileType.EMPTY);
+            }
+        }
+
+        Level expectedLevel = level;
+        for (int i = 0; i < 3; i++) {
+            expectedLevel = smoothNaively(expectedLevel);
+        }
+
+        new CaveGenerator(45, 3).smooth(level);
+
+        assertEquals("Smoothed level is incorrect!", expectedLevel.toString(), level.toString());
+    }
+
+    private static Level smoothNaively(Level level) {
+        Level smoothedLevel = new Level(level.width, level.height);
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                int wallCount = 0;
+
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if ((dx != 0 || dy != 0) && (level.isOutOfBounds(x + dx, y + dy) || level.getTileTypeAt(x + dx, y + dy) == TileType.WALL)) {
+                            wallCount++;
+                        }
+                    }
+                }
+
+                boolean isWall = wallCount >= 5 || (level.getTileTypeAt(x, y) == TileType.WALL && wallCount >= 4);
+                smoothedLevel.setTileTypeAt(x, y, isWall ? TileType.WALL : TileType.EMPTY);
+            }
+        }
+
+        return smoothedLevel;
+    }
+}
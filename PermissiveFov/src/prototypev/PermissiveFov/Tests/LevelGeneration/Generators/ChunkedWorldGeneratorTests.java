@@ -0,0 +1,116 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Generators.ChunkedWorldGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ChunkedWorldGeneratorTests extends TestBase {
+    private static final int CHUNK_HEIGHT = 8;
+    private static final int CHUNK_WIDTH = 10;
+
+    @Test
+    public void constructor_InvalidChunkWidth_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new ChunkedWorldGenerator(1, 0, CHUNK_HEIGHT, new MazeGenerator(30, 70), new RoomGenerator(2, 3, 2, 3), 2, null, 1);
+    }
+
+    @Test
+    public void generateChunk_AdjacentChunks_ExpectsMatchingBorders() {
+        ChunkedWorldGenerator generator = createGenerator(null);
+
+        for (int chunkY = -2; chunkY <= 2; chunkY++) {
+            for (int chunkX = -2; chunkX <= 2; chunkX++) {
+                Level chunk = generator.generateChunk(chunkX, chunkY);
+                Level eastChunk = generator.generateChunk(chunkX + 1, chunkY);
+                Level southChunk = generator.generateChunk(chunkX, chunkY + 1);
+
+                boolean isEastBorderOpen = false;
+                for (int y = 0; y < chunk.height; y++) {
+                    TileType tileType = chunk.getTileTypeAt(chunk.width - 1, y);
+                    assertEquals(String.format("East border of chunk (%d, %d) is incorrect!", chunkX, chunkY), tileType, eastChunk.getTileTypeAt(0, y));
+                    isEastBorderOpen |= tileType == TileType.EMPTY;
+                }
+
+                boolean isSouthBorderOpen = false;
+                for (int x = 0; x < chunk.width; x++) {
+                    TileType tileType = chunk.getTileTypeAt(x, chunk.height - 1);
+                    assertEquals(String.format("South border of chunk (%d, %d) is incorrect!", chunkX, chunkY), tileType, southChunk.getTileTypeAt(x, 0));
+                    isSouthBorderOpen |= tileType == TileType.EMPTY;
+                }
+
+                assertTrue(String.format("East border of chunk (%d, %d) should be open!", chunkX, chunkY), isEastBorderOpen);
+                assertTrue(String.format("South border of chunk (%d, %d) should be open!", chunkX, chunkY), isSouthBorderOpen);
+            }
+        }
+    }
+
+    @Test
+    public void generateChunk_SameCoordinates_ExpectsSameChunk() {
+        ChunkedWorldGenerator generator = createGenerator(null);
+
+        Level chunk = generator.generateChunk(3, -5);
+
+        // Drawing from the shared Randomizer in between must not change the chunk
+        Randomizer.getInstance().setSeed(42);
+        Randomizer.getInstance().nextInt();
+
+        assertEquals("Chunk is incorrect!", chunk.toString(), generator.generateChunk(3, -5).toString());
+    }
+
+    @Test
+    public void getTileTypeAt_ChunkNotLoaded_ExpectsUndefined() {
+        ChunkedWorldGenerator generator = createGenerator(null);
+
+        assertEquals("Tile type is incorrect!", TileType.UNDEFINED, generator.getTileTypeAt(-3, 7));
+    }
+
+    @Test
+    public void update_NormalCase_ExpectsChunksLoaded() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ChunkedWorldGenerator generator = createGenerator(executor);
+
+        generator.update(0, 0);
+        executor.shutdown();
+        assertTrue("Chunks should have been generated!", executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Level chunk = generator.getChunk(-1, 0);
+        assertNotNull("Chunk should have been loaded!", chunk);
+        assertEquals("Chunk is incorrect!", generator.generateChunk(-1, 0).toString(), chunk.toString());
+
+        // The first tile of chunk (-1, 0) is at (-2 * CHUNK_WIDTH, 0) in world tiles
+        assertEquals("Tile type is incorrect!", chunk.getTileTypeAt(3, 5), generator.getTileTypeAt(3 - CHUNK_WIDTH * 2, 5));
+    }
+
+    @Test
+    public void update_PlayerMoves_ExpectsDistantChunksEvicted() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ChunkedWorldGenerator generator = createGenerator(executor);
+
+            for (int chunkX = 0; chunkX < 20; chunkX++) {
+                generator.update(chunkX, 0);
+            }
+
+            // The load radius of 1 plus one chunk kept on either side of the player
+            assertTrue("Chunk count is incorrect!", generator.getChunkCount() <= 5 * 5);
+            assertNull("Chunk should have been evicted!", generator.getChunk(0, 0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ChunkedWorldGenerator createGenerator(ExecutorService executor) {
+        return new ChunkedWorldGenerator(1234, CHUNK_WIDTH, CHUNK_HEIGHT, new MazeGenerator(30, 70), new RoomGenerator(2, 3, 2, 3), 2, executor, 1);
+    }
+}
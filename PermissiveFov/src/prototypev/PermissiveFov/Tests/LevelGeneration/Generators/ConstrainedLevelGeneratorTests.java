@@ -0,0 +1,98 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.ConstrainedLevelGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LevelConstraints;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ConstrainedLevelGeneratorTests extends TestBase {
+    private static final LevelConstraints CONSTRAINTS = new LevelConstraints(4, 0, 100, 3);
+
+    @Test
+    public void constructor_ZeroAttempts_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        createGenerator(CONSTRAINTS, null, 0);
+    }
+
+    @Test
+    public void generate_ImpossibleConstraints_ExpectsIllegalStateException() {
+        ConstrainedLevelGenerator generator = createGenerator(new LevelConstraints(100, 0, 100, 1000), null, 2);
+
+        exception.expect(IllegalStateException.class);
+        generator.generate(1, 6);
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsConstraintsMet() {
+        Level level = createGenerator(CONSTRAINTS, null, 4).generate(7, 400);
+
+        assertTrue("There should be few enough dead ends!", countDeadEnds(level) <= CONSTRAINTS.maxDeadEnds);
+    }
+
+    @Test
+    public void generate_Parallel_ExpectsConstraintsMet() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Level level = createGenerator(CONSTRAINTS, executor, 4).generate(7, 400);
+
+            assertTrue("There should be few enough dead ends!", countDeadEnds(level) <= CONSTRAINTS.maxDeadEnds);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void meetsConstraints_TooManyDeadEnds_ExpectsFalse() {
+        // A straight corridor, with a dead end at each end
+        Room map = Room.createFilledRoom(0, 0, 3, 1);
+        map.setCellSide(0, 0, DirectionType.EAST, SideType.EMPTY);
+        map.setCellSide(1, 0, DirectionType.EAST, SideType.EMPTY);
+
+        assertFalse("Map should not meet the constraints!", ConstrainedLevelGenerator.meetsConstraints(map, new LevelConstraints(0, 0, 100, 1)));
+        assertTrue("Map should meet the constraints!", ConstrainedLevelGenerator.meetsConstraints(map, new LevelConstraints(0, 0, 100, 2)));
+        assertFalse("Map should not meet the constraints!", ConstrainedLevelGenerator.meetsConstraints(map, new LevelConstraints(1, 0, 100, 2)));
+    }
+
+    /**
+     * @return The number of corridor cells in the level with a single way out.
+     */
+    private static int countDeadEnds(Level level) {
+        int deadEndCount = 0;
+
+        for (int y = 1; y < level.height; y += 2) {
+            for (int x = 1; x < level.width; x += 2) {
+                if (level.getRoomIndexAt(x, y) >= 0 || level.getTileTypeAt(x, y) != TileType.EMPTY) {
+                    continue;
+                }
+
+                int exitCount = 0;
+                if (level.getTileTypeAt(x, y - 1) != TileType.WALL) exitCount++;
+                if (level.getTileTypeAt(x - 1, y) != TileType.WALL) exitCount++;
+                if (level.getTileTypeAt(x, y + 1) != TileType.WALL) exitCount++;
+                if (level.getTileTypeAt(x + 1, y) != TileType.WALL) exitCount++;
+
+                if (exitCount == 1) {
+                    deadEndCount++;
+                }
+            }
+        }
+
+        return deadEndCount;
+    }
+
+    private static ConstrainedLevelGenerator createGenerator(LevelConstraints constraints, ExecutorService executor, int attemptCount) {
+        return new ConstrainedLevelGenerator(20, 15, new MazeGenerator(30, 50), new RoomGenerator(2, 4, 2, 4), 6, constraints, executor, attemptCount);
+    }
+}
@@ -0,0 +1,65 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Dungeon;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Generators.DungeonGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.PlacementGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.LevelHeader;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.MappedLevel;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class DungeonGeneratorTests extends TestBase {
+    private static final LevelHeader PARAMETERS = new LevelHeader(99L, 30, 70, 2, 4, 2, 4, 5);
+
+    @Test
+    public void constructor_SingleCell_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new DungeonGenerator(1, 1, PARAMETERS, null);
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsStairsConnected() {
+        Dungeon dungeon = new DungeonGenerator(20, 15, PARAMETERS, null).generate(6);
+        assertEquals("Number of floors is incorrect!", 6, dungeon.getFloorCount());
+
+        for (int floor = 1; floor < dungeon.getFloorCount() - 1; floor++) {
+            Level level = MappedLevel.wrap(dungeon.getFloorData(floor)).toLevel();
+
+            int upX = dungeon.getStairsX(floor - 1);
+            int upY = dungeon.getStairsY(floor - 1);
+            int downX = dungeon.getStairsX(floor);
+            int downY = dungeon.getStairsY(floor);
+            assertFalse(String.format("Stairs of floor %d should be apart!", floor), upX == downX && upY == downY);
+
+            int[] pathDistances = PlacementGenerator.computePathDistances(level, upX, upY);
+            assertTrue(String.format("Stairs down from floor %d should be reachable!", floor), pathDistances[downY * level.width + downX] > 0);
+        }
+    }
+
+    @Test
+    public void generate_Parallel_ExpectsSameDungeonAsSerial() {
+        Dungeon serialDungeon = new DungeonGenerator(20, 15, PARAMETERS, null).generate(8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Dungeon parallelDungeon = new DungeonGenerator(20, 15, PARAMETERS, executor).generate(8);
+
+            for (int floor = 0; floor < 8; floor++) {
+                assertEquals(String.format("Floor %d is incorrect!", floor), serialDungeon.getFloorData(floor), parallelDungeon.getFloorData(floor));
+            }
+
+            for (int floor = 0; floor < 7; floor++) {
+                assertEquals(String.format("Stairs of floor %d are incorrect!", floor), serialDungeon.getStairsX(floor), parallelDungeon.getStairsX(floor));
+                assertEquals(String.format("Stairs of floor %d are incorrect!", floor), serialDungeon.getStairsY(floor), parallelDungeon.getStairsY(floor));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Generators.EllerMazeGenerator;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class EllerMazeGeneratorTests extends TestBase {
+    @Test
+    public void lastRow_NormalCase_ExpectsPerfectMaze() {
+        final int width = 13;
+        final int height = 40;
+
+        EllerMazeGenerator generator = new EllerMazeGenerator(width, 50, 11);
+
+        int[][] rows = new int[height][width];
+        for (int y = 0; y < height - 1; y++) {
+            generator.nextRow(rows[y]);
+        }
+
+        generator.lastRow(rows[height - 1]);
+        assertEquals("Number of rows is incorrect!", height, generator.getRowCount());
+
+        int openingCount = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int sides = rows[y][x];
+
+                boolean isEastOpen = EllerMazeGenerator.isOpen(sides, DirectionType.EAST);
+                boolean isSouthOpen = EllerMazeGenerator.isOpen(sides, DirectionType.SOUTH);
+
+                boolean isWestOfNextOpen = x < width - 1 && EllerMazeGenerator.isOpen(rows[y][x + 1], DirectionType.WEST);
+                boolean isNorthOfNextOpen = y < height - 1 && EllerMazeGenerator.isOpen(rows[y + 1][x], DirectionType.NORTH);
+
+                assertEquals(String.format("East side of (%d, %d) is incorrect!", x, y), isWestOfNextOpen, isEastOpen);
+                assertEquals(String.format("South side of (%d, %d) is incorrect!", x, y), isNorthOfNextOpen, isSouthOpen);
+
+                openingCount += (isEastOpen ? 1 : 0) + (isSouthOpen ? 1 : 0);
+            }
+        }
+
+        assertEquals("Number of openings is incorrect!", width * height - 1, openingCount);
+        assertEquals("Every cell should be reachable!", width * height, countReachableCells(rows));
+    }
+
+    @Test
+    public void nextRow_AfterLastRow_ExpectsException() {
+        EllerMazeGenerator generator = new EllerMazeGenerator(5, 50);
+        int[] sides = new int[5];
+        generator.lastRow(sides);
+
+        exception.expect(IllegalStateException.class);
+        generator.nextRow(sides);
+    }
+
+    @Test
+    public void nextRow_IncorrectWidth_ExpectsException() {
+        EllerMazeGenerator generator = new EllerMazeGenerator(5, 50);
+
+        exception.expect(IllegalArgumentException.class);
+        generator.nextRow(new int[4]);
+    }
+
+    @Test
+    public void nextRow_NoHorizontalBias_ExpectsEveryCellOpenToTheSouth() {
+        EllerMazeGenerator generator = new EllerMazeGenerator(6, 0);
+        int[] sides = new int[6];
+
+        // Without joins every cell is a set of its own, which must be carried down
+        for (int y = 0; y < 10; y++) {
+            generator.nextRow(sides);
+
+            for (int x = 0; x < sides.length; x++) {
+                assertTrue(String.format("South side of (%d, %d) should be open!", x, y), EllerMazeGenerator.isOpen(sides[x], DirectionType.SOUTH));
+            }
+        }
+    }
+
+    /**
+     * @param rows The sides of each cell of each row.
+     * @return The number of cells reachable from the top-left cell.
+     */
+    private static int countReachableCells(int[][] rows) {
+        int height = rows.length;
+        int width = rows[0].length;
+
+        boolean[] reached = new boolean[width * height];
+        int[] queue = new int[width * height];
+        int head = 0;
+        int tail = 0;
+        reached[0] = true;
+        queue[tail++] = 0;
+
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % width;
+            int y = index / width;
+
+            for (DirectionType direction : DirectionType.values()) {
+                if (!EllerMazeGenerator.isOpen(rows[y][x], direction)) {
+                    continue;
+                }
+
+                int adjacentX = x + (direction == DirectionType.EAST ? 1 : direction == DirectionType.WEST ? -1 : 0);
+                int adjacentY = y + (direction == DirectionType.SOUTH ? 1 : direction == DirectionType.NORTH ? -1 : 0);
+                int adjacentIndex = adjacentY * width + adjacentX;
+
+                if (!reached[adjacentIndex]) {
+                    reached[adjacentIndex] = true;
+                    queue[tail++] = adjacentIndex;
+                }
+            }
+        }
+
+        return tail;
+    }
+}
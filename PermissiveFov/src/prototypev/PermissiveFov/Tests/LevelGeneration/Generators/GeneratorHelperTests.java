@@ -0,0 +1,41 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.GeneratorHelper;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class GeneratorHelperTests extends TestBase {
+    @Test
+    public void connectToCorridor_NoCorridors_ExpectsPathToCentre() {
+        Room map = Room.createFilledRoom(0, 0, 5, 5);
+        GeneratorHelper.connectToCorridor(map, 0, 2);
+
+        for (int x = 0; x < 2; x++) {
+            assertEquals("Side is incorrect!", SideType.EMPTY, map.getCellAt(x, 2).getSide(DirectionType.EAST));
+        }
+
+        assertEquals("Number of walls is incorrect!", 3, map.getCellAt(2, 2).getWallCount());
+    }
+
+    @Test
+    public void connectToCorridor_NormalCase_ExpectsPathToNearestCorridor() {
+        Room map = Room.createFilledRoom(0, 0, 5, 5);
+        map.setCellSide(4, 1, DirectionType.NORTH, SideType.EMPTY);
+        GeneratorHelper.connectToCorridor(map, 4, 3);
+
+        assertEquals("Side is incorrect!", SideType.EMPTY, map.getCellAt(4, 3).getSide(DirectionType.NORTH));
+        assertEquals("Side is incorrect!", SideType.EMPTY, map.getCellAt(4, 2).getSide(DirectionType.NORTH));
+        assertEquals("Number of walls is incorrect!", 4, map.getCellAt(2, 2).getWallCount());
+    }
+
+    @Test
+    public void mix_DifferentValues_ExpectsDifferentResults() {
+        assertFalse("Mixed values should differ!", GeneratorHelper.mix(1) == GeneratorHelper.mix(2));
+        assertEquals("Mixed value is incorrect!", GeneratorHelper.mix(1), GeneratorHelper.mix(1));
+    }
+}
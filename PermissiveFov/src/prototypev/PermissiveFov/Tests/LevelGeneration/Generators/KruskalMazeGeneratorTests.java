@@ -0,0 +1,139 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.LevelMetrics;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.KruskalMazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class KruskalMazeGeneratorTests extends TestBase {
+    @Test
+    public void generate_NormalCase_ExpectsPerfectMaze() {
+        Room room = new KruskalMazeGenerator(0).generate(0, 0, 23, 17);
+
+        assertTrue("All cells should be visited after generating the maze!", room.isAllCellsVisited());
+        assertPerfectMaze(room);
+    }
+
+    @Test
+    public void generate_ParallelMetricsEnabled_ExpectsSameMazeAndMetrics() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            KruskalMazeGenerator generator = new KruskalMazeGenerator(50, executor, 6);
+
+            Randomizer.getInstance().setSeed(5);
+            Room expected = generator.generate(0, 0, 30, 30);
+            expected.enableMetrics();
+
+            Randomizer.getInstance().setSeed(5);
+            Room actual = Room.createFilledRoom(0, 0, 30, 30);
+            actual.enableMetrics();
+            generator.generate(actual);
+
+            LevelMetrics expectedMetrics = expected.getMetrics();
+            LevelMetrics actualMetrics = actual.getMetrics();
+
+            assertEquals("Maze is incorrect!", expected.toString(), actual.toString());
+            assertEquals("Corridor cell count is incorrect!", expectedMetrics.corridorCellCount, actualMetrics.corridorCellCount);
+            assertEquals("Dead end count is incorrect!", expectedMetrics.deadEndCount, actualMetrics.deadEndCount);
+            assertEquals("Average corridor length is incorrect!", expectedMetrics.getAverageCorridorLength(), actualMetrics.getAverageCorridorLength(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void generate_Parallel_ExpectsPerfectMaze() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Room room = new KruskalMazeGenerator(0, executor, 6).generate(0, 0, 23, 17);
+            assertPerfectMaze(room);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void generate_Parallel_ExpectsSameMazeForSameSeed() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            KruskalMazeGenerator generator = new KruskalMazeGenerator(50, executor, 6);
+
+            Randomizer.getInstance().setSeed(3);
+            Room first = generator.generate(0, 0, 30, 30);
+
+            Randomizer.getInstance().setSeed(3);
+            Room second = generator.generate(0, 0, 30, 30);
+
+            assertEquals("Maze is incorrect!", first.toString(), second.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newKruskalMazeGenerator_InvalidArguments_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new KruskalMazeGenerator(50, null, 0);
+    }
+
+    /**
+     * Asserts that every cell is connected to every other cell by exactly one path,
+     * which is when the maze is connected and has one less opening than it has cells.
+     *
+     * @param room The room.
+     */
+    private static void assertPerfectMaze(Room room) {
+        int cellCount = room.width * room.height;
+
+        int openingCount = 0;
+        for (Cell cell : room.getCells()) {
+            if (cell.getSide(DirectionType.EAST) == SideType.EMPTY) {
+                openingCount++;
+            }
+
+            if (cell.getSide(DirectionType.SOUTH) == SideType.EMPTY) {
+                openingCount++;
+            }
+        }
+
+        assertEquals("Number of openings is incorrect!", cellCount - 1, openingCount);
+
+        // Flood fill from the top-left cell
+        boolean[] reached = new boolean[cellCount];
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+        reached[0] = true;
+        queue[tail++] = 0;
+
+        while (head < tail) {
+            int index = queue[head++];
+            Cell cell = room.getCellAt(index % room.width, index / room.width);
+
+            for (DirectionType direction : DirectionType.values()) {
+                Cell adjacentCell = room.getAdjacentCell(cell, direction);
+                if (adjacentCell == null || cell.getSide(direction) != SideType.EMPTY) {
+                    continue;
+                }
+
+                int adjacentIndex = adjacentCell.getY() * room.width + adjacentCell.getX();
+                if (!reached[adjacentIndex]) {
+                    reached[adjacentIndex] = true;
+                    queue[tail++] = adjacentIndex;
+                }
+            }
+        }
+
+        assertEquals("Every cell should be reachable!", cellCount, tail);
+    }
+}
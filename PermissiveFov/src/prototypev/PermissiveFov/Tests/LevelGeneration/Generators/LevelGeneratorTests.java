@@ -1,15 +1,50 @@
 package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
 
 import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.BspRoomGenerator;
 import prototypev.PermissiveFov.LevelGeneration.Generators.LevelGenerator;
 import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
 import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
 import prototypev.PermissiveFov.Tests.TestBase;
 
 import static org.junit.Assert.assertEquals;
 
 public class LevelGeneratorTests extends TestBase {
+    @Test
+    public void generate_Bsp_ExpectsOnlyBspDoors() {
+        BspRoomGenerator bspRoomGenerator = new BspRoomGenerator(2, 5, 2, 5);
+
+        Randomizer.getInstance().setSeed(11);
+        Room map = bspRoomGenerator.generate(0, 0, 40, 30);
+
+        int expectedDoorCount = 0;
+        for (Cell cell : map.getCells()) {
+            if (cell.getSide(DirectionType.SOUTH) == SideType.DOOR) expectedDoorCount++;
+            if (cell.getSide(DirectionType.EAST) == SideType.DOOR) expectedDoorCount++;
+        }
+
+        Randomizer.getInstance().setSeed(11);
+        Level level = LevelGenerator.generate(40, 30, bspRoomGenerator);
+
+        int doorCount = 0;
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                if (level.getTileTypeAt(x, y) == TileType.DOOR) {
+                    doorCount++;
+                }
+            }
+        }
+
+        assertEquals("Number of doors is incorrect!", expectedDoorCount, doorCount);
+    }
+
     @Test
     public void generate_NormalCase_ExpectsCorrectLayout() {
         MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
@@ -0,0 +1,102 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.LockLayout;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Entities.RoomGraph;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LockAndKeyGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class LockAndKeyGeneratorTests extends TestBase {
+    @Test
+    public void constructor_TooManyKeys_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new LockAndKeyGenerator(LockAndKeyGenerator.MAX_KEY_COUNT + 1);
+    }
+
+    @Test
+    public void generate_GeneratedLevels_ExpectsSolvableWithLocksOnCriticalPath() {
+        LockAndKeyGenerator generator = new LockAndKeyGenerator(LockAndKeyGenerator.MAX_KEY_COUNT);
+
+        for (int seed = 0; seed < 20; seed++) {
+            Randomizer.getInstance().setSeed(seed);
+            Room map = new MazeGenerator(30, 50).generate(0, 0, 30, 25);
+            new RoomGenerator(2, 4, 2, 4).createRooms(map, 12);
+            RoomGenerator.createDoors(map);
+
+            RoomGraph graph = new RoomGraph(map);
+            int[] distances = graph.computeDistances(0);
+            int exitNode = 0;
+            for (int node = 1; node < graph.roomCount; node++) {
+                if (distances[node] > distances[exitNode]) {
+                    exitNode = node;
+                }
+            }
+
+            LockLayout layout = generator.generate(graph, 0, exitNode);
+            assertTrue(String.format("Layout for seed %d should be solvable!", seed), LockAndKeyGenerator.isSolvable(graph, layout, 0, exitNode));
+
+            int lockCount = 0;
+            for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+                if (layout.getLock(edge) != LockLayout.NO_LOCK) {
+                    lockCount++;
+                }
+            }
+
+            int expectedLockCount = Math.min(LockAndKeyGenerator.MAX_KEY_COUNT, distances[exitNode]);
+            assertEquals(String.format("Number of locks for seed %d is incorrect!", seed), expectedLockCount, lockCount);
+            assertEquals(String.format("Number of keys for seed %d is incorrect!", seed), expectedLockCount, layout.getKeyCount());
+        }
+    }
+
+    @Test
+    public void isSolvable_KeyBehindItsLock_ExpectsFalse() {
+        RoomGraph graph = new RoomGraph(createChain());
+
+        // Edge 1 is between rooms 1 and 2
+        assertFalse("Layout should not be solvable!", LockAndKeyGenerator.isSolvable(graph, new LockLayout(new int[]{-1, 0, -1}, new int[]{3}), 0, 3));
+    }
+
+    @Test
+    public void isSolvable_KeyInFrontOfItsLock_ExpectsTrue() {
+        RoomGraph graph = new RoomGraph(createChain());
+
+        assertTrue("Layout should be solvable!", LockAndKeyGenerator.isSolvable(graph, new LockLayout(new int[]{-1, 0, 1}, new int[]{1, 2}), 0, 3));
+    }
+
+    @Test
+    public void repair_KeyBehindItsLock_ExpectsKeyMovedInFrontOfLock() {
+        RoomGraph graph = new RoomGraph(createChain());
+        LockLayout layout = new LockLayout(new int[]{-1, 0, -1}, new int[]{3});
+
+        LockLayout repairedLayout = LockAndKeyGenerator.repair(graph, layout, 0, 3);
+
+        assertTrue("Key should be in front of its lock!", repairedLayout.getKeyNode(0) <= 1);
+        assertEquals("Lock is incorrect!", 0, repairedLayout.getLock(1));
+        assertTrue("Layout should be solvable!", LockAndKeyGenerator.isSolvable(graph, repairedLayout, 0, 3));
+    }
+
+    /**
+     * Creates a map of 4 rooms of a single cell in a row, each with a door to the next.
+     */
+    private static Room createChain() {
+        Room map = Room.createFilledRoom(0, 0, 4, 1);
+
+        for (int x = 0; x < 4; x++) {
+            map.addRoom(Room.createWalledInRoom(0, 0, 1, 1), x, 0);
+        }
+
+        for (int x = 0; x < 3; x++) {
+            map.setCellSide(x, 0, DirectionType.EAST, SideType.DOOR);
+        }
+
+        return map;
+    }
+}
@@ -0,0 +1,104 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LoopInjector;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+public class LoopInjectorTests extends TestBase {
+    @Test
+    public void constructor_NegativeLoopCount_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new LoopInjector(-1, 10);
+    }
+
+    @Test
+    public void injectLoops_NoDistantCells_ExpectsNoWallsOpened() {
+        // A U-shaped corridor, whose ends are 3 cells apart
+        Room room = Room.createFilledRoom(0, 0, 2, 2);
+        room.setCellSide(0, 0, DirectionType.SOUTH, SideType.EMPTY);
+        room.setCellSide(0, 1, DirectionType.EAST, SideType.EMPTY);
+        room.setCellSide(1, 1, DirectionType.NORTH, SideType.EMPTY);
+
+        assertEquals("Number of walls opened is incorrect!", 0, new LoopInjector(5, 4).injectLoops(room));
+        assertEquals("East side of (0, 0) is incorrect!", SideType.WALL, room.getCellAt(0, 0).getSide(DirectionType.EAST));
+
+        assertEquals("Number of walls opened is incorrect!", 1, new LoopInjector(5, 3).injectLoops(room));
+        assertEquals("East side of (0, 0) is incorrect!", SideType.EMPTY, room.getCellAt(0, 0).getSide(DirectionType.EAST));
+    }
+
+    @Test
+    public void injectLoops_NormalCase_ExpectsDistantWallsOpened() {
+        final long seed = 17;
+        final int minDistance = 20;
+
+        Randomizer.getInstance().setSeed(seed);
+        Room maze = new MazeGenerator(50, 30).generate(3, 2, 25, 20);
+
+        Randomizer.getInstance().setSeed(seed);
+        Room loopedMaze = new MazeGenerator(50, 30, new LoopInjector(8, minDistance)).generate(3, 2, 25, 20);
+
+        int openedCount = 0;
+
+        for (Cell cell : maze.getCells()) {
+            for (DirectionType direction : new DirectionType[]{DirectionType.EAST, DirectionType.SOUTH}) {
+                SideType side = cell.getSide(direction);
+                SideType loopedSide = loopedMaze.getCellAt(cell.getX(), cell.getY()).getSide(direction);
+
+                if (side != loopedSide) {
+                    assertEquals(String.format("%s side of (%d, %d) is incorrect!", direction.getName(), cell.getX(), cell.getY()), SideType.EMPTY, loopedSide);
+
+                    Cell adjacentCell = maze.getAdjacentCell(cell, direction);
+                    int distance = getDistance(maze, cell, adjacentCell);
+                    assertTrue(String.format("Distance %d should be at least %d!", distance, minDistance), distance >= minDistance);
+
+                    openedCount++;
+                }
+            }
+        }
+
+        assertEquals("Number of walls opened is incorrect!", 8, openedCount);
+    }
+
+    /**
+     * @return The distance between two cells along the corridors of the room, or -1 if they are not connected.
+     */
+    private static int getDistance(Room room, Cell start, Cell end) {
+        Map<Cell, Integer> distances = new HashMap<Cell, Integer>();
+        Queue<Cell> queue = new ArrayDeque<Cell>();
+        distances.put(start, 0);
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            Cell cell = queue.remove();
+            if (cell == end) {
+                return distances.get(cell);
+            }
+
+            for (DirectionType direction : DirectionType.values()) {
+                if (cell.getSide(direction) == SideType.EMPTY && room.hasAdjacentCell(cell, direction)) {
+                    Cell adjacentCell = room.getAdjacentCell(cell, direction);
+
+                    if (!distances.containsKey(adjacentCell)) {
+                        distances.put(adjacentCell, distances.get(cell) + 1);
+                        queue.add(adjacentCell);
+                    }
+                }
+            }
+        }
+
+        return -1;
+    }
+}
@@ -4,7 +4,9 @@ import org.junit.Before;
 import org.junit.Test;
 import prototypev.PermissiveFov.LevelGeneration.DirectionType;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.LevelMetrics;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LoopInjector;
 import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
 import prototypev.PermissiveFov.Randomizer;
 import prototypev.PermissiveFov.Tests.TestBase;
@@ -18,6 +20,34 @@ public class MazeGeneratorTests extends TestBase {
     private int left;
     private int top;
 
+    @Test
+    public void generate_MetricsEnabledFirst_ExpectsSameMetricsAsCountedAfter() {
+        final MazeGenerator generator = new MazeGenerator(30, 50, new LoopInjector(5, 4));
+
+        LevelMetrics expected = Randomizer.runSeeded(42, new Randomizer.ISeededTask<LevelMetrics>() {
+            @Override
+            public LevelMetrics run() {
+                Room room = generator.generate(top, left, 20, 15);
+                room.enableMetrics();
+                return room.getMetrics();
+            }
+        });
+
+        LevelMetrics actual = Randomizer.runSeeded(42, new Randomizer.ISeededTask<LevelMetrics>() {
+            @Override
+            public LevelMetrics run() {
+                Room room = Room.createFilledRoom(top, left, 20, 15);
+                room.enableMetrics();
+                generator.generate(room);
+                return room.getMetrics();
+            }
+        });
+
+        assertEquals("Corridor cell count is incorrect!", expected.corridorCellCount, actual.corridorCellCount);
+        assertEquals("Dead end count is incorrect!", expected.deadEndCount, actual.deadEndCount);
+        assertEquals("Average corridor length is incorrect!", expected.getAverageCorridorLength(), actual.getAverageCorridorLength(), 0);
+    }
+
     @Test
     public void generate_VarySparseness_ExpectsMatchingPercentCellsAsSolidRock() {
         for (int sparseness = 0; sparseness <= 100; sparseness++) {
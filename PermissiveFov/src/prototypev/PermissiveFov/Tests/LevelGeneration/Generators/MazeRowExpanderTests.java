@@ -0,0 +1,105 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Generators.EllerMazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeRowExpander;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class MazeRowExpanderTests extends TestBase {
+    @Test
+    public void expandRow_FirstRow_ExpectsTopBorderWall() {
+        Level level = new Level(9, 6);
+        MazeRowExpander expander = new MazeRowExpander(new EllerMazeGenerator(4, 50), level);
+
+        expander.expandRow();
+
+        for (int x = 0; x < level.width; x++) {
+            assertEquals("Border tile is incorrect!", TileType.WALL, level.getTileTypeAt(x, 0));
+        }
+    }
+
+    @Test
+    public void expandRow_NormalCase_ExpectsRowMarkedDirty() {
+        Level level = new Level(9, 6);
+        MazeRowExpander expander = new MazeRowExpander(new EllerMazeGenerator(4, 50), level);
+
+        expander.expandRow();
+
+        assertEquals("Number of dirty regions is incorrect!", 1, level.getDirtyRegionCount());
+        assertEquals("Dirty region top is incorrect!", 0, level.getDirtyRegionTop(0));
+        assertEquals("Dirty region width is incorrect!", 9, level.getDirtyRegionWidth(0));
+        assertEquals("Dirty region height is incorrect!", 2, level.getDirtyRegionHeight(0));
+    }
+
+    @Test
+    public void expandRow_NormalCase_ExpectsTilesMatchSides() {
+        final long seed = 5;
+
+        EllerMazeGenerator generator = new EllerMazeGenerator(4, 50, seed);
+        Level level = new Level(9, 6);
+        MazeRowExpander expander = new MazeRowExpander(generator, level);
+
+        // The same maze, to read the sides of the rows back
+        EllerMazeGenerator expectedGenerator = new EllerMazeGenerator(4, 50, seed);
+        int[] sides = new int[4];
+
+        // Wrap around the level more than once
+        for (int row = 0; row < 7; row++) {
+            expander.expandRow();
+            expectedGenerator.nextRow(sides);
+
+            int tileRow = expander.getTileRow(row);
+            assertEquals("Tile row is incorrect!", (row * 2 + 1) % 6, tileRow);
+
+            for (int x = 0; x < sides.length; x++) {
+                int tileX = x * 2 + 1;
+
+                assertEquals("North side tile is incorrect!", getExpectedTileType(sides[x], DirectionType.NORTH), level.getTileTypeAt(tileX, tileRow - 1));
+                assertEquals("Corner tile is incorrect!", TileType.WALL, level.getTileTypeAt(tileX + 1, tileRow - 1));
+                assertEquals("Cell tile is incorrect!", TileType.EMPTY, level.getTileTypeAt(tileX, tileRow));
+                assertEquals("East side tile is incorrect!", getExpectedTileType(sides[x], DirectionType.EAST), level.getTileTypeAt(tileX + 1, tileRow));
+            }
+        }
+    }
+
+    @Test
+    public void expandRow_NotCleared_ExpectsRowsMergedIntoOneRegion() {
+        Level level = new Level(9, 6);
+        MazeRowExpander expander = new MazeRowExpander(new EllerMazeGenerator(4, 50), level);
+
+        // Wrap around the level more than once
+        for (int row = 0; row < 7; row++) {
+            expander.expandRow();
+        }
+
+        assertEquals("Number of dirty regions is incorrect!", 1, level.getDirtyRegionCount());
+        assertEquals("Dirty region top is incorrect!", 0, level.getDirtyRegionTop(0));
+        assertEquals("Dirty region height is incorrect!", 6, level.getDirtyRegionHeight(0));
+    }
+
+    @Test
+    public void newMazeRowExpander_OddHeight_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new MazeRowExpander(new EllerMazeGenerator(4, 50), new Level(9, 7));
+    }
+
+    @Test
+    public void newMazeRowExpander_WrongWidth_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new MazeRowExpander(new EllerMazeGenerator(4, 50), new Level(8, 6));
+    }
+
+    /**
+     * @param sides     The sides of a cell.
+     * @param direction The direction of the side.
+     * @return The expected tile type of the side.
+     */
+    private static TileType getExpectedTileType(int sides, DirectionType direction) {
+        return EllerMazeGenerator.isOpen(sides, direction) ? TileType.EMPTY : TileType.WALL;
+    }
+}
@@ -0,0 +1,112 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Generators.ParallelRunner;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ParallelRunnerTests extends TestBase {
+    @Test
+    public void invokeAll_FailingTask_ExpectsIllegalStateException() {
+        List<Callable<Integer>> tasks = createTasks(4);
+        tasks.add(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            exception.expect(IllegalStateException.class);
+            ParallelRunner.invokeAll(executor, tasks, "Test");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void invokeAll_NormalCase_ExpectsResultsInOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> results = ParallelRunner.invokeAll(executor, createTasks(8), "Test");
+
+            assertEquals("Number of results is incorrect!", 8, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("Result is incorrect!", Integer.valueOf(i), results.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void invokeFirst_NoResult_ExpectsNull() {
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return null;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertNull("There should be no result!", ParallelRunner.invokeFirst(executor, tasks, "Test"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void invokeFirst_OneResult_ExpectsResult() {
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 4; i++) {
+            final Integer result = i == 2 ? i : null;
+
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return result;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals("Result is incorrect!", Integer.valueOf(2), ParallelRunner.invokeFirst(executor, tasks, "Test"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param count The number of tasks.
+     * @return Tasks that each return their own index.
+     */
+    private static List<Callable<Integer>> createTasks(int count) {
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>(count);
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return index;
+                }
+            });
+        }
+
+        return tasks;
+    }
+}
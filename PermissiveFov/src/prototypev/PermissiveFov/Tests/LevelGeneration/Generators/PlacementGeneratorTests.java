@@ -0,0 +1,126 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Placement;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LevelGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.PlacementGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PlacementGeneratorTests extends TestBase {
+    @Test
+    public void computePathDistances_NormalCase_ExpectsStepsAroundWalls() {
+        // #######
+        // #.....#
+        // #####.#
+        // #.....#
+        // #######
+        Level level = new Level(7, 5);
+        for (int x = 1; x <= 5; x++) {
+            level.setTileTypeAt(x, 1, TileType.EMPTY);
+            level.setTileTypeAt(x, 3, TileType.EMPTY);
+        }
+        level.setTileTypeAt(5, 2, TileType.DOOR);
+
+        int[] distances = PlacementGenerator.computePathDistances(level, 1, 1);
+
+        assertEquals("Distance to the start is incorrect!", 0, distances[level.width + 1]);
+        assertEquals("Distance through the door is incorrect!", 10, distances[3 * level.width + 1]);
+        assertEquals("Distance to a wall is incorrect!", PlacementGenerator.UNREACHABLE, distances[2 * level.width + 1]);
+    }
+
+    @Test
+    public void computeWallDistances_NormalCase_ExpectsCityBlockDistances() {
+        Level level = new Level(7, 7);
+        for (int y = 1; y <= 5; y++) {
+            for (int x = 1; x <= 5; x++) {
+                level.setTileTypeAt(x, y, TileType.EMPTY);
+            }
+        }
+
+        int[] distances = PlacementGenerator.computeWallDistances(level);
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                int expected = Math.max(0, Math.min(Math.min(x, level.width - 1 - x), Math.min(y, level.height - 1 - y)));
+                assertEquals(String.format("Wall distance at (%d, %d) is incorrect!", x, y), expected, distances[y * level.width + x]);
+            }
+        }
+    }
+
+    @Test
+    public void constructor_InvalidArguments_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        new PlacementGenerator(-1);
+    }
+
+    @Test
+    public void generate_NoRooms_ExpectsCorridorPlacement() {
+        MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
+        RoomGenerator roomGenerator = new RoomGenerator(2, 3, 2, 3);
+        Level level = LevelGenerator.generate(10, 10, mazeGenerator, roomGenerator, 0);
+
+        Placement placement = new PlacementGenerator(3).generate(level);
+
+        assertEquals("Spawn point tile is incorrect!", TileType.EMPTY, level.getTileTypeAt(placement.spawnX, placement.spawnY));
+        assertEquals("Exit tile is incorrect!", TileType.EMPTY, level.getTileTypeAt(placement.exitX, placement.exitY));
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsConstraintsMet() {
+        MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
+        RoomGenerator roomGenerator = new RoomGenerator(2, 3, 2, 3);
+        Level level = LevelGenerator.generate(15, 15, mazeGenerator, roomGenerator, 5);
+
+        Placement placement = new PlacementGenerator(4).generate(level);
+
+        assertTrue("Spawn point should be in a room!", isInRoom(level, placement.spawnX, placement.spawnY));
+        assertTrue("Exit should be in a room!", isInRoom(level, placement.exitX, placement.exitY));
+
+        int[] distances = PlacementGenerator.computePathDistances(level, placement.spawnX, placement.spawnY);
+        int exitDistance = distances[placement.exitY * level.width + placement.exitX];
+        assertTrue("Exit should be reachable from the spawn point!", exitDistance > 0);
+
+        Set<Integer> positions = new HashSet<Integer>();
+        positions.add(placement.spawnY * level.width + placement.spawnX);
+        positions.add(placement.exitY * level.width + placement.exitX);
+
+        assertEquals("Number of items placed is incorrect!", 4, placement.getItemCount());
+        for (int i = 0; i < placement.getItemCount(); i++) {
+            int x = placement.getItemX(i);
+            int y = placement.getItemY(i);
+
+            assertEquals("Item tile is incorrect!", TileType.EMPTY, level.getTileTypeAt(x, y));
+            assertTrue("Item should be in a room!", isInRoom(level, x, y));
+            assertTrue("Item should be reachable from the spawn point!", distances[y * level.width + x] > 0);
+            assertTrue("Items should not share a tile with anything else!", positions.add(y * level.width + x));
+        }
+    }
+
+    /**
+     * @param level The level.
+     * @param x     The horizontal component.
+     * @param y     The vertical component.
+     * @return true if the tile is inside any of the level's rooms; otherwise false.
+     */
+    private static boolean isInRoom(Level level, int x, int y) {
+        for (int i = 0; i < level.getRoomCount(); i++) {
+            int left = level.getRoomLeft(i);
+            int top = level.getRoomTop(i);
+
+            if (x >= left && x < left + level.getRoomWidth(i) && y >= top && y < top + level.getRoomHeight(i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.Randomizer;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the speedup of parallel room placement over serial placement for an increasing number of threads,
+ * on a large map with large rooms. Not run as part of the unit tests.
+ * <p/>
+ * Usage: RoomGeneratorBenchmark [size] [numRooms] [maxRoomSize]
+ */
+public class RoomGeneratorBenchmark {
+    private static final int REPETITIONS = 3;
+    private static final long SEED = 1234;
+
+    private RoomGeneratorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int numRooms = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int maxRoomSize = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+
+        int coreCount = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%dx%d map, %d rooms of up to %dx%d cells, %d cores%n", size, size, numRooms, maxRoomSize, maxRoomSize, coreCount);
+
+        long serialTime = Long.MAX_VALUE;
+        Room serialContainer = null;
+        for (int i = 0; i < REPETITIONS; i++) {
+            Room container = generateMaze(size);
+
+            long start = System.nanoTime();
+            new RoomGenerator(2, maxRoomSize, 2, maxRoomSize).createRooms(container, numRooms);
+            serialTime = Math.min(serialTime, System.nanoTime() - start);
+
+            serialContainer = container;
+        }
+
+        System.out.printf("serial: %d ms%n", serialTime / 1000000);
+
+        for (int threadCount = 1; threadCount <= coreCount; threadCount *= 2) {
+            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+            try {
+                long parallelTime = Long.MAX_VALUE;
+                for (int i = 0; i < REPETITIONS; i++) {
+                    Room container = generateMaze(size);
+
+                    long start = System.nanoTime();
+                    new RoomGenerator(2, maxRoomSize, 2, maxRoomSize, executor, threadCount * 4).createRooms(container, numRooms);
+                    parallelTime = Math.min(parallelTime, System.nanoTime() - start);
+
+                    if (!isSamePlacement(serialContainer, container)) {
+                        throw new IllegalStateException("Parallel placement differs from serial placement!");
+                    }
+                }
+
+                System.out.printf("%d threads: %d ms, speedup %.2fx%n", threadCount, parallelTime / 1000000, (double) serialTime / parallelTime);
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * @param size The number of cells spanning the maze in each direction.
+     * @return The same maze every time.
+     */
+    private static Room generateMaze(int size) {
+        Randomizer.getInstance().setSeed(SEED);
+        return new MazeGenerator(30, 70).generate(0, 0, size, size);
+    }
+
+    /**
+     * @param expected The expected container.
+     * @param actual   The actual container.
+     * @return true if both containers have the same rooms in the same places; otherwise false.
+     */
+    private static boolean isSamePlacement(Room expected, Room actual) {
+        List<Room> expectedRooms = expected.getRooms();
+        List<Room> actualRooms = actual.getRooms();
+
+        if (expectedRooms.size() != actualRooms.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < expectedRooms.size(); i++) {
+            Room expectedRoom = expectedRooms.get(i);
+            Room actualRoom = actualRooms.get(i);
+
+            if (expectedRoom.getLeft() != actualRoom.getLeft() ||
+                    expectedRoom.getTop() != actualRoom.getTop() ||
+                    expectedRoom.width != actualRoom.width ||
+                    expectedRoom.height != actualRoom.height) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -3,21 +3,81 @@ package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.DirectionType;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
 import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
 import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.SideType;
 import prototypev.PermissiveFov.Randomizer;
 import prototypev.PermissiveFov.Tests.TestBase;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 import static prototypev.PermissiveFov.Tests.TestHelper.createCorridorInAllDirections;
+import static prototypev.PermissiveFov.Tests.TestHelper.createPrefab;
 
 public class RoomGeneratorTests extends TestBase {
     private int left;
     private int top;
 
+    @Test
+    public void createDoors_CorridorRun_ExpectsLastDoorOnly() {
+        Room container = Room.createFilledRoom(0, 0, 5, 3);
+
+        // Corridor along the whole top row
+        for (int x = 0; x < 4; x++) {
+            container.setCellSide(x, 0, DirectionType.EAST, SideType.EMPTY);
+        }
+
+        container.addRoom(Room.createWalledInRoom(0, 0, 3, 2), 1, 1);
+        RoomGenerator.createDoors(container);
+
+        assertEquals("North side of (1, 1) is incorrect!", SideType.WALL, container.getCellAt(1, 1).getSide(DirectionType.NORTH));
+        assertEquals("North side of (2, 1) is incorrect!", SideType.WALL, container.getCellAt(2, 1).getSide(DirectionType.NORTH));
+        assertEquals("North side of (3, 1) is incorrect!", SideType.DOOR, container.getCellAt(3, 1).getSide(DirectionType.NORTH));
+        assertEquals("West side of (1, 1) is incorrect!", SideType.WALL, container.getCellAt(1, 1).getSide(DirectionType.WEST));
+        assertEquals("East side of (3, 1) is incorrect!", SideType.WALL, container.getCellAt(3, 1).getSide(DirectionType.EAST));
+    }
+
+    @Test
+    public void createDoors_PrefabRoom_ExpectsDoorsAtFacingSlotsOnly() {
+        Room container = Room.createFilledRoom(0, 0, 5, 4);
+
+        // Corridor along the whole top row
+        for (int x = 0; x < 4; x++) {
+            container.setCellSide(x, 0, DirectionType.EAST, SideType.EMPTY);
+        }
+
+        container.addRoom(Room.createFromPrefab(0, 0, createPrefab()), 1, 1);
+        RoomGenerator.createDoors(container);
+
+        assertEquals("North side of (1, 1) is incorrect!", SideType.WALL, container.getCellAt(1, 1).getSide(DirectionType.NORTH));
+        assertEquals("North side of (2, 1) is incorrect!", SideType.DOOR, container.getCellAt(2, 1).getSide(DirectionType.NORTH));
+        assertEquals("North side of (3, 1) is incorrect!", SideType.WALL, container.getCellAt(3, 1).getSide(DirectionType.NORTH));
+        assertEquals("South side of (3, 2) is incorrect!", SideType.WALL, container.getCellAt(3, 2).getSide(DirectionType.SOUTH));
+    }
+
+    @Test
+    public void createDoors_SeparateCorridors_ExpectsDoorForEach() {
+        Room container = Room.createFilledRoom(0, 0, 5, 3);
+
+        // Two corridors along the top row, separated by rock at (2, 0)
+        container.setCellSide(0, 0, DirectionType.EAST, SideType.EMPTY);
+        container.setCellSide(3, 0, DirectionType.EAST, SideType.EMPTY);
+
+        container.addRoom(Room.createWalledInRoom(0, 0, 3, 2), 1, 1);
+        RoomGenerator.createDoors(container);
+
+        assertEquals("North side of (1, 1) is incorrect!", SideType.DOOR, container.getCellAt(1, 1).getSide(DirectionType.NORTH));
+        assertEquals("North side of (2, 1) is incorrect!", SideType.WALL, container.getCellAt(2, 1).getSide(DirectionType.NORTH));
+        assertEquals("North side of (3, 1) is incorrect!", SideType.DOOR, container.getCellAt(3, 1).getSide(DirectionType.NORTH));
+    }
+
     @Test
     public void createRooms_NormalCase_ExpectsValidRoomDimensions() {
         int minWidth = 2;
@@ -51,6 +111,59 @@ public class RoomGeneratorTests extends TestBase {
         System.out.println(container);
     }
 
+    @Test
+    public void createRooms_OnlyPrefabs_ExpectsPrefabRooms() {
+        Room container = new MazeGenerator(30, 70).generate(0, 0, 15, 15);
+        PrefabLibrary prefabs = new PrefabLibrary(Arrays.asList(createPrefab()));
+
+        new RoomGenerator(3, 3, 2, 2).createRooms(container, 4, prefabs, 100);
+
+        List<Room> rooms = container.getRooms();
+        assertEquals("Number of rooms placed do not match!", 4, rooms.size());
+
+        for (Room room : rooms) {
+            assertNotNull("Room should be created from a prefab!", room.getPrefab());
+        }
+    }
+
+    @Test
+    public void createRooms_Parallel_ExpectsSameRoomsAsSerial() {
+        final long seed = 42;
+
+        Randomizer.getInstance().setSeed(seed);
+        Room serialContainer = new MazeGenerator(30, 70).generate(0, 0, 20, 20);
+        new RoomGenerator(2, 6, 2, 6).createRooms(serialContainer, 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Randomizer.getInstance().setSeed(seed);
+            Room parallelContainer = new MazeGenerator(30, 70).generate(0, 0, 20, 20);
+            new RoomGenerator(2, 6, 2, 6, executor, 7).createRooms(parallelContainer, 10);
+
+            List<Room> serialRooms = serialContainer.getRooms();
+            List<Room> parallelRooms = parallelContainer.getRooms();
+            assertEquals("Number of rooms placed do not match!", serialRooms.size(), parallelRooms.size());
+
+            for (int i = 0; i < serialRooms.size(); i++) {
+                Room serialRoom = serialRooms.get(i);
+                Room parallelRoom = parallelRooms.get(i);
+
+                assertEquals("Room left is incorrect!", serialRoom.getLeft(), parallelRoom.getLeft());
+                assertEquals("Room top is incorrect!", serialRoom.getTop(), parallelRoom.getTop());
+                assertEquals("Room width is incorrect!", serialRoom.width, parallelRoom.width);
+                assertEquals("Room height is incorrect!", serialRoom.height, parallelRoom.height);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void createRooms_ZeroPartitions_ExpectsIllegalArgumentException() {
+        exception.expect(IllegalArgumentException.class);
+        new RoomGenerator(2, 5, 2, 5, null, 0);
+    }
+
     @Test
     public void getRoomPlacementScore_NormalCase_ExpectCorrectScore() {
         Room container = Room.createFilledRoom(top, left, 3, 3);
@@ -0,0 +1,58 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomPlacementScorer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.assertEquals;
+
+public class RoomPlacementScorerTests extends TestBase {
+    @Test
+    public void addRoom_NormalCase_ExpectsScoresStillMatchRoomGenerator() {
+        MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
+        Room container = mazeGenerator.generate(0, 0, 12, 10);
+
+        RoomPlacementScorer scorer = new RoomPlacementScorer(container);
+        scorer.addRoom(Room.createWalledInRoom(0, 0, 3, 2), 2, 3);
+        scorer.addRoom(Room.createWalledInRoom(0, 0, 2, 3), 8, 0);
+
+        // Overlapping an existing room
+        scorer.addRoom(Room.createWalledInRoom(0, 0, 2, 2), 3, 4);
+
+        assertScoresMatch(container, scorer, 2, 3);
+        assertScoresMatch(container, scorer, 3, 3);
+    }
+
+    @Test
+    public void getScore_NormalCase_ExpectsSameScoreAsRoomGenerator() {
+        MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
+        Room container = mazeGenerator.generate(0, 0, 12, 10);
+
+        RoomPlacementScorer scorer = new RoomPlacementScorer(container);
+
+        assertScoresMatch(container, scorer, 2, 3);
+        assertScoresMatch(container, scorer, 4, 1);
+    }
+
+    /**
+     * Asserts that the scorer gives the same score as {@link RoomGenerator#getRoomPlacementScore} everywhere.
+     *
+     * @param container  The containing room.
+     * @param scorer     The scorer for the container.
+     * @param roomWidth  The number of cells spanning the room horizontally.
+     * @param roomHeight The number of cells spanning the room vertically.
+     */
+    private static void assertScoresMatch(Room container, RoomPlacementScorer scorer, int roomWidth, int roomHeight) {
+        Room room = Room.createWalledInRoom(0, 0, roomWidth, roomHeight);
+
+        for (int y = 0; y < container.height; y++) {
+            for (int x = 0; x < container.width; x++) {
+                int expected = RoomGenerator.getRoomPlacementScore(container, room, x, y);
+                assertEquals(String.format("Score at (%d, %d) is incorrect!", x, y), expected, scorer.getScore(x, y, roomWidth, roomHeight));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Generators;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+import prototypev.PermissiveFov.LevelGeneration.Generators.WaveFunctionCollapseGenerator;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Randomizer;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import static org.junit.Assert.*;
+
+public class WaveFunctionCollapseGeneratorTests extends TestBase {
+    // The tile types of the default tileset, by global tile ID starting from 1
+    private static final String[] TILE_TYPES = new String[]{
+            "TILE_WALL_0*0*1011", "TILE_WALL_***11111", "TILE_WALL_0*01*110", "TILE_WALL_11111110",
+            "TILE_WALL_11111011", "TILE_WALL", "TILE_WALL_*11*1*11", "TILE_WALL_11111111",
+            "TILE_WALL_11*1*11*", "TILE_WALL_11011111", "TILE_WALL_01111111", "TILE_DOOR",
+            "TILE_WALL_011*10*0", "TILE_WALL_11111***", "TILE_WALL_1101*0*0", "TILE_EMPTY",
+            "TILE_GRAVESTONE"
+    };
+
+    @Test
+    public void addTile_InvalidPattern_ExpectsIllegalArgumentException() {
+        WaveFunctionCollapseGenerator generator = new WaveFunctionCollapseGenerator(1);
+
+        exception.expect(IllegalArgumentException.class);
+        generator.addTile(1, "TILE_WALL_1111");
+    }
+
+    @Test
+    public void generate_NoTiles_ExpectsIllegalStateException() {
+        WaveFunctionCollapseGenerator generator = new WaveFunctionCollapseGenerator(1);
+
+        exception.expect(IllegalStateException.class);
+        generator.generate(10, 10);
+    }
+
+    @Test
+    public void generate_NormalCase_ExpectsTilesMatchingTheirNeighbours() {
+        TiledLevel tiledLevel = createGenerator().generate(40, 30);
+        Level level = tiledLevel.level;
+
+        int emptyCount = 0;
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                String tileType = TILE_TYPES[tiledLevel.getTileIDAt(x, y) - 1];
+                boolean isBorder = x == 0 || y == 0 || x == level.width - 1 || y == level.height - 1;
+
+                if (tileType.equals(TileType.EMPTY.getName())) {
+                    assertFalse(String.format("Tile at (%d, %d) should be a wall!", x, y), isBorder);
+                    assertEquals(String.format("Tile type at (%d, %d) is incorrect!", x, y), TileType.EMPTY, level.getTileTypeAt(x, y));
+                    emptyCount++;
+                } else {
+                    assertEquals(String.format("Tile type at (%d, %d) is incorrect!", x, y), TileType.WALL, level.getTileTypeAt(x, y));
+                    assertTrue(String.format("Wall tile at (%d, %d) is incorrect!", x, y), getWallKey(level, x, y).matches(tileType.replace("*", "\\d")));
+                }
+            }
+        }
+
+        assertTrue("There should be empty tiles!", emptyCount > 0);
+    }
+
+    @Test
+    public void generate_SameSeed_ExpectsSameLevel() {
+        WaveFunctionCollapseGenerator generator = createGenerator();
+
+        Randomizer.getInstance().setSeed(5);
+        TiledLevel first = generator.generate(30, 20);
+
+        Randomizer.getInstance().setSeed(5);
+        TiledLevel second = generator.generate(30, 20);
+
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 30; x++) {
+                assertEquals(String.format("Tile ID at (%d, %d) is incorrect!", x, y), first.getTileIDAt(x, y), second.getTileIDAt(x, y));
+            }
+        }
+    }
+
+    private static WaveFunctionCollapseGenerator createGenerator() {
+        WaveFunctionCollapseGenerator generator = new WaveFunctionCollapseGenerator(8);
+
+        for (int i = 0; i < TILE_TYPES.length; i++) {
+            generator.onTileProperty(i + 1, "TileType", TILE_TYPES[i]);
+        }
+
+        return generator;
+    }
+
+    /**
+     * @return The wall key of a tile as the autotiler builds it, with outside the level counting as walls.
+     */
+    private static String getWallKey(Level level, int x, int y) {
+        StringBuilder key = new StringBuilder("TILE_WALL_");
+
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (dx != 0 || dy != 0) {
+                    boolean isWall = level.isOutOfBounds(x + dx, y + dy) || level.getTileTypeAt(x + dx, y + dy) == TileType.WALL;
+                    key.append(isWall ? '1' : '0');
+                }
+            }
+        }
+
+        return key.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Serialization;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+import prototypev.PermissiveFov.LevelGeneration.Generators.LevelGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.MazeGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Generators.RoomGenerator;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.LevelHeader;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.LevelWriter;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.MappedLevel;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class LevelSerializationTests extends TestBase {
+    @Test
+    public void open_NotALevel_ExpectsException() {
+        exception.expect(IllegalArgumentException.class);
+        MappedLevel.wrap(ByteBuffer.allocate(64));
+    }
+
+    @Test
+    public void wrap_Version1_ExpectsLevelRead() throws IOException {
+        Level level = generateLevel();
+
+        // Version 1 is laid out the same as a version 2 level without explored tiles
+        byte[] bytes = write(level, true);
+        bytes[4] = 0;
+        bytes[5] = 1;
+
+        MappedLevel mappedLevel = MappedLevel.wrap(ByteBuffer.wrap(bytes));
+        assertFalse("Version 1 level should not have explored tiles!", mappedLevel.hasExploredTiles());
+
+        assertLevelsEqual(level, mappedLevel);
+    }
+
+    @Test
+    public void write_Compressed_ExpectsSmallerThanUncompressed() throws IOException {
+        Level level = generateLevel();
+
+        int uncompressedSize = write(level, false).length;
+        int compressedSize = write(level, true).length;
+
+        assertTrue("Run-length encoding should never make the level larger!", compressedSize <= uncompressedSize);
+    }
+
+    @Test
+    public void write_Compressed_ExpectsSameLevelRead() throws IOException {
+        Level level = generateLevel();
+
+        MappedLevel mappedLevel = MappedLevel.wrap(ByteBuffer.wrap(write(level, true)));
+        assertLevelsEqual(level, mappedLevel);
+    }
+
+    @Test
+    public void write_Uncompressed_ExpectsSameLevelRead() throws IOException {
+        Level level = generateLevel();
+
+        MappedLevel mappedLevel = MappedLevel.wrap(ByteBuffer.wrap(write(level, false)));
+        assertLevelsEqual(level, mappedLevel);
+    }
+
+    @Test
+    public void write_Explored_ExpectsSameExploredTilesRead() throws IOException {
+        Level level = generateLevel();
+
+        TileBitSet visibleTiles = new TileBitSet(level.width, level.height);
+        for (int y = 3; y < 8; y++) {
+            for (int x = 2; x < 9; x++) {
+                visibleTiles.set(x, y, true);
+            }
+        }
+
+        level.explore(visibleTiles, 3, 5);
+
+        MappedLevel mappedLevel = MappedLevel.wrap(ByteBuffer.wrap(write(level, true)));
+        assertTrue("Level should have explored tiles!", mappedLevel.hasExploredTiles());
+
+        assertLevelsEqual(level, mappedLevel);
+    }
+
+    @Test
+    public void write_NormalCase_ExpectsSameHeaderRead() throws IOException {
+        Level level = new Level(5, 3);
+        level.setTileTypeAt(1, 1, TileType.EMPTY);
+        level.setTileTypeAt(2, 1, TileType.DOOR);
+        level.setTileTypeAt(3, 1, TileType.UNDEFINED);
+
+        LevelHeader header = new LevelHeader(42L, 30, 70, 2, 3, 4, 5, 6);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        LevelWriter.write(level, header, true, stream);
+
+        MappedLevel mappedLevel = MappedLevel.wrap(ByteBuffer.wrap(stream.toByteArray()));
+        LevelHeader mappedHeader = mappedLevel.getHeader();
+
+        assertEquals("Seed is incorrect!", 42L, mappedHeader.seed);
+        assertEquals("Randomness is incorrect!", 30, mappedHeader.randomness);
+        assertEquals("Sparseness is incorrect!", 70, mappedHeader.sparseness);
+        assertEquals("Minimum room width is incorrect!", 2, mappedHeader.minRoomWidth);
+        assertEquals("Maximum room width is incorrect!", 3, mappedHeader.maxRoomWidth);
+        assertEquals("Minimum room height is incorrect!", 4, mappedHeader.minRoomHeight);
+        assertEquals("Maximum room height is incorrect!", 5, mappedHeader.maxRoomHeight);
+        assertEquals("Number of rooms is incorrect!", 6, mappedHeader.numRooms);
+
+        assertLevelsEqual(level, mappedLevel);
+    }
+
+    /**
+     * Asserts that the mapped level has the same dimensions, tiles, rooms and explored tiles as the level.
+     *
+     * @param level       The expected level.
+     * @param mappedLevel The actual level.
+     */
+    private static void assertLevelsEqual(Level level, MappedLevel mappedLevel) {
+        assertEquals("Level width is incorrect!", level.width, mappedLevel.width);
+        assertEquals("Level height is incorrect!", level.height, mappedLevel.height);
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                assertEquals(String.format("Tile at (%d, %d) is incorrect!", x, y), level.getTileTypeAt(x, y), mappedLevel.getTileTypeAt(x, y));
+            }
+        }
+
+        assertEquals("Number of rooms is incorrect!", level.getRoomCount(), mappedLevel.getRoomCount());
+        for (int i = 0; i < level.getRoomCount(); i++) {
+            assertEquals("Room bounds are incorrect!", level.getRoomLeft(i), mappedLevel.getRoomLeft(i));
+            assertEquals("Room bounds are incorrect!", level.getRoomTop(i), mappedLevel.getRoomTop(i));
+            assertEquals("Room bounds are incorrect!", level.getRoomWidth(i), mappedLevel.getRoomWidth(i));
+            assertEquals("Room bounds are incorrect!", level.getRoomHeight(i), mappedLevel.getRoomHeight(i));
+        }
+
+        Level decodedLevel = mappedLevel.toLevel();
+        assertEquals("Decoded level is incorrect!", level.toString(), decodedLevel.toString());
+
+        TileBitSet exploredTiles = level.getExploredTiles();
+        TileBitSet decodedExploredTiles = decodedLevel.getExploredTiles();
+        for (int i = 0; i < exploredTiles.getWordCount(); i++) {
+            assertEquals("Explored tiles are incorrect!", exploredTiles.getWord(i), decodedExploredTiles.getWord(i));
+        }
+    }
+
+    /**
+     * @return A generated level.
+     */
+    private static Level generateLevel() {
+        MazeGenerator mazeGenerator = new MazeGenerator(30, 70);
+        RoomGenerator roomGenerator = new RoomGenerator(2, 3, 2, 3);
+
+        return LevelGenerator.generate(15, 15, mazeGenerator, roomGenerator, 5);
+    }
+
+    /**
+     * @param level    The level to write.
+     * @param compress true to run-length encode rows.
+     * @return The serialized level.
+     * @throws IOException If the level cannot be written.
+     */
+    private static byte[] write(Level level, boolean compress) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        LevelWriter.write(level, new LevelHeader(0L, 30, 70, 2, 3, 2, 3, 5), compress, stream);
+
+        return stream.toByteArray();
+    }
+}
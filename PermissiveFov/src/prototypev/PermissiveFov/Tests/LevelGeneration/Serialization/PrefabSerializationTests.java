@@ -0,0 +1,44 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Serialization;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
+import prototypev.PermissiveFov.LevelGeneration.Entities.PrefabLibrary;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.PrefabReader;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.PrefabWriter;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static prototypev.PermissiveFov.Tests.TestHelper.createPrefab;
+
+public class PrefabSerializationTests extends TestBase {
+    @Test
+    public void read_NotAPrefabLibrary_ExpectsIOException() throws IOException {
+        exception.expect(IOException.class);
+        PrefabReader.read(new ByteArrayInputStream(new byte[16]));
+    }
+
+    @Test
+    public void write_NormalCase_ExpectsSamePrefabsRead() throws IOException {
+        TileType[] tileOverrides = new TileType[5 * 5];
+        Arrays.fill(tileOverrides, TileType.UNDEFINED);
+        tileOverrides[12] = TileType.WALL;
+
+        Prefab pillar = Prefab.fromRoom(Room.createWalledInRoom(0, 0, 2, 2), tileOverrides);
+        PrefabLibrary library = new PrefabLibrary(Arrays.asList(createPrefab(), pillar));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrefabWriter.write(library, outputStream);
+        PrefabLibrary readLibrary = PrefabReader.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertEquals("Prefabs are incorrect!", library.getPrefabs(), readLibrary.getPrefabs());
+        assertEquals("Tile override is incorrect!", TileType.WALL, readLibrary.getPrefabs(2, 2).get(0).getTileOverride(2, 2));
+        assertEquals("Tile override is incorrect!", TileType.UNDEFINED, readLibrary.getPrefabs(2, 2).get(0).getTileOverride(1, 1));
+    }
+}
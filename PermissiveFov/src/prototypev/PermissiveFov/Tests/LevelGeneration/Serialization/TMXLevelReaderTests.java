@@ -0,0 +1,66 @@
+package prototypev.PermissiveFov.Tests.LevelGeneration.Serialization;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TiledLevel;
+import prototypev.PermissiveFov.LevelGeneration.Serialization.TMXLevelReader;
+import prototypev.PermissiveFov.LevelGeneration.TileType;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TMXLevelReaderTests extends TestBase {
+    @Test
+    public void read_Base64_ExpectsTilesRead() throws IOException {
+        TiledLevel tiledLevel = read("<data encoding=\"base64\">\n   AQAAAAIAAAAB\nAACAAwAAAA==\n</data>");
+        assertTiles(tiledLevel);
+    }
+
+    @Test
+    public void read_Csv_ExpectsTilesRead() throws IOException {
+        TiledLevel tiledLevel = read("<data encoding=\"csv\">\n1,2,\n2147483649,3\n</data>");
+        assertTiles(tiledLevel);
+    }
+
+    @Test
+    public void read_CsvMissingTiles_ExpectsIOException() throws IOException {
+        exception.expect(IOException.class);
+        read("<data encoding=\"csv\">\n1,2,\n1\n</data>");
+    }
+
+    /**
+     * @param tiledLevel The tiled level read from a map with tile IDs 1, 2, 1 flipped, and 3.
+     */
+    private static void assertTiles(TiledLevel tiledLevel) {
+        assertEquals("Tile ID is incorrect!", 1, tiledLevel.getTileIDAt(0, 0));
+        assertEquals("Tile ID is incorrect!", 2, tiledLevel.getTileIDAt(1, 0));
+        assertEquals("Tile ID is incorrect!", 1, tiledLevel.getTileIDAt(0, 1));
+        assertEquals("Tile ID is incorrect!", 3, tiledLevel.getTileIDAt(1, 1));
+
+        assertEquals("Tile type is incorrect!", TileType.WALL, tiledLevel.level.getTileTypeAt(0, 0));
+        assertEquals("Tile type is incorrect!", TileType.EMPTY, tiledLevel.level.getTileTypeAt(1, 0));
+        assertEquals("Tile type is incorrect!", TileType.WALL, tiledLevel.level.getTileTypeAt(0, 1));
+        assertEquals("Tile type is incorrect!", TileType.UNDEFINED, tiledLevel.level.getTileTypeAt(1, 1));
+    }
+
+    /**
+     * @param data The data element of the background layer of a 2x2 map.
+     * @return The tiled level read from the map.
+     */
+    private static TiledLevel read(String data) throws IOException {
+        String map = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<map width=\"2\" height=\"2\" tilewidth=\"32\" tileheight=\"32\">\n" +
+                " <tileset firstgid=\"1\" name=\"Tiles\" tilewidth=\"32\" tileheight=\"32\">\n" +
+                "  <tile id=\"0\"><properties><property name=\"TileType\" value=\"TILE_WALL_11111111\"/></properties></tile>\n" +
+                "  <tile id=\"1\"><properties><property name=\"TileType\" value=\"TILE_EMPTY\"/></properties></tile>\n" +
+                " </tileset>\n" +
+                " <layer name=\"Background\" width=\"2\" height=\"2\">\n" +
+                "  " + data + "\n" +
+                " </layer>\n" +
+                "</map>\n";
+
+        return TMXLevelReader.read(new ByteArrayInputStream(map.getBytes("UTF-8")));
+    }
+}
@@ -0,0 +1,52 @@
+package prototypev.PermissiveFov.Tests;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.Randomizer;
+
+import static org.junit.Assert.*;
+
+public class RandomizerTests extends TestBase {
+    @Test
+    public void runSeeded_Nested_ExpectsOuterInstanceRestored() {
+        final Randomizer threadInstance = new Randomizer(7);
+        Randomizer.setThreadInstance(threadInstance);
+
+        Randomizer outerInstance = Randomizer.runSeeded(42, new Randomizer.ISeededTask<Randomizer>() {
+            @Override
+            public Randomizer run() {
+                final Randomizer instance = Randomizer.getInstance();
+
+                Randomizer.runSeeded(43, new Randomizer.ISeededTask<Randomizer>() {
+                    @Override
+                    public Randomizer run() {
+                        assertNotSame("Randomizer is incorrect!", instance, Randomizer.getInstance());
+                        return Randomizer.getInstance();
+                    }
+                });
+
+                assertSame("Randomizer is incorrect!", instance, Randomizer.getInstance());
+                return instance;
+            }
+        });
+
+        Randomizer restoredInstance = Randomizer.getInstance();
+        Randomizer.setThreadInstance(null);
+
+        assertNotSame("Randomizer is incorrect!", threadInstance, outerInstance);
+        assertSame("Randomizer is incorrect!", threadInstance, restoredInstance);
+    }
+
+    @Test
+    public void runSeeded_NormalCase_ExpectsSeededInstance() {
+        Randomizer sharedInstance = Randomizer.getInstance();
+        Randomizer.ISeededTask<Long> task = new Randomizer.ISeededTask<Long>() {
+            @Override
+            public Long run() {
+                return Randomizer.getInstance().nextLong();
+            }
+        };
+
+        assertEquals("Result is incorrect!", new Randomizer(42).nextLong(), (long) Randomizer.runSeeded(42, task));
+        assertSame("Randomizer is incorrect!", sharedInstance, Randomizer.getInstance());
+    }
+}
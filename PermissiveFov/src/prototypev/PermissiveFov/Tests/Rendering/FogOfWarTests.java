@@ -0,0 +1,85 @@
+package prototypev.PermissiveFov.Tests.Rendering;
+
+import org.junit.Test;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Level;
+import prototypev.PermissiveFov.LevelGeneration.Entities.TileBitSet;
+import prototypev.PermissiveFov.Rendering.FogOfWar;
+import prototypev.PermissiveFov.Tests.TestBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FogOfWarTests extends TestBase {
+    @Test
+    public void getAlpha_NormalCase_ExpectsUnexploredHidden() {
+        FogOfWar fogOfWar = new FogOfWar(new Level(8, 8));
+
+        assertEquals("Alpha is incorrect!", 1, fogOfWar.getAlpha(3, 3), 0);
+    }
+
+    @Test
+    public void update_NoLongerVisible_ExpectsExploredDimmed() {
+        Level level = new Level(8, 8);
+        FogOfWar fogOfWar = new FogOfWar(level);
+
+        TileBitSet visibleTiles = new TileBitSet(level.width, level.height);
+        visibleTiles.set(3, 3, true);
+        update(level, fogOfWar, visibleTiles, 3, 1);
+
+        visibleTiles.clear();
+        visibleTiles.set(4, 5, true);
+        List<Integer> changedTiles = update(level, fogOfWar, visibleTiles, 5, 1);
+
+        assertEquals("Alpha is incorrect!", 0.5f, fogOfWar.getAlpha(3, 3), 0);
+        assertEquals("Alpha is incorrect!", 0, fogOfWar.getAlpha(4, 5), 0);
+        assertTrue("Tile (3, 3) should have changed!", changedTiles.contains(3 * level.width + 3));
+    }
+
+    @Test
+    public void update_VisibleTiles_ExpectsFogCleared() {
+        Level level = new Level(8, 8);
+        FogOfWar fogOfWar = new FogOfWar(level);
+
+        TileBitSet visibleTiles = new TileBitSet(level.width, level.height);
+        visibleTiles.set(2, 3, true);
+        visibleTiles.set(3, 3, true);
+        visibleTiles.set(3, 4, true);
+        List<Integer> changedTiles = update(level, fogOfWar, visibleTiles, 3, 2);
+
+        for (int y = 0; y < level.height; y++) {
+            for (int x = 0; x < level.width; x++) {
+                boolean isVisible = visibleTiles.get(x, y);
+
+                assertEquals(String.format("Alpha of (%d, %d) is incorrect!", x, y), isVisible ? 0 : 1, fogOfWar.getAlpha(x, y), 0);
+                assertEquals(String.format("Tile (%d, %d) should only change if it is visible!", x, y), isVisible, changedTiles.contains(y * level.width + x));
+            }
+        }
+    }
+
+    /**
+     * Explores the visible tiles and updates the fog of war, as the game scene does.
+     *
+     * @param level        The level.
+     * @param fogOfWar     The fog of war.
+     * @param visibleTiles The tiles that are visible.
+     * @param top          The first row holding visible tiles.
+     * @param height       The number of rows holding visible tiles.
+     * @return The index of each tile whose alpha changed.
+     */
+    private static List<Integer> update(Level level, FogOfWar fogOfWar, TileBitSet visibleTiles, int top, int height) {
+        final int width = level.width;
+        final List<Integer> changedTiles = new ArrayList<Integer>();
+
+        level.explore(visibleTiles, top, height);
+        fogOfWar.update(visibleTiles, top, height, new FogOfWar.ITileListener() {
+            @Override
+            public void onTileChanged(int x, int y) {
+                changedTiles.add(y * width + x);
+            }
+        });
+
+        return changedTiles;
+    }
+}
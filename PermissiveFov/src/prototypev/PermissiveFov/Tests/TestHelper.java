@@ -2,6 +2,7 @@ package prototypev.PermissiveFov.Tests;
 
 import prototypev.PermissiveFov.LevelGeneration.DirectionType;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Cell;
+import prototypev.PermissiveFov.LevelGeneration.Entities.Prefab;
 import prototypev.PermissiveFov.LevelGeneration.Entities.Room;
 import prototypev.PermissiveFov.LevelGeneration.SideType;
 
@@ -35,6 +36,21 @@ public class TestHelper {
         }
     }
 
+    /**
+     * Creates a prefab 3 cells wide and 2 cells high, with a wall between (1, 0) and (1, 1),
+     * and door slots on the north side of (1, 0) and the south side of (2, 1).
+     *
+     * @return The prefab.
+     */
+    public static Prefab createPrefab() {
+        Room room = Room.createWalledInRoom(0, 0, 3, 2);
+        room.setCellSide(1, 0, DirectionType.SOUTH, SideType.WALL);
+        room.setCellSide(1, 0, DirectionType.NORTH, SideType.DOOR);
+        room.setCellSide(2, 1, DirectionType.SOUTH, SideType.DOOR);
+
+        return Prefab.fromRoom(room, null);
+    }
+
     /**
      * Creates a corridor in all directions in the specified room at the specified co-ordinates.
      *